@@ -662,4 +662,14 @@ public interface KeyValueService extends AutoCloseable, AsyncKeyValueService {
     default boolean shouldTriggerCompactions() {
         return false;
     }
+
+    /**
+     * Whether {@link #deleteAllTimestamps(TableReference, Map)} deletes each range of timestamps without first reading
+     * the timestamps in it, making it cheaper than {@link #delete(TableReference, Multimap)} for deleting many
+     * timestamps of the same cells.
+     */
+    @DoDelegate
+    default boolean supportsEfficientTimestampRangeDeletes() {
+        return false;
+    }
 }
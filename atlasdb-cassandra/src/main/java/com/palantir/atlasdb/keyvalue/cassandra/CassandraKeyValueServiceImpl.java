@@ -190,6 +190,11 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
             return CassandraKeyValueServiceImpl.this.shouldTriggerCompactions();
         }
 
+        @Override
+        public boolean supportsEfficientTimestampRangeDeletes() {
+            return CassandraKeyValueServiceImpl.this.supportsEfficientTimestampRangeDeletes();
+        }
+
         @Override
         public CassandraClientPool getClientPool() {
             return CassandraKeyValueServiceImpl.this.getClientPool();
@@ -2018,6 +2023,11 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
         return true;
     }
 
+    @Override
+    public boolean supportsEfficientTimestampRangeDeletes() {
+        return true;
+    }
+
     /**
      * Asynchronously gets values from the cassandra key-value store.
      *
@@ -24,6 +24,7 @@ import com.palantir.atlasdb.cli.command.KvsMigrationCommand;
 import com.palantir.atlasdb.cli.command.ReadPunchTableCommand;
 import com.palantir.atlasdb.cli.command.ScrubQueueMigrationCommand;
 import com.palantir.atlasdb.cli.command.SweepCommand;
+import com.palantir.atlasdb.cli.command.TrainCompressionDictionaryCommand;
 import com.palantir.atlasdb.cli.command.timestamp.CleanTransactionRange;
 import com.palantir.atlasdb.cli.command.timestamp.FastForwardTimestamp;
 import com.palantir.atlasdb.cli.command.timestamp.FetchTimestamp;
@@ -45,7 +46,8 @@ public final class AtlasCli {
                 .withCommand(SweepCommand.class)
                 .withCommand(KvsMigrationCommand.class)
                 .withCommand(ScrubQueueMigrationCommand.class)
-                .withCommand(ReadPunchTableCommand.class);
+                .withCommand(ReadPunchTableCommand.class)
+                .withCommand(TrainCompressionDictionaryCommand.class);
 
         builder.withGroup("timestamp")
                 .withDescription("Timestamp-centric commands")
@@ -0,0 +1,180 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.cli.command;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.palantir.atlasdb.compress.CompressionDictionaries;
+import com.palantir.atlasdb.compress.CompressionDictionary;
+import com.palantir.atlasdb.compress.CompressionDictionaryTrainer;
+import com.palantir.atlasdb.compress.CompressionUtils;
+import com.palantir.atlasdb.compress.KeyValueServiceCompressionDictionaryStore;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.ColumnSelection;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.services.AtlasDbServices;
+import com.palantir.atlasdb.table.description.ColumnMetadataDescription;
+import com.palantir.atlasdb.table.description.ColumnValueDescription;
+import com.palantir.atlasdb.table.description.NamedColumnDescription;
+import com.palantir.atlasdb.table.description.TableMetadata;
+import com.palantir.common.base.ClosableIterator;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.UnsafeArg;
+
+import io.airlift.airline.Command;
+import io.airlift.airline.Option;
+import io.airlift.airline.OptionType;
+
+@Command(name = "train-compression-dictionary", description = "Sample the values of a column, train a compression"
+        + " dictionary on them and store it. The dictionary is used for new writes to the column, which must be DEFLATE"
+        + " compressed, once clients are restarted.")
+public class TrainCompressionDictionaryCommand extends SingleBackendCommand {
+    private static final int DEFAULT_SAMPLES = 10_000;
+    private static final int DEFAULT_MAX_DICTIONARY_SIZE = 16 * 1024;
+
+    @Option(name = {"-t", "--table"},
+            title = "TABLE",
+            type = OptionType.COMMAND,
+            description = "The fully qualified name of the table to sample.",
+            required = true)
+    String tableName;
+
+    @Option(name = {"-c", "--column"},
+            title = "COLUMN",
+            type = OptionType.COMMAND,
+            description = "The short name of the column to sample. Required if the table has several named columns.")
+    String columnName;
+
+    @Option(name = {"--samples"},
+            title = "SAMPLES",
+            type = OptionType.COMMAND,
+            description = "The maximum number of values to sample, defaults to 10000.")
+    Integer samples;
+
+    @Option(name = {"--max-dictionary-size"},
+            title = "BYTES",
+            type = OptionType.COMMAND,
+            description = "The maximum size of the dictionary in bytes, defaults to 16384 and at most 32768.")
+    Integer maxDictionarySize;
+
+    @Override
+    public boolean isOnlineRunSupported() {
+        return true;
+    }
+
+    @Override
+    public int execute(AtlasDbServices services) {
+        long trainedAtTimestamp = services.getManagedTimestampService().getFreshTimestamp();
+        CompressionDictionary dictionary = run(
+                services.getKeyValueService(),
+                TableReference.createFromFullyQualifiedName(tableName),
+                columnName,
+                MoreObjects.firstNonNull(samples, DEFAULT_SAMPLES),
+                MoreObjects.firstNonNull(maxDictionarySize, DEFAULT_MAX_DICTIONARY_SIZE),
+                trainedAtTimestamp);
+        PrintWriter output = new PrintWriter(System.out, true);
+        output.println("Stored compression dictionary " + dictionary.getId() + " of " + dictionary.getBytes().length
+                + " bytes for column " + dictionary.getKey() + ".");
+        return 0;
+    }
+
+    public static CompressionDictionary run(KeyValueService kvs, TableReference tableRef, String columnName,
+            int maxSamples, int maxDictionarySize, long trainedAtTimestamp) {
+        Preconditions.checkArgument(maxSamples > 0, "The number of samples must be positive");
+        ColumnMetadataDescription columns = getColumns(kvs, tableRef);
+        NamedColumnDescription namedColumn = columns.hasDynamicColumns()
+                ? null
+                : getNamedColumn(columns, tableRef, columnName);
+        String sampledColumn = namedColumn == null ? null : namedColumn.getShortName();
+        ColumnValueDescription valueDescription = namedColumn == null
+                ? columns.getDynamicColumn().getValue()
+                : namedColumn.getValue();
+        Preconditions.checkArgument(valueDescription.getCompression() == ColumnValueDescription.Compression.DEFLATE,
+                "Only DEFLATE compressed columns use compression dictionaries",
+                UnsafeArg.of("table", tableRef), UnsafeArg.of("column", sampledColumn));
+
+        KeyValueServiceCompressionDictionaryStore store = KeyValueServiceCompressionDictionaryStore.create(kvs);
+        List<byte[]> sampledValues = sample(kvs, tableRef, sampledColumn, store.loadDictionaries(), maxSamples);
+        byte[] trained = CompressionDictionaryTrainer.train(sampledValues, maxDictionarySize);
+        Preconditions.checkState(trained.length > 0, "The sampled values have no content in common",
+                SafeArg.of("samples", sampledValues.size()));
+
+        String key = sampledColumn == null
+                ? CompressionDictionary.keyForDynamicColumns(tableRef)
+                : CompressionDictionary.keyFor(tableRef, sampledColumn);
+        CompressionDictionary dictionary = CompressionDictionary.create(key, trained);
+        store.put(dictionary, trainedAtTimestamp);
+        return dictionary;
+    }
+
+    private static ColumnMetadataDescription getColumns(KeyValueService kvs, TableReference tableRef) {
+        byte[] metadata = kvs.getMetadataForTable(tableRef);
+        Preconditions.checkArgument(metadata != null && metadata.length > 0, "Table has no metadata",
+                UnsafeArg.of("table", tableRef));
+        return TableMetadata.BYTES_HYDRATOR.hydrateFromBytes(metadata).getColumns();
+    }
+
+    private static NamedColumnDescription getNamedColumn(ColumnMetadataDescription columns, TableReference tableRef,
+            String columnName) {
+        Set<NamedColumnDescription> namedColumns = columns.getNamedColumns();
+        if (columnName == null) {
+            Preconditions.checkArgument(namedColumns.size() == 1,
+                    "A column must be specified for tables with several named columns");
+            return Iterables.getOnlyElement(namedColumns);
+        }
+        List<NamedColumnDescription> matching = namedColumns.stream()
+                .filter(column -> column.getShortName().equals(columnName))
+                .collect(Collectors.toList());
+        Preconditions.checkArgument(matching.size() == 1, "Table has no such column",
+                UnsafeArg.of("table", tableRef), UnsafeArg.of("column", columnName));
+        return matching.get(0);
+    }
+
+    private static List<byte[]> sample(KeyValueService kvs, TableReference tableRef, String columnName,
+            CompressionDictionaries dictionaries, int maxSamples) {
+        RangeRequest.Builder range = RangeRequest.builder().batchHint(Math.min(maxSamples, 1000));
+        if (columnName != null) {
+            range.retainColumns(ColumnSelection.create(ImmutableList.of(PtBytes.toCachedBytes(columnName))));
+        }
+
+        List<byte[]> sampledValues = new ArrayList<>();
+        try (ClosableIterator<RowResult<Value>> rows = kvs.getRange(tableRef, range.build(), Long.MAX_VALUE)) {
+            while (rows.hasNext() && sampledValues.size() < maxSamples) {
+                for (Map.Entry<byte[], Value> column : rows.next().getColumns().entrySet()) {
+                    byte[] contents = column.getValue().getContents();
+                    if (contents.length > 0 && sampledValues.size() < maxSamples) {
+                        sampledValues.add(CompressionUtils.decompress(
+                                contents, ColumnValueDescription.Compression.DEFLATE, dictionaries));
+                    }
+                }
+            }
+        }
+        return sampledValues;
+    }
+}
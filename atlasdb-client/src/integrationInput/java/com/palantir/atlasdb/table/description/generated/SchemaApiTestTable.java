@@ -757,6 +757,71 @@ public final class SchemaApiTestTable implements
         return rangeResults.map(visitable -> BatchingVisitables.transform(visitable, SchemaApiTestRowResult::of));
     }
 
+    public SchemaApiTestScan scan() {
+        return new SchemaApiTestScan();
+    }
+
+    public final class SchemaApiTestScan {
+        private final RangeRequest.Builder range = RangeRequest.builder();
+        private ColumnSelection columns = allColumns;
+
+        private SchemaApiTestScan() {
+            // use scan()
+        }
+
+        public SchemaApiTestScan columns(SchemaApiTestNamedColumn... cols) {
+            return columns(Arrays.asList(cols));
+        }
+
+        public SchemaApiTestScan columns(Collection<SchemaApiTestNamedColumn> cols) {
+            columns = getColumnSelection(cols);
+            return this;
+        }
+
+        public SchemaApiTestScan prefix(Prefix prefix) {
+            range.prefixRange(prefix.getBytes());
+            return this;
+        }
+
+        public SchemaApiTestScan startRowInclusive(SchemaApiTestRow row) {
+            range.startRowInclusive(row);
+            return this;
+        }
+
+        public SchemaApiTestScan startRowInclusive(Prefix prefix) {
+            range.startRowInclusive(prefix);
+            return this;
+        }
+
+        public SchemaApiTestScan endRowExclusive(SchemaApiTestRow row) {
+            range.endRowExclusive(row);
+            return this;
+        }
+
+        public SchemaApiTestScan endRowExclusive(Prefix prefix) {
+            range.endRowExclusive(prefix);
+            return this;
+        }
+
+        public SchemaApiTestScan batchHint(int batchHint) {
+            range.batchHint(batchHint);
+            return this;
+        }
+
+        public RangeRequest toRangeRequest() {
+            return range.build().getBuilder().retainColumns(columns).build();
+        }
+
+        public BatchingVisitableView<SchemaApiTestRowResult> visitable() {
+            return getRange(toRangeRequest());
+        }
+
+        public Stream<SchemaApiTestRowResult> stream() {
+            return com.palantir.atlasdb.table.generation.RangeScans.stream(t, tableRef, toRangeRequest())
+                    .map(SchemaApiTestRowResult::of);
+        }
+    }
+
     public void deleteRange(RangeRequest range) {
         deleteRanges(ImmutableSet.of(range));
     }
@@ -871,5 +936,5 @@ public final class SchemaApiTestTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "HBa5VSDm5ILOPjm5G2dktQ==";
+    static String __CLASS_HASH = "gGPPNubevpRa+mRql2cv4Q==";
 }
@@ -41,6 +41,8 @@ public final class AtlasDbConstants {
     public static final TableReference PERSISTED_LOCKS_TABLE = TableReference.createWithEmptyNamespace(
             "_persisted_locks");
     public static final TableReference COORDINATION_TABLE = TableReference.createWithEmptyNamespace("_coordination");
+    public static final TableReference COMPRESSION_DICTIONARY_TABLE = TableReference.createWithEmptyNamespace(
+            "_compression_dictionaries");
 
     public static final TableReference DEFAULT_METADATA_TABLE = TableReference.createWithEmptyNamespace("_metadata");
     public static final TableReference DEFAULT_ORACLE_METADATA_TABLE = TableReference.createWithEmptyNamespace(
@@ -104,6 +106,7 @@ public final class AtlasDbConstants {
             PERSISTED_LOCKS_TABLE,
             SWEEP_PROGRESS_TABLE,
             COORDINATION_TABLE,
+            COMPRESSION_DICTIONARY_TABLE,
             DEFAULT_SCHEMA_METADATA_TABLE,
             SWEEP_PROGRESS_V2,
             SWEEP_PROGRESS_V1_5);
@@ -129,6 +132,8 @@ public final class AtlasDbConstants {
     public static final int DEFAULT_BACKGROUND_SCRUB_READ_THREADS = 8;
     public static final long DEFAULT_BACKGROUND_SCRUB_FREQUENCY_MILLIS = 5 * 60 * 1000; // 5 minutes
     public static final int DEFAULT_BACKGROUND_SCRUB_BATCH_SIZE = 2000;
+    public static final int DEFAULT_BACKGROUND_SCRUB_MAX_CELLS_IN_FLIGHT = 100_000;
+    public static final long DEFAULT_BACKGROUND_SCRUB_MAX_KEY_BYTES_DELETED_PER_SECOND = Long.MAX_VALUE; // unlimited
     public static final long SCRUBBER_RETRY_DELAY_MILLIS = 500L;
     public static final char OLD_SCRUB_TABLE_SEPARATOR_CHAR = '\0';
 
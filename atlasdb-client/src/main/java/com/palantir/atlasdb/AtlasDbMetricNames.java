@@ -55,6 +55,7 @@ public final class AtlasDbMetricNames {
     public static final String TIMELOCK_FAILED_REQUEST = "timelockFailedRequest";
 
     public static final String TAG_STRATEGY = "strategy";
+    public static final String TAG_SHARD = "shard";
     public static final String TAG_CONSERVATIVE = "conservative";
     public static final String TAG_THOROUGH = "thorough";
     public static final String ENQUEUED_WRITES = "enqueuedWrites";
@@ -74,6 +75,7 @@ public final class AtlasDbMetricNames {
             LAST_SWEPT_TS,
             LAG_MILLIS,
             BATCH_SIZE_MEAN);
+    public static final String SHARD_TIMESTAMP_LAG = "shardTimestampLag";
 
     public static final String SWEEP_OUTCOME = "outcome";
     public static final String TAG_OUTCOME = "status";
@@ -82,6 +84,8 @@ public final class AtlasDbMetricNames {
     public static final String DELETED_CELLS = "deletedCells";
     public static final String SCRUBBED_CELLS = "scrubbedCells";
     public static final String SCRUB_RETRIES = "retriedBatches";
+    public static final String SCRUB_BACKLOG = "scrubBacklogCells";
+    public static final String SCRUB_DELETED_KEY_BYTES = "deletedKeyBytes";
 
     public static final String TAG_CURRENT_SUSPECTED_LEADER = "isCurrentSuspectedLeader";
     public static final String TAG_CLIENT = "client";
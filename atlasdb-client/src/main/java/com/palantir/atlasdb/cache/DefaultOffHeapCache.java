@@ -51,10 +51,6 @@ import okio.ByteString;
 public final class DefaultOffHeapCache<K, V> implements OffHeapCache<K, V> {
     private static final Logger log = LoggerFactory.getLogger(DefaultOffHeapCache.class);
     private static final String BATCHER_PURPOSE = "off-heap-cache";
-    private static final MetricName CACHE_HIT = constructCacheMetricName("cacheHit");
-    private static final MetricName CACHE_MISS = constructCacheMetricName("cacheMiss");
-    private static final MetricName CACHE_NUKE = constructCacheMetricName("cacheNuke");
-    private static final MetricName CACHE_SIZE = constructCacheMetricName("cacheSize");
 
     private final PersistentStore persistentStore;
     private final EntryMapper<K, V> entryMapper;
@@ -76,7 +72,8 @@ public final class DefaultOffHeapCache<K, V> implements OffHeapCache<K, V> {
             PersistentStore persistentStore,
             EntryMapper<K, V> entryMapper,
             TaggedMetricRegistry taggedMetricRegistry,
-            LongSupplier maxSize) {
+            LongSupplier maxSize,
+            String cacheName) {
         PersistentStore.Handle handle = persistentStore.createSpace();
 
         CacheDescriptor cacheDescriptor = ImmutableCacheDescriptor.builder()
@@ -89,7 +86,8 @@ public final class DefaultOffHeapCache<K, V> implements OffHeapCache<K, V> {
                 entryMapper,
                 cacheDescriptor,
                 maxSize,
-                taggedMetricRegistry);
+                taggedMetricRegistry,
+                cacheName);
     }
 
     private DefaultOffHeapCache(
@@ -97,19 +95,20 @@ public final class DefaultOffHeapCache<K, V> implements OffHeapCache<K, V> {
             EntryMapper<K, V> entryMapper,
             CacheDescriptor cacheDescriptor,
             LongSupplier maxSize,
-            TaggedMetricRegistry taggedMetricRegistry) {
+            TaggedMetricRegistry taggedMetricRegistry,
+            String cacheName) {
         this.persistentStore = persistentStore;
         this.entryMapper = entryMapper;
         this.cacheDescriptor.set(cacheDescriptor);
         this.maxSize = maxSize;
-        this.cacheHit = taggedMetricRegistry.meter(CACHE_HIT);
-        this.cacheMiss = taggedMetricRegistry.meter(CACHE_MISS);
-        this.cacheNuke = taggedMetricRegistry.counter(CACHE_NUKE);
+        this.cacheHit = taggedMetricRegistry.meter(constructCacheMetricName("cacheHit", cacheName));
+        this.cacheMiss = taggedMetricRegistry.meter(constructCacheMetricName("cacheMiss", cacheName));
+        this.cacheNuke = taggedMetricRegistry.counter(constructCacheMetricName("cacheNuke", cacheName));
         this.valuePutter = Autobatchers.coalescing(new WriteBatcher<>(this))
                 .safeLoggablePurpose(BATCHER_PURPOSE)
                 .build();
         Gauge<Integer> cacheSizeGauge = () -> this.cacheDescriptor.get().currentSize().intValue();
-        taggedMetricRegistry.gauge(CACHE_SIZE, cacheSizeGauge);
+        taggedMetricRegistry.gauge(constructCacheMetricName("cacheSize", cacheName), cacheSizeGauge);
     }
 
     @Override
@@ -130,7 +129,13 @@ public final class DefaultOffHeapCache<K, V> implements OffHeapCache<K, V> {
     @Override
     public Optional<V> get(K key) {
         ByteString serializedKey = entryMapper.serializeKey(key);
-        Optional<ByteString> value = persistentStore.get(cacheDescriptor.get().handle(), serializedKey);
+        Optional<ByteString> value;
+        try {
+            value = persistentStore.get(cacheDescriptor.get().handle(), serializedKey);
+        } catch (SafeIllegalArgumentException exception) {
+            // the store was dropped by a concurrent call to clear, so nothing read before the clear is visible
+            value = Optional.empty();
+        }
         getCacheMeter(value.isPresent()).mark();
         return value.map(v -> entryMapper.deserializeValue(serializedKey, v));
     }
@@ -147,9 +152,10 @@ public final class DefaultOffHeapCache<K, V> implements OffHeapCache<K, V> {
                 .build();
     }
 
-    private static MetricName constructCacheMetricName(String metricSuffix) {
+    private static MetricName constructCacheMetricName(String metricSuffix, String cacheName) {
         return MetricName.builder()
                 .safeName(MetricRegistry.name(DefaultOffHeapCache.class, metricSuffix))
+                .putSafeTags("cacheName", cacheName)
                 .build();
     }
 
@@ -35,7 +35,8 @@ public final class OffHeapTimestampCache implements TimestampCache {
                         persistentStore,
                         new DeltaEncodingTimestampEntryMapper(new LongEntryMapper()),
                         taggedMetricRegistry,
-                        maxSize));
+                        maxSize,
+                        "timestamp"));
     }
 
     private OffHeapTimestampCache(OffHeapCache<Long, Long> offHeapCache) {
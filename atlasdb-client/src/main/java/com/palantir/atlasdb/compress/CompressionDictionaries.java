@@ -0,0 +1,86 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.compress;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongFunction;
+
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.exceptions.SafeIllegalStateException;
+
+/**
+ * The compression dictionaries stored for a single key value service. Values are compressed with the active dictionary
+ * for their column, which is the most recently registered dictionary for the column's key (see
+ * {@link CompressionDictionary#keyFor}), and decompressed with the dictionary whose id is recorded in the value.
+ * Dictionaries that are not registered when a value referencing them is read are fetched with the loader, which is
+ * typically backed by a {@link KeyValueServiceCompressionDictionaryStore}.
+ *
+ * Generated tables with dictionary compressed columns are given the dictionaries of their key value service through
+ * their table factory.
+ */
+public final class CompressionDictionaries {
+    private static final CompressionDictionaries NONE = create(unused -> Optional.empty());
+
+    private final ConcurrentMap<Long, CompressionDictionary> dictionariesById = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompressionDictionary> activeDictionaries = new ConcurrentHashMap<>();
+    private final LongFunction<Optional<CompressionDictionary>> loader;
+
+    private CompressionDictionaries(LongFunction<Optional<CompressionDictionary>> loader) {
+        this.loader = Preconditions.checkNotNull(loader, "loader");
+    }
+
+    public static CompressionDictionaries create(LongFunction<Optional<CompressionDictionary>> loader) {
+        return new CompressionDictionaries(loader);
+    }
+
+    /**
+     * Returns dictionaries that know of no dictionary. Values compressed without a dictionary can be decompressed
+     * with these, whereas decompressing a value compressed with a dictionary fails.
+     */
+    public static CompressionDictionaries none() {
+        return NONE;
+    }
+
+    /**
+     * Registers the given dictionary, making it the active dictionary for its key.
+     */
+    public void register(CompressionDictionary dictionary) {
+        CompressionDictionary existing = dictionariesById.putIfAbsent(dictionary.getId(), dictionary);
+        Preconditions.checkArgument(existing == null || existing.equals(dictionary),
+                "A different compression dictionary with the same id is already registered",
+                SafeArg.of("dictionaryId", dictionary.getId()));
+        activeDictionaries.put(dictionary.getKey(), dictionary);
+    }
+
+    public Optional<CompressionDictionary> getActive(String key) {
+        return Optional.ofNullable(activeDictionaries.get(key));
+    }
+
+    public CompressionDictionary get(long id) {
+        CompressionDictionary dictionary = dictionariesById.get(id);
+        if (dictionary != null) {
+            return dictionary;
+        }
+        // Loaded dictionaries are only used for reads; they become active for writes on the next full registration.
+        CompressionDictionary loaded = loader.apply(id).orElseThrow(() -> new SafeIllegalStateException(
+                "Unknown compression dictionary", SafeArg.of("dictionaryId", id)));
+        CompressionDictionary existing = dictionariesById.putIfAbsent(id, loaded);
+        return existing == null ? loaded : existing;
+    }
+}
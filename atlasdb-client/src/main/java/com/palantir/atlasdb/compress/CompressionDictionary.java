@@ -0,0 +1,113 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.compress;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.google.common.hash.Hashing;
+import com.google.common.primitives.Bytes;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.ptobject.EncodingUtils;
+import com.palantir.logsafe.Preconditions;
+
+/**
+ * A preset dictionary for value compression. The id of a dictionary is derived from its key and contents, so
+ * dictionaries trained concurrently, or stored by different processes, cannot be given the same id unless they are
+ * identical. A new dictionary for the same key supersedes the previous one for compression only.
+ *
+ * Dictionaries are trained for the values of a single column, and keyed by the table and column; see
+ * {@link #keyFor(TableReference, String)}.
+ */
+public final class CompressionDictionary {
+    public static final long NO_DICTIONARY = 0L;
+
+    private final long id;
+    private final String key;
+    private final byte[] bytes;
+
+    private CompressionDictionary(long id, String key, byte[] bytes) {
+        Preconditions.checkArgument(id > NO_DICTIONARY, "Dictionary ids must be positive");
+        Preconditions.checkArgument(bytes.length > 0, "Dictionaries must not be empty");
+        this.id = id;
+        this.key = Preconditions.checkNotNull(key, "key");
+        this.bytes = bytes.clone();
+    }
+
+    public static CompressionDictionary create(String key, byte[] bytes) {
+        return new CompressionDictionary(idOf(key, bytes), key, bytes);
+    }
+
+    /**
+     * Returns the key of the dictionaries for the named column with the given short name in the given table.
+     */
+    public static String keyFor(TableReference tableRef, String columnShortName) {
+        return tableRef.getQualifiedName() + "/" + columnShortName;
+    }
+
+    /**
+     * Returns the key of the dictionaries for the dynamic columns of the given table.
+     */
+    public static String keyForDynamicColumns(TableReference tableRef) {
+        return tableRef.getQualifiedName();
+    }
+
+    /**
+     * Returns the first eight bytes of the SHA-256 hash of the key and contents, as a positive id.
+     */
+    static long idOf(String key, byte[] bytes) {
+        long hash = Hashing.sha256().hashBytes(Bytes.concat(EncodingUtils.encodeVarString(key), bytes)).asLong();
+        long id = hash & Long.MAX_VALUE;
+        return id == NO_DICTIONARY ? 1L : id;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the contents of the dictionary. The returned array must not be modified.
+     */
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        CompressionDictionary that = (CompressionDictionary) other;
+        return id == that.id && key.equals(that.key) && Arrays.equals(bytes, that.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, key, Arrays.hashCode(bytes));
+    }
+
+    @Override
+    public String toString() {
+        return "CompressionDictionary{id=" + id + ", key=" + key + ", size=" + bytes.length + '}';
+    }
+}
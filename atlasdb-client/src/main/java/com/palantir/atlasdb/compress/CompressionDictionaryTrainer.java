@@ -0,0 +1,152 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.compress;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Bytes;
+import com.palantir.atlasdb.table.description.ColumnValueDescription.Compression;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+
+/**
+ * Trains a preset dictionary for {@link Compression#DEFLATE} from a sample of values.
+ *
+ * Byte sequences that occur in many samples are found by counting, for each fixed length window, the number of
+ * samples containing it. Maximal runs of overlapping frequent windows within each sample are the candidate dictionary
+ * contents, if they occur in several samples themselves; they
+ * are chosen in decreasing order of the number of bytes they would save (occurrences times length) until the
+ * dictionary is full. Deflate encodes nearer matches more cheaply, so the most valuable content is placed last.
+ */
+public final class CompressionDictionaryTrainer {
+    /**
+     * Deflate can only refer back to the last 32KB, so larger dictionaries are never useful.
+     */
+    public static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+
+    private static final int WINDOW_SIZE = 8;
+    private static final int MIN_OCCURRENCES = 2;
+
+    private CompressionDictionaryTrainer() {
+        // utility
+    }
+
+    /**
+     * Returns a dictionary of at most maxDictionarySize bytes trained on the given samples. The dictionary is empty if
+     * the samples have no content in common.
+     */
+    public static byte[] train(Iterable<byte[]> samples, int maxDictionarySize) {
+        Preconditions.checkArgument(maxDictionarySize > 0 && maxDictionarySize <= MAX_DICTIONARY_SIZE,
+                "Dictionary size must be positive and at most the deflate window size",
+                SafeArg.of("maxDictionarySize", maxDictionarySize));
+        List<byte[]> sampleList = ImmutableList.copyOf(samples);
+        int minOccurrences = Math.max(MIN_OCCURRENCES, sampleList.size() / 100);
+
+        Map<ByteBuffer, Integer> windowOccurrences = new HashMap<>();
+        for (byte[] sample : sampleList) {
+            countOnce(windows(sample), windowOccurrences);
+        }
+
+        Map<ByteBuffer, Integer> runOccurrences = new HashMap<>();
+        for (byte[] sample : sampleList) {
+            countOnce(frequentRuns(sample, windowOccurrences, minOccurrences, maxDictionarySize), runOccurrences);
+        }
+
+        List<byte[]> candidates = runOccurrences.entrySet().stream()
+                .filter(entry -> entry.getValue() >= minOccurrences)
+                .sorted(Comparator.comparingLong(CompressionDictionaryTrainer::savedBytes).reversed())
+                .map(entry -> toArray(entry.getKey()))
+                .collect(Collectors.toList());
+
+        List<byte[]> selected = new ArrayList<>();
+        int size = 0;
+        for (byte[] candidate : candidates) {
+            if (size + candidate.length <= maxDictionarySize && !isContainedInAny(candidate, selected)) {
+                selected.add(candidate);
+                size += candidate.length;
+            }
+        }
+
+        ByteArrayOutputStream dictionary = new ByteArrayOutputStream(size);
+        for (byte[] content : Lists.reverse(selected)) {
+            dictionary.write(content, 0, content.length);
+        }
+        return dictionary.toByteArray();
+    }
+
+    private static Set<ByteBuffer> windows(byte[] sample) {
+        Set<ByteBuffer> windows = new HashSet<>();
+        for (int offset = 0; offset + WINDOW_SIZE <= sample.length; offset++) {
+            windows.add(slice(sample, offset, WINDOW_SIZE));
+        }
+        return windows;
+    }
+
+    private static Set<ByteBuffer> frequentRuns(byte[] sample, Map<ByteBuffer, Integer> windowOccurrences,
+            int minOccurrences, int maxRunLength) {
+        Set<ByteBuffer> runs = new HashSet<>();
+        int runStart = -1;
+        for (int offset = 0; offset + WINDOW_SIZE <= sample.length; offset++) {
+            if (windowOccurrences.get(slice(sample, offset, WINDOW_SIZE)) >= minOccurrences) {
+                runStart = runStart < 0 ? offset : runStart;
+            } else if (runStart >= 0) {
+                runs.add(run(sample, runStart, offset - 1 + WINDOW_SIZE, maxRunLength));
+                runStart = -1;
+            }
+        }
+        if (runStart >= 0) {
+            runs.add(run(sample, runStart, sample.length, maxRunLength));
+        }
+        return runs;
+    }
+
+    private static ByteBuffer run(byte[] sample, int start, int end, int maxRunLength) {
+        return slice(sample, start, Math.min(end - start, maxRunLength));
+    }
+
+    private static void countOnce(Set<ByteBuffer> values, Map<ByteBuffer, Integer> occurrences) {
+        values.forEach(value -> occurrences.merge(value, 1, Integer::sum));
+    }
+
+    private static long savedBytes(Map.Entry<ByteBuffer, Integer> run) {
+        return (long) run.getValue() * run.getKey().remaining();
+    }
+
+    private static boolean isContainedInAny(byte[] candidate, List<byte[]> selected) {
+        return selected.stream().anyMatch(content -> Bytes.indexOf(content, candidate) >= 0);
+    }
+
+    private static ByteBuffer slice(byte[] bytes, int offset, int length) {
+        return ByteBuffer.wrap(bytes, offset, length).slice();
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+}
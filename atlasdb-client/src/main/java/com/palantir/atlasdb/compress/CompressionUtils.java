@@ -15,15 +15,32 @@
  */
 package com.palantir.atlasdb.compress;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import org.xerial.snappy.Snappy;
 
+import com.google.common.primitives.Ints;
+import com.palantir.atlasdb.ptobject.EncodingUtils;
 import com.palantir.atlasdb.table.description.ColumnValueDescription.Compression;
 import com.palantir.common.base.Throwables;
+import com.palantir.logsafe.SafeArg;
 import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
 
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+
 public final class CompressionUtils {
+    private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
+    private static final int BUFFER_SIZE = 4096;
+    // Each byte of an LZ4 block decompresses to at most 255 bytes, as match lengths are encoded in steps of 255.
+    private static final int MAX_LZ4_DECOMPRESSION_RATIO = 255;
+
     private CompressionUtils() {
         // empty
     }
@@ -33,16 +50,47 @@ public final class CompressionUtils {
             return compressWithSnappy(bytes);
         } else if (compressionType == Compression.NONE) {
             return bytes;
+        } else if (compressionType == Compression.LZ4) {
+            return compressWithLz4(bytes);
+        } else if (compressionType == Compression.DEFLATE) {
+            return compressWithDeflate(bytes, Optional.empty());
         } else {
             throw new UnsupportedOperationException();
         }
     }
 
+    /**
+     * Compresses the given bytes, using the active dictionary registered under dictionaryKey in the given
+     * dictionaries if the compression type supports dictionaries and one is present.
+     */
+    public static byte[] compress(byte[] bytes, Compression compressionType, String dictionaryKey,
+            CompressionDictionaries dictionaries) {
+        if (compressionType == Compression.DEFLATE) {
+            return compressWithDeflate(bytes, dictionaries.getActive(dictionaryKey));
+        }
+        return compress(bytes, compressionType);
+    }
+
+    /**
+     * Decompresses the given bytes. Values compressed with a dictionary can only be decompressed by passing the
+     * dictionaries of their key value service to {@link #decompress(byte[], Compression, CompressionDictionaries)}.
+     */
     public static byte[] decompress(byte[] bytes, Compression compressionType) {
+        return decompress(bytes, compressionType, CompressionDictionaries.none());
+    }
+
+    /**
+     * Decompresses the given bytes, looking up any dictionary they were compressed with in the given dictionaries.
+     */
+    public static byte[] decompress(byte[] bytes, Compression compressionType, CompressionDictionaries dictionaries) {
         if (compressionType == Compression.SNAPPY) {
             return decompressWithSnappy(bytes);
         } else if (compressionType == Compression.NONE) {
             return bytes;
+        } else if (compressionType == Compression.LZ4) {
+            return decompressWithLz4(bytes);
+        } else if (compressionType == Compression.DEFLATE) {
+            return decompressWithDeflate(bytes, dictionaries);
         } else {
             throw new UnsupportedOperationException();
         }
@@ -66,4 +114,96 @@ public final class CompressionUtils {
             throw Throwables.throwUncheckedException(e);
         }
     }
+
+    /**
+     * Compresses the given bytes into an LZ4 block, prefixed with the length of the uncompressed bytes.
+     */
+    public static byte[] compressWithLz4(byte[] bytes) {
+        byte[] compressed = new byte[Integer.BYTES + LZ4.fastCompressor().maxCompressedLength(bytes.length)];
+        System.arraycopy(Ints.toByteArray(bytes.length), 0, compressed, 0, Integer.BYTES);
+        int compressedLength = LZ4.fastCompressor().compress(
+                bytes, 0, bytes.length, compressed, Integer.BYTES, compressed.length - Integer.BYTES);
+        return Arrays.copyOf(compressed, Integer.BYTES + compressedLength);
+    }
+
+    public static byte[] decompressWithLz4(byte[] bytes) {
+        if (bytes.length < Integer.BYTES) {
+            throw new SafeIllegalArgumentException("Cannot decompress these bytes using LZ4");
+        }
+        int length = Ints.fromBytes(bytes[0], bytes[1], bytes[2], bytes[3]);
+        long maxLength = (long) (bytes.length - Integer.BYTES) * MAX_LZ4_DECOMPRESSION_RATIO;
+        if (length < 0 || length > maxLength) {
+            throw new SafeIllegalArgumentException("Cannot decompress these bytes using LZ4",
+                    SafeArg.of("length", length),
+                    SafeArg.of("maxLength", maxLength));
+        }
+        byte[] decompressed = new byte[length];
+        try {
+            int decompressedLength = LZ4.safeDecompressor().decompress(
+                    bytes, Integer.BYTES, bytes.length - Integer.BYTES, decompressed, 0, length);
+            if (decompressedLength != length) {
+                throw new SafeIllegalArgumentException("Cannot decompress these bytes using LZ4");
+            }
+            return decompressed;
+        } catch (LZ4Exception e) {
+            throw new SafeIllegalArgumentException("Cannot decompress these bytes using LZ4", e);
+        }
+    }
+
+    /**
+     * Compresses the given bytes with deflate, prefixed with the id of the dictionary used, or
+     * {@link CompressionDictionary#NO_DICTIONARY} if none was. Readers look up the dictionary by id in their
+     * {@link CompressionDictionaries}, so values compressed with older dictionaries remain readable after a new
+     * dictionary is trained.
+     */
+    public static byte[] compressWithDeflate(byte[] bytes, Optional<CompressionDictionary> dictionary) {
+        byte[] header = EncodingUtils.encodeUnsignedVarLong(
+                dictionary.map(CompressionDictionary::getId).orElse(CompressionDictionary.NO_DICTIONARY));
+        Deflater deflater = new Deflater();
+        try {
+            dictionary.ifPresent(dict -> deflater.setDictionary(dict.getBytes()));
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(header.length + bytes.length / 2 + 16);
+            out.write(header, 0, header.length);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public static byte[] decompressWithDeflate(byte[] bytes, CompressionDictionaries dictionaries) {
+        long dictionaryId = EncodingUtils.decodeUnsignedVarLong(bytes);
+        int offset = EncodingUtils.sizeOfUnsignedVarLong(dictionaryId);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, offset, bytes.length - offset);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length * 2);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && inflater.needsDictionary()) {
+                    if (dictionaryId == CompressionDictionary.NO_DICTIONARY) {
+                        throw new SafeIllegalArgumentException("Cannot decompress these bytes using Deflate");
+                    }
+                    inflater.setDictionary(dictionaries.get(dictionaryId).getBytes());
+                } else if (length == 0 && inflater.needsInput()) {
+                    throw new SafeIllegalArgumentException("Cannot decompress these bytes using Deflate",
+                            SafeArg.of("dictionaryId", dictionaryId));
+                }
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new SafeIllegalArgumentException("Cannot decompress these bytes using Deflate", e,
+                    SafeArg.of("dictionaryId", dictionaryId));
+        } finally {
+            inflater.end();
+        }
+    }
 }
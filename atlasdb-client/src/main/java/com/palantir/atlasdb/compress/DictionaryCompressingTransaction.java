@@ -0,0 +1,248 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.compress;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.UnsignedBytes;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.BatchColumnRangeSelection;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.ColumnRangeSelection;
+import com.palantir.atlasdb.keyvalue.api.ColumnSelection;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.transaction.api.GetRangesQuery;
+import com.palantir.atlasdb.transaction.api.ImmutableGetRangesQuery;
+import com.palantir.atlasdb.transaction.api.Transaction;
+import com.palantir.atlasdb.transaction.impl.ForwardingTransaction;
+import com.palantir.common.base.BatchingVisitable;
+import com.palantir.common.base.BatchingVisitables;
+
+/**
+ * Compresses the values written to the dictionary compressed columns of a single table with the active dictionary for
+ * the column, and decompresses the values read from them. Values of other tables and columns are passed through.
+ *
+ * Generated tables with {@link com.palantir.atlasdb.table.description.ColumnValueDescription.Compression#DEFLATE}
+ * columns wrap their transaction in one of these, as their column value classes have no access to the dictionaries.
+ */
+public final class DictionaryCompressingTransaction extends ForwardingTransaction {
+    private final Transaction delegate;
+    private final TableReference tableRef;
+    private final Function<byte[], Optional<String>> dictionaryKeys;
+    private final CompressionDictionaries dictionaries;
+
+    private DictionaryCompressingTransaction(Transaction delegate, TableReference tableRef,
+            Function<byte[], Optional<String>> dictionaryKeys, CompressionDictionaries dictionaries) {
+        this.delegate = delegate;
+        this.tableRef = tableRef;
+        this.dictionaryKeys = dictionaryKeys;
+        this.dictionaries = dictionaries;
+    }
+
+    /**
+     * Wraps the given transaction, compressing the named columns of the given table with the given short names.
+     */
+    public static Transaction forNamedColumns(Transaction delegate, TableReference tableRef,
+            Set<String> columnShortNames, CompressionDictionaries dictionaries) {
+        Map<String, String> keys = Maps.toMap(
+                columnShortNames, column -> CompressionDictionary.keyFor(tableRef, column));
+        return new DictionaryCompressingTransaction(delegate, tableRef,
+                column -> Optional.ofNullable(keys.get(PtBytes.toString(column))), dictionaries);
+    }
+
+    /**
+     * Wraps the given transaction, compressing all columns of the given table, which has dynamic columns.
+     */
+    public static Transaction forDynamicColumns(Transaction delegate, TableReference tableRef,
+            CompressionDictionaries dictionaries) {
+        Optional<String> key = Optional.of(CompressionDictionary.keyForDynamicColumns(tableRef));
+        return new DictionaryCompressingTransaction(delegate, tableRef, unused -> key, dictionaries);
+    }
+
+    @Override
+    public Transaction delegate() {
+        return delegate;
+    }
+
+    @Override
+    public NavigableMap<byte[], RowResult<byte[]>> getRows(TableReference table, Iterable<byte[]> rows,
+            ColumnSelection columnSelection) {
+        NavigableMap<byte[], RowResult<byte[]>> results = delegate.getRows(table, rows, columnSelection);
+        if (!isCompressed(table)) {
+            return results;
+        }
+        NavigableMap<byte[], RowResult<byte[]>> decompressed =
+                Maps.newTreeMap(UnsignedBytes.lexicographicalComparator());
+        results.forEach((row, result) -> decompressed.put(row, decompressRow(result)));
+        return decompressed;
+    }
+
+    @Override
+    public Map<byte[], BatchingVisitable<Map.Entry<Cell, byte[]>>> getRowsColumnRange(TableReference table,
+            Iterable<byte[]> rows, BatchColumnRangeSelection columnRangeSelection) {
+        Map<byte[], BatchingVisitable<Map.Entry<Cell, byte[]>>> results =
+                delegate.getRowsColumnRange(table, rows, columnRangeSelection);
+        if (!isCompressed(table)) {
+            return results;
+        }
+        return Maps.transformValues(results,
+                visitable -> BatchingVisitables.transform(visitable, this::decompressEntry));
+    }
+
+    @Override
+    public Map<byte[], Iterator<Map.Entry<Cell, byte[]>>> getRowsColumnRangeIterator(TableReference table,
+            Iterable<byte[]> rows, BatchColumnRangeSelection columnRangeSelection) {
+        Map<byte[], Iterator<Map.Entry<Cell, byte[]>>> results =
+                delegate.getRowsColumnRangeIterator(table, rows, columnRangeSelection);
+        if (!isCompressed(table)) {
+            return results;
+        }
+        return Maps.transformValues(results, iterator -> Iterators.transform(iterator, this::decompressEntry));
+    }
+
+    @Override
+    public Iterator<Map.Entry<Cell, byte[]>> getRowsColumnRange(TableReference table, Iterable<byte[]> rows,
+            ColumnRangeSelection columnRangeSelection, int batchHint) {
+        Iterator<Map.Entry<Cell, byte[]>> results =
+                delegate.getRowsColumnRange(table, rows, columnRangeSelection, batchHint);
+        return isCompressed(table) ? Iterators.transform(results, this::decompressEntry) : results;
+    }
+
+    @Override
+    public Map<Cell, byte[]> get(TableReference table, Set<Cell> cells) {
+        Map<Cell, byte[]> results = delegate.get(table, cells);
+        return isCompressed(table) ? decompressCells(results) : results;
+    }
+
+    @Override
+    public ListenableFuture<Map<Cell, byte[]>> getAsync(TableReference table, Set<Cell> cells) {
+        ListenableFuture<Map<Cell, byte[]>> results = delegate.getAsync(table, cells);
+        if (!isCompressed(table)) {
+            return results;
+        }
+        return Futures.transform(results, this::decompressCells, MoreExecutors.directExecutor());
+    }
+
+    @Override
+    public BatchingVisitable<RowResult<byte[]>> getRange(TableReference table, RangeRequest rangeRequest) {
+        BatchingVisitable<RowResult<byte[]>> results = delegate.getRange(table, rangeRequest);
+        return isCompressed(table) ? BatchingVisitables.transform(results, this::decompressRow) : results;
+    }
+
+    @Override
+    public Iterable<BatchingVisitable<RowResult<byte[]>>> getRanges(TableReference table,
+            Iterable<RangeRequest> rangeRequests) {
+        Iterable<BatchingVisitable<RowResult<byte[]>>> results = delegate.getRanges(table, rangeRequests);
+        if (!isCompressed(table)) {
+            return results;
+        }
+        return Iterables.transform(results, visitable -> BatchingVisitables.transform(visitable, this::decompressRow));
+    }
+
+    @Override
+    public <T> Stream<T> getRanges(TableReference table, Iterable<RangeRequest> rangeRequests, int concurrencyLevel,
+            BiFunction<RangeRequest, BatchingVisitable<RowResult<byte[]>>, T> visitableProcessor) {
+        return delegate.getRanges(table, rangeRequests, concurrencyLevel, decompressing(table, visitableProcessor));
+    }
+
+    @Override
+    public <T> Stream<T> getRanges(TableReference table, Iterable<RangeRequest> rangeRequests,
+            BiFunction<RangeRequest, BatchingVisitable<RowResult<byte[]>>, T> visitableProcessor) {
+        return delegate.getRanges(table, rangeRequests, decompressing(table, visitableProcessor));
+    }
+
+    @Override
+    public <T> Stream<T> getRanges(GetRangesQuery<T> getRangesQuery) {
+        return delegate.getRanges(ImmutableGetRangesQuery.copyOf(getRangesQuery).withVisitableProcessor(
+                decompressing(getRangesQuery.tableRef(), getRangesQuery.visitableProcessor())));
+    }
+
+    @Override
+    public Stream<BatchingVisitable<RowResult<byte[]>>> getRangesLazy(TableReference table,
+            Iterable<RangeRequest> rangeRequests) {
+        Stream<BatchingVisitable<RowResult<byte[]>>> results = delegate.getRangesLazy(table, rangeRequests);
+        if (!isCompressed(table)) {
+            return results;
+        }
+        return results.map(visitable -> BatchingVisitables.transform(visitable, this::decompressRow));
+    }
+
+    @Override
+    public void put(TableReference table, Map<Cell, byte[]> values) {
+        if (!isCompressed(table)) {
+            delegate.put(table, values);
+            return;
+        }
+        Map<Cell, byte[]> compressed = Maps.newHashMapWithExpectedSize(values.size());
+        values.forEach((cell, value) -> compressed.put(cell, compress(cell.getColumnName(), value)));
+        delegate.put(table, compressed);
+    }
+
+    private boolean isCompressed(TableReference table) {
+        return tableRef.equals(table);
+    }
+
+    private <T> BiFunction<RangeRequest, BatchingVisitable<RowResult<byte[]>>, T> decompressing(TableReference table,
+            BiFunction<RangeRequest, BatchingVisitable<RowResult<byte[]>>, T> visitableProcessor) {
+        if (!isCompressed(table)) {
+            return visitableProcessor;
+        }
+        return (range, visitable) -> visitableProcessor.apply(
+                range, BatchingVisitables.transform(visitable, this::decompressRow));
+    }
+
+    private byte[] compress(byte[] column, byte[] value) {
+        return dictionaryKeys.apply(column)
+                .map(key -> CompressionUtils.compressWithDeflate(value, dictionaries.getActive(key)))
+                .orElse(value);
+    }
+
+    private byte[] decompressValue(byte[] column, byte[] value) {
+        if (!dictionaryKeys.apply(column).isPresent()) {
+            return value;
+        }
+        return CompressionUtils.decompressWithDeflate(value, dictionaries);
+    }
+
+    private Map<Cell, byte[]> decompressCells(Map<Cell, byte[]> values) {
+        Map<Cell, byte[]> decompressed = Maps.newHashMapWithExpectedSize(values.size());
+        values.forEach((cell, value) -> decompressed.put(cell, decompressValue(cell.getColumnName(), value)));
+        return decompressed;
+    }
+
+    private Map.Entry<Cell, byte[]> decompressEntry(Map.Entry<Cell, byte[]> entry) {
+        return Maps.immutableEntry(entry.getKey(), decompressValue(entry.getKey().getColumnName(), entry.getValue()));
+    }
+
+    private RowResult<byte[]> decompressRow(RowResult<byte[]> row) {
+        return RowResult.create(row.getRowName(), Maps.transformEntries(row.getColumns(), this::decompressValue));
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.compress;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Bytes;
+import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.ptobject.EncodingUtils;
+import com.palantir.atlasdb.table.description.NameMetadataDescription;
+import com.palantir.atlasdb.table.description.TableMetadata;
+import com.palantir.atlasdb.table.description.ValueType;
+import com.palantir.common.base.ClosableIterator;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.exceptions.SafeIllegalStateException;
+
+/**
+ * Persists compression dictionaries in {@link AtlasDbConstants#COMPRESSION_DICTIONARY_TABLE}, keyed by dictionary id.
+ * Dictionaries are written non-transactionally and never modified; each is written at the timestamp it was trained
+ * at, which orders the dictionaries for a key, and a fresh timestamp is a convenient source of one.
+ *
+ * As with other hidden tables, this table is not copied by KVS migrations, and must be migrated manually alongside any
+ * table compressed with a dictionary.
+ */
+public final class KeyValueServiceCompressionDictionaryStore {
+    private static final byte[] COLUMN = PtBytes.toCachedBytes("d");
+
+    private final KeyValueService keyValueService;
+
+    private KeyValueServiceCompressionDictionaryStore(KeyValueService keyValueService) {
+        this.keyValueService = keyValueService;
+    }
+
+    public static KeyValueServiceCompressionDictionaryStore create(KeyValueService keyValueService) {
+        keyValueService.createTable(AtlasDbConstants.COMPRESSION_DICTIONARY_TABLE, TableMetadata.internal()
+                .rowMetadata(NameMetadataDescription.create("id", ValueType.FIXED_LONG))
+                .singleNamedColumn("d", "dictionary", ValueType.BLOB)
+                .build()
+                .persistToBytes());
+        return new KeyValueServiceCompressionDictionaryStore(keyValueService);
+    }
+
+    /**
+     * Returns dictionaries with every stored dictionary registered, the latest trained for each key being active,
+     * which load dictionaries stored later from this store when they are first read.
+     */
+    public CompressionDictionaries loadDictionaries() {
+        CompressionDictionaries dictionaries = CompressionDictionaries.create(this::get);
+        getAll().forEach(dictionaries::register);
+        return dictionaries;
+    }
+
+    public void put(CompressionDictionary dictionary, long trainedAtTimestamp) {
+        byte[] value = Bytes.concat(EncodingUtils.encodeVarString(dictionary.getKey()), dictionary.getBytes());
+        keyValueService.put(AtlasDbConstants.COMPRESSION_DICTIONARY_TABLE,
+                ImmutableMap.of(cell(dictionary.getId()), value),
+                trainedAtTimestamp);
+    }
+
+    public Optional<CompressionDictionary> get(long id) {
+        Cell cell = cell(id);
+        Map<Cell, Value> result = keyValueService.get(AtlasDbConstants.COMPRESSION_DICTIONARY_TABLE,
+                ImmutableMap.of(cell, Long.MAX_VALUE));
+        return Optional.ofNullable(result.get(cell)).map(value -> hydrate(id, value.getContents()));
+    }
+
+    /**
+     * Returns all stored dictionaries, in the order they were trained.
+     */
+    public List<CompressionDictionary> getAll() {
+        List<Map.Entry<Long, CompressionDictionary>> dictionaries = new ArrayList<>();
+        try (ClosableIterator<RowResult<Value>> rows = keyValueService.getRange(
+                AtlasDbConstants.COMPRESSION_DICTIONARY_TABLE, RangeRequest.all(), Long.MAX_VALUE)) {
+            rows.forEachRemaining(row -> {
+                Value value = row.getColumns().get(COLUMN);
+                dictionaries.add(Maps.immutableEntry(value.getTimestamp(),
+                        hydrate(PtBytes.toLong(row.getRowName()), value.getContents())));
+            });
+        }
+        return dictionaries.stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+    }
+
+    private static Cell cell(long id) {
+        return Cell.create(PtBytes.toBytes(id), COLUMN);
+    }
+
+    private static CompressionDictionary hydrate(long id, byte[] value) {
+        String key = EncodingUtils.decodeVarString(value);
+        int offset = EncodingUtils.sizeOfVarString(key);
+        byte[] dictionary = new byte[value.length - offset];
+        System.arraycopy(value, offset, dictionary, 0, dictionary.length);
+        CompressionDictionary hydrated = CompressionDictionary.create(key, dictionary);
+        if (hydrated.getId() != id) {
+            throw new SafeIllegalStateException("Stored compression dictionary does not match its id",
+                    SafeArg.of("dictionaryId", id),
+                    SafeArg.of("contentId", hydrated.getId()));
+        }
+        return hydrated;
+    }
+}
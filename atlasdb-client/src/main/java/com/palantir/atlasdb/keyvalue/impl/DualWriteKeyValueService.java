@@ -299,6 +299,11 @@ public class DualWriteKeyValueService implements KeyValueService {
         return delegate1.shouldTriggerCompactions() || delegate2.shouldTriggerCompactions();
     }
 
+    @Override
+    public boolean supportsEfficientTimestampRangeDeletes() {
+        return delegate1.supportsEfficientTimestampRangeDeletes() && delegate2.supportsEfficientTimestampRangeDeletes();
+    }
+
     @Override
     public ListenableFuture<Map<Cell, Value>> getAsync(TableReference tableRef, Map<Cell, Long> timestampByCell) {
         return delegate1.getAsync(tableRef, timestampByCell);
@@ -491,6 +491,11 @@ public class InMemoryKeyValueService extends AbstractKeyValueService {
                 new Key(cell, delete.maxTimestampToDelete()), true).clear());
     }
 
+    @Override
+    public boolean supportsEfficientTimestampRangeDeletes() {
+        return true;
+    }
+
     @Override
     public Multimap<Cell, Long> getAllTimestamps(TableReference tableRef, Set<Cell> cells, long ts) {
         Multimap<Cell, Long> multimap = HashMultimap.create();
@@ -499,6 +499,11 @@ public final class ProfilingKeyValueService implements KeyValueService {
         return delegate.shouldTriggerCompactions();
     }
 
+    @Override
+    public boolean supportsEfficientTimestampRangeDeletes() {
+        return delegate.supportsEfficientTimestampRangeDeletes();
+    }
+
     @Override
     public ListenableFuture<Map<Cell, Value>> getAsync(TableReference tableRef, Map<Cell, Long> timestampByCell) {
         long startTime = System.currentTimeMillis();
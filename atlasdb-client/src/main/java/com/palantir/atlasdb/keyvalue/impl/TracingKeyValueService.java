@@ -421,6 +421,11 @@ public final class TracingKeyValueService extends ForwardingObject implements Ke
         return delegate().shouldTriggerCompactions();
     }
 
+    @Override
+    public boolean supportsEfficientTimestampRangeDeletes() {
+        return delegate().supportsEfficientTimestampRangeDeletes();
+    }
+
     @Override
     public ListenableFuture<Map<Cell, Value>> getAsync(TableReference tableRef, Map<Cell, Long> timestampByCell) {
         DetachedSpan detachedSpan = DetachedSpan.start(String.format("getAsync(%s, %s cells)",
@@ -22,10 +22,11 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -33,20 +34,22 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
+import org.rocksdb.Statistics;
+import org.rocksdb.TickerType;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Maps;
-import com.google.common.collect.Streams;
 import com.palantir.atlasdb.persistent.api.PersistentStore;
-import com.palantir.common.streams.KeyedStream;
 import com.palantir.logsafe.Preconditions;
 import com.palantir.tracing.Tracers.ThrowingCallable;
 
@@ -58,10 +61,36 @@ public final class RocksDbPersistentStore implements PersistentStore {
     private final ConcurrentMap<UUID, ColumnFamilyHandle> availableColumnFamilies = new ConcurrentHashMap<>();
     private final RocksDB rocksDB;
     private final File databaseFolder;
+    private final ColumnFamilyOptions columnFamilyOptions;
+    private final WriteOptions writeOptions;
+    @Nullable
+    private final Statistics statistics;
+    private final List<AutoCloseable> resourcesToClose;
+
+    private boolean closed = false;
 
     public RocksDbPersistentStore(RocksDB rocksDB, File databaseFolder) {
+        this(rocksDB, databaseFolder, new ColumnFamilyOptions(), new WriteOptions(), null, ImmutableList.of());
+    }
+
+    /**
+     * Creates a store whose store spaces are created with the given column family options, and whose writes use the
+     * given write options. The options, the statistics (if any) and the given resources, such as shared block caches
+     * and filters referenced by the options, are owned by the store and closed after the database is closed.
+     */
+    public RocksDbPersistentStore(
+            RocksDB rocksDB,
+            File databaseFolder,
+            ColumnFamilyOptions columnFamilyOptions,
+            WriteOptions writeOptions,
+            @Nullable Statistics statistics,
+            List<? extends AutoCloseable> resourcesToClose) {
         this.rocksDB = rocksDB;
         this.databaseFolder = databaseFolder;
+        this.columnFamilyOptions = columnFamilyOptions;
+        this.writeOptions = writeOptions;
+        this.statistics = statistics;
+        this.resourcesToClose = ImmutableList.copyOf(resourcesToClose);
     }
 
     @Override
@@ -75,19 +104,19 @@ public final class RocksDbPersistentStore implements PersistentStore {
     public Map<ByteString, ByteString> get(PersistentStore.Handle handle, List<ByteString> keys) {
         checkStoreSpaceExists(handle);
 
-        List<ByteString> byteValues = multiGetValueByteStrings(availableColumnFamilies.get(handle.id()), keys);
+        List<byte[]> byteValues = multiGetValueBytes(
+                availableColumnFamilies.get(handle.id()),
+                keys.stream().map(ByteString::toByteArray).collect(Collectors.toList()));
 
-        if (byteValues.isEmpty()) {
-            return ImmutableMap.of();
+        // values are positional, with null for missing keys, so they must be matched up before dropping misses
+        Map<ByteString, ByteString> result = new HashMap<>();
+        for (int i = 0; i < byteValues.size(); i++) {
+            byte[] value = byteValues.get(i);
+            if (value != null) {
+                result.put(keys.get(i), ByteString.of(value));
+            }
         }
-
-        return KeyedStream.ofEntries(
-                Streams.zip(
-                        keys.stream(),
-                        byteValues.stream(),
-                        Maps::immutableEntry))
-                .filter(Objects::nonNull)
-                .collectToMap();
+        return result;
     }
 
     @Override
@@ -98,14 +127,25 @@ public final class RocksDbPersistentStore implements PersistentStore {
 
     @Override
     public void put(PersistentStore.Handle handle, Map<ByteString, ByteString> toWrite) {
-        KeyedStream.stream(toWrite).forEach((key, value) -> put(handle, key, value));
+        checkStoreSpaceExists(handle);
+        ColumnFamilyHandle columnFamilyHandle = availableColumnFamilies.get(handle.id());
+
+        try (WriteBatch writeBatch = new WriteBatch()) {
+            for (Map.Entry<ByteString, ByteString> entry : toWrite.entrySet()) {
+                writeBatch.put(columnFamilyHandle, entry.getKey().toByteArray(), entry.getValue().toByteArray());
+            }
+            rocksDB.write(writeOptions, writeBatch);
+        } catch (RocksDBException exception) {
+            log.warn("Rocks db raised an exception", exception);
+        }
     }
 
     @Override
     public PersistentStore.Handle createSpace() {
         Handle handle = PersistentStore.Handle.newHandle();
         ColumnFamilyHandle columnFamilyHandle = callWithExceptionHandling(() ->
-                rocksDB.createColumnFamily(new ColumnFamilyDescriptor(handle.id().toString().getBytes())));
+                rocksDB.createColumnFamily(
+                        new ColumnFamilyDescriptor(handle.id().toString().getBytes(), columnFamilyOptions)));
         availableColumnFamilies.put(handle.id(), columnFamilyHandle);
         return handle;
     }
@@ -121,9 +161,30 @@ public final class RocksDbPersistentStore implements PersistentStore {
         Preconditions.checkArgument(availableColumnFamilies.containsKey(handle.id()), "Store space does not exist.");
     }
 
+    /**
+     * Returns the current value of the given RocksDB statistics ticker, or empty if this store does not collect
+     * statistics or has been closed.
+     */
+    public synchronized OptionalLong getTickerCount(TickerType tickerType) {
+        if (statistics == null || closed) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(statistics.getTickerCount(tickerType));
+    }
+
     @Override
-    public void close() throws IOException {
+    public synchronized void close() throws IOException {
+        closed = true;
+        availableColumnFamilies.values().forEach(ColumnFamilyHandle::close);
         rocksDB.close();
+        writeOptions.close();
+        columnFamilyOptions.close();
+        if (statistics != null) {
+            statistics.close();
+        }
+        for (AutoCloseable resource : resourcesToClose) {
+            closeResource(resource);
+        }
 
         // by sorting the walked paths in the reverse lexicographical order we will first delete all sub-folders/files
         // before the folder itself basically doing a rm -rf .
@@ -141,7 +202,7 @@ public final class RocksDbPersistentStore implements PersistentStore {
             rocksDB.dropColumnFamily(availableColumnFamilies.get(handle.id()));
             return null;
         });
-        availableColumnFamilies.remove(handle.id());
+        availableColumnFamilies.remove(handle.id()).close();
     }
 
     private Optional<ByteString> getValueBytes(ColumnFamilyHandle columnFamilyHandle, ByteString key) {
@@ -153,13 +214,6 @@ public final class RocksDbPersistentStore implements PersistentStore {
         }
     }
 
-    private List<ByteString> multiGetValueByteStrings(ColumnFamilyHandle columnFamilyHandle, List<ByteString> keys) {
-        List<byte[]> values = multiGetValueBytes(
-                columnFamilyHandle,
-                keys.stream().map(ByteString::toByteArray).collect(Collectors.toList()));
-        return values.stream().filter(Objects::nonNull).map(ByteString::of).collect(Collectors.toList());
-    }
-
     private List<byte[]> multiGetValueBytes(ColumnFamilyHandle columnFamilyHandle, List<byte[]> keys) {
         try {
             return rocksDB.multiGetAsList(Collections.nCopies(keys.size(), columnFamilyHandle), keys);
@@ -171,12 +225,20 @@ public final class RocksDbPersistentStore implements PersistentStore {
 
     private void putEntry(ColumnFamilyHandle columnFamilyHandle, ByteString key, ByteString value) {
         try {
-            rocksDB.put(columnFamilyHandle, key.toByteArray(), value.toByteArray());
+            rocksDB.put(columnFamilyHandle, writeOptions, key.toByteArray(), value.toByteArray());
         } catch (RocksDBException exception) {
             log.warn("Rocks db raised an exception", exception);
         }
     }
 
+    private static void closeResource(AutoCloseable resource) {
+        try {
+            resource.close();
+        } catch (Exception exception) {
+            log.warn("Failed to close a RocksDB resource", exception);
+        }
+    }
+
     private static <T> T callWithExceptionHandling(ThrowingCallable<T, RocksDBException> throwingCallable) {
         try {
             return throwingCallable.call();
@@ -69,6 +69,7 @@ public enum TargetedSweepSchema implements AtlasSchema {
         schema.addTableDefinition("sweepableCells", new TableDefinition() {{
             javaTableName("SweepableCells");
             allSafeForLoggingByDefault();
+            zeroCopyDecoding();
             rowName();
             hashFirstNRowComponents(2);
             rowComponent("timestamp_partition", ValueType.VAR_LONG);
@@ -195,9 +195,9 @@ public final class SweepableCellsTable implements
             @Override
             public SweepableCellsRow hydrateFromBytes(byte[] __input) {
                 int __index = 0;
-                Long hashOfRowComponents = Long.MIN_VALUE ^ PtBytes.toLong(__input, __index);
+                long hashOfRowComponents = Long.MIN_VALUE ^ PtBytes.toLong(__input, __index);
                 __index += 8;
-                Long timestampPartition = EncodingUtils.decodeUnsignedVarLong(__input, __index);
+                long timestampPartition = EncodingUtils.decodeUnsignedVarLong(__input, __index);
                 __index += EncodingUtils.sizeOfUnsignedVarLong(timestampPartition);
                 byte[] metadata = EncodingUtils.getBytesFromOffsetToEnd(__input, __index);
                 __index += 0;
@@ -205,6 +205,24 @@ public final class SweepableCellsTable implements
             }
         };
 
+        public static long readHashOfRowComponents(byte[] __input) {
+            int __index = 0;
+            return Long.MIN_VALUE ^ PtBytes.toLong(__input, __index);
+        }
+
+        public static long readTimestampPartition(byte[] __input) {
+            int __index = 0;
+            __index += 8;
+            return EncodingUtils.decodeUnsignedVarLong(__input, __index);
+        }
+
+        public static byte[] readMetadata(byte[] __input) {
+            int __index = 0;
+            __index += 8;
+            __index += EncodingUtils.sizeOfUnsignedVarLong(EncodingUtils.decodeUnsignedVarLong(__input, __index));
+            return EncodingUtils.getBytesFromOffsetToEnd(__input, __index);
+        }
+
         public static long computeHashFirstComponents(long timestampPartition, byte[] metadata) {
             byte[] timestampPartitionBytes = EncodingUtils.encodeUnsignedVarLong(timestampPartition);
             byte[] metadataBytes = metadata;
@@ -309,14 +327,25 @@ public final class SweepableCellsTable implements
             @Override
             public SweepableCellsColumn hydrateFromBytes(byte[] __input) {
                 int __index = 0;
-                Long timestampModulus = EncodingUtils.decodeUnsignedVarLong(__input, __index);
+                long timestampModulus = EncodingUtils.decodeUnsignedVarLong(__input, __index);
                 __index += EncodingUtils.sizeOfUnsignedVarLong(timestampModulus);
-                Long writeIndex = EncodingUtils.decodeSignedVarLong(__input, __index);
+                long writeIndex = EncodingUtils.decodeSignedVarLong(__input, __index);
                 __index += EncodingUtils.sizeOfSignedVarLong(writeIndex);
                 return new SweepableCellsColumn(timestampModulus, writeIndex);
             }
         };
 
+        public static long readTimestampModulus(byte[] __input) {
+            int __index = 0;
+            return EncodingUtils.decodeUnsignedVarLong(__input, __index);
+        }
+
+        public static long readWriteIndex(byte[] __input) {
+            int __index = 0;
+            __index += EncodingUtils.sizeOfUnsignedVarLong(EncodingUtils.decodeUnsignedVarLong(__input, __index));
+            return EncodingUtils.decodeSignedVarLong(__input, __index);
+        }
+
         public static BatchColumnRangeSelection createPrefixRange(long timestampModulus, int batchSize) {
             byte[] timestampModulusBytes = EncodingUtils.encodeUnsignedVarLong(timestampModulus);
             return ColumnRangeSelections.createPrefixRange(EncodingUtils.add(timestampModulusBytes), batchSize);
@@ -789,5 +818,5 @@ public final class SweepableCellsTable implements
      * {@link UnsignedBytes}
      * {@link ValueType}
      */
-    static String __CLASS_HASH = "+1gMAUSA+NS4EWXpS65rng==";
+    static String __CLASS_HASH = "G0MDMUT1bqPrFkkPJb0QRg==";
 }
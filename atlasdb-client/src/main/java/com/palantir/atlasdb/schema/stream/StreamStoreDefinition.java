@@ -39,6 +39,7 @@ public class StreamStoreDefinition {
     private final ValueType idType;
     private final StreamCompression streamCompression;
     private final int numberOfRowComponentsHashed;
+    private final boolean contentDefinedChunking;
 
     private int inMemoryThreshold;
 
@@ -49,7 +50,8 @@ public class StreamStoreDefinition {
             ValueType idType,
             int inMemoryThreshold,
             StreamCompression streamCompression,
-            int numberOfRowComponentsHashed) {
+            int numberOfRowComponentsHashed,
+            boolean contentDefinedChunking) {
         this.streamStoreTables = streamStoreTables;
         this.shortName = shortName;
         this.longName = longName;
@@ -57,6 +59,7 @@ public class StreamStoreDefinition {
         this.inMemoryThreshold = inMemoryThreshold;
         this.streamCompression = streamCompression;
         this.numberOfRowComponentsHashed = numberOfRowComponentsHashed;
+        this.contentDefinedChunking = contentDefinedChunking;
     }
 
     public Map<String, TableDefinition> getTables() {
@@ -71,10 +74,14 @@ public class StreamStoreDefinition {
         return numberOfRowComponentsHashed;
     }
 
+    public boolean isContentDefinedChunking() {
+        return contentDefinedChunking;
+    }
+
     public StreamStoreRenderer getRenderer(String packageName, String name) {
         String renderedLongName = Renderers.CamelCase(longName);
         return new StreamStoreRenderer(renderedLongName, idType, packageName, name, inMemoryThreshold,
-                streamCompression);
+                streamCompression, contentDefinedChunking);
     }
 
     public Multimap<String, Supplier<OnCleanupTask>> getCleanupTasks(
@@ -112,6 +119,17 @@ public class StreamStoreDefinition {
             }
         });
 
+        if (contentDefinedChunking) {
+            cleanupTasks.put(StreamTableType.CHUNK_INDEX.getTableName(shortName), () -> {
+                try {
+                    Class<?> clazz = Class.forName(packageName + "." + renderer.getChunkCleanupTaskClassName());
+                    return (OnCleanupTask) clazz.getConstructor(Namespace.class).newInstance(namespace);
+                } catch (Exception e) {
+                    throw Throwables.rewrapAndThrowUncheckedException(e);
+                }
+            });
+        }
+
         return cleanupTasks;
     }
 }
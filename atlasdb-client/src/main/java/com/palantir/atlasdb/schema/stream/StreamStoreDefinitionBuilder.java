@@ -16,9 +16,11 @@
 package com.palantir.atlasdb.schema.stream;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.atlasdb.protos.generated.TableMetadataPersistence;
@@ -35,6 +37,7 @@ public class StreamStoreDefinitionBuilder {
     private int inMemoryThreshold = AtlasDbConstants.DEFAULT_STREAM_IN_MEMORY_THRESHOLD;
     private StreamCompression compressStreamType;
     private int numberOfRowComponentsHashed = 0;
+    private boolean contentDefinedChunking = false;
 
     /**
      * @param shortName The prefix of the table names in the DB.
@@ -111,18 +114,41 @@ public class StreamStoreDefinitionBuilder {
         return this;
     }
 
+    /**
+     * Splits streams into chunks at content-defined boundaries (see
+     * {@link com.palantir.atlasdb.stream.ContentDefinedChunker}) and stores every distinct chunk only once, so that
+     * streams with large parts in common, such as successive versions of a document, share the storage of those
+     * parts. This adds a table holding the chunks by their hash and a table recording which streams reference each
+     * chunk; chunks are deleted by a cleanup task once no stream references them.
+     *
+     * Streams are chunked after client side compression would be applied, which would stop similar streams from
+     * sharing chunks, so this cannot be combined with {@link #compressStreamInClient()}. As with
+     * {@link #hashRowComponents()}, do not change this flag for an existing store schema.
+     */
+    public StreamStoreDefinitionBuilder contentDefinedChunking() {
+        contentDefinedChunking = true;
+        return this;
+    }
+
     public StreamStoreDefinitionBuilder inMemoryThreshold(int inMemoryThreshold) {
         this.inMemoryThreshold = inMemoryThreshold;
         return this;
     }
 
     public StreamStoreDefinition build() {
+        Set<String> chunkingTables = ImmutableSet.of(
+                StreamTableType.CHUNK.getTableName(shortName),
+                StreamTableType.CHUNK_INDEX.getTableName(shortName));
         Map<String, TableDefinition> tablesToCreate = streamTables.entrySet().stream()
+                .filter(entry -> contentDefinedChunking || !chunkingTables.contains(entry.getKey()))
                 .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().build()));
 
         com.palantir.logsafe.Preconditions.checkArgument(valueType.getJavaClassName().equals("long"), "Stream ids must be a long");
         Preconditions.checkArgument(inMemoryThreshold <= StreamStoreDefinition.MAX_IN_MEMORY_THRESHOLD,
                 "inMemoryThreshold cannot be greater than %s", StreamStoreDefinition.MAX_IN_MEMORY_THRESHOLD);
+        com.palantir.logsafe.Preconditions.checkArgument(
+                !contentDefinedChunking || compressStreamType == StreamCompression.NONE,
+                "Content-defined chunking cannot be combined with client side compression");
 
         return new StreamStoreDefinition(
                 tablesToCreate,
@@ -131,7 +157,8 @@ public class StreamStoreDefinitionBuilder {
                 valueType,
                 inMemoryThreshold,
                 compressStreamType,
-                numberOfRowComponentsHashed);
+                numberOfRowComponentsHashed,
+                contentDefinedChunking);
     }
 
 }
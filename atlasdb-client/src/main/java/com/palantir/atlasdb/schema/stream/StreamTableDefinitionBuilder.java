@@ -183,6 +183,58 @@ public class StreamTableDefinitionBuilder {
                 ignoreHotspottingChecks();
             }};
 
+        case CHUNK:
+            return new TableDefinition() {{
+                javaTableName(streamTableType.getJavaClassName(prefix));
+
+                tableNameLogSafety(tableNameLogSafety);
+                namedComponentsSafeByDefault();
+
+                rowName();
+                    rowComponent("hash",            ValueType.SHA256HASH);
+                columns();
+                    column("value", "v",            ValueType.BLOB);
+                    column("length", "l",           ValueType.VAR_LONG);
+
+                // Streams referencing an existing chunk touch its length, so that deleting the chunk conflicts.
+                conflictHandler(ConflictHandler.RETRY_ON_WRITE_WRITE);
+                maxValueSize(GenericStreamStore.BLOCK_SIZE_IN_BYTES);
+                cachePriority(CachePriority.COLD);
+                negativeLookups();
+                if (appendHeavyAndReadLight) {
+                    appendHeavyAndReadLight();
+                }
+                if (dbSideCompressionForBlocks) {
+                    int streamStoreValueSizeKB = GenericStreamStore.BLOCK_SIZE_IN_BYTES / 1_000;
+                    int expectedAverageValueSizeKB = streamStoreValueSizeKB / 2;
+                    int compressionBlockSizeKB = highestPowerOfTwoLessThanOrEqualTo(expectedAverageValueSizeKB);
+                    explicitCompressionBlockSizeKB(compressionBlockSizeKB);
+                }
+                ignoreHotspottingChecks();
+            }};
+
+        case CHUNK_INDEX:
+            return new TableDefinition() {{
+                javaTableName(streamTableType.getJavaClassName(prefix));
+
+                tableNameLogSafety(tableNameLogSafety);
+                namedComponentsSafeByDefault();
+
+                rowName();
+                    rowComponent("hash",            ValueType.SHA256HASH);
+                dynamicColumns();
+                    columnComponent("stream_id",    idType);
+                    value(ValueType.VAR_LONG);
+
+                conflictHandler(ConflictHandler.IGNORE_ALL);
+                maxValueSize(1);
+                explicitCompressionRequested();
+                if (appendHeavyAndReadLight) {
+                    appendHeavyAndReadLight();
+                }
+                ignoreHotspottingChecks();
+            }};
+
         default:
             throw new SafeIllegalStateException("Incorrectly supplied stream table type");
         }
@@ -23,7 +23,10 @@ public enum StreamTableType { // WARNING: do not change these without an upgrade
     METADATA("_stream_metadata", "StreamMetadata"),
     VALUE("_stream_value", "StreamValue"),
     HASH("_stream_hash_aidx", "StreamHashAidx"),
-    INDEX("_stream_idx", "StreamIdx");
+    INDEX("_stream_idx", "StreamIdx"),
+    // Only used by stream stores with content-defined chunking.
+    CHUNK("_stream_chunk", "StreamChunk"),
+    CHUNK_INDEX("_stream_chunk_idx", "StreamChunkIdx");
 
     private final String tableSuffix;
     private final String javaSuffix;
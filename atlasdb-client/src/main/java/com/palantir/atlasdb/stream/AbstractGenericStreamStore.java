@@ -25,6 +25,8 @@ import java.io.OutputStream;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import javax.annotation.CheckForNull;
@@ -44,23 +46,41 @@ import com.palantir.atlasdb.transaction.api.Transaction;
 import com.palantir.atlasdb.transaction.api.TransactionManager;
 import com.palantir.common.base.Throwables;
 import com.palantir.common.compression.StreamCompression;
+import com.palantir.common.concurrent.PTExecutors;
 import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
 import com.palantir.util.ByteArrayIOStream;
 
 public abstract class AbstractGenericStreamStore<T> implements GenericStreamStore<T> {
     protected static final Logger log = LoggerFactory.getLogger(AbstractGenericStreamStore.class);
 
+    // Bounds the threads used to read ahead across all stream stores; further batches queue until a thread is free.
+    private static final int MAX_READ_AHEAD_THREADS = 16;
+    private static final ExecutorService READ_AHEAD_EXECUTOR = PTExecutors.newFixedThreadPool(
+            MAX_READ_AHEAD_THREADS, "stream-store-read-ahead");
+
     @CheckForNull protected final TransactionManager txnMgr;
     private final StreamCompression compression;
+    private final Supplier<StreamStorePersistenceConfiguration> persistenceConfiguration;
 
     protected AbstractGenericStreamStore(
             TransactionManager txManager,
             StreamCompression compression) {
+        this(txManager, compression, () -> StreamStorePersistenceConfiguration.DEFAULT_CONFIG);
+    }
+
+    protected AbstractGenericStreamStore(
+            TransactionManager txManager,
+            StreamCompression compression,
+            Supplier<StreamStorePersistenceConfiguration> persistenceConfiguration) {
         this.txnMgr = txManager;
         this.compression = compression;
+        this.persistenceConfiguration = persistenceConfiguration;
     }
 
     private long getNumberOfBlocksFromMetadata(StreamMetadata metadata) {
+        if (metadata.hasBlocks()) {
+            return metadata.getBlocks();
+        }
         return (metadata.getLength() + BLOCK_SIZE_IN_BYTES - 1) / BLOCK_SIZE_IN_BYTES;
     }
 
@@ -114,7 +134,8 @@ public abstract class AbstractGenericStreamStore<T> implements GenericStreamStor
         checkStreamStored(id, metadata);
         if (metadata.getLength() == 0) {
             return new ByteArrayInputStream(new byte[0]);
-        } else if (metadata.getLength() <= Math.min(getInMemoryThreshold(), BLOCK_SIZE_IN_BYTES)) {
+        } else if (metadata.getLength() <= Math.min(getInMemoryThreshold(), BLOCK_SIZE_IN_BYTES)
+                && getNumberOfBlocksFromMetadata(metadata) == 1) {
             ByteArrayIOStream ios = new ByteArrayIOStream(Ints.saturatedCast(metadata.getLength()));
             loadSingleBlockToOutputStream(transaction, id, 0, ios);
             return ios.getInputStream();
@@ -146,7 +167,19 @@ public abstract class AbstractGenericStreamStore<T> implements GenericStreamStor
             }
         };
 
+        int batchesToReadAhead = persistenceConfiguration.get().numBlockBatchesToReadAhead();
         try {
+            if (batchesToReadAhead > 0 && totalBlocks > blocksInMemory) {
+                // Transactions may not be used concurrently, so blocks are only read ahead once the parent
+                // transaction is over, at which point each batch is read in its own read-only transaction.
+                return BlockConsumingInputStream.createWithReadAhead(
+                        pageRefresher,
+                        totalBlocks,
+                        blocksInMemory,
+                        batchesToReadAhead,
+                        READ_AHEAD_EXECUTOR,
+                        () -> !parent.isUncommitted());
+            }
             return BlockConsumingInputStream.create(pageRefresher, totalBlocks, blocksInMemory);
         } catch (IOException e) {
             throw Throwables.throwUncheckedException(e);
@@ -17,9 +17,15 @@ package com.palantir.atlasdb.stream;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.function.Supplier;
 
 import javax.annotation.Nullable;
@@ -42,14 +48,19 @@ import com.palantir.atlasdb.transaction.api.TransactionTask;
 import com.palantir.atlasdb.transaction.impl.TxTask;
 import com.palantir.common.base.Throwables;
 import com.palantir.common.compression.StreamCompression;
+import com.palantir.common.concurrent.PTExecutors;
 import com.palantir.common.streams.KeyedStream;
 import com.palantir.util.Pair;
 import com.palantir.util.crypto.Sha256Hash;
 
 public abstract class AbstractPersistentStreamStore extends AbstractGenericStreamStore<Long>
         implements PersistentStreamStore {
+    private static final ExecutorService BLOCK_WRITE_EXECUTOR = PTExecutors.newCachedThreadPool(
+            "stream-store-block-writer");
+
     private final StreamStoreBackoffStrategy backoffStrategy;
     private final StreamCompression compression;
+    private final Supplier<StreamStorePersistenceConfiguration> persistenceConfiguration;
 
     protected AbstractPersistentStreamStore(TransactionManager txManager,
             StreamCompression compression) {
@@ -59,8 +70,9 @@ public abstract class AbstractPersistentStreamStore extends AbstractGenericStrea
     protected AbstractPersistentStreamStore(TransactionManager txManager,
             StreamCompression compression,
             Supplier<StreamStorePersistenceConfiguration> persistenceConfiguration) {
-        super(txManager, compression);
+        super(txManager, compression, persistenceConfiguration);
         this.compression = compression;
+        this.persistenceConfiguration = persistenceConfiguration;
         this.backoffStrategy = StandardPeriodicBackoffStrategy.create(persistenceConfiguration);
     }
 
@@ -169,8 +181,9 @@ public abstract class AbstractPersistentStreamStore extends AbstractGenericStrea
         CountingInputStream countingStream = new CountingInputStream(stream);
 
         // Try to store the bytes in the stream and get length
+        long blocks;
         try {
-            storeBlocksFromStream(tx, id, countingStream);
+            blocks = storeBlocksFromStream(tx, id, countingStream);
         } catch (IOException e) {
             long length = countingStream.getCount();
             StreamMetadata metadata = StreamMetadata.newBuilder()
@@ -184,14 +197,26 @@ public abstract class AbstractPersistentStreamStore extends AbstractGenericStrea
         }
 
         long length = countingStream.getCount();
-        return StreamMetadata.newBuilder()
+        StreamMetadata.Builder metadata = StreamMetadata.newBuilder()
                 .setStatus(Status.STORED)
                 .setLength(length)
-                .setHash(ByteString.EMPTY)
-                .build();
+                .setHash(ByteString.EMPTY);
+        if (usesContentDefinedChunking()) {
+            metadata.setBlocks(blocks);
+        }
+        return metadata.build();
     }
 
-    private void storeBlocksFromStream(@Nullable Transaction tx, long id, InputStream stream) throws IOException {
+    private long storeBlocksFromStream(@Nullable Transaction tx, long id, InputStream stream) throws IOException {
+        if (usesContentDefinedChunking()) {
+            return storeChunksFromStream(tx, id, ContentDefinedChunker.create(stream));
+        }
+
+        int concurrentBlockWrites = persistenceConfiguration.get().numConcurrentBlockWrites();
+        if (!streamOperationIsTransactional(tx) && concurrentBlockWrites > 1) {
+            return storeBlocksFromStreamConcurrently(id, stream, concurrentBlockWrites);
+        }
+
         long blockNumber = 0;
 
         while (true) {
@@ -204,7 +229,7 @@ public abstract class AbstractPersistentStreamStore extends AbstractGenericStrea
             if (length < BLOCK_SIZE_IN_BYTES) {
                 // This is the last block.
                 storeBlockWithNonNullTransaction(tx, id, blockNumber, PtBytes.head(bytesToStore, length));
-                break;
+                return blockNumber + 1;
             } else {
                 // Store a full block.
                 storeBlockWithNonNullTransaction(tx, id, blockNumber, bytesToStore);
@@ -214,6 +239,111 @@ public abstract class AbstractPersistentStreamStore extends AbstractGenericStrea
                 backoffStrategy.accept(blockNumber);
             }
         }
+        return blockNumber;
+    }
+
+    /**
+     * Stores every chunk of the stream as a block of its own. Blocks of stream stores with content-defined chunking
+     * reference chunks that may be shared with other streams, so writing a block can conflict with concurrent writes
+     * of the same chunk, and non-transactional writes are retried.
+     */
+    private long storeChunksFromStream(@Nullable Transaction tx, long id, ContentDefinedChunker chunker)
+            throws IOException {
+        long blockNumber = 0;
+        byte[] chunk = chunker.nextChunk();
+        while (chunk != null) {
+            if (streamOperationIsTransactional(tx)) {
+                storeBlock(tx, id, blockNumber, chunk);
+            } else {
+                storeBlockWithRetry(id, blockNumber, chunk);
+            }
+            blockNumber++;
+            chunk = chunker.nextChunk();
+            if (chunk != null && !streamOperationIsTransactional(tx)) {
+                backoffStrategy.accept(blockNumber);
+            }
+        }
+        return blockNumber;
+    }
+
+    /**
+     * Writes the blocks of the stream in separate transactions, with up to concurrentBlockWrites writes in flight.
+     * The next block is read (and so compressed and hashed) while the previous blocks are being written, and this
+     * method only returns once all blocks have been written.
+     *
+     * Block writes do not touch the metadata of the stream, as that would make concurrent writes of blocks of the same
+     * stream conflict with each other. Instead, concurrent cleanup is detected once, when the stream is marked as
+     * stored, which fails if the stream is no longer storing.
+     */
+    private long storeBlocksFromStreamConcurrently(long id, InputStream stream, int concurrentBlockWrites)
+            throws IOException {
+        Deque<Future<?>> writesInFlight = new ArrayDeque<>();
+        long blockNumber = 0;
+        try {
+            while (true) {
+                byte[] bytesToStore = new byte[BLOCK_SIZE_IN_BYTES];
+                int length = ByteStreams.read(stream, bytesToStore, 0, BLOCK_SIZE_IN_BYTES);
+                if (length == 0) {
+                    break;
+                }
+
+                if (writesInFlight.size() >= concurrentBlockWrites) {
+                    awaitBlockWrite(writesInFlight.poll());
+                }
+                long currentBlockNumber = blockNumber;
+                byte[] block = length < BLOCK_SIZE_IN_BYTES ? PtBytes.head(bytesToStore, length) : bytesToStore;
+                writesInFlight.add(BLOCK_WRITE_EXECUTOR.submit(
+                        () -> storeBlockWithoutTouchingMetadataWithRetry(id, currentBlockNumber, block)));
+
+                blockNumber++;
+                if (length < BLOCK_SIZE_IN_BYTES) {
+                    // This was the last block.
+                    break;
+                }
+                backoffStrategy.accept(blockNumber);
+            }
+
+            while (!writesInFlight.isEmpty()) {
+                awaitBlockWrite(writesInFlight.poll());
+            }
+        } finally {
+            // Only non-empty if reading the stream or writing a block failed.
+            writesInFlight.forEach(write -> write.cancel(false));
+        }
+        return blockNumber;
+    }
+
+    private void storeBlockWithRetry(long id, long blockNumber, byte[] bytesToStore) {
+        com.palantir.logsafe.Preconditions.checkNotNull(txnMgr, "Transaction manager must not be null");
+        txnMgr.runTaskWithRetry(
+                (TransactionTask<Void, RuntimeException>) tx -> {
+                    storeBlock(tx, id, blockNumber, bytesToStore);
+                    return null;
+                });
+    }
+
+    /**
+     * Retries, as stream stores generated before {@link #storeBlockWithoutTouchingMetadata} was introduced still touch
+     * the metadata of the stream, and so still conflict with concurrent writes of other blocks of the stream.
+     */
+    private void storeBlockWithoutTouchingMetadataWithRetry(long id, long blockNumber, byte[] bytesToStore) {
+        com.palantir.logsafe.Preconditions.checkNotNull(txnMgr, "Transaction manager must not be null");
+        txnMgr.runTaskWithRetry(
+                (TransactionTask<Void, RuntimeException>) tx -> {
+                    storeBlockWithoutTouchingMetadata(tx, id, blockNumber, bytesToStore);
+                    return null;
+                });
+    }
+
+    private static void awaitBlockWrite(Future<?> write) throws IOException {
+        try {
+            write.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for blocks to be written");
+        } catch (ExecutionException e) {
+            throw Throwables.rewrapAndThrowUncheckedException(e.getCause());
+        }
     }
 
     private boolean streamOperationIsTransactional(@Nullable Transaction tx) {
@@ -237,6 +367,14 @@ public abstract class AbstractPersistentStreamStore extends AbstractGenericStrea
         }
     }
 
+    /**
+     * Overridden in generated code of stream stores with content-defined chunking, whose blocks are chunks of
+     * varying size found by a {@link ContentDefinedChunker}, and hold references to chunks stored once per content.
+     */
+    protected boolean usesContentDefinedChunking() {
+        return false;
+    }
+
     private void putMetadataAndHashIndexTask(Transaction tx, Long streamId, StreamMetadata metadata) {
         putMetadataAndHashIndexTask(tx, ImmutableMap.<Long, StreamMetadata>builder().put(streamId, metadata).build());
     }
@@ -245,6 +383,15 @@ public abstract class AbstractPersistentStreamStore extends AbstractGenericStrea
 
     protected abstract void storeBlock(Transaction tx, long id, long blockNumber, byte[] block);
 
+    /**
+     * Stores a block without touching the metadata of its stream, for callers that check the status of the stream
+     * when marking it as stored instead. Overridden in generated code; stream stores generated before this method was
+     * introduced fall back to {@link #storeBlock}.
+     */
+    protected void storeBlockWithoutTouchingMetadata(Transaction tx, long id, long blockNumber, byte[] block) {
+        storeBlock(tx, id, blockNumber, block);
+    }
+
     protected abstract void touchMetadataWhileMarkingUsedForConflicts(Transaction tx, Iterable<Long> ids)
             throws StreamCleanedException;
 
@@ -18,19 +18,49 @@ package com.palantir.atlasdb.stream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+import javax.annotation.Nullable;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.palantir.atlasdb.schema.stream.StreamStoreDefinition;
+import com.palantir.common.base.Throwables;
 
+/**
+ * An input stream over the blocks supplied by a {@link BlockGetter}, holding up to blocksInMemory blocks in memory at
+ * a time.
+ *
+ * By default, a batch of blocks is only fetched once the previous batch has been consumed. If batches to read ahead
+ * are requested, up to that many batches are instead fetched in parallel on the supplied executor while the consumer
+ * reads the current batch, once reading ahead is allowed. No more batches are fetched until the consumer has finished
+ * with one, so at most batchesToReadAhead + 1 batches are ever held in memory, and their buffers are reused for later
+ * batches. Closing the stream cancels any batches still being fetched.
+ */
 public final class BlockConsumingInputStream extends InputStream {
     private final BlockGetter blockGetter;
     private final long numBlocks;
     private final int blocksInMemory;
+    private final int batchesToReadAhead;
+    @Nullable private final ExecutorService readAheadExecutor;
+    private final BooleanSupplier readAheadAllowed;
+
+    private final Deque<Future<BatchBuffer>> batchesInFlight = new ArrayDeque<>();
+    private final Deque<BatchBuffer> freeBatchBuffers = new ArrayDeque<>();
+    @Nullable private BatchBuffer currentBatch;
 
     private long nextBlockToRead;
 
     private byte[] buffer;
+    private int bufferLength;
     private int positionInBuffer;
 
     public static BlockConsumingInputStream create(
@@ -38,7 +68,27 @@ public final class BlockConsumingInputStream extends InputStream {
             long numBlocks,
             int blocksInMemory) throws IOException {
         ensureExpectedArraySizeDoesNotOverflow(blockGetter, blocksInMemory);
-        return new BlockConsumingInputStream(blockGetter, numBlocks, blocksInMemory);
+        return new BlockConsumingInputStream(blockGetter, numBlocks, blocksInMemory, 0, null, () -> false);
+    }
+
+    /**
+     * Creates a stream that keeps up to batchesToReadAhead batches of blocksInMemory blocks in flight on the given
+     * executor. Until readAheadAllowed first returns true, batches are fetched one at a time on the reading thread
+     * instead; once it does, the BlockGetter must support concurrent calls for disjoint ranges of blocks from the
+     * executor's threads.
+     */
+    public static BlockConsumingInputStream createWithReadAhead(
+            BlockGetter blockGetter,
+            long numBlocks,
+            int blocksInMemory,
+            int batchesToReadAhead,
+            ExecutorService readAheadExecutor,
+            BooleanSupplier readAheadAllowed) throws IOException {
+        ensureExpectedArraySizeDoesNotOverflow(blockGetter, blocksInMemory);
+        Preconditions.checkArgument(batchesToReadAhead > 0,
+                "Number of batches to read ahead must be positive, but was %s", batchesToReadAhead);
+        return new BlockConsumingInputStream(
+                blockGetter, numBlocks, blocksInMemory, batchesToReadAhead, readAheadExecutor, readAheadAllowed);
     }
 
     // we don't want to actually create a very large array in tests, as the external test VM would run out of memory.
@@ -57,31 +107,32 @@ public final class BlockConsumingInputStream extends InputStream {
                 expectedBufferSize);
     }
 
-    private BlockConsumingInputStream(BlockGetter blockGetter, long numBlocks, int blocksInMemory) {
+    private BlockConsumingInputStream(BlockGetter blockGetter, long numBlocks, int blocksInMemory,
+            int batchesToReadAhead, @Nullable ExecutorService readAheadExecutor, BooleanSupplier readAheadAllowed) {
         this.blockGetter = blockGetter;
         this.numBlocks = numBlocks;
         this.blocksInMemory = blocksInMemory;
+        this.batchesToReadAhead = batchesToReadAhead;
+        this.readAheadExecutor = readAheadExecutor;
+        this.readAheadAllowed = readAheadAllowed;
         this.nextBlockToRead = 0L;
         this.positionInBuffer = 0;
         this.buffer = new byte[0];
+        this.bufferLength = 0;
     }
 
     @Override
     public int read() throws IOException {
-        if (positionInBuffer < buffer.length) {
+        if (positionInBuffer < bufferLength) {
             return buffer[positionInBuffer++] & 0xff;
         }
 
-        if (nextBlockToRead < numBlocks) {
-            boolean reloaded = refillBuffer();
-            if (!reloaded) {
-                return -1;
-            }
-
-            return buffer[positionInBuffer++] & 0xff;
+        boolean reloaded = refillBuffer();
+        if (!reloaded) {
+            return -1;
         }
 
-        return -1;
+        return buffer[positionInBuffer++] & 0xff;
     }
 
     @Override
@@ -96,13 +147,13 @@ public final class BlockConsumingInputStream extends InputStream {
 
         int bytesRead = 0;
         while (bytesRead < len) {
-            int bytesLeftInBuffer = buffer.length - positionInBuffer;
+            int bytesLeftInBuffer = bufferLength - positionInBuffer;
             int bytesToCopy = Math.min(bytesLeftInBuffer, len - bytesRead);
             System.arraycopy(buffer, positionInBuffer, bytes, off + bytesRead, bytesToCopy);
             positionInBuffer += bytesToCopy;
             bytesRead += bytesToCopy;
 
-            if (positionInBuffer >= buffer.length) {
+            if (positionInBuffer >= bufferLength) {
                 boolean reloaded = refillBuffer();
                 if (!reloaded) {
                     break;
@@ -117,7 +168,21 @@ public final class BlockConsumingInputStream extends InputStream {
         return bytesRead;
     }
 
+    @Override
+    public void close() throws IOException {
+        // Interrupts batches that are being fetched, and stops those that have not started from being fetched at all.
+        batchesInFlight.forEach(batch -> batch.cancel(true));
+        batchesInFlight.clear();
+        freeBatchBuffers.clear();
+        currentBatch = null;
+        super.close();
+    }
+
     private boolean refillBuffer() throws IOException {
+        if (batchesToReadAhead > 0 && (!batchesInFlight.isEmpty() || readAheadAllowed.getAsBoolean())) {
+            return refillBufferFromReadAhead();
+        }
+
         // since blocksInMemory is an int, the min is guaranteed to fit in an int
         int numBlocksToGet = (int) Math.min(blocksLeft(), blocksInMemory);
         if (numBlocksToGet <= 0) {
@@ -129,12 +194,99 @@ public final class BlockConsumingInputStream extends InputStream {
             blockGetter.get(nextBlockToRead, numBlocksToGet, outputStream);
             nextBlockToRead += numBlocksToGet;
             buffer = outputStream.toByteArray();
+            bufferLength = buffer.length;
             positionInBuffer = 0;
             return true;
         }
     }
 
+    private boolean refillBufferFromReadAhead() throws IOException {
+        requestBatches();
+        Future<BatchBuffer> nextBatch = batchesInFlight.poll();
+        if (nextBatch == null) {
+            return false;
+        }
+
+        BatchBuffer batch = awaitBatch(nextBatch);
+        if (currentBatch != null) {
+            freeBatchBuffers.add(currentBatch);
+        }
+        currentBatch = batch;
+        buffer = batch.bytes;
+        bufferLength = batch.length;
+        positionInBuffer = 0;
+
+        // The previous batch has been consumed, so there is room for another batch in flight.
+        requestBatches();
+        return true;
+    }
+
+    private void requestBatches() {
+        while (batchesInFlight.size() < batchesToReadAhead && blocksLeft() > 0) {
+            // since blocksInMemory is an int, the min is guaranteed to fit in an int
+            int numBlocksToGet = (int) Math.min(blocksLeft(), blocksInMemory);
+            long firstBlock = nextBlockToRead;
+            nextBlockToRead += numBlocksToGet;
+
+            BatchBuffer batch = freeBatchBuffers.isEmpty()
+                    ? new BatchBuffer(blockGetter.expectedBlockLength() * blocksInMemory)
+                    : freeBatchBuffers.poll();
+            batchesInFlight.add(readAheadExecutor.submit(() -> {
+                batch.reset();
+                blockGetter.get(firstBlock, numBlocksToGet, batch);
+                return batch;
+            }));
+        }
+    }
+
+    private static BatchBuffer awaitBatch(Future<BatchBuffer> batch) throws IOException {
+        try {
+            return batch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for blocks to be read");
+        } catch (ExecutionException e) {
+            throw Throwables.rewrapAndThrowUncheckedException(e.getCause());
+        }
+    }
+
     private long blocksLeft() {
         return Math.max(0L, numBlocks - nextBlockToRead);
     }
+
+    /**
+     * A reusable output stream into a byte array, which grows if a batch is larger than expected.
+     */
+    private static final class BatchBuffer extends OutputStream {
+        private byte[] bytes;
+        private int length;
+
+        private BatchBuffer(int expectedLength) {
+            this.bytes = new byte[expectedLength];
+            this.length = 0;
+        }
+
+        private void reset() {
+            length = 0;
+        }
+
+        @Override
+        public void write(int value) {
+            ensureCapacity(length + 1);
+            bytes[length++] = (byte) value;
+        }
+
+        @Override
+        public void write(byte[] source, int offset, int len) {
+            ensureCapacity(length + len);
+            System.arraycopy(source, offset, bytes, length, len);
+            length += len;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+            }
+        }
+    }
 }
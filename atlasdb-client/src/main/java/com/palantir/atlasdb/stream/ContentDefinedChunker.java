@@ -0,0 +1,121 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import javax.annotation.Nullable;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * Splits a stream into chunks at positions determined by its content rather than by fixed offsets, so that an
+ * insertion or deletion in one part of a stream only changes the chunks around it. Two similar streams therefore
+ * share most of their chunks, which lets stream stores with content-defined chunking store those chunks only once.
+ *
+ * A chunk ends where a rolling gear hash over the last 64 bytes has its top {@link #BOUNDARY_BITS} bits unset.
+ * Chunks are at least {@link #MIN_CHUNK_SIZE} bytes long (except for the last chunk of a stream) and at most
+ * {@link #MAX_CHUNK_SIZE} bytes long, so that every chunk fits into a single stream store block.
+ *
+ * The gear table and the chunk size bounds determine where streams are cut. Changing them does not affect the
+ * correctness of existing stream stores, but streams stored afterwards will no longer share chunks with streams
+ * stored before.
+ */
+public final class ContentDefinedChunker {
+    public static final int MIN_CHUNK_SIZE = 64 * 1024;
+    public static final int MAX_CHUNK_SIZE = GenericStreamStore.BLOCK_SIZE_IN_BYTES;
+
+    // On average, a boundary is found 2^18 bytes (256KB) after the minimum chunk size.
+    private static final int BOUNDARY_BITS = 18;
+    private static final long BOUNDARY_MASK = ((1L << BOUNDARY_BITS) - 1) << (Long.SIZE - BOUNDARY_BITS);
+    private static final long[] GEAR = createGearTable(0x5eedL);
+
+    private final InputStream stream;
+    private final byte[] buffer = new byte[MAX_CHUNK_SIZE];
+    private int bufferStart = 0;
+    private int bufferEnd = 0;
+
+    private ContentDefinedChunker(InputStream stream) {
+        this.stream = stream;
+    }
+
+    public static ContentDefinedChunker create(InputStream stream) {
+        return new ContentDefinedChunker(stream);
+    }
+
+    /**
+     * Returns the next chunk of the stream, or null if the stream has been fully consumed.
+     */
+    @Nullable
+    public byte[] nextChunk() throws IOException {
+        fillBuffer();
+        int available = bufferEnd - bufferStart;
+        if (available == 0) {
+            return null;
+        }
+
+        int chunkLength = findChunkLength(buffer, bufferStart, available);
+        byte[] chunk = Arrays.copyOfRange(buffer, bufferStart, bufferStart + chunkLength);
+        bufferStart += chunkLength;
+        return chunk;
+    }
+
+    /**
+     * Returns an upper bound on the number of chunks a stream of the given length is split into.
+     */
+    public static long getMaximumNumberOfChunks(long length) {
+        return length / MIN_CHUNK_SIZE + 1;
+    }
+
+    private void fillBuffer() throws IOException {
+        int remaining = bufferEnd - bufferStart;
+        System.arraycopy(buffer, bufferStart, buffer, 0, remaining);
+        bufferStart = 0;
+        bufferEnd = remaining + ByteStreams.read(stream, buffer, remaining, buffer.length - remaining);
+    }
+
+    private static int findChunkLength(byte[] bytes, int offset, int available) {
+        if (available <= MIN_CHUNK_SIZE) {
+            return available;
+        }
+
+        // The hash only depends on the last 64 bytes, so there is no need to hash the start of the chunk.
+        long hash = 0L;
+        for (int i = MIN_CHUNK_SIZE - Long.SIZE; i < available; i++) {
+            hash = (hash << 1) + GEAR[bytes[offset + i] & 0xff];
+            if (i + 1 >= MIN_CHUNK_SIZE && (hash & BOUNDARY_MASK) == 0) {
+                return i + 1;
+            }
+        }
+        return available;
+    }
+
+    private static long[] createGearTable(long seed) {
+        // splitmix64, written out so that the table does not depend on any library implementation.
+        long[] table = new long[256];
+        long state = seed;
+        for (int i = 0; i < table.length; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            long value = state;
+            value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+            value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+            table[i] = value ^ (value >>> 31);
+        }
+        return table;
+    }
+}
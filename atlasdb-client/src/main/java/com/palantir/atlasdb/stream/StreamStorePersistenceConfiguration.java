@@ -55,11 +55,47 @@ public interface StreamStorePersistenceConfiguration {
         return 0;
     }
 
+    /**
+     * The maximum number of blocks that a nontransactional storeStream() writes concurrently, each in its own
+     * transaction. Blocks are read, compressed and hashed on the calling thread ahead of the writes, and the stream
+     * metadata is only written once all blocks have been written. If 1, each block is written before the next block is
+     * read.
+     *
+     * The back-pressure mechanism described under numBlocksToWriteBeforePause applies to the reading of blocks, and
+     * so still bounds the rate at which blocks are written.
+     *
+     * This parameter is live reloadable, and applies to streams stored after it is reloaded.
+     */
+    @Value.Default
+    default int numConcurrentBlockWrites() {
+        return 1;
+    }
+
+    /**
+     * The number of batches of blocks that loadStream() fetches in parallel ahead of the consumer of the returned
+     * stream, where each batch holds as many blocks as fit within the in-memory threshold of the stream store. If 0,
+     * a batch is only fetched once the previous batch has been consumed.
+     *
+     * Each batch is fetched in its own read-only transaction if the transaction passed to loadStream() has already
+     * completed, or concurrently in that transaction otherwise. At most this number plus one batches are held in
+     * memory per loaded stream.
+     *
+     * This parameter is live reloadable, and applies to streams loaded after it is reloaded.
+     */
+    @Value.Default
+    default int numBlockBatchesToReadAhead() {
+        return 0;
+    }
+
     @Value.Check
     default void check() {
         Preconditions.checkState(numBlocksToWriteBeforePause() > 0,
                 "Number of blocks to write before pausing must be positive");
         Preconditions.checkState(writePauseDurationMillis() >= 0,
                 "Pause duration between batches of writes must be non-negative");
+        Preconditions.checkState(numConcurrentBlockWrites() > 0,
+                "Number of concurrent block writes must be positive");
+        Preconditions.checkState(numBlockBatchesToReadAhead() >= 0,
+                "Number of batches of blocks to read ahead must be non-negative");
     }
 }
@@ -66,6 +66,15 @@ public class ColumnMetadataDescription {
         return ret;
     }
 
+    /**
+     * Returns true if any column value is compressed with {@link ColumnValueDescription.Compression#DEFLATE}, and so
+     * with the compression dictionaries trained for its column.
+     */
+    public boolean usesDictionaryCompression() {
+        return getAllColumnValues().stream()
+                .anyMatch(value -> value.getCompression() == ColumnValueDescription.Compression.DEFLATE);
+    }
+
     public int getMaxValueSize() {
         if (dynamicColumn != null) {
             return dynamicColumn.getValue().getMaxValueSize();
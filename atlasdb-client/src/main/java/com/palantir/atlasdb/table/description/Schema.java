@@ -346,6 +346,12 @@ public class Schema {
                  renderer.renderMetadataCleanupTask(),
                  renderer.getPackageName(),
                  renderer.getMetadataCleanupTaskClassName());
+            if (renderer.isContentDefinedChunking()) {
+                emit(srcDir,
+                     renderer.renderChunkCleanupTask(),
+                     renderer.getPackageName(),
+                     renderer.getChunkCleanupTaskClassName());
+            }
         }
         TableFactoryRenderer tableFactoryRenderer =
                 TableFactoryRenderer.of(
@@ -361,6 +361,46 @@ public class TableDefinition extends AbstractDefinition {
         this.v2TableEnabled = true;
     }
 
+    public boolean isAppendOnly() {
+        return appendOnly;
+    }
+
+    /**
+     * Declares that cells of this table are written at most once, and are never overwritten or deleted afterwards.
+     * This is persisted in the table metadata, and values read from append-only tables may be cached across
+     * transactions by a {@link com.palantir.atlasdb.transaction.impl.SharedCellCache}, so this must only be declared
+     * for tables for which it actually holds.
+     */
+    public void appendOnly() {
+        this.appendOnly = true;
+    }
+
+    public boolean isZeroCopyDecoding() {
+        return zeroCopyDecoding;
+    }
+
+    /**
+     * Generates row and dynamic column classes whose hydrators keep primitive components unboxed, along with static
+     * {@code read<Component>(byte[])} methods that decode a single component directly from the persisted bytes. This
+     * does not change the persisted format, and so can be enabled for existing tables.
+     */
+    public void zeroCopyDecoding() {
+        this.zeroCopyDecoding = true;
+    }
+
+    public boolean hasTypedScans() {
+        return typedScans;
+    }
+
+    /**
+     * Generates a typed scan builder for this table, available through {@code scan()} on the generated table. Scans
+     * only retrieve the selected columns, may be restricted to a row prefix or to bounds built from the row
+     * components, and can stream their results a page at a time. Has no effect unless range scans are allowed.
+     */
+    public void typedScans() {
+        this.typedScans = true;
+    }
+
     public void validate() {
         toTableMetadata();
         getConstraintMetadata();
@@ -396,6 +436,9 @@ public class TableDefinition extends AbstractDefinition {
     private LogSafety tableNameSafety = LogSafety.UNSAFE;
     private LogSafety defaultNamedComponentLogSafety = LogSafety.UNSAFE;
     private boolean v2TableEnabled = false;
+    private boolean appendOnly = false;
+    private boolean zeroCopyDecoding = false;
+    private boolean typedScans = false;
 
     public TableMetadata toTableMetadata() {
         com.palantir.logsafe.Preconditions.checkState(!rowNameComponents.isEmpty(), "No row name components defined.");
@@ -419,6 +462,7 @@ public class TableDefinition extends AbstractDefinition {
                 .sweepStrategy(sweepStrategy)
                 .appendHeavyAndReadLight(appendHeavyAndReadLight)
                 .nameLogSafety(tableNameSafety)
+                .appendOnly(appendOnly)
                 .build();
     }
 
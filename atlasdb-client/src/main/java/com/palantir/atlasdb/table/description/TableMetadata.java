@@ -92,6 +92,15 @@ public abstract class TableMetadata implements Persistable {
         return false;
     }
 
+    /**
+     * @return whether cells of the table are written at most once, and never overwritten or deleted afterwards. Values
+     * read from such tables may be shared between transactions.
+     */
+    @Value.Default
+    public boolean isAppendOnly() {
+        return false;
+    }
+
     public static TableMetadata allDefault() {
         return builder().build();
     }
@@ -168,6 +177,9 @@ public abstract class TableMetadata implements Persistable {
         if (hasDenselyAccessedWideRows()) {
             builder.setDenselyAccessedWideRows(hasDenselyAccessedWideRows());
         }
+        if (isAppendOnly()) {
+            builder.setAppendOnly(isAppendOnly());
+        }
         return builder;
     }
 
@@ -201,6 +213,9 @@ public abstract class TableMetadata implements Persistable {
         if (message.hasDenselyAccessedWideRows()) {
             builder.denselyAccessedWideRows(message.getDenselyAccessedWideRows());
         }
+        if (message.hasAppendOnly()) {
+            builder.appendOnly(message.getAppendOnly());
+        }
 
         return builder.build();
     }
@@ -148,13 +148,13 @@ public class DynamicColumnValueRenderer extends Renderer {
             default:
                 throw new UnsupportedOperationException("Unsupported value type: " + val.getFormat());
             }
-            line("return CompressionUtils.compress(bytes, Compression.", val.getCompression().name(), ");");
+            line("return CompressionUtils.compress(bytes, Compression.", val.getColumnValueCompression().name(), ");");
         } line("}");
     }
 
     private void hydrateValue() {
         line("public static ", Value, " hydrateValue(byte[] bytes) {"); {
-            line("bytes = CompressionUtils.decompress(bytes, Compression.", val.getCompression().name(), ");");
+            line("bytes = CompressionUtils.decompress(bytes, Compression.", val.getColumnValueCompression().name(), ");");
             switch (val.getFormat()) {
             case PERSISTABLE:
                 line("return ", Value, ".BYTES_HYDRATOR.hydrateFromBytes(bytes);");
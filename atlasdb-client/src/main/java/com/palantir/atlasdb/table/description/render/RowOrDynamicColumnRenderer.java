@@ -22,7 +22,9 @@ import static com.palantir.atlasdb.table.description.render.ComponentRenderers.V
 import static com.palantir.atlasdb.table.description.render.ComponentRenderers.typeName;
 import static com.palantir.atlasdb.table.description.render.ComponentRenderers.varName;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 import com.google.common.base.Joiner;
 import com.google.common.collect.Iterables;
@@ -35,18 +37,36 @@ import com.palantir.logsafe.Preconditions;
 
 @SuppressWarnings("checkstyle:all") // too many warnings to fix
 class RowOrDynamicColumnRenderer extends Renderer {
+    /**
+     * Types whose encoded size can be computed without allocating, so that later components can be read in place.
+     */
+    private static final Set<ValueType> IN_PLACE_SKIPPABLE_TYPES = EnumSet.of(
+            ValueType.VAR_LONG,
+            ValueType.VAR_SIGNED_LONG,
+            ValueType.FIXED_LONG,
+            ValueType.FIXED_LONG_LITTLE_ENDIAN,
+            ValueType.NULLABLE_FIXED_LONG,
+            ValueType.SHA256HASH,
+            ValueType.UUID);
+
     private final String Name;
     private final NameMetadataDescription desc;
     private final boolean rangeScanAllowed;
     private final boolean isDynamicColumn;
+    private final boolean zeroCopyDecoding;
 
     public RowOrDynamicColumnRenderer(Renderer parent, String Name, NameMetadataDescription desc, boolean rangeScanAllowed, boolean isDynamicColumn) {
+        this(parent, Name, desc, rangeScanAllowed, isDynamicColumn, false);
+    }
+
+    public RowOrDynamicColumnRenderer(Renderer parent, String Name, NameMetadataDescription desc, boolean rangeScanAllowed, boolean isDynamicColumn, boolean zeroCopyDecoding) {
         super(parent);
         this.Name = Name;
         this.desc = desc;
         Preconditions.checkArgument(!rangeScanAllowed || !isDynamicColumn, "Cannot have row range scans allowed on a dynamic column renderer.");
         this.rangeScanAllowed = rangeScanAllowed;
         this.isDynamicColumn = isDynamicColumn;
+        this.zeroCopyDecoding = zeroCopyDecoding;
     }
 
     @Override
@@ -75,6 +95,13 @@ class RowOrDynamicColumnRenderer extends Renderer {
             line();
             bytesHydrator();
             line();
+            if (zeroCopyDecoding) {
+                List<NameComponentDescription> inPlaceReadableParts = getInPlaceReadableParts();
+                for (int i = 0; i < inPlaceReadableParts.size(); i++) {
+                    inPlaceReader(inPlaceReadableParts, i);
+                    line();
+                }
+            }
             if (desc.numberOfComponentsHashed() > 0) {
                 renderComputeFirstNComponentsHashMethod(desc.numberOfComponentsHashed());
                 line();
@@ -197,11 +224,9 @@ class RowOrDynamicColumnRenderer extends Renderer {
                 for (NameComponentDescription comp : desc.getRowParts()) {
                     String var = varName(comp);
                     vars.add(var);
-                    if (comp.getOrder() == ValueByteOrder.ASCENDING) {
-                        line(TypeName(comp), " ", var, " = ", comp.getType().getHydrateCode("__input", "__index"), ";");
-                    } else {
-                        line(TypeName(comp), " ", var, " = ", comp.getType().getFlippedHydrateCode("__input", "__index"), ";");
-                    }
+                    // zero copy decoding keeps primitive components unboxed between decoding and construction
+                    String type = zeroCopyDecoding ? typeName(comp) : TypeName(comp);
+                    line(type, " ", var, " = ", hydrateCode(comp), ";");
                     line("__index += ", comp.getType().getHydrateSizeCode(var), ";");
                 }
                 line("return new ", Name, "(", Joiner.on(", ").join(vars), ");");
@@ -209,6 +234,47 @@ class RowOrDynamicColumnRenderer extends Renderer {
         } line("};");
     }
 
+    /**
+     * Renders a static method decoding only the i-th component directly from the persisted bytes, skipping the
+     * preceding components without decoding them into objects.
+     */
+    private void inPlaceReader(List<NameComponentDescription> parts, int i) {
+        NameComponentDescription comp = parts.get(i);
+        line("public static ", typeName(comp), " read", VarName(comp), "(byte[] __input) {"); {
+            line("int __index = 0;");
+            for (NameComponentDescription previous : parts.subList(0, i)) {
+                line("__index += ", previous.getType().getHydrateSizeCode(hydrateCode(previous)), ";");
+            }
+            line("return ", hydrateCode(comp), ";");
+        } line("}");
+    }
+
+    /**
+     * Returns the leading components that can be read in place: every component but the last must be skippable
+     * without allocating, and descending strings are excluded as decoding them flips the bits of the input.
+     */
+    private List<NameComponentDescription> getInPlaceReadableParts() {
+        List<NameComponentDescription> parts = Lists.newArrayList();
+        for (NameComponentDescription comp : desc.getRowParts()) {
+            if (comp.getType() == ValueType.STRING && comp.getOrder() == ValueByteOrder.DESCENDING) {
+                break;
+            }
+            parts.add(comp);
+            if (!IN_PLACE_SKIPPABLE_TYPES.contains(comp.getType())) {
+                break;
+            }
+        }
+        return parts;
+    }
+
+    private static String hydrateCode(NameComponentDescription comp) {
+        if (comp.getOrder() == ValueByteOrder.ASCENDING) {
+            return comp.getType().getHydrateCode("__input", "__index");
+        } else {
+            return comp.getType().getFlippedHydrateCode("__input", "__index");
+        }
+    }
+
     private void createPrefixRange(int i, boolean isSorted) {
         List<NameComponentDescription> components = getRowPartsWithoutHash().subList(0, i);
         line("public static RangeRequest.Builder createPrefixRange", isSorted ? "" : "Unsorted"); renderParameterList(components); lineEnd(" {"); {
@@ -65,6 +65,7 @@ import com.palantir.atlasdb.stream.AbstractPersistentStreamStore;
 import com.palantir.atlasdb.stream.BlockConsumingInputStream;
 import com.palantir.atlasdb.stream.BlockGetter;
 import com.palantir.atlasdb.stream.BlockLoader;
+import com.palantir.atlasdb.stream.ContentDefinedChunker;
 import com.palantir.atlasdb.stream.PersistentStreamStore;
 import com.palantir.atlasdb.stream.StreamCleanedException;
 import com.palantir.atlasdb.stream.StreamStorePersistenceConfiguration;
@@ -92,14 +93,20 @@ public class StreamStoreRenderer {
     private final String schemaName;
     private final int inMemoryThreshold;
     private final StreamCompression streamCompression;
+    private final boolean contentDefinedChunking;
 
     public StreamStoreRenderer(String name, ValueType streamIdType, String packageName, String schemaName, int inMemoryThreshold, StreamCompression streamCompression) {
+        this(name, streamIdType, packageName, schemaName, inMemoryThreshold, streamCompression, false);
+    }
+
+    public StreamStoreRenderer(String name, ValueType streamIdType, String packageName, String schemaName, int inMemoryThreshold, StreamCompression streamCompression, boolean contentDefinedChunking) {
         this.name = name;
         this.streamIdType = streamIdType;
         this.packageName = packageName;
         this.schemaName = schemaName;
         this.inMemoryThreshold = inMemoryThreshold;
         this.streamCompression = streamCompression;
+        this.contentDefinedChunking = contentDefinedChunking;
     }
 
     public String getPackageName() {
@@ -118,6 +125,14 @@ public class StreamStoreRenderer {
         return name + "MetadataCleanupTask";
     }
 
+    public String getChunkCleanupTaskClassName() {
+        return name + "ChunkCleanupTask";
+    }
+
+    public boolean isContentDefinedChunking() {
+        return contentDefinedChunking;
+    }
+
     public String renderStreamStore() {
         final String StreamStore = name + "StreamStore";
 
@@ -137,14 +152,25 @@ public class StreamStoreRenderer {
         final String StreamIdxColumn = StreamIdxTable + "." + name + "StreamIdxColumn";
         final String StreamIdxColumnValue = StreamIdxTable + "." + name + "StreamIdxColumnValue";
 
+        final String StreamChunkTable = name + "StreamChunkTable";
+        final String StreamChunkRow = StreamChunkTable + "." + name + "StreamChunkRow";
+
+        final String StreamChunkIdxTable = name + "StreamChunkIdxTable";
+        final String StreamChunkIdxRow = StreamChunkIdxTable + "." + name + "StreamChunkIdxRow";
+        final String StreamChunkIdxColumn = StreamChunkIdxTable + "." + name + "StreamChunkIdxColumn";
+        final String StreamChunkIdxColumnValue = StreamChunkIdxTable + "." + name + "StreamChunkIdxColumnValue";
+
         final String TableFactory = schemaName + "TableFactory";
         final String StreamId = streamIdType.getJavaObjectClassName();
 
         return new Renderer() {
             @Override
             protected void run() {
-                ImportRenderer importRenderer = new ImportRenderer(this,
-                        Arrays.asList(IMPORTS));
+                List<Class<?>> imports = Lists.newArrayList(IMPORTS);
+                if (contentDefinedChunking) {
+                    imports.addAll(Arrays.asList(CHUNKING_IMPORTS));
+                }
+                ImportRenderer importRenderer = new ImportRenderer(this, imports);
                 line("package ", packageName, ";");
                 line();
                 importRenderer.renderImports();
@@ -157,7 +183,17 @@ public class StreamStoreRenderer {
                     line();
                     getInMemoryThreshold();
                     line();
-                    storeBlock();
+                    if (contentDefinedChunking) {
+                        usesContentDefinedChunking();
+                        line();
+                        storeChunkBlock();
+                        line();
+                        storeChunk();
+                    } else {
+                        storeBlock();
+                        line();
+                        storeBlockWithoutTouchingMetadata();
+                    }
                     line();
                     touchMetadataWhileStoringForConflicts();
                     line();
@@ -171,6 +207,10 @@ public class StreamStoreRenderer {
                     line();
                     getBlock();
                     line();
+                    if (contentDefinedChunking) {
+                        getChunk();
+                        line();
+                    }
                     getMetadata();
                     line();
                     lookupStreamIdsByHash();
@@ -183,6 +223,10 @@ public class StreamStoreRenderer {
                     line();
                     deleteStreams();
                     line();
+                    if (contentDefinedChunking) {
+                        deleteChunkReferences();
+                        line();
+                    }
                     markStreamsAsUsedInternal();
                     line();
                     unmarkStreamsAsUsed();
@@ -251,6 +295,20 @@ public class StreamStoreRenderer {
                 } line("}");
             }
 
+            private void storeBlockWithoutTouchingMetadata() {
+                line("@Override");
+                line("protected void storeBlockWithoutTouchingMetadata(Transaction t, long id, long blockNumber, final byte[] block) {"); {
+                    line("Preconditions.checkArgument(block.length <= BLOCK_SIZE_IN_BYTES, \"Block to store in DB must be less than BLOCK_SIZE_IN_BYTES\");");
+                    line("final ", StreamValueRow, " row = ", StreamValueRow, ".of(id, blockNumber);");
+                    line("try {"); {
+                        line("tables.get", StreamValueTable, "(t).putValue(row, block);");
+                    } line("} catch (RuntimeException e) {"); {
+                        line("log.error(\"Error storing block {} for stream id {}\", row.getBlockId(), row.getId(), e);");
+                        line("throw e;");
+                    } line("}");
+                } line("}");
+            }
+
             private void touchMetadataWhileStoringForConflicts() {
                 line("private void touchMetadataWhileStoringForConflicts(Transaction t, ", StreamId, " id, long blockNumber) {"); {
                     line(StreamMetadataTable, " metaTable = tables.get", StreamMetadataTable, "(t);");
@@ -301,7 +359,62 @@ public class StreamStoreRenderer {
 
             private void getNumberOfBlocksFromMetadata() {
                 line("private long getNumberOfBlocksFromMetadata(StreamMetadata metadata) {"); {
-                    line("return (metadata.getLength() + BLOCK_SIZE_IN_BYTES - 1) / BLOCK_SIZE_IN_BYTES;");
+                    if (contentDefinedChunking) {
+                        line("if (metadata.hasBlocks()) {"); {
+                            line("return metadata.getBlocks();");
+                        } line("}");
+                        line("// Streams that were not fully stored only record how much of the stream was stored.");
+                        line("return ContentDefinedChunker.getMaximumNumberOfChunks(metadata.getLength());");
+                    } else {
+                        line("return (metadata.getLength() + BLOCK_SIZE_IN_BYTES - 1) / BLOCK_SIZE_IN_BYTES;");
+                    }
+                } line("}");
+            }
+
+            private void usesContentDefinedChunking() {
+                line("@Override");
+                line("protected boolean usesContentDefinedChunking() {"); {
+                    line("return true;");
+                } line("}");
+            }
+
+            private void storeChunkBlock() {
+                line("@Override");
+                line("protected void storeBlock(Transaction t, long id, long blockNumber, final byte[] block) {"); {
+                    line("Preconditions.checkArgument(block.length <= BLOCK_SIZE_IN_BYTES, \"Block to store in DB must be less than BLOCK_SIZE_IN_BYTES\");");
+                    line("final ", StreamValueRow, " row = ", StreamValueRow, ".of(id, blockNumber);");
+                    line("try {"); {
+                        line("// Do a touch operation on this table to ensure we get a conflict if someone cleans it up.");
+                        line("touchMetadataWhileStoringForConflicts(t, row.getId(), row.getBlockId());");
+                        line("Sha256Hash chunkHash = Sha256Hash.computeHash(block);");
+                        line("storeChunk(t, chunkHash, block);");
+                        line(StreamChunkIdxColumnValue, " reference = ", StreamChunkIdxColumnValue, ".of(", StreamChunkIdxColumn, ".of(id), 0L);");
+                        line("tables.get", StreamChunkIdxTable, "(t).put(", StreamChunkIdxRow, ".of(chunkHash), reference);");
+                        line("tables.get", StreamValueTable, "(t).putValue(row, chunkHash.getBytes());");
+                    } line("} catch (RuntimeException e) {"); {
+                        line("log.error(\"Error storing block {} for stream id {}\", row.getBlockId(), row.getId(), e);");
+                        line("throw e;");
+                    } line("}");
+                } line("}");
+            }
+
+            private void storeChunk() {
+                line("private void storeChunk(Transaction t, Sha256Hash chunkHash, byte[] chunk) {"); {
+                    line(StreamChunkTable, " chunkTable = tables.get", StreamChunkTable, "(t);");
+                    line(StreamChunkRow, " row = ", StreamChunkRow, ".of(chunkHash);");
+                    line("if (!chunkTable.getLengths(ImmutableSet.of(row)).containsKey(row)) {"); {
+                        line("chunkTable.putValue(row, chunk);");
+                    } line("}");
+                    line("// Also written for existing chunks, so that we get a conflict if someone cleans the chunk up.");
+                    line("chunkTable.putLength(row, (long) chunk.length);");
+                } line("}");
+            }
+
+            private void getChunk() {
+                line("private byte[] getChunk(Transaction t, Sha256Hash chunkHash) {"); {
+                    line(StreamChunkTable, " chunkTable = tables.get", StreamChunkTable, "(t);");
+                    line(StreamChunkRow, " row = ", StreamChunkRow, ".of(chunkHash);");
+                    line("return chunkTable.getValues(ImmutableSet.of(row)).get(row);");
                 } line("}");
             }
 
@@ -326,7 +439,11 @@ public class StreamStoreRenderer {
                 line("protected void loadSingleBlockToOutputStream(Transaction t, ", StreamId, " streamId, long blockId, OutputStream os) {"); {
                     line(StreamValueRow, " row = ", StreamValueRow, ".of(streamId, blockId);");
                     line("try {"); {
-                        line("os.write(getBlock(t, row));");
+                        if (contentDefinedChunking) {
+                            line("os.write(getChunk(t, new Sha256Hash(getBlock(t, row))));");
+                        } else {
+                            line("os.write(getBlock(t, row));");
+                        }
                     } line("} catch (RuntimeException e) {"); {
                         line("log.error(\"Error storing block {} for stream id {}\", row.getBlockId(), row.getId(), e);");
                         line("throw e;");
@@ -478,11 +595,26 @@ public class StreamStoreRenderer {
                     } line("}");
 
                     line("tables.get", StreamHashAidxTable, "(t).delete(shToDelete);");
+                    if (contentDefinedChunking) {
+                        line("deleteChunkReferences(t, streamValueToDelete);");
+                    }
                     line("tables.get", StreamValueTable, "(t).delete(streamValueToDelete);");
                     line("table.delete(smRows);");
                 } line("}");
             }
 
+            private void deleteChunkReferences() {
+                line("private void deleteChunkReferences(Transaction t, Set<", StreamValueRow, "> blocks) {"); {
+                    line("Map<", StreamValueRow, ", byte[]> chunkHashes = tables.get", StreamValueTable, "(t).getValues(blocks);");
+                    line("Multimap<", StreamChunkIdxRow, ", ", StreamChunkIdxColumn, "> referencesToDelete = HashMultimap.create();");
+                    line("for (Entry<", StreamValueRow, ", byte[]> e : chunkHashes.entrySet()) {"); {
+                        line(StreamChunkIdxRow, " chunkRow = ", StreamChunkIdxRow, ".of(new Sha256Hash(e.getValue()));");
+                        line("referencesToDelete.put(chunkRow, ", StreamChunkIdxColumn, ".of(e.getKey().getId()));");
+                    } line("}");
+                    line("tables.get", StreamChunkIdxTable, "(t).delete(referencesToDelete);");
+                } line("}");
+            }
+
             private void touchMetadataWhileMarkingUsedForConflicts() {
                 line("@Override");
                 line("protected void touchMetadataWhileMarkingUsedForConflicts(Transaction t, Iterable<", StreamId, "> ids) {"); {
@@ -630,6 +762,89 @@ public class StreamStoreRenderer {
         }.render();
     }
 
+    public String renderChunkCleanupTask() {
+        final String StreamChunkTable = name + "StreamChunkTable";
+        final String StreamChunkRow = StreamChunkTable + "." + name + "StreamChunkRow";
+
+        final String StreamChunkIdxTable = name + "StreamChunkIdxTable";
+        final String StreamChunkIdxRow = StreamChunkIdxTable + "." + name + "StreamChunkIdxRow";
+        final String StreamChunkIdxColumnValue = StreamChunkIdxTable + "." + name + "StreamChunkIdxColumnValue";
+
+        final String TableFactory = schemaName + "TableFactory";
+        final String ChunkCleanupTask = getChunkCleanupTaskClassName();
+
+        return new Renderer() {
+            @Override
+            protected void run() {
+                packageAndImports();
+                line();
+                line("public class ", ChunkCleanupTask, " implements OnCleanupTask {"); {
+                    line();
+                    line("private final ", TableFactory, " tables;");
+                    line();
+                    line("public ", ChunkCleanupTask, "(Namespace namespace) {"); {
+                        line("tables = ", TableFactory, ".of(namespace);");
+                    } line("}");
+                    line();
+                    cellsCleanedUp();
+                } line("}");
+            }
+
+            private void packageAndImports() {
+                line("package ", packageName, ";");
+                line();
+                line("import java.util.Map;");
+                line("import java.util.Set;");
+                line();
+                line("import com.google.common.collect.Sets;");
+                line("import com.palantir.atlasdb.cleaner.api.OnCleanupTask;");
+                line("import com.palantir.atlasdb.encoding.PtBytes;");
+                line("import com.palantir.atlasdb.keyvalue.api.BatchColumnRangeSelection;");
+                line("import com.palantir.atlasdb.keyvalue.api.Cell;");
+                line("import com.palantir.atlasdb.keyvalue.api.Namespace;");
+                line("import com.palantir.atlasdb.transaction.api.Transaction;");
+                line("import com.palantir.common.base.BatchingVisitable;");
+            }
+
+            private void cellsCleanedUp() {
+                line("@Override");
+                line("public boolean cellsCleanedUp(Transaction t, Set<Cell> cells) {"); {
+                    line(StreamChunkIdxTable, " chunkIndex = tables.get", StreamChunkIdxTable, "(t);");
+                    line("Set<", StreamChunkIdxRow, "> rows = Sets.newHashSetWithExpectedSize(cells.size());");
+                    line("for (Cell cell : cells) {"); {
+                        line("rows.add(", StreamChunkIdxRow, ".BYTES_HYDRATOR.hydrateFromBytes(cell.getRowName()));");
+                    } line("}");
+
+                    line("BatchColumnRangeSelection oneColumn = BatchColumnRangeSelection.create(");
+                    line("        PtBytes.EMPTY_BYTE_ARRAY, PtBytes.EMPTY_BYTE_ARRAY, 1);");
+                    line("Map<", StreamChunkIdxRow, ", BatchingVisitable<", StreamChunkIdxColumnValue, ">> existentRows");
+                    line("        = chunkIndex.getRowsColumnRange(rows, oneColumn);");
+
+                    line("Set<", StreamChunkIdxRow, "> rowsInDb = Sets.newHashSetWithExpectedSize(cells.size());");
+
+                    line("for (Map.Entry<", StreamChunkIdxRow, ", BatchingVisitable<", StreamChunkIdxColumnValue, ">> rowVisitable");
+                    line("        : existentRows.entrySet()) {"); {
+                        line("rowVisitable.getValue().batchAccept(1, columnValues -> {"); {
+                            line("if (!columnValues.isEmpty()) {"); {
+                                line("rowsInDb.add(rowVisitable.getKey());");
+                            } line("}");
+                            line("return false;");
+                        } line("});");
+                    } line("}");
+
+                    line("// Chunks that are no longer referenced by any stream. Deleting a chunk conflicts with streams");
+                    line("// that start referencing it concurrently, as those touch the chunk while storing.");
+                    line("Set<", StreamChunkRow, "> toDelete = Sets.newHashSetWithExpectedSize(rows.size() - rowsInDb.size());");
+                    line("for (", StreamChunkIdxRow, " rowToDelete : Sets.difference(rows, rowsInDb)) {"); {
+                        line("toDelete.add(", StreamChunkRow, ".of(rowToDelete.getHash()));");
+                    } line("}");
+                    line("tables.get", StreamChunkTable, "(t).delete(toDelete);");
+                    line("return false;");
+                } line("}");
+            }
+        }.render();
+    }
+
     public String renderMetadataCleanupTask() {
         final String StreamStore = name + "StreamStore";
 
@@ -867,4 +1082,8 @@ public class StreamStoreRenderer {
         Supplier.class,
         StreamStorePersistenceConfiguration.class,
     };
+
+    private static final Class<?>[] CHUNKING_IMPORTS = new Class<?>[] {
+        ContentDefinedChunker.class,
+    };
 }
@@ -31,6 +31,7 @@ import com.google.common.base.Function;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
+import com.palantir.atlasdb.compress.CompressionDictionaries;
 import com.palantir.atlasdb.keyvalue.api.Namespace;
 import com.palantir.atlasdb.table.description.TableDefinition;
 import com.palantir.atlasdb.table.generation.Triggers;
@@ -53,6 +54,7 @@ public final class TableFactoryRenderer {
     private final SortedMap<String, TableDefinition> definitions;
     private final ClassName tableFactoryType;
     private final ClassName sharedTriggersType;
+    private final boolean usesDictionaryCompression;
 
     private TableFactoryRenderer(String schemaName,
             String packageName,
@@ -66,6 +68,8 @@ public final class TableFactoryRenderer {
         this.defaultNamespaceName = defaultNamespaceName;
         this.tableFactoryType = tableFactoryType;
         this.sharedTriggersType = sharedTriggersType;
+        this.usesDictionaryCompression = definitions.values().stream()
+                .anyMatch(TableFactoryRenderer::usesDictionaryCompression);
     }
 
     public static TableFactoryRenderer of(
@@ -131,6 +135,11 @@ public final class TableFactoryRenderer {
         results.add(FieldSpec.builder(Namespace.class, "namespace")
                 .addModifiers(Modifier.PRIVATE, Modifier.FINAL)
                 .build());
+        if (usesDictionaryCompression) {
+            results.add(FieldSpec.builder(CompressionDictionaries.class, "compressionDictionaries")
+                    .addModifiers(Modifier.PRIVATE, Modifier.FINAL)
+                    .build());
+        }
 
         return results;
     }
@@ -152,40 +161,49 @@ public final class TableFactoryRenderer {
         TypeName sharedTriggersListType = ParameterizedTypeName.get(
                 ClassName.get(List.class), functionOfTransactionAndTriggersType);
 
-        results.add(factoryBaseBuilder()
+        // Schemas with dictionary compressed tables need the compression dictionaries of their key value service.
+        String dictionaries = usesDictionaryCompression ? ", compressionDictionaries" : "";
+
+        results.add(withDictionaries(factoryBaseBuilder()
                 .addParameter(ParameterizedTypeName.get(
                         ClassName.get(List.class), functionOfTransactionAndTriggersType), "sharedTriggers")
-                .addParameter(Namespace.class, "namespace")
-                .addStatement("return new $T($L, $L)", tableFactoryType, "sharedTriggers", "namespace")
+                .addParameter(Namespace.class, "namespace"))
+                .addStatement("return new $T($L, $L$L)", tableFactoryType, "sharedTriggers", "namespace", dictionaries)
                 .build());
 
-        results.add(factoryBaseBuilder()
-                .addParameter(sharedTriggersListType, "sharedTriggers")
-                .addStatement("return new $T($L, $L)", tableFactoryType, "sharedTriggers", "defaultNamespace")
+        results.add(withDictionaries(factoryBaseBuilder()
+                .addParameter(sharedTriggersListType, "sharedTriggers"))
+                .addStatement("return new $T($L, $L$L)",
+                        tableFactoryType, "sharedTriggers", "defaultNamespace", dictionaries)
                 .build());
 
-        results.add(factoryBaseBuilder()
-                .addParameter(Namespace.class, "namespace")
-                .addStatement("return of($T.<$T>of(), $L)",
+        results.add(withDictionaries(factoryBaseBuilder()
+                .addParameter(Namespace.class, "namespace"))
+                .addStatement("return of($T.<$T>of(), $L$L)",
                         ImmutableList.class,
                         functionOfTransactionAndTriggersType,
-                        "namespace")
+                        "namespace",
+                        dictionaries)
                 .build());
 
-        results.add(factoryBaseBuilder()
-                .addStatement("return of($T.<$T>of(), $L)",
+        results.add(withDictionaries(factoryBaseBuilder())
+                .addStatement("return of($T.<$T>of(), $L$L)",
                         ImmutableList.class,
                         functionOfTransactionAndTriggersType,
-                        "defaultNamespace")
+                        "defaultNamespace",
+                        dictionaries)
                 .build());
 
-        results.add(MethodSpec.constructorBuilder()
+        MethodSpec.Builder constructor = withDictionaries(MethodSpec.constructorBuilder()
                 .addModifiers(Modifier.PRIVATE)
                 .addParameter(sharedTriggersListType, "sharedTriggers")
-                .addParameter(Namespace.class, "namespace")
+                .addParameter(Namespace.class, "namespace"))
                 .addStatement("this.$L = $L", "sharedTriggers", "sharedTriggers")
-                .addStatement("this.$L = $L", "namespace", "namespace")
-                .build());
+                .addStatement("this.$L = $L", "namespace", "namespace");
+        if (usesDictionaryCompression) {
+            constructor.addStatement("this.$L = $L", "compressionDictionaries", "compressionDictionaries");
+        }
+        results.add(constructor.build());
 
         return results;
     }
@@ -205,6 +223,13 @@ public final class TableFactoryRenderer {
         return results;
     }
 
+    private MethodSpec.Builder withDictionaries(MethodSpec.Builder method) {
+        if (usesDictionaryCompression) {
+            method.addParameter(CompressionDictionaries.class, "compressionDictionaries");
+        }
+        return method;
+    }
+
     private MethodSpec.Builder factoryBaseBuilder() {
         return MethodSpec.methodBuilder("of")
                 .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
@@ -220,20 +245,23 @@ public final class TableFactoryRenderer {
                 .addModifiers(Modifier.PUBLIC)
                 .addParameter(Transaction.class, "t")
                 .returns(tableType);
+        String dictionaries = usesDictionaryCompression(tableDefinition) ? ", compressionDictionaries" : "";
         if (tableDefinition.getGenericTableName() != null) {
             tableGetterMethodBuilder
                     .addParameter(String.class, "name")
                     .addParameter(ArrayTypeName.of(triggerType), "triggers")
                     .varargs()
-                    .addStatement("return $T.of(t, namespace, name, $T.getAllTriggers(t, sharedTriggers, triggers))",
+                    .addStatement("return $T.of(t, namespace, name$L, $T.getAllTriggers(t, sharedTriggers, triggers))",
                             tableType,
+                            dictionaries,
                             Triggers.class);
         } else {
             tableGetterMethodBuilder
                     .addParameter(ArrayTypeName.of(triggerType), "triggers")
                     .varargs()
-                    .addStatement("return $T.of(t, namespace, $T.getAllTriggers(t, sharedTriggers, triggers))",
+                    .addStatement("return $T.of(t, namespace$L, $T.getAllTriggers(t, sharedTriggers, triggers))",
                             tableType,
+                            dictionaries,
                             Triggers.class);
         }
         return tableGetterMethodBuilder.build();
@@ -300,6 +328,10 @@ public final class TableFactoryRenderer {
         return nullSharedTriggersClassBuilder.build();
     }
 
+    private static boolean usesDictionaryCompression(TableDefinition tableDefinition) {
+        return tableDefinition.toTableMetadata().getColumns().usesDictionaryCompression();
+    }
+
     private String getTableName(String name) {
         return name + "Table";
     }
@@ -67,7 +67,9 @@ import com.google.common.io.BaseEncoding;
 import com.google.common.primitives.Bytes;
 import com.google.common.primitives.UnsignedBytes;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.palantir.atlasdb.compress.CompressionDictionaries;
 import com.palantir.atlasdb.compress.CompressionUtils;
+import com.palantir.atlasdb.compress.DictionaryCompressingTransaction;
 import com.palantir.atlasdb.encoding.PtBytes;
 import com.palantir.atlasdb.keyvalue.api.BatchColumnRangeSelection;
 import com.palantir.atlasdb.keyvalue.api.Cell;
@@ -147,6 +149,9 @@ public class TableRenderer {
         private final String raw_table_name;
         private final boolean isGeneric;
         private final boolean isNestedIndex;
+        private final boolean zeroCopyDecoding;
+        private final boolean typedScans;
+        private final boolean usesDictionaryCompression;
         private final String outerTable;
         private final String Table;
         private final String Row;
@@ -168,6 +173,9 @@ public class TableRenderer {
             this.raw_table_name = rawTableName;
             this.isGeneric = table.getGenericTableName() != null;
             this.isNestedIndex = false;
+            this.zeroCopyDecoding = table.isZeroCopyDecoding();
+            this.typedScans = table.hasTypedScans();
+            this.usesDictionaryCompression = this.table.getColumns().usesDictionaryCompression();
             this.outerTable = null;
             this.Table = tableName + "Table";
             this.Row = tableName + "Row";
@@ -186,6 +194,9 @@ public class TableRenderer {
             this.raw_table_name = index.getIndexName();
             this.isGeneric = false;
             this.isNestedIndex = true;
+            this.zeroCopyDecoding = false;
+            this.typedScans = false;
+            this.usesDictionaryCompression = false;
             this.outerTable = outerTable;
             this.Table = tableName + "Table";
             this.Row = tableName + "Row";
@@ -238,7 +249,7 @@ public class TableRenderer {
                 line();
                 renderGetNamespace();
                 line();
-                new RowOrDynamicColumnRenderer(this, Row, table.getRowMetadata(), table.isRangeScanAllowed(), false).run();
+                new RowOrDynamicColumnRenderer(this, Row, table.getRowMetadata(), table.isRangeScanAllowed(), false, zeroCopyDecoding).run();
                 line();
                 if (isDynamic(table)) {
                     renderDynamic();
@@ -253,6 +264,10 @@ public class TableRenderer {
                     line();
                     renderGetRanges();
                     line();
+                    if (typedScans) {
+                        renderScan();
+                        line();
+                    }
                     renderDeleteRange();
                     line();
                     if (isDynamic(table)) {
@@ -340,7 +355,7 @@ public class TableRenderer {
         }
 
         private void renderDynamic() {
-            new RowOrDynamicColumnRenderer(this, Column, table.getColumns().getDynamicColumn().getColumnNameDesc(), false, true).run();
+            new RowOrDynamicColumnRenderer(this, Column, table.getColumns().getDynamicColumn().getColumnNameDesc(), false, true, zeroCopyDecoding).run();
             line();
             renderTrigger();
             line();
@@ -391,32 +406,62 @@ public class TableRenderer {
                     line("return new ", Table, "(table.t, table.tableRef.getNamespace()", isGeneric ? ", tableName" : "", ", triggers);");
                 } line("}");
             } else {
-                line("static ", Table, " of(Transaction t, Namespace namespace", isGeneric ? ", String tableName" : "", ") {"); {
-                    line("return new ", Table, "(t, namespace", isGeneric ? ", tableName" : "", ", ImmutableList.<", Trigger, ">of());");
+                String params = "Transaction t, Namespace namespace" + (isGeneric ? ", String tableName" : "") + dictionariesParam();
+                String args = "t, namespace" + (isGeneric ? ", tableName" : "") + dictionariesArg();
+                line("static ", Table, " of(", params, ") {"); {
+                    line("return new ", Table, "(", args, ", ImmutableList.<", Trigger, ">of());");
                 } line("}");
                 line();
-                line("static ", Table, " of(Transaction t, Namespace namespace", isGeneric ? ", String tableName" : "", ", ", Trigger, " trigger, ", Trigger, "... triggers) {"); {
-                    line("return new ", Table, "(t, namespace", isGeneric ? ", tableName" : "", ", ImmutableList.<", Trigger, ">builder().add(trigger).add(triggers).build());");
+                line("static ", Table, " of(", params, ", ", Trigger, " trigger, ", Trigger, "... triggers) {"); {
+                    line("return new ", Table, "(", args, ", ImmutableList.<", Trigger, ">builder().add(trigger).add(triggers).build());");
                 } line("}");
                 line();
-                line("static ", Table, " of(Transaction t, Namespace namespace", isGeneric ? ", String tableName" : "", ", List<", Trigger, "> triggers) {"); {
-                    line("return new ", Table, "(t, namespace", isGeneric ? ", tableName" : "", ", triggers);");
+                line("static ", Table, " of(", params, ", List<", Trigger, "> triggers) {"); {
+                    line("return new ", Table, "(", args, ", triggers);");
                 } line("}");
             }
         }
 
+        private String dictionariesParam() {
+            return usesDictionaryCompression ? ", " + CompressionDictionaries.class.getCanonicalName() + " compressionDictionaries" : "";
+        }
+
+        private String dictionariesArg() {
+            return usesDictionaryCompression ? ", compressionDictionaries" : "";
+        }
+
         private void constructors() {
-            line("private ", Table, "(Transaction t, Namespace namespace", isGeneric ? ", String tableName" : "", ", List<", Trigger, "> triggers) {"); {
-                line("this.t = t;");
+            line("private ", Table, "(Transaction t, Namespace namespace", isGeneric ? ", String tableName" : "", dictionariesParam(), ", List<", Trigger, "> triggers) {"); {
+                if (!usesDictionaryCompression) {
+                    line("this.t = t;");
+                }
                 if (isGeneric) {
                     line("this.tableRef = TableReference.create(namespace, tableName);");
                 } else {
                     line("this.tableRef = TableReference.create(namespace, rawTableName);");
                 }
+                if (usesDictionaryCompression) {
+                    dictionaryCompressingTransaction();
+                }
                 line("this.triggers = triggers;");
             } line("}");
         }
 
+        private void dictionaryCompressingTransaction() {
+            String wrapper = DictionaryCompressingTransaction.class.getCanonicalName();
+            if (isDynamic(table)) {
+                line("this.t = ", wrapper, ".forDynamicColumns(t, tableRef, compressionDictionaries);");
+                return;
+            }
+            List<String> columns = Lists.newArrayList();
+            for (NamedColumnDescription col : ColumnRenderers.namedColumns(table)) {
+                if (col.getValue().getCompression() == Compression.DEFLATE) {
+                    columns.add(ColumnRenderers.short_name(col));
+                }
+            }
+            line("this.t = ", wrapper, ".forNamedColumns(t, tableRef, ImmutableSet.of(", Joiner.on(", ").join(columns), "), compressionDictionaries);");
+        }
+
         private void renderGetRawTableName() {
             line("public static String getRawTableName() {"); {
                 line("return rawTableName;");
@@ -948,6 +993,74 @@ public class TableRenderer {
             } line("}");
         }
 
+        private void renderScan() {
+            String Scan = tableName + "Scan";
+            line("public ", Scan, " scan() {"); {
+                line("return new ", Scan, "();");
+            } line("}");
+            line();
+            line("public final class ", Scan, " {"); {
+                line("private final RangeRequest.Builder range = RangeRequest.builder();");
+                line("private ColumnSelection columns = allColumns;");
+                line();
+                line("private ", Scan, "() {"); {
+                    line("// use scan()");
+                } line("}");
+                line();
+                line("public ", Scan, " columns(", Column, "... cols) {"); {
+                    line("return columns(Arrays.asList(cols));");
+                } line("}");
+                line();
+                line("public ", Scan, " columns(Collection<", Column, "> cols) {"); {
+                    line("columns = getColumnSelection(cols);");
+                    line("return this;");
+                } line("}");
+                line();
+                line("public ", Scan, " prefix(Prefix prefix) {"); {
+                    line("range.prefixRange(prefix.getBytes());");
+                    line("return this;");
+                } line("}");
+                line();
+                line("public ", Scan, " startRowInclusive(", Row, " row) {"); {
+                    line("range.startRowInclusive(row);");
+                    line("return this;");
+                } line("}");
+                line();
+                line("public ", Scan, " startRowInclusive(Prefix prefix) {"); {
+                    line("range.startRowInclusive(prefix);");
+                    line("return this;");
+                } line("}");
+                line();
+                line("public ", Scan, " endRowExclusive(", Row, " row) {"); {
+                    line("range.endRowExclusive(row);");
+                    line("return this;");
+                } line("}");
+                line();
+                line("public ", Scan, " endRowExclusive(Prefix prefix) {"); {
+                    line("range.endRowExclusive(prefix);");
+                    line("return this;");
+                } line("}");
+                line();
+                line("public ", Scan, " batchHint(int batchHint) {"); {
+                    line("range.batchHint(batchHint);");
+                    line("return this;");
+                } line("}");
+                line();
+                line("public RangeRequest toRangeRequest() {"); {
+                    line("return range.build().getBuilder().retainColumns(columns).build();");
+                } line("}");
+                line();
+                line("public BatchingVisitableView<", RowResult, "> visitable() {"); {
+                    line("return getRange(toRangeRequest());");
+                } line("}");
+                line();
+                line("public Stream<", RowResult, "> stream() {"); {
+                    line("return com.palantir.atlasdb.table.generation.RangeScans.stream(t, tableRef, toRangeRequest())");
+                    line("        .map(", RowResult, "::of);");
+                } line("}");
+            } line("}");
+        }
+
         private void renderDeleteRange() {
             line("public void deleteRange(RangeRequest range) {"); {
                 line("deleteRanges(ImmutableSet.of(range));");
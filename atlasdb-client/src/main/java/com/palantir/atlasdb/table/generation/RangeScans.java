@@ -0,0 +1,65 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.table.generation;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Streams;
+import com.google.common.primitives.Ints;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.transaction.api.Transaction;
+import com.palantir.common.base.BatchingVisitables;
+import com.palantir.util.paging.TokenBackedBasicResultsPage;
+
+public final class RangeScans {
+    private RangeScans() {
+        // utility
+    }
+
+    /**
+     * Returns a lazy stream over the rows of the given range. The range is read from the transaction one page at a
+     * time as the stream is consumed, where a page is the batch hint of the range, or
+     * {@link BatchingVisitables#DEFAULT_BATCH_SIZE} rows if the range has no batch hint. At most one page of rows is
+     * held in memory at any time.
+     */
+    public static Stream<RowResult<byte[]>> stream(Transaction t, TableReference tableRef, RangeRequest range) {
+        int pageSize = range.getBatchHint() == null ? BatchingVisitables.DEFAULT_BATCH_SIZE : range.getBatchHint();
+        // each page also reads the first row of the next page, which marks where that page starts
+        RangeRequest firstPage = range.withBatchHint(Ints.saturatedCast(pageSize + 1L));
+        Iterator<List<RowResult<byte[]>>> pages = new AbstractIterator<List<RowResult<byte[]>>>() {
+            private RangeRequest nextPage = firstPage;
+
+            @Override
+            protected List<RowResult<byte[]>> computeNext() {
+                if (nextPage == null) {
+                    return endOfData();
+                }
+                TokenBackedBasicResultsPage<RowResult<byte[]>, byte[]> page = BatchingVisitables.getFirstPage(
+                        t.getRange(tableRef, nextPage), pageSize, RowResult::getRowName);
+                nextPage = page.moreResultsAvailable()
+                        ? nextPage.getBuilder().startRowInclusive(page.getTokenForNextPage()).build()
+                        : null;
+                return page.getResults();
+            }
+        };
+        return Streams.stream(pages).flatMap(List::stream);
+    }
+}
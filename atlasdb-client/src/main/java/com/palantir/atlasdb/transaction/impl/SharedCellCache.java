@@ -0,0 +1,383 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.impl;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheWriter;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.palantir.atlasdb.cache.DefaultOffHeapCache;
+import com.palantir.atlasdb.cache.OffHeapCache;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.persistent.api.PersistentStore;
+import com.palantir.atlasdb.table.description.TableDefinition;
+import com.palantir.atlasdb.table.description.TableMetadata;
+import com.palantir.atlasdb.util.AtlasDbMetrics;
+import com.palantir.common.concurrent.PTExecutors;
+import com.palantir.tritium.metrics.registry.TaggedMetricRegistry;
+
+import okio.Buffer;
+import okio.ByteString;
+
+/**
+ * A cache of cell values shared by all transactions of a transaction manager, for tables whose cells are written at
+ * most once and never overwritten or deleted (see {@link TableDefinition#appendOnly()}). Whether a table is
+ * append-only is read from its persisted {@link TableMetadata}; cells of other tables are never cached.
+ *
+ * A value read from such a table by a transaction with start timestamp S was committed before S, and can never
+ * change afterwards. It is therefore also the value that any transaction with a start timestamp of at least S would
+ * read, so each entry records the lowest start timestamp of a transaction that read it and is only served to
+ * transactions that started no earlier; no invalidation is needed. Absent cells are never cached, as they may be
+ * written later.
+ *
+ * Eviction is weighted by the approximate number of bytes used by the table, cell and value of each entry.
+ *
+ * Optionally, entries evicted from the on-heap cache are spilled to an off-heap tier backed by a
+ * {@link PersistentStore}, which is bounded by its number of entries and consulted on misses of the on-heap cache.
+ * Entries found off-heap are promoted back to the on-heap cache. Spilled entries keep the start timestamp bound
+ * under which they may be served.
+ */
+public final class SharedCellCache implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(SharedCellCache.class);
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+    private static final int SPILL_THREADS = 4;
+    private static final SharedCellCache DISABLED = createUninstrumented(ImmutableSet.of(), 0L);
+
+    private final Predicate<TableReference> cachedTables;
+    private final Cache<CellKey, CachedValue> cache;
+    private final Optional<OffHeapCache<CellKey, CachedValue>> offHeapCache;
+    private final Optional<ExecutorService> spillExecutor;
+    private final AtomicBoolean closed;
+
+    private SharedCellCache(
+            Predicate<TableReference> cachedTables,
+            Cache<CellKey, CachedValue> cache,
+            Optional<OffHeapCache<CellKey, CachedValue>> offHeapCache,
+            Optional<ExecutorService> spillExecutor,
+            AtomicBoolean closed) {
+        this.cachedTables = cachedTables;
+        this.cache = cache;
+        this.offHeapCache = offHeapCache;
+        this.spillExecutor = spillExecutor;
+        this.closed = closed;
+    }
+
+    public static SharedCellCache create(MetricRegistry metricRegistry, KeyValueService kvs, long maxBytes) {
+        SharedCellCache sharedCellCache = build(appendOnlyTables(kvs), maxBytes, Optional.empty(), Optional.empty());
+        registerMetrics(metricRegistry, sharedCellCache);
+        return sharedCellCache;
+    }
+
+    /**
+     * Creates a cache with an on-heap tier of at most maxBytes, spilling evicted entries to an off-heap tier of at
+     * most maxOffHeapEntries entries in the given persistent store. The persistent store is not closed by
+     * {@link #close()}, but must not be closed before it.
+     */
+    public static SharedCellCache createWithOffHeapTier(
+            MetricRegistry metricRegistry,
+            TaggedMetricRegistry taggedMetricRegistry,
+            KeyValueService kvs,
+            long maxBytes,
+            PersistentStore persistentStore,
+            LongSupplier maxOffHeapEntries) {
+        OffHeapCache<CellKey, CachedValue> offHeapCache = DefaultOffHeapCache.create(
+                persistentStore, new CellEntryMapper(), taggedMetricRegistry, maxOffHeapEntries, "sharedCell");
+        SharedCellCache sharedCellCache = build(appendOnlyTables(kvs), maxBytes, Optional.of(offHeapCache),
+                Optional.of(PTExecutors.newFixedThreadPool(SPILL_THREADS, "shared-cell-cache-spill")));
+        registerMetrics(metricRegistry, sharedCellCache);
+        return sharedCellCache;
+    }
+
+    public static SharedCellCache disabled() {
+        return DISABLED;
+    }
+
+    @VisibleForTesting
+    static SharedCellCache createUninstrumented(Set<TableReference> cachedTables, long maxBytes) {
+        return createUninstrumented(cachedTables, maxBytes, Optional.empty(), Optional.empty());
+    }
+
+    @VisibleForTesting
+    static SharedCellCache createUninstrumented(
+            Set<TableReference> cachedTables,
+            long maxBytes,
+            Optional<OffHeapCache<CellKey, CachedValue>> offHeapCache,
+            Optional<ExecutorService> spillExecutor) {
+        return build(ImmutableSet.copyOf(cachedTables)::contains, maxBytes, offHeapCache, spillExecutor);
+    }
+
+    private static SharedCellCache build(
+            Predicate<TableReference> cachedTables,
+            long maxBytes,
+            Optional<OffHeapCache<CellKey, CachedValue>> offHeapCache,
+            Optional<ExecutorService> spillExecutor) {
+        Caffeine<CellKey, CachedValue> builder = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((CellKey key, CachedValue value) -> Ints.saturatedCast(
+                        key.sizeInBytes() + value.value.length + ENTRY_OVERHEAD_BYTES))
+                .recordStats();
+        AtomicBoolean closed = new AtomicBoolean(false);
+        offHeapCache.ifPresent(offHeap -> builder
+                .executor(spillExecutor.<Executor>map(SharedCellCache::runInlineOnceShutdown)
+                        .orElseGet(MoreExecutors::directExecutor))
+                .writer(new SpillingCacheWriter(offHeap, closed)));
+        return new SharedCellCache(cachedTables, builder.build(), offHeapCache, spillExecutor, closed);
+    }
+
+    /**
+     * The cache also runs its maintenance on this executor, so tasks submitted after {@link #close()} must still run.
+     */
+    private static Executor runInlineOnceShutdown(ExecutorService executor) {
+        return task -> {
+            if (executor.isShutdown()) {
+                task.run();
+            } else {
+                try {
+                    executor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    task.run();
+                }
+            }
+        };
+    }
+
+    private static void registerMetrics(MetricRegistry metricRegistry, SharedCellCache sharedCellCache) {
+        AtlasDbMetrics.registerCache(metricRegistry, sharedCellCache.cache,
+                MetricRegistry.name(SharedCellCache.class, "cells"));
+    }
+
+    /**
+     * Tables are looked up on first use, as with sweep strategies, so tables created later are also cached.
+     */
+    private static Predicate<TableReference> appendOnlyTables(KeyValueService kvs) {
+        LoadingCache<TableReference, Boolean> appendOnly = Caffeine.newBuilder()
+                .expireAfterAccess(1, TimeUnit.DAYS)
+                .build(tableRef -> isAppendOnly(kvs.getMetadataForTable(tableRef)));
+        return appendOnly::get;
+    }
+
+    private static boolean isAppendOnly(byte[] tableMetadata) {
+        return tableMetadata != null
+                && tableMetadata.length > 0
+                && TableMetadata.BYTES_HYDRATOR.hydrateFromBytes(tableMetadata).isAppendOnly();
+    }
+
+    public boolean isCached(TableReference tableRef) {
+        return cachedTables.test(tableRef);
+    }
+
+    /**
+     * Returns the cached value of the given cell if it is visible to a transaction with the given start timestamp,
+     * or null if there is no such value.
+     */
+    @Nullable
+    public byte[] get(TableReference tableRef, Cell cell, long startTimestamp) {
+        CellKey key = CellKey.of(tableRef, cell);
+        CachedValue cached = cache.getIfPresent(key);
+        if (cached == null && offHeapCache.isPresent()) {
+            cached = offHeapCache.get().get(key).orElse(null);
+            if (cached != null) {
+                merge(key, cached);
+            }
+        }
+        return cached != null && cached.readTimestamp <= startTimestamp ? cached.value : null;
+    }
+
+    /**
+     * Records that a transaction with the given start timestamp read the given value of a cell. Empty values, which
+     * denote absent cells, are ignored.
+     */
+    public void put(TableReference tableRef, Cell cell, byte[] value, long startTimestamp) {
+        if (value.length == 0 || !isCached(tableRef)) {
+            return;
+        }
+        merge(CellKey.of(tableRef, cell), new CachedValue(value, startTimestamp));
+    }
+
+    /**
+     * Stops spilling evicted entries to the off-heap tier, waiting for spills in progress to complete.
+     */
+    @Override
+    public void close() {
+        spillExecutor.ifPresent(executor -> {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    log.warn("Timed out waiting for evicted cells to be spilled to the off-heap tier");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        closed.set(true);
+    }
+
+    private void merge(CellKey key, CachedValue value) {
+        cache.asMap().merge(key, value,
+                (existing, loaded) -> existing.readTimestamp <= loaded.readTimestamp ? existing : loaded);
+    }
+
+    /**
+     * A table and cell, with the row and column names of the cell stored in a single array.
+     */
+    @VisibleForTesting
+    static final class CellKey {
+        private final TableReference tableRef;
+        private final byte[] rowAndColumn;
+        private final int rowLength;
+        private final int hashCode;
+
+        private CellKey(TableReference tableRef, byte[] rowAndColumn, int rowLength) {
+            this.tableRef = tableRef;
+            this.rowAndColumn = rowAndColumn;
+            this.rowLength = rowLength;
+            this.hashCode = 31 * (31 * tableRef.hashCode() + Arrays.hashCode(rowAndColumn)) + rowLength;
+        }
+
+        static CellKey of(TableReference tableRef, Cell cell) {
+            byte[] row = cell.getRowName();
+            byte[] column = cell.getColumnName();
+            byte[] rowAndColumn = Arrays.copyOf(row, row.length + column.length);
+            System.arraycopy(column, 0, rowAndColumn, row.length, column.length);
+            return new CellKey(tableRef, rowAndColumn, row.length);
+        }
+
+        long sizeInBytes() {
+            return rowAndColumn.length;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (other == null || getClass() != other.getClass()) {
+                return false;
+            }
+            CellKey that = (CellKey) other;
+            return hashCode == that.hashCode
+                    && rowLength == that.rowLength
+                    && Arrays.equals(rowAndColumn, that.rowAndColumn)
+                    && tableRef.equals(that.tableRef);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    @VisibleForTesting
+    static final class CachedValue {
+        private final byte[] value;
+        private final long readTimestamp;
+
+        private CachedValue(byte[] value, long readTimestamp) {
+            this.value = value;
+            this.readTimestamp = readTimestamp;
+        }
+    }
+
+    /**
+     * Evictions happen during the maintenance of the cache, so spilling in the cache writer (rather than a removal
+     * listener, which is notified asynchronously) means that all spills are complete once the executor has terminated.
+     */
+    private static final class SpillingCacheWriter implements CacheWriter<CellKey, CachedValue> {
+        private final OffHeapCache<CellKey, CachedValue> offHeapCache;
+        private final AtomicBoolean closed;
+
+        private SpillingCacheWriter(OffHeapCache<CellKey, CachedValue> offHeapCache, AtomicBoolean closed) {
+            this.offHeapCache = offHeapCache;
+            this.closed = closed;
+        }
+
+        @Override
+        public void write(CellKey key, CachedValue value) {
+            // values are only spilled once evicted
+        }
+
+        @Override
+        public void delete(CellKey key, @Nullable CachedValue value, RemovalCause cause) {
+            if (cause == RemovalCause.SIZE && value != null && !closed.get()) {
+                offHeapCache.put(key, value);
+            }
+        }
+    }
+
+    /**
+     * Serializes keys as the length-prefixed fully qualified table name, followed by the row length and the row and
+     * column names, and values as the read timestamp followed by the value.
+     */
+    private static final class CellEntryMapper implements DefaultOffHeapCache.EntryMapper<CellKey, CachedValue> {
+        @Override
+        public ByteString serializeKey(CellKey key) {
+            ByteString tableName = ByteString.encodeUtf8(key.tableRef.getQualifiedName());
+            return new Buffer()
+                    .writeInt(tableName.size())
+                    .write(tableName)
+                    .writeInt(key.rowLength)
+                    .write(key.rowAndColumn)
+                    .readByteString();
+        }
+
+        @Override
+        public CellKey deserializeKey(ByteString key) {
+            Buffer buffer = new Buffer().write(key);
+            TableReference tableRef = TableReference.createUnsafe(buffer.readUtf8(buffer.readInt()));
+            int rowLength = buffer.readInt();
+            return new CellKey(tableRef, buffer.readByteArray(), rowLength);
+        }
+
+        @Override
+        public ByteString serializeValue(CellKey key, CachedValue value) {
+            return new Buffer()
+                    .writeLong(value.readTimestamp)
+                    .write(value.value)
+                    .readByteString();
+        }
+
+        @Override
+        public CachedValue deserializeValue(ByteString key, ByteString value) {
+            Buffer buffer = new Buffer().write(value);
+            long readTimestamp = buffer.readLong();
+            return new CachedValue(buffer.readByteArray(), readTimestamp);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.Test;
+
+import com.codahale.metrics.MetricRegistry;
+import com.palantir.atlasdb.persistent.api.PersistentStore;
+import com.palantir.atlasdb.util.MetricsManagers;
+import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
+import com.palantir.tritium.metrics.registry.MetricName;
+import com.palantir.tritium.metrics.registry.TaggedMetricRegistry;
+
+import okio.ByteString;
+
+public final class DefaultOffHeapCacheTests {
+    private static final long CACHE_SIZE = 10;
+
+    private final PersistentStore persistentStore = mock(PersistentStore.class);
+    private final TaggedMetricRegistry taggedMetricRegistry = MetricsManagers.createForTests().getTaggedRegistry();
+
+    @Test
+    public void cachesSharingARegistryHaveSeparateMetrics() {
+        when(persistentStore.createSpace()).thenAnswer(invocation -> PersistentStore.Handle.newHandle());
+        when(persistentStore.get(any(PersistentStore.Handle.class), any(ByteString.class)))
+                .thenReturn(Optional.of(new LongEntryMapper().serializeValue(1L, 3L)));
+
+        OffHeapCache<Long, Long> first = createCache("first");
+        OffHeapCache<Long, Long> second = createCache("second");
+
+        first.get(1L);
+        first.get(1L);
+        second.get(1L);
+
+        assertThat(taggedMetricRegistry.meter(cacheHitMetric("first")).getCount()).isEqualTo(2);
+        assertThat(taggedMetricRegistry.meter(cacheHitMetric("second")).getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void getOnStoreDroppedByConcurrentClearIsAMiss() {
+        when(persistentStore.createSpace()).thenAnswer(invocation -> PersistentStore.Handle.newHandle());
+        when(persistentStore.get(any(PersistentStore.Handle.class), any(ByteString.class)))
+                .thenThrow(new SafeIllegalArgumentException("Store space does not exist"));
+
+        OffHeapCache<Long, Long> cache = createCache("dropped");
+
+        assertThat(cache.get(1L)).isEmpty();
+        assertThat(taggedMetricRegistry.meter(cacheMissMetric("dropped")).getCount()).isEqualTo(1);
+    }
+
+    private OffHeapCache<Long, Long> createCache(String cacheName) {
+        return DefaultOffHeapCache.create(
+                persistentStore, new LongEntryMapper(), taggedMetricRegistry, () -> CACHE_SIZE, cacheName);
+    }
+
+    private static MetricName cacheHitMetric(String cacheName) {
+        return cacheMetric("cacheHit", cacheName);
+    }
+
+    private static MetricName cacheMissMetric(String cacheName) {
+        return cacheMetric("cacheMiss", cacheName);
+    }
+
+    private static MetricName cacheMetric(String metricSuffix, String cacheName) {
+        return MetricName.builder()
+                .safeName(MetricRegistry.name(DefaultOffHeapCache.class, metricSuffix))
+                .putSafeTags("cacheName", cacheName)
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.compress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Bytes;
+
+public class CompressionDictionaryTrainerTest {
+    private static final List<byte[]> SAMPLES = IntStream.range(0, 100)
+            .mapToObj(index -> ("{\"identifier\":" + index + ",\"status\":\"ACTIVE\",\"owner\":\"user-" + index * 7
+                    + "\"}").getBytes(StandardCharsets.UTF_8))
+            .collect(Collectors.toList());
+
+    @Test
+    public void dictionaryContainsContentCommonToSamples() {
+        byte[] dictionary = CompressionDictionaryTrainer.train(SAMPLES, 1024);
+
+        assertThat(Bytes.indexOf(dictionary, bytes("\"status\":\"ACTIVE\",\"owner\":\"user-"))).isNotNegative();
+        assertThat(Bytes.indexOf(dictionary, bytes("{\"identifier\":"))).isNotNegative();
+    }
+
+    @Test
+    public void dictionaryDoesNotExceedMaximumSize() {
+        assertThat(CompressionDictionaryTrainer.train(SAMPLES, 16)).hasSizeLessThanOrEqualTo(16);
+    }
+
+    @Test
+    public void dictionaryIsEmptyIfSamplesHaveNothingInCommon() {
+        assertThat(CompressionDictionaryTrainer.train(
+                ImmutableList.of(bytes("abcdefghijklmnop"), bytes("qrstuvwxyz012345")), 1024)).isEmpty();
+    }
+
+    @Test
+    public void throwsIfMaximumSizeExceedsDeflateWindow() {
+        assertThatThrownBy(() -> CompressionDictionaryTrainer.train(
+                SAMPLES, CompressionDictionaryTrainer.MAX_DICTIONARY_SIZE + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static byte[] bytes(String string) {
+        return string.getBytes(StandardCharsets.UTF_8);
+    }
+}
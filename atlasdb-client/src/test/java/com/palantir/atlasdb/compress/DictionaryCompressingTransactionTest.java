@@ -0,0 +1,107 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.compress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.transaction.api.Transaction;
+
+public class DictionaryCompressingTransactionTest {
+    private static final TableReference TABLE = TableReference.createFromFullyQualifiedName("test.table");
+    private static final TableReference OTHER_TABLE = TableReference.createFromFullyQualifiedName("test.other");
+    private static final Cell COMPRESSED_CELL = Cell.create(PtBytes.toBytes("row"), PtBytes.toBytes("c"));
+    private static final Cell UNCOMPRESSED_CELL = Cell.create(PtBytes.toBytes("row"), PtBytes.toBytes("u"));
+    private static final byte[] VALUE = "{\"name\":\"value\",\"description\":\"some description\"}"
+            .getBytes(StandardCharsets.UTF_8);
+    private static final CompressionDictionary DICTIONARY =
+            CompressionDictionary.create(CompressionDictionary.keyFor(TABLE, "c"), VALUE);
+
+    private final Transaction delegate = mock(Transaction.class);
+    private final CompressionDictionaries dictionaries = CompressionDictionaries.create(unused -> Optional.empty());
+    private Transaction transaction;
+
+    @Before
+    public void setUp() {
+        dictionaries.register(DICTIONARY);
+        transaction = DictionaryCompressingTransaction.forNamedColumns(
+                delegate, TABLE, ImmutableSet.of("c"), dictionaries);
+    }
+
+    @Test
+    public void compressesOnlyTheConfiguredColumnsWithTheirDictionary() {
+        transaction.put(TABLE, ImmutableMap.of(COMPRESSED_CELL, VALUE, UNCOMPRESSED_CELL, VALUE));
+
+        Map<Cell, byte[]> written = capturePut(TABLE);
+        assertThat(written.get(COMPRESSED_CELL))
+                .isEqualTo(CompressionUtils.compressWithDeflate(VALUE, Optional.of(DICTIONARY)));
+        assertThat(written.get(UNCOMPRESSED_CELL)).isEqualTo(VALUE);
+    }
+
+    @Test
+    public void doesNotCompressOtherTables() {
+        transaction.put(OTHER_TABLE, ImmutableMap.of(COMPRESSED_CELL, VALUE));
+
+        assertThat(capturePut(OTHER_TABLE).get(COMPRESSED_CELL)).isEqualTo(VALUE);
+    }
+
+    @Test
+    public void decompressesValuesReadFromTheConfiguredColumns() {
+        byte[] compressed = CompressionUtils.compressWithDeflate(VALUE, Optional.of(DICTIONARY));
+        when(delegate.get(TABLE, ImmutableSet.of(COMPRESSED_CELL, UNCOMPRESSED_CELL)))
+                .thenReturn(ImmutableMap.of(COMPRESSED_CELL, compressed, UNCOMPRESSED_CELL, compressed));
+
+        Map<Cell, byte[]> read = transaction.get(TABLE, ImmutableSet.of(COMPRESSED_CELL, UNCOMPRESSED_CELL));
+        assertThat(read.get(COMPRESSED_CELL)).isEqualTo(VALUE);
+        assertThat(read.get(UNCOMPRESSED_CELL)).isEqualTo(compressed);
+    }
+
+    @Test
+    public void dynamicColumnsAreAllCompressedWithTheTableDictionary() {
+        CompressionDictionary tableDictionary =
+                CompressionDictionary.create(CompressionDictionary.keyForDynamicColumns(TABLE), VALUE);
+        dictionaries.register(tableDictionary);
+        Transaction dynamic = DictionaryCompressingTransaction.forDynamicColumns(delegate, TABLE, dictionaries);
+
+        dynamic.put(TABLE, ImmutableMap.of(UNCOMPRESSED_CELL, VALUE));
+
+        assertThat(capturePut(TABLE).get(UNCOMPRESSED_CELL))
+                .isEqualTo(CompressionUtils.compressWithDeflate(VALUE, Optional.of(tableDictionary)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Cell, byte[]> capturePut(TableReference table) {
+        ArgumentCaptor<Map<Cell, byte[]>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(delegate).put(eq(table), captor.capture());
+        return captor.getValue();
+    }
+}
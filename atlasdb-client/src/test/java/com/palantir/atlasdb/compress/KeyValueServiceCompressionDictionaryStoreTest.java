@@ -0,0 +1,103 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.compress;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.impl.InMemoryKeyValueService;
+import com.palantir.logsafe.exceptions.SafeIllegalStateException;
+
+public class KeyValueServiceCompressionDictionaryStoreTest {
+    private static final CompressionDictionary FIRST = CompressionDictionary.create("key", new byte[] { 1, 2, 3 });
+    private static final CompressionDictionary SECOND = CompressionDictionary.create("key", new byte[] { 4, 5 });
+    private static final CompressionDictionary OTHER = CompressionDictionary.create("other", new byte[] { 6 });
+
+    private final KeyValueService kvs = new InMemoryKeyValueService(false);
+    private KeyValueServiceCompressionDictionaryStore store;
+
+    @Before
+    public void setUp() {
+        store = KeyValueServiceCompressionDictionaryStore.create(kvs);
+    }
+
+    @After
+    public void tearDown() {
+        kvs.close();
+    }
+
+    @Test
+    public void canReadStoredDictionaries() {
+        store.put(FIRST, 5L);
+        store.put(OTHER, 7L);
+
+        assertThat(store.get(FIRST.getId())).contains(FIRST);
+        assertThat(store.get(SECOND.getId())).isEmpty();
+        assertThat(store.getAll()).containsExactly(FIRST, OTHER);
+    }
+
+    @Test
+    public void dictionariesWithTheSameKeyHaveDifferentIds() {
+        assertThat(FIRST.getId()).isNotEqualTo(SECOND.getId());
+        assertThat(CompressionDictionary.create("other", new byte[] { 1, 2, 3 }).getId()).isNotEqualTo(FIRST.getId());
+        assertThat(CompressionDictionary.create("key", new byte[] { 1, 2, 3 })).isEqualTo(FIRST);
+    }
+
+    @Test
+    public void latestTrainedDictionaryForEachKeyIsActive() {
+        store.put(SECOND, 10L);
+        store.put(FIRST, 5L);
+        store.put(OTHER, 7L);
+        CompressionDictionaries dictionaries = store.loadDictionaries();
+
+        assertThat(dictionaries.getActive("key")).contains(SECOND);
+        assertThat(dictionaries.getActive("other")).contains(OTHER);
+        assertThat(dictionaries.get(FIRST.getId())).isEqualTo(FIRST);
+    }
+
+    @Test
+    public void loadsDictionariesStoredAfterRegistration() {
+        CompressionDictionaries dictionaries = store.loadDictionaries();
+        store.put(FIRST, 5L);
+
+        assertThat(dictionaries.get(FIRST.getId())).isEqualTo(FIRST);
+        assertThat(dictionaries.getActive("key")).isEmpty();
+    }
+
+    @Test
+    public void rejectsStoredDictionaryThatDoesNotMatchItsId() {
+        store.put(FIRST, 5L);
+        byte[] firstValue = kvs.get(AtlasDbConstants.COMPRESSION_DICTIONARY_TABLE, ImmutableMap.of(cell(FIRST), 6L))
+                .get(cell(FIRST))
+                .getContents();
+        kvs.put(AtlasDbConstants.COMPRESSION_DICTIONARY_TABLE, ImmutableMap.of(cell(SECOND), firstValue), 10L);
+
+        assertThatThrownBy(() -> store.get(SECOND.getId())).isInstanceOf(SafeIllegalStateException.class);
+    }
+
+    private static Cell cell(CompressionDictionary dictionary) {
+        return Cell.create(PtBytes.toBytes(dictionary.getId()), PtBytes.toBytes("d"));
+    }
+}
@@ -27,6 +27,7 @@ import org.junit.ClassRule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 import org.rocksdb.RocksDB;
+import org.rocksdb.TickerType;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -132,4 +133,27 @@ public final class RocksDbPersistentStoreTests {
                         KEY2, VALUE2)
                 );
     }
+
+    @Test
+    public void multiGetMatchesValuesToKeysAroundMissingEntries() {
+        persistentStore.put(defaultNamespace, KEY, VALUE);
+        persistentStore.put(defaultNamespace, KEY2, VALUE2);
+
+        assertThat(
+                persistentStore.get(defaultNamespace, ImmutableList.of(ByteString.encodeUtf8("bla"), KEY2, KEY)))
+                .containsExactlyInAnyOrderEntriesOf(ImmutableMap.of(
+                        KEY, VALUE,
+                        KEY2, VALUE2));
+    }
+
+    @Test
+    public void multiPutOnNonExistingFails() {
+        assertThatThrownBy(() -> persistentStore.put(NON_EXISTING_NAMESPACE, ImmutableMap.of(KEY, VALUE)))
+                .isInstanceOf(SafeIllegalArgumentException.class);
+    }
+
+    @Test
+    public void noStatisticsByDefault() {
+        assertThat(((RocksDbPersistentStore) persistentStore).getTickerCount(TickerType.BLOCK_CACHE_HIT)).isEmpty();
+    }
 }
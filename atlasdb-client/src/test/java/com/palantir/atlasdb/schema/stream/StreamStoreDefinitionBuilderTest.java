@@ -15,10 +15,14 @@
  */
 package com.palantir.atlasdb.schema.stream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import org.junit.Test;
 
+import com.palantir.atlasdb.keyvalue.api.Namespace;
 import com.palantir.atlasdb.table.description.ValueType;
+import com.palantir.common.compression.StreamCompression;
 
 public class StreamStoreDefinitionBuilderTest {
 
@@ -35,4 +39,42 @@ public class StreamStoreDefinitionBuilderTest {
                 .inMemoryThreshold(StreamStoreDefinition.MAX_IN_MEMORY_THRESHOLD)
                 .build();
     }
+
+    @Test
+    public void chunkTablesAreOnlyCreatedWithContentDefinedChunking() {
+        StreamStoreDefinition definition = new StreamStoreDefinitionBuilder("test", "test", ValueType.VAR_LONG)
+                .build();
+        assertThat(definition.getTables()).doesNotContainKeys(
+                StreamTableType.CHUNK.getTableName("test"), StreamTableType.CHUNK_INDEX.getTableName("test"));
+
+        StreamStoreDefinition chunkedDefinition = new StreamStoreDefinitionBuilder("test", "test", ValueType.VAR_LONG)
+                .contentDefinedChunking()
+                .build();
+        assertThat(chunkedDefinition.getTables()).containsKeys(
+                StreamTableType.VALUE.getTableName("test"),
+                StreamTableType.CHUNK.getTableName("test"),
+                StreamTableType.CHUNK_INDEX.getTableName("test"));
+    }
+
+    @Test
+    public void chunkIndexHasCleanupTaskWithContentDefinedChunking() {
+        StreamStoreDefinition definition = new StreamStoreDefinitionBuilder("test", "test", ValueType.VAR_LONG)
+                .contentDefinedChunking()
+                .build();
+        assertThat(definition.getCleanupTasks("package", "Test", definition.getRenderer("package", "Test"),
+                Namespace.DEFAULT_NAMESPACE).keySet())
+                .containsExactlyInAnyOrder(
+                        StreamTableType.METADATA.getTableName("test"),
+                        StreamTableType.INDEX.getTableName("test"),
+                        StreamTableType.CHUNK_INDEX.getTableName("test"));
+    }
+
+    @Test
+    public void contentDefinedChunkingCannotBeCombinedWithClientSideCompression() {
+        assertThatThrownBy(() -> new StreamStoreDefinitionBuilder("test", "test", ValueType.VAR_LONG)
+                .contentDefinedChunking()
+                .compressStreamInClient(StreamCompression.GZIP)
+                .build())
+                .isInstanceOf(IllegalArgumentException.class);
+    }
 }
@@ -15,6 +15,7 @@
  */
 package com.palantir.atlasdb.stream;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -29,12 +30,19 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import com.google.common.util.concurrent.MoreExecutors;
 import com.palantir.atlasdb.schema.stream.StreamStoreDefinition;
+import com.palantir.common.concurrent.PTExecutors;
 
 @SuppressWarnings("ResultOfMethodCallIgnored")
 public class BlockConsumingInputStreamTest {
@@ -91,6 +99,8 @@ public class BlockConsumingInputStreamTest {
         }
     };
 
+    private final ExecutorService readAheadExecutor = PTExecutors.newCachedThreadPool();
+
     private BlockConsumingInputStream dataStream;
 
     @Before
@@ -98,6 +108,11 @@ public class BlockConsumingInputStreamTest {
         dataStream = BlockConsumingInputStream.create(dataConsumer, 1, 1);
     }
 
+    @After
+    public void tearDown() {
+        readAheadExecutor.shutdownNow();
+    }
+
     @Test(expected = NullPointerException.class)
     public void cantReadToNullArray() throws IOException {
         dataStream.read(null, 1, 1);
@@ -291,6 +306,101 @@ public class BlockConsumingInputStreamTest {
         verify(spiedGetter, times(1)).get(anyLong(), eq(1L), any());
     }
 
+    @Test
+    public void canReadAcrossBlocksWithReadAhead() throws IOException {
+        BlockConsumingInputStream stream = BlockConsumingInputStream.createWithReadAhead(
+                threeByteConsumer, 3, 1, 2, readAheadExecutor, () -> true);
+        expectNextBytesFromStream(stream, "di");
+        expectNextBytesFromStream(stream, "vi");
+        expectNextBytesFromStream(stream, "si");
+        expectNextBytesFromStream(stream, "bl");
+
+        byte[] chunk = new byte[2];
+        assertEquals(1, stream.read(chunk));
+        assertArrayEquals("e".getBytes(StandardCharsets.UTF_8), Arrays.copyOf(chunk, 1));
+        assertEquals(-1, stream.read());
+    }
+
+    @Test
+    public void readAheadKeepsBoundedNumberOfBatchesInFlight() throws IOException {
+        BlockGetter spiedGetter = Mockito.spy(singleByteConsumer);
+        BlockConsumingInputStream stream = BlockConsumingInputStream.createWithReadAhead(
+                spiedGetter, DATA_SIZE, 1, 2, MoreExecutors.newDirectExecutorService(), () -> true);
+
+        stream.read();
+        verify(spiedGetter, times(3)).get(anyLong(), eq(1L), any());
+
+        byte[] rest = new byte[DATA_SIZE];
+        assertEquals(DATA_SIZE - 1, stream.read(rest));
+        assertArrayEquals(Arrays.copyOfRange(data, 1, DATA_SIZE), Arrays.copyOf(rest, DATA_SIZE - 1));
+        verify(spiedGetter, times(DATA_SIZE)).get(anyLong(), eq(1L), any());
+    }
+
+    @Test
+    public void readAheadPropagatesFailuresToReader() throws IOException {
+        BlockGetter failingGetter = new BlockGetter() {
+            @Override
+            public void get(long firstBlock, long numBlocks, OutputStream destination) {
+                throw new IllegalStateException("failed to read blocks");
+            }
+
+            @Override
+            public int expectedBlockLength() {
+                return DATA_SIZE;
+            }
+        };
+
+        BlockConsumingInputStream stream = BlockConsumingInputStream.createWithReadAhead(
+                failingGetter, 2, 1, 2, readAheadExecutor, () -> true);
+        assertThatThrownBy(stream::read).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void readsOneBatchAtATimeUntilReadAheadIsAllowed() throws IOException {
+        BlockGetter spiedGetter = Mockito.spy(singleByteConsumer);
+        AtomicBoolean readAheadAllowed = new AtomicBoolean(false);
+        BlockConsumingInputStream stream = BlockConsumingInputStream.createWithReadAhead(
+                spiedGetter, DATA_SIZE, 1, 2, MoreExecutors.newDirectExecutorService(), readAheadAllowed::get);
+
+        assertEquals(data[0], stream.read());
+        verify(spiedGetter, times(1)).get(anyLong(), eq(1L), any());
+
+        readAheadAllowed.set(true);
+        assertEquals(data[1], stream.read());
+        verify(spiedGetter, times(DATA_SIZE)).get(anyLong(), eq(1L), any());
+    }
+
+    @Test
+    public void closingStreamInterruptsBatchesBeingRead() throws IOException, InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        BlockGetter blockingGetter = new BlockGetter() {
+            @Override
+            public void get(long firstBlock, long numBlocks, OutputStream destination) {
+                if (firstBlock == 0) {
+                    singleByteConsumer.get(firstBlock, numBlocks, destination);
+                    return;
+                }
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            }
+
+            @Override
+            public int expectedBlockLength() {
+                return 1;
+            }
+        };
+
+        BlockConsumingInputStream stream = BlockConsumingInputStream.createWithReadAhead(
+                blockingGetter, DATA_SIZE, 1, 2, readAheadExecutor, () -> true);
+        assertEquals(data[0], stream.read());
+
+        stream.close();
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+    }
+
     private void expectNextBytesFromStream(BlockConsumingInputStream stream, String expectedOutput) throws IOException {
         byte[] chunk = new byte[2];
         int read = stream.read(chunk);
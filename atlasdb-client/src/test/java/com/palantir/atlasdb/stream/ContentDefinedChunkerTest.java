@@ -0,0 +1,113 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.google.common.primitives.Bytes;
+import com.palantir.util.crypto.Sha256Hash;
+
+public class ContentDefinedChunkerTest {
+    private static final int STREAM_LENGTH = 8_000_000;
+
+    private final byte[] data = randomBytes(STREAM_LENGTH, 0L);
+
+    @Test
+    public void emptyStreamHasNoChunks() throws IOException {
+        assertThat(chunk(new byte[0])).isEmpty();
+    }
+
+    @Test
+    public void shortStreamIsSingleChunk() throws IOException {
+        byte[] shortStream = randomBytes(ContentDefinedChunker.MIN_CHUNK_SIZE, 1L);
+        assertThat(chunk(shortStream)).containsExactly(shortStream);
+    }
+
+    @Test
+    public void chunksConcatenateToStream() throws IOException {
+        ByteArrayOutputStream concatenated = new ByteArrayOutputStream();
+        for (byte[] chunk : chunk(data)) {
+            concatenated.write(chunk);
+        }
+        assertThat(concatenated.toByteArray()).isEqualTo(data);
+    }
+
+    @Test
+    public void chunkSizesAreBounded() throws IOException {
+        List<byte[]> chunks = chunk(data);
+        assertThat(chunks.size()).isGreaterThan(STREAM_LENGTH / ContentDefinedChunker.MAX_CHUNK_SIZE);
+        assertThat(chunks.size()).isLessThanOrEqualTo(
+                (int) ContentDefinedChunker.getMaximumNumberOfChunks(STREAM_LENGTH));
+        for (byte[] chunk : chunks.subList(0, chunks.size() - 1)) {
+            assertThat(chunk.length)
+                    .isBetween(ContentDefinedChunker.MIN_CHUNK_SIZE, ContentDefinedChunker.MAX_CHUNK_SIZE);
+        }
+    }
+
+    @Test
+    public void chunkingIsDeterministic() throws IOException {
+        assertThat(chunkHashes(chunk(data))).isEqualTo(chunkHashes(chunk(data.clone())));
+    }
+
+    @Test
+    public void insertionOnlyChangesNearbyChunks() throws IOException {
+        int insertionPoint = STREAM_LENGTH / 2;
+        byte[] modified = Bytes.concat(
+                Arrays.copyOfRange(data, 0, insertionPoint),
+                randomBytes(100, 2L),
+                Arrays.copyOfRange(data, insertionPoint, STREAM_LENGTH));
+
+        Set<Sha256Hash> originalChunks = chunkHashes(chunk(data));
+        long sharedBytes = chunk(modified).stream()
+                .filter(chunk -> originalChunks.contains(Sha256Hash.computeHash(chunk)))
+                .mapToLong(chunk -> chunk.length)
+                .sum();
+
+        // Fixed size blocks would only share the blocks before the insertion.
+        assertThat(sharedBytes).isGreaterThan(STREAM_LENGTH * 3L / 4);
+    }
+
+    private static List<byte[]> chunk(byte[] stream) throws IOException {
+        ContentDefinedChunker chunker = ContentDefinedChunker.create(new ByteArrayInputStream(stream));
+        List<byte[]> chunks = new ArrayList<>();
+        for (byte[] chunk = chunker.nextChunk(); chunk != null; chunk = chunker.nextChunk()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    private static Set<Sha256Hash> chunkHashes(List<byte[]> chunks) {
+        return chunks.stream().map(Sha256Hash::computeHash).collect(Collectors.toSet());
+    }
+
+    private static byte[] randomBytes(int length, long seed) {
+        byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+}
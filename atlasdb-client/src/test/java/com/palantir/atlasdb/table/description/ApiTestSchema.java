@@ -50,6 +50,7 @@ public class ApiTestSchema implements AtlasSchema {
 
                 enableV2Table();
                 rangeScanAllowed();
+                typedScans();
             }
         });
 
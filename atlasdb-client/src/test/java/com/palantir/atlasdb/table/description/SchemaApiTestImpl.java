@@ -16,18 +16,29 @@
 package com.palantir.atlasdb.table.description;
 
 import static org.assertj.core.api.Assertions.assertThat;
-
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 import com.google.common.hash.Hashing;
 import com.palantir.atlasdb.encoding.PtBytes;
 import com.palantir.atlasdb.keyvalue.api.ColumnSelection;
+import com.palantir.atlasdb.keyvalue.api.Namespace;
 import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.ptobject.EncodingUtils;
 import com.palantir.atlasdb.table.description.generated.ApiTestTableFactory;
 import com.palantir.atlasdb.table.description.generated.HashComponentsTestTable;
@@ -36,6 +47,8 @@ import com.palantir.atlasdb.table.description.generated.SchemaApiTestTable.Schem
 import com.palantir.atlasdb.table.description.generated.SchemaApiTestTable.SchemaApiTestRowResult;
 import com.palantir.atlasdb.table.description.test.StringValue;
 import com.palantir.atlasdb.transaction.api.Transaction;
+import com.palantir.atlasdb.transaction.impl.AbstractTransaction;
+import com.palantir.common.base.BatchingVisitableFromIterable;
 import com.palantir.common.base.BatchingVisitableView;
 import com.palantir.common.base.BatchingVisitables;
 
@@ -134,6 +147,37 @@ public class SchemaApiTestImpl extends AbstractSchemaApiTest {
         table.deleteColumn1(SchemaApiTestRow.of(rowKey));
     }
 
+    @Test
+    public void testScanStreamsOnlySelectedColumnsWithinBounds() {
+        AbstractTransaction transaction = mock(AbstractTransaction.class);
+        TableReference tableRef = TableReference.create(Namespace.DEFAULT_NAMESPACE,
+                SchemaApiTestTable.getRawTableName());
+        when(transaction.getRange(eq(tableRef), any())).thenReturn(
+                BatchingVisitableFromIterable.create(Arrays.asList(
+                        RowResult.of(getCell(TEST_ROW_KEY, SECOND_COL_SHORT_NAME),
+                                STRING_VALUE_PERSISTER.persistToBytes(TEST_VALUE_STRING)),
+                        RowResult.of(getCell(TEST_ROW_KEY2, SECOND_COL_SHORT_NAME),
+                                STRING_VALUE_PERSISTER.persistToBytes(TEST_VALUE_STRING2)))));
+
+        Map<String, StringValue> result = tableFactory.getSchemaApiTestTable(transaction).scan()
+                .columns(SchemaApiTestTable.SchemaApiTestNamedColumn.COLUMN2)
+                .startRowInclusive(SchemaApiTestRow.of(TEST_ROW_KEY))
+                .endRowExclusive(SchemaApiTestRow.of(RANGE_END_ROW_KEY))
+                .batchHint(10)
+                .stream()
+                .collect(Collectors.toMap(
+                        entry -> entry.getRowName().getComponent1(),
+                        SchemaApiTestTable.SchemaApiTestRowResult::getColumn2));
+
+        assertThat(result).containsOnly(
+                entry(TEST_ROW_KEY, TEST_VALUE_STRING), entry(TEST_ROW_KEY2, TEST_VALUE_STRING2));
+        ArgumentCaptor<RangeRequest> range = ArgumentCaptor.forClass(RangeRequest.class);
+        verify(transaction).getRange(eq(tableRef), range.capture());
+        assertThat(range.getValue().getStartInclusive()).isEqualTo(PtBytes.toBytes(TEST_ROW_KEY));
+        assertThat(range.getValue().getEndExclusive()).isEqualTo(PtBytes.toBytes(RANGE_END_ROW_KEY));
+        assertThat(range.getValue().getColumnNames()).containsExactly(PtBytes.toBytes(SECOND_COL_SHORT_NAME));
+    }
+
     @Test
     public void testHashFirstTwoRowComponents() {
         HashComponentsTestTable.HashComponentsTestRow testRow =
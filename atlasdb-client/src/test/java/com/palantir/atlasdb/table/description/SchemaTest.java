@@ -41,6 +41,7 @@ import com.google.common.io.Files;
 import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.atlasdb.keyvalue.api.Namespace;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.schema.stream.StreamStoreDefinitionBuilder;
 
 public class SchemaTest {
     @Rule
@@ -202,6 +203,21 @@ public class SchemaTest {
         schema.validate();
     }
 
+    @Test
+    public void rendersChunkTablesAndCleanupTaskForStreamStoresWithContentDefinedChunking() throws IOException {
+        Schema schema = new Schema("Table", TEST_PACKAGE, Namespace.DEFAULT_NAMESPACE);
+        schema.addStreamStoreDefinition(new StreamStoreDefinitionBuilder("chunked", "Chunked", ValueType.VAR_LONG)
+                .contentDefinedChunking()
+                .build());
+        schema.renderTables(testFolder.getRoot());
+
+        assertThat(readFileIntoString(testFolder.getRoot(), TEST_PACKAGE + "/ChunkedStreamStore.java"))
+                .contains("protected boolean usesContentDefinedChunking()")
+                .contains("ChunkedStreamChunkIdxTable");
+        assertThat(new File(testFolder.getRoot(), TEST_PACKAGE + "/ChunkedStreamChunkTable.java")).exists();
+        assertThat(new File(testFolder.getRoot(), TEST_PACKAGE + "/ChunkedChunkCleanupTask.java")).exists();
+    }
+
     private void checkIfFilesAreTheSame(List<String> generatedTestTables) {
         generatedTestTables.forEach(tableName -> {
             String generatedFilePath =
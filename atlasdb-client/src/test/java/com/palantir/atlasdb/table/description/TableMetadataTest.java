@@ -33,6 +33,7 @@ public class TableMetadataTest {
             .appendHeavyAndReadLight(true)
             .nameLogSafety(LogSafety.SAFE)
             .denselyAccessedWideRows(true)
+            .appendOnly(true)
             .build();
 
     @Test
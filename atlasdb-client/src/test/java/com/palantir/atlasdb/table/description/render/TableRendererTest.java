@@ -69,6 +69,56 @@ public class TableRendererTest {
         }};
     }
 
+    @Test
+    public void testRendersInPlaceReadersWithZeroCopyDecoding() {
+        TableRenderer renderer = new TableRenderer("package", Namespace.DEFAULT_NAMESPACE, OptionalType.JAVA8);
+        assertThat(renderer.render("table", getTwoComponentTableDefinition(TABLE_REF, true), NO_INDICES))
+                .contains("long first = EncodingUtils.decodeUnsignedVarLong(__input, __index);")
+                .contains("public static long readFirst(byte[] __input) {")
+                .contains("public static String readSecond(byte[] __input) {")
+                .contains("__index += EncodingUtils.sizeOfUnsignedVarLong("
+                        + "EncodingUtils.decodeUnsignedVarLong(__input, __index));");
+    }
+
+    @Test
+    public void testDoesNotRenderInPlaceReadersByDefault() {
+        TableRenderer renderer = new TableRenderer("package", Namespace.DEFAULT_NAMESPACE, OptionalType.JAVA8);
+        assertThat(renderer.render("table", getTwoComponentTableDefinition(TABLE_REF, false), NO_INDICES))
+                .contains("Long first = EncodingUtils.decodeUnsignedVarLong(__input, __index);")
+                .doesNotContain("readFirst")
+                .doesNotContain("readSecond");
+    }
+
+    private TableDefinition getTwoComponentTableDefinition(TableReference tableRef, boolean zeroCopy) {
+        return new TableDefinition() {{
+            javaTableName(tableRef.getTablename());
+            rowName();
+            rowComponent("first", ValueType.VAR_LONG);
+            rowComponent("second", ValueType.STRING);
+            columns();
+            column("col1", "1", ValueType.VAR_LONG);
+            if (zeroCopy) {
+                zeroCopyDecoding();
+            }
+        }};
+    }
+
+    @Test
+    public void testRendersScanBuilderOnlyWhenRequested() {
+        TableRenderer renderer = new TableRenderer("package", Namespace.DEFAULT_NAMESPACE, OptionalType.JAVA8);
+        TableDefinition definition = getSimpleTableDefinition(TABLE_REF);
+        definition.rangeScanAllowed();
+        assertThat(renderer.render("table", definition, NO_INDICES))
+                .doesNotContain("TestTableScan");
+
+        definition.typedScans();
+        assertThat(renderer.render("table", definition, NO_INDICES))
+                .contains("public TestTableScan scan() {")
+                .contains("public TestTableScan columns(Collection<TestTableNamedColumn> cols) {")
+                .contains("public TestTableScan startRowInclusive(TestTableRow row) {")
+                .contains("public Stream<TestTableRowResult> stream() {");
+    }
+
     @Test
     public void testReusablePersisters() {
         TableRenderer renderer = new TableRenderer("package", Namespace.DEFAULT_NAMESPACE, OptionalType.JAVA8);
@@ -0,0 +1,95 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.table.generation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.google.common.primitives.UnsignedBytes;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.transaction.api.Transaction;
+import com.palantir.common.base.BatchingVisitableFromIterable;
+
+public class RangeScansTest {
+    private static final TableReference TABLE = TableReference.createFromFullyQualifiedName("test.table");
+    private static final byte[] COLUMN = PtBytes.toBytes("c");
+    private static final byte[] VALUE = PtBytes.toBytes("value");
+    private static final int NUM_ROWS = 5;
+
+    private final Transaction transaction = mock(Transaction.class);
+    private final List<RowResult<byte[]>> rows = IntStream.range(0, NUM_ROWS)
+            .mapToObj(index -> RowResult.of(Cell.create(PtBytes.toBytes("row" + index), COLUMN), VALUE))
+            .collect(Collectors.toList());
+
+    @Before
+    public void setUp() {
+        when(transaction.getRange(eq(TABLE), any())).thenAnswer(invocation -> {
+            RangeRequest range = invocation.getArgument(1);
+            return BatchingVisitableFromIterable.create(rows.stream()
+                    .filter(row -> range.inRange(row.getRowName()))
+                    .collect(Collectors.toList()));
+        });
+    }
+
+    @Test
+    public void streamsAllRowsInPagesOfTheBatchHint() {
+        RangeRequest range = RangeRequest.builder().batchHint(2).build();
+
+        assertThat(RangeScans.stream(transaction, TABLE, range).collect(Collectors.toList()))
+                .containsExactlyElementsOf(rows);
+
+        ArgumentCaptor<RangeRequest> pages = ArgumentCaptor.forClass(RangeRequest.class);
+        verify(transaction, times(3)).getRange(eq(TABLE), pages.capture());
+        assertThat(pages.getAllValues())
+                .extracting(RangeRequest::getStartInclusive)
+                .usingElementComparator(UnsignedBytes.lexicographicalComparator())
+                .containsExactly(PtBytes.EMPTY_BYTE_ARRAY, rows.get(2).getRowName(), rows.get(4).getRowName());
+        assertThat(pages.getAllValues()).extracting(RangeRequest::getBatchHint).containsOnly(3);
+    }
+
+    @Test
+    public void onlyReadsPagesThatAreConsumed() {
+        RangeRequest range = RangeRequest.builder().batchHint(2).build();
+
+        assertThat(RangeScans.stream(transaction, TABLE, range).limit(2).collect(Collectors.toList()))
+                .containsExactlyElementsOf(rows.subList(0, 2));
+        verify(transaction, times(1)).getRange(eq(TABLE), any());
+    }
+
+    @Test
+    public void doesNotReadAnythingUntilConsumed() {
+        RangeScans.stream(transaction, TABLE, RangeRequest.all());
+
+        verify(transaction, times(0)).getRange(any(), any());
+    }
+}
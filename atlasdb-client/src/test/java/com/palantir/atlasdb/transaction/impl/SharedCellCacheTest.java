@@ -0,0 +1,176 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.rocksdb.RocksDB;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableSet;
+import com.palantir.atlasdb.cache.OffHeapCache;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.impl.InMemoryKeyValueService;
+import com.palantir.atlasdb.persistent.api.PersistentStore;
+import com.palantir.atlasdb.persistent.rocksdb.RocksDbPersistentStore;
+import com.palantir.atlasdb.table.description.TableMetadata;
+import com.palantir.tritium.metrics.registry.DefaultTaggedMetricRegistry;
+
+public class SharedCellCacheTest {
+    private static final TableReference APPEND_ONLY_TABLE = TableReference.createFromFullyQualifiedName("ns.append");
+    private static final TableReference OTHER_TABLE = TableReference.createFromFullyQualifiedName("ns.other");
+    private static final Cell CELL = Cell.create(PtBytes.toBytes("row"), PtBytes.toBytes("col"));
+    private static final byte[] VALUE = PtBytes.toBytes("value");
+    private static final Cell OTHER_CELL = Cell.create(PtBytes.toBytes("row2"), PtBytes.toBytes("col"));
+    private static final byte[] OTHER_VALUE = PtBytes.toBytes("value2");
+    private static final long SINGLE_ENTRY_BYTES = 100L;
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final SharedCellCache cache = SharedCellCache.createUninstrumented(
+            ImmutableSet.of(APPEND_ONLY_TABLE), 1_000_000L);
+
+    @Test
+    public void valuesAreOnlyVisibleToTransactionsStartingNoEarlierThanTheReader() {
+        cache.put(APPEND_ONLY_TABLE, CELL, VALUE, 100L);
+
+        assertThat(cache.get(APPEND_ONLY_TABLE, CELL, 99L)).isNull();
+        assertThat(cache.get(APPEND_ONLY_TABLE, CELL, 100L)).isEqualTo(VALUE);
+        assertThat(cache.get(APPEND_ONLY_TABLE, CELL, 200L)).isEqualTo(VALUE);
+    }
+
+    @Test
+    public void earlierReadsExtendVisibility() {
+        cache.put(APPEND_ONLY_TABLE, CELL, VALUE, 100L);
+        cache.put(APPEND_ONLY_TABLE, CELL, VALUE, 50L);
+        cache.put(APPEND_ONLY_TABLE, CELL, VALUE, 70L);
+
+        assertThat(cache.get(APPEND_ONLY_TABLE, CELL, 50L)).isEqualTo(VALUE);
+    }
+
+    @Test
+    public void doesNotCacheAbsentCellsOrOtherTables() {
+        cache.put(APPEND_ONLY_TABLE, CELL, PtBytes.EMPTY_BYTE_ARRAY, 100L);
+        cache.put(OTHER_TABLE, CELL, VALUE, 100L);
+
+        assertThat(cache.get(APPEND_ONLY_TABLE, CELL, 200L)).isNull();
+        assertThat(cache.get(OTHER_TABLE, CELL, 200L)).isNull();
+    }
+
+    @Test
+    public void distinguishesCellsWithTheSameConcatenatedName() {
+        Cell otherCell = Cell.create(PtBytes.toBytes("ro"), PtBytes.toBytes("wcol"));
+        cache.put(APPEND_ONLY_TABLE, CELL, VALUE, 100L);
+
+        assertThat(cache.get(APPEND_ONLY_TABLE, otherCell, 200L)).isNull();
+    }
+
+    @Test
+    public void cachesTablesPersistedAsAppendOnly() {
+        try (KeyValueService kvs = new InMemoryKeyValueService(false)) {
+            kvs.createTable(APPEND_ONLY_TABLE, TableMetadata.builder().appendOnly(true).build().persistToBytes());
+            kvs.createTable(OTHER_TABLE, TableMetadata.allDefault().persistToBytes());
+            SharedCellCache kvsBackedCache = SharedCellCache.create(new MetricRegistry(), kvs, 1_000_000L);
+
+            assertThat(kvsBackedCache.isCached(APPEND_ONLY_TABLE)).isTrue();
+            assertThat(kvsBackedCache.isCached(OTHER_TABLE)).isFalse();
+        }
+    }
+
+    @Test
+    public void evictedValuesAreServedFromTheOffHeapTier() {
+        InMemoryOffHeapCache offHeapCache = new InMemoryOffHeapCache();
+        SharedCellCache tieredCache = SharedCellCache.createUninstrumented(
+                ImmutableSet.of(APPEND_ONLY_TABLE), SINGLE_ENTRY_BYTES, Optional.of(offHeapCache), Optional.empty());
+
+        tieredCache.put(APPEND_ONLY_TABLE, CELL, VALUE, 100L);
+        tieredCache.put(APPEND_ONLY_TABLE, OTHER_CELL, OTHER_VALUE, 100L);
+
+        assertThat(offHeapCache.entries).hasSize(1);
+        assertThat(tieredCache.get(APPEND_ONLY_TABLE, CELL, 200L)).isEqualTo(VALUE);
+        assertThat(tieredCache.get(APPEND_ONLY_TABLE, OTHER_CELL, 200L)).isEqualTo(OTHER_VALUE);
+    }
+
+    @Test
+    public void offHeapValuesAreOnlyVisibleToTransactionsStartingNoEarlierThanTheReader() {
+        InMemoryOffHeapCache offHeapCache = new InMemoryOffHeapCache();
+        SharedCellCache tieredCache = SharedCellCache.createUninstrumented(
+                ImmutableSet.of(APPEND_ONLY_TABLE), 0L, Optional.of(offHeapCache), Optional.empty());
+
+        tieredCache.put(APPEND_ONLY_TABLE, CELL, VALUE, 100L);
+
+        assertThat(offHeapCache.entries).hasSize(1);
+        assertThat(tieredCache.get(APPEND_ONLY_TABLE, CELL, 99L)).isNull();
+        assertThat(tieredCache.get(APPEND_ONLY_TABLE, CELL, 100L)).isEqualTo(VALUE);
+    }
+
+    @Test
+    public void spillsToPersistentStore() throws Exception {
+        File databaseFolder = temporaryFolder.newFolder();
+        try (KeyValueService kvs = new InMemoryKeyValueService(false);
+                PersistentStore persistentStore = new RocksDbPersistentStore(
+                        RocksDB.open(databaseFolder.getAbsolutePath()), databaseFolder)) {
+            kvs.createTable(APPEND_ONLY_TABLE, TableMetadata.builder().appendOnly(true).build().persistToBytes());
+            SharedCellCache tieredCache = SharedCellCache.createWithOffHeapTier(
+                    new MetricRegistry(),
+                    new DefaultTaggedMetricRegistry(),
+                    kvs,
+                    0L,
+                    persistentStore,
+                    () -> 1_000L);
+
+            tieredCache.put(APPEND_ONLY_TABLE, CELL, VALUE, 100L);
+            tieredCache.put(APPEND_ONLY_TABLE, OTHER_CELL, OTHER_VALUE, 150L);
+            tieredCache.close();
+
+            assertThat(tieredCache.get(APPEND_ONLY_TABLE, CELL, 100L)).isEqualTo(VALUE);
+            assertThat(tieredCache.get(APPEND_ONLY_TABLE, OTHER_CELL, 100L)).isNull();
+            assertThat(tieredCache.get(APPEND_ONLY_TABLE, OTHER_CELL, 150L)).isEqualTo(OTHER_VALUE);
+        }
+    }
+
+    private static final class InMemoryOffHeapCache
+            implements OffHeapCache<SharedCellCache.CellKey, SharedCellCache.CachedValue> {
+        private final Map<SharedCellCache.CellKey, SharedCellCache.CachedValue> entries = new ConcurrentHashMap<>();
+
+        @Override
+        public Optional<SharedCellCache.CachedValue> get(SharedCellCache.CellKey key) {
+            return Optional.ofNullable(entries.get(key));
+        }
+
+        @Override
+        public void put(SharedCellCache.CellKey key, SharedCellCache.CachedValue value) {
+            entries.put(key, value);
+        }
+
+        @Override
+        public void clear() {
+            entries.clear();
+        }
+    }
+}
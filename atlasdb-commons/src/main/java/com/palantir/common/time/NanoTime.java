@@ -58,7 +58,11 @@ public abstract class NanoTime implements Comparable<NanoTime> {
         }
     }
 
-    private static long nanosBetween(NanoTime first, NanoTime second) {
+    /**
+     * Returns the number of nanoseconds from {@code first} to {@code second}, which is negative if {@code second} is
+     * before {@code first}.
+     */
+    public static long nanosBetween(NanoTime first, NanoTime second) {
         return second.time() - first.time();
     }
 
@@ -158,6 +158,25 @@ public abstract class AtlasDbConfig {
         return AtlasDbConstants.DEFAULT_BACKGROUND_SCRUB_BATCH_SIZE;
     }
 
+    /**
+     * The maximum number of cells read from the scrub queue by the background scrubber that may be waiting to be
+     * scrubbed at any one time. Readers block once this limit is reached, bounding the memory used by the scrubber.
+     */
+    @Value.Default
+    public int getBackgroundScrubMaxCellsInFlight() {
+        return AtlasDbConstants.DEFAULT_BACKGROUND_SCRUB_MAX_CELLS_IN_FLIGHT;
+    }
+
+    /**
+     * The maximum rate, in key bytes per second, at which the scrubber deletes data from the key value service. Each
+     * deleted cell version counts the sizes of its row name, column name and timestamp; values are not counted, as
+     * the scrubber never reads them. By default, deletes are not rate limited.
+     */
+    @Value.Default
+    public long getBackgroundScrubMaxKeyBytesDeletedPerSecond() {
+        return AtlasDbConstants.DEFAULT_BACKGROUND_SCRUB_MAX_KEY_BYTES_DELETED_PER_SECOND;
+    }
+
     /**
      * If false, the KVS and classes that depend on it will only try to initialize synchronously and will throw on
      * failure, preventing AtlasDB from starting. This is consistent with the behaviour prior to implementing
@@ -265,6 +284,38 @@ public abstract class AtlasDbConfig {
         return AtlasDbConstants.DEFAULT_LOCK_TIMEOUT_SECONDS;
     }
 
+    /**
+     * If true, commit timestamp lookups made by transactions and by sweep are coalesced across all threads into bulk
+     * lookups against the transactions table, and resolved commit timestamps are shared through the
+     * {@link #timestampCache()}. This may add a small amount of latency to individual lookups in exchange for fewer
+     * reads of the transactions table under concurrent load.
+     */
+    @Value.Default
+    public boolean batchCommitTimestampReads() {
+        return false;
+    }
+
+    /**
+     * The maximum size, in bytes, of a cache of values read from tables declared as append-only in the schema, shared
+     * by all transactions of the transaction manager. As cells of such tables are never overwritten, cached values
+     * never need to be invalidated. If zero (the default), no values are shared between transactions.
+     */
+    @Value.Default
+    public long sharedCellCacheMaxBytes() {
+        return 0L;
+    }
+
+    /**
+     * The maximum number of entries of an off-heap tier of the shared cell cache, to which values evicted from the
+     * on-heap cache limited by {@link #sharedCellCacheMaxBytes()} are spilled. The off-heap tier is stored in the
+     * configured {@link #persistentStorage()}, and is only used if both that and the on-heap cache are configured.
+     * When the off-heap tier is full, it is cleared. If zero (the default), there is no off-heap tier.
+     */
+    @Value.Default
+    public long sharedCellCacheOffHeapMaxEntries() {
+        return 0L;
+    }
+
     /**
      * If set, the timestamp cache that should be used by AtlasDB. If set, any timestamp cache sizing configuration
      * is ignored.
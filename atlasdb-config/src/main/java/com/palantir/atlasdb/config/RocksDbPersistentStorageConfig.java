@@ -33,4 +33,9 @@ public interface RocksDbPersistentStorageConfig extends PersistentStorageConfig
     default String type() {
         return TYPE;
     }
+
+    @Value.Default
+    default RocksDbTuningConfig tuning() {
+        return RocksDbTuningConfig.defaultTuning();
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.config;
+
+import org.immutables.value.Value;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+
+/**
+ * Tuning of the RocksDB instance backing a {@link RocksDbPersistentStorageConfig persistent store}. The store only
+ * holds data that can be rebuilt from the key value service, and its keys are (variable length encoded) timestamps,
+ * so the defaults favour read latency over durability.
+ */
+@JsonDeserialize(as = ImmutableRocksDbTuningConfig.class)
+@JsonSerialize(as = ImmutableRocksDbTuningConfig.class)
+@Value.Immutable
+public abstract class RocksDbTuningConfig {
+    /**
+     * Size of the LRU block cache, shared by all column families of the store. Setting this to 0 falls back to the
+     * RocksDB default of a small cache per column family.
+     */
+    @Value.Default
+    public long blockCacheSizeBytes() {
+        return 64L * 1024 * 1024;
+    }
+
+    /**
+     * Bits per key of the bloom filter built for every table file. Setting this to 0 disables bloom filters.
+     */
+    @Value.Default
+    public int bloomFilterBitsPerKey() {
+        return 10;
+    }
+
+    /**
+     * Length of the key prefix used for prefix bloom filters in the memtable. Keys are at most 9 bytes long, so the
+     * default of 8 covers the whole key for all but the largest timestamps. Setting this to 0 disables prefix
+     * filtering.
+     */
+    @Value.Default
+    public int keyPrefixLength() {
+        return 8;
+    }
+
+    /**
+     * If true, writes skip the write ahead log. Data written since the last memtable flush is lost on a crash, which
+     * is acceptable since the store is deleted on close anyway.
+     */
+    @Value.Default
+    public boolean disableWriteAheadLog() {
+        return true;
+    }
+
+    /**
+     * If true, RocksDB collects statistics such as block cache and bloom filter hits, which are exported as metrics.
+     */
+    @Value.Default
+    public boolean exportStatistics() {
+        return true;
+    }
+
+    @Value.Check
+    void check() {
+        Preconditions.checkArgument(blockCacheSizeBytes() >= 0,
+                "Block cache size must not be negative",
+                SafeArg.of("blockCacheSizeBytes", blockCacheSizeBytes()));
+        Preconditions.checkArgument(bloomFilterBitsPerKey() >= 0,
+                "Bloom filter bits per key must not be negative",
+                SafeArg.of("bloomFilterBitsPerKey", bloomFilterBitsPerKey()));
+        Preconditions.checkArgument(keyPrefixLength() >= 0,
+                "Key prefix length must not be negative",
+                SafeArg.of("keyPrefixLength", keyPrefixLength()));
+    }
+
+    public static RocksDbTuningConfig defaultTuning() {
+        return ImmutableRocksDbTuningConfig.builder().build();
+    }
+}
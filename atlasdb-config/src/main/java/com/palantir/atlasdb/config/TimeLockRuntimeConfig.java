@@ -28,4 +28,14 @@ public abstract class TimeLockRuntimeConfig {
     public ServerListConfig serversList() {
         return ImmutableServerListConfig.builder().build();
     }
+
+    /**
+     * If true, lock descriptors that share a table prefix are sent to TimeLock with the prefix only once, reducing
+     * the size of lock requests. TimeLock servers that do not support this ignore such descriptors and would not lock
+     * them, so this must only be enabled once every TimeLock server this client may talk to has been upgraded.
+     */
+    @Value.Default
+    public boolean sharePrefixedLockDescriptors() {
+        return false;
+    }
 }
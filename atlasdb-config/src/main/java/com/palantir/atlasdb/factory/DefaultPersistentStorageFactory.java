@@ -18,16 +18,35 @@ package com.palantir.atlasdb.factory;
 
 import java.io.File;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.LRUCache;
+import org.rocksdb.Options;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
+import org.rocksdb.Statistics;
+import org.rocksdb.StatsLevel;
+import org.rocksdb.TickerType;
+import org.rocksdb.WriteOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableMap;
 import com.palantir.atlasdb.config.RocksDbPersistentStorageConfig;
+import com.palantir.atlasdb.config.RocksDbTuningConfig;
 import com.palantir.atlasdb.persistent.api.PersistentStore;
 import com.palantir.atlasdb.persistent.rocksdb.RocksDbPersistentStore;
+import com.palantir.tritium.metrics.registry.DefaultTaggedMetricRegistry;
+import com.palantir.tritium.metrics.registry.MetricName;
+import com.palantir.tritium.metrics.registry.TaggedMetricRegistry;
 
 /**
  * Constructs a new {@link PersistentStore} with new persistent storage connection on each call of
@@ -36,8 +55,32 @@ import com.palantir.atlasdb.persistent.rocksdb.RocksDbPersistentStore;
 public final class DefaultPersistentStorageFactory implements PersistentStorageFactory {
     private static final Logger log = LoggerFactory.getLogger(DefaultPersistentStorageFactory.class);
 
+    private static final double MEMTABLE_PREFIX_BLOOM_SIZE_RATIO = 0.1;
+    private static final Map<TickerType, String> EXPORTED_TICKERS = ImmutableMap.<TickerType, String>builder()
+            .put(TickerType.BLOCK_CACHE_HIT, "blockCacheHit")
+            .put(TickerType.BLOCK_CACHE_MISS, "blockCacheMiss")
+            .put(TickerType.BLOOM_FILTER_USEFUL, "bloomFilterUseful")
+            .put(TickerType.MEMTABLE_HIT, "memtableHit")
+            .put(TickerType.MEMTABLE_MISS, "memtableMiss")
+            .put(TickerType.NUMBER_KEYS_READ, "keysRead")
+            .put(TickerType.NUMBER_KEYS_WRITTEN, "keysWritten")
+            .put(TickerType.BYTES_READ, "bytesRead")
+            .put(TickerType.BYTES_WRITTEN, "bytesWritten")
+            .build();
+
+    private final TaggedMetricRegistry taggedMetricRegistry;
+
+    public DefaultPersistentStorageFactory() {
+        this(new DefaultTaggedMetricRegistry());
+    }
+
+    public DefaultPersistentStorageFactory(TaggedMetricRegistry taggedMetricRegistry) {
+        this.taggedMetricRegistry = taggedMetricRegistry;
+    }
+
     /**
-     * Constructs a {@link PersistentStore} from a {@link RocksDbPersistentStorageConfig}.
+     * Constructs a {@link PersistentStore} from a {@link RocksDbPersistentStorageConfig}. All column families of the
+     * store share a single block cache, and are set up as described by {@link RocksDbPersistentStorageConfig#tuning()}.
      *
      * @param config of the requested RocksDB persistent storage
      * @return RockDB implementation of {@link PersistentStore}
@@ -45,13 +88,78 @@ public final class DefaultPersistentStorageFactory implements PersistentStorageF
     public PersistentStore constructPersistentStore(RocksDbPersistentStorageConfig config) {
         Path magicPath = PersistentStoragePathSanitizer.sanitizeStoragePath(config.storagePath());
         File databaseFolder = new File(magicPath.toAbsolutePath().toString(), UUID.randomUUID().toString());
-        RocksDB rocksDb = openRocksConnection(databaseFolder);
-        return new RocksDbPersistentStore(rocksDb, databaseFolder);
+        RocksDbTuningConfig tuning = config.tuning();
+
+        List<AutoCloseable> resources = new ArrayList<>();
+        ColumnFamilyOptions columnFamilyOptions = createColumnFamilyOptions(tuning, resources);
+        WriteOptions writeOptions = new WriteOptions().setDisableWAL(tuning.disableWriteAheadLog());
+        Statistics statistics = null;
+        if (tuning.exportStatistics()) {
+            statistics = new Statistics();
+            statistics.setStatsLevel(StatsLevel.EXCEPT_DETAILED_TIMERS);
+        }
+
+        Options options = new Options().setCreateIfMissing(true);
+        resources.add(options);
+        if (statistics != null) {
+            options.setStatistics(statistics);
+        }
+
+        RocksDB rocksDb = openRocksConnection(options, databaseFolder);
+        RocksDbPersistentStore store = new RocksDbPersistentStore(
+                rocksDb, databaseFolder, columnFamilyOptions, writeOptions, statistics, resources);
+        if (statistics != null) {
+            registerStatistics(store);
+        }
+        return store;
+    }
+
+    private static ColumnFamilyOptions createColumnFamilyOptions(
+            RocksDbTuningConfig tuning,
+            List<AutoCloseable> resources) {
+        BlockBasedTableConfig tableConfig = new BlockBasedTableConfig();
+        if (tuning.blockCacheSizeBytes() > 0) {
+            LRUCache blockCache = new LRUCache(tuning.blockCacheSizeBytes());
+            resources.add(blockCache);
+            tableConfig.setBlockCache(blockCache)
+                    .setCacheIndexAndFilterBlocks(true)
+                    .setPinL0FilterAndIndexBlocksInCache(true);
+        }
+        if (tuning.bloomFilterBitsPerKey() > 0) {
+            BloomFilter bloomFilter = new BloomFilter(tuning.bloomFilterBitsPerKey(), false);
+            resources.add(bloomFilter);
+            tableConfig.setFilterPolicy(bloomFilter)
+                    .setWholeKeyFiltering(true);
+        }
+
+        ColumnFamilyOptions columnFamilyOptions = new ColumnFamilyOptions().setTableFormatConfig(tableConfig);
+        if (tuning.keyPrefixLength() > 0) {
+            columnFamilyOptions.useCappedPrefixExtractor(tuning.keyPrefixLength())
+                    .setMemtablePrefixBloomSizeRatio(MEMTABLE_PREFIX_BLOOM_SIZE_RATIO);
+        }
+        return columnFamilyOptions;
+    }
+
+    /**
+     * Statistics are exported as gauges of the cumulative ticker counts. Gauges are registered once per metric
+     * registry, so if several stores share a registry only the first one is reported.
+     */
+    private void registerStatistics(RocksDbPersistentStore store) {
+        EXPORTED_TICKERS.forEach((tickerType, metricSuffix) -> {
+            Gauge<Long> gauge = () -> store.getTickerCount(tickerType).orElse(0L);
+            taggedMetricRegistry.gauge(constructStatisticsMetricName(metricSuffix), gauge);
+        });
+    }
+
+    private static MetricName constructStatisticsMetricName(String metricSuffix) {
+        return MetricName.builder()
+                .safeName(MetricRegistry.name(RocksDbPersistentStore.class, metricSuffix))
+                .build();
     }
 
-    private static RocksDB openRocksConnection(File databaseFolder) {
+    private static RocksDB openRocksConnection(Options options, File databaseFolder) {
         try {
-            return RocksDB.open(databaseFolder.getAbsolutePath());
+            return RocksDB.open(options, databaseFolder.getAbsolutePath());
         } catch (RocksDBException e) {
             log.error("Opening RocksDB failed", e);
             throw new RuntimeException(e);
@@ -21,6 +21,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -66,12 +67,15 @@ import com.palantir.atlasdb.config.ImmutableServerListConfig;
 import com.palantir.atlasdb.config.ImmutableTimeLockClientConfig;
 import com.palantir.atlasdb.config.LeaderConfig;
 import com.palantir.atlasdb.config.LeaderRuntimeConfig;
+import com.palantir.atlasdb.config.PersistentStorageConfig;
 import com.palantir.atlasdb.config.RemotingClientConfigs;
+import com.palantir.atlasdb.config.RocksDbPersistentStorageConfig;
 import com.palantir.atlasdb.config.ServerListConfig;
 import com.palantir.atlasdb.config.ServerListConfigs;
 import com.palantir.atlasdb.config.ShouldRunBackgroundSweepSupplier;
 import com.palantir.atlasdb.config.SweepConfig;
 import com.palantir.atlasdb.config.TimeLockClientConfig;
+import com.palantir.atlasdb.config.TimeLockRuntimeConfig;
 import com.palantir.atlasdb.coordination.CoordinationService;
 import com.palantir.atlasdb.debug.ConflictTracer;
 import com.palantir.atlasdb.debug.LockDiagnosticComponents;
@@ -101,6 +105,7 @@ import com.palantir.atlasdb.keyvalue.impl.TracingKeyValueService;
 import com.palantir.atlasdb.keyvalue.impl.ValidatingQueryRewritingKeyValueService;
 import com.palantir.atlasdb.logging.KvsProfilingLogger;
 import com.palantir.atlasdb.memory.InMemoryAtlasDbConfig;
+import com.palantir.atlasdb.persistent.api.PersistentStore;
 import com.palantir.atlasdb.persistentlock.CheckAndSetExceptionMapper;
 import com.palantir.atlasdb.persistentlock.KvsBackedPersistentLockService;
 import com.palantir.atlasdb.persistentlock.NoOpPersistentLockService;
@@ -138,11 +143,13 @@ import com.palantir.atlasdb.transaction.impl.ConflictDetectionManager;
 import com.palantir.atlasdb.transaction.impl.ConflictDetectionManagers;
 import com.palantir.atlasdb.transaction.impl.InstrumentedTimelockService;
 import com.palantir.atlasdb.transaction.impl.SerializableTransactionManager;
+import com.palantir.atlasdb.transaction.impl.SharedCellCache;
 import com.palantir.atlasdb.transaction.impl.SweepStrategyManager;
 import com.palantir.atlasdb.transaction.impl.SweepStrategyManagers;
 import com.palantir.atlasdb.transaction.impl.TimelockTimestampServiceAdapter;
 import com.palantir.atlasdb.transaction.impl.TransactionConstants;
 import com.palantir.atlasdb.transaction.impl.consistency.ImmutableTimestampCorroborationConsistencyCheck;
+import com.palantir.atlasdb.transaction.service.ReadBatchingTransactionService;
 import com.palantir.atlasdb.transaction.service.TransactionService;
 import com.palantir.atlasdb.transaction.service.TransactionServices;
 import com.palantir.atlasdb.util.AtlasDbMetrics;
@@ -184,6 +191,7 @@ import com.palantir.lock.watch.LockWatchEventCache;
 import com.palantir.lock.watch.NoOpLockWatchEventCache;
 import com.palantir.logsafe.Preconditions;
 import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
 import com.palantir.logsafe.exceptions.SafeIllegalStateException;
 import com.palantir.refreshable.Refreshable;
 import com.palantir.timestamp.DelegatingManagedTimestampService;
@@ -430,11 +438,16 @@ public abstract class TransactionManagers {
         PersistentLockService persistentLockService = createAndRegisterPersistentLockService(
                 keyValueService, registrar(), config().initializeAsync());
 
+        TimestampCache timestampCache = config().timestampCache()
+                .orElseGet(() -> new DefaultTimestampCache(
+                        metricsManager.getRegistry(), () -> runtime.get().getTimestampCacheSize()));
+
         TransactionComponents components = createTransactionComponents(
                 closeables,
                 metricsManager,
                 lockAndTimestampServices,
                 keyValueService,
+                timestampCache,
                 runtime);
         TransactionService transactionService = components.transactionService();
         ConflictDetectionManager conflictManager = ConflictDetectionManagers.create(keyValueService);
@@ -449,6 +462,9 @@ public abstract class TransactionManagers {
                                 .setBackgroundScrubBatchSize(config().getBackgroundScrubBatchSize())
                                 .setBackgroundScrubFrequencyMillis(config().getBackgroundScrubFrequencyMillis())
                                 .setBackgroundScrubThreads(config().getBackgroundScrubThreads())
+                                .setBackgroundScrubMaxCellsInFlight(config().getBackgroundScrubMaxCellsInFlight())
+                                .setBackgroundScrubMaxKeyBytesDeletedPerSecond(
+                                        config().getBackgroundScrubMaxKeyBytesDeletedPerSecond())
                                 .setPunchIntervalMillis(config().getPunchIntervalMillis())
                                 .setTransactionReadTimeout(config().getTransactionReadTimeoutMillis())
                                 .setInitializeAsync(config().initializeAsync())
@@ -470,9 +486,8 @@ public abstract class TransactionManagers {
                 runtime.map(AtlasDbRuntimeConfig::transaction)
                 .map(this::withConsolidatedGrabImmutableTsLockFlag);
 
-        TimestampCache timestampCache = config().timestampCache()
-                .orElseGet(() -> new DefaultTimestampCache(
-                        metricsManager.getRegistry(), () -> runtime.get().getTimestampCacheSize()));
+        Optional<PersistentStore> sharedCellCacheStore = createSharedCellCacheStore(metricsManager, closeables);
+        SharedCellCache sharedCellCache = createSharedCellCache(metricsManager, keyValueService, sharedCellCacheStore);
 
         ConflictTracer conflictTracer = lockDiagnosticComponents()
                 .map(LockDiagnosticComponents::clientLockDiagnosticCollector)
@@ -505,10 +520,14 @@ public abstract class TransactionManagers {
                         callbacks,
                         validateLocksOnReads(),
                         transactionConfigSupplier,
-                        conflictTracer),
+                        conflictTracer,
+                        sharedCellCache),
                 closeables);
 
         transactionManager.registerClosingCallback(runtimeConfigRefreshable::close);
+        sharedCellCacheStore.ifPresent(store -> transactionManager.registerClosingCallback(
+                () -> closeSharedCellCacheStore(store)));
+        transactionManager.registerClosingCallback(sharedCellCache::close);
 
         timeLockFeedbackBackgroundTask.ifPresent(task -> transactionManager.registerClosingCallback(task::close));
 
@@ -551,6 +570,55 @@ public abstract class TransactionManagers {
         return transactionManager;
     }
 
+    private Optional<PersistentStore> createSharedCellCacheStore(
+            MetricsManager metricsManager, @Output List<AutoCloseable> closeables) {
+        if (config().sharedCellCacheMaxBytes() <= 0 || config().sharedCellCacheOffHeapMaxEntries() <= 0) {
+            return Optional.empty();
+        }
+        return config().persistentStorage().map(storageConfig -> initializeCloseable(
+                () -> createPersistentStore(metricsManager, storageConfig), closeables));
+    }
+
+    private SharedCellCache createSharedCellCache(
+            MetricsManager metricsManager,
+            KeyValueService keyValueService,
+            Optional<PersistentStore> persistentStore) {
+        if (config().sharedCellCacheMaxBytes() <= 0) {
+            return SharedCellCache.disabled();
+        }
+        if (!persistentStore.isPresent()) {
+            return SharedCellCache.create(
+                    metricsManager.getRegistry(), keyValueService, config().sharedCellCacheMaxBytes());
+        }
+        long offHeapMaxEntries = config().sharedCellCacheOffHeapMaxEntries();
+        return SharedCellCache.createWithOffHeapTier(
+                metricsManager.getRegistry(),
+                metricsManager.getTaggedRegistry(),
+                keyValueService,
+                config().sharedCellCacheMaxBytes(),
+                persistentStore.get(),
+                () -> offHeapMaxEntries);
+    }
+
+    private static void closeSharedCellCacheStore(PersistentStore persistentStore) {
+        try {
+            persistentStore.close();
+        } catch (Exception e) {
+            log.warn("Failed to close the persistent store of the shared cell cache", e);
+        }
+    }
+
+    private static PersistentStore createPersistentStore(
+            MetricsManager metricsManager,
+            PersistentStorageConfig config) {
+        if (config instanceof RocksDbPersistentStorageConfig) {
+            return new DefaultPersistentStorageFactory(metricsManager.getTaggedRegistry())
+                    .constructPersistentStore((RocksDbPersistentStorageConfig) config);
+        }
+        throw new SafeIllegalArgumentException("Unsupported persistent storage type",
+                SafeArg.of("type", config.type()));
+    }
+
     private MetricsManager setUpMetricsAndGetMetricsManager() {
         MetricRegistry internalAtlasDbMetrics = new MetricRegistry();
         TaggedMetricRegistry internalTaggedAtlasDbMetrics = new DefaultTaggedMetricRegistry();
@@ -675,6 +743,7 @@ public abstract class TransactionManagers {
             MetricsManager metricsManager,
             LockAndTimestampServices lockAndTimestampServices,
             KeyValueService keyValueService,
+            TimestampCache timestampCache,
             Supplier<AtlasDbRuntimeConfig> runtimeConfigSupplier) {
         CoordinationService<InternalSchemaMetadata> coordinationService = getSchemaMetadataCoordinationService(
                 metricsManager, lockAndTimestampServices, keyValueService);
@@ -683,7 +752,7 @@ public abstract class TransactionManagers {
         TransactionService transactionService = initializeCloseable(() -> AtlasDbMetrics.instrumentTimed(
                 metricsManager.getRegistry(),
                 TransactionService.class,
-                TransactionServices.createTransactionService(keyValueService, transactionSchemaManager)),
+                createTransactionService(keyValueService, transactionSchemaManager, timestampCache)),
                 closeables);
         Optional<TransactionSchemaInstaller> schemaInstaller = getTransactionSchemaInstallerIfSupported(
                 closeables, keyValueService, runtimeConfigSupplier, transactionSchemaManager);
@@ -693,6 +762,18 @@ public abstract class TransactionManagers {
                 .build();
     }
 
+    private TransactionService createTransactionService(
+            KeyValueService keyValueService,
+            TransactionSchemaManager transactionSchemaManager,
+            TimestampCache timestampCache) {
+        TransactionService transactionService
+                = TransactionServices.createTransactionService(keyValueService, transactionSchemaManager);
+        if (config().batchCommitTimestampReads()) {
+            return ReadBatchingTransactionService.create(transactionService, timestampCache);
+        }
+        return transactionService;
+    }
+
     private static Optional<TransactionSchemaInstaller> getTransactionSchemaInstallerIfSupported(
             @Output List<AutoCloseable> closeables,
             KeyValueService keyValueService,
@@ -1090,7 +1171,10 @@ public abstract class TransactionManagers {
                         userAgent,
                         timelockNamespace,
                         lockDiagnosticComponents,
-                        reloadingFactory);
+                        reloadingFactory,
+                        () -> runtimeConfig.get().timelockRuntime()
+                                .map(TimeLockRuntimeConfig::sharePrefixedLockDescriptors)
+                                .orElse(false));
 
         TimeLockMigrator migrator = TimeLockMigrator.create(
                 lockAndTimestampServices.managedTimestampService(),
@@ -1120,7 +1204,8 @@ public abstract class TransactionManagers {
             UserAgent userAgent,
             String timelockNamespace,
             Optional<LockDiagnosticComponents> lockDiagnosticComponents,
-            DialogueClients.ReloadingFactory reloadingFactory) {
+            DialogueClients.ReloadingFactory reloadingFactory,
+            BooleanSupplier sharePrefixedLockDescriptors) {
         AtlasDbDialogueServiceProvider serviceProvider = AtlasDbDialogueServiceProvider.create(
                 timelockServerListConfig, reloadingFactory, userAgent, metricsManager.getTaggedRegistry());
 
@@ -1151,8 +1236,11 @@ public abstract class TransactionManagers {
         NamespacedConjureLockWatchingService lockWatchingService = new NamespacedConjureLockWatchingService(
                 serviceProvider.getConjureLockWatchingService(), timelockNamespace);
         LockWatchManagerImpl lockWatchManager = new LockWatchManagerImpl(lockWatchEventCache, lockWatchingService);
-        RemoteTimelockServiceAdapter remoteTimelockServiceAdapter = RemoteTimelockServiceAdapter
-                .create(namespacedTimelockRpcClient, namespacedConjureTimelockService, lockWatchEventCache);
+        RemoteTimelockServiceAdapter remoteTimelockServiceAdapter = RemoteTimelockServiceAdapter.create(
+                namespacedTimelockRpcClient,
+                namespacedConjureTimelockService,
+                lockWatchEventCache,
+                sharePrefixedLockDescriptors);
         TimestampManagementService timestampManagementService = new RemoteTimestampManagementAdapter(
                 serviceProvider.getTimestampManagementRpcClient(), timelockNamespace);
 
@@ -19,6 +19,7 @@ import java.util.Set;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.palantir.async.initializer.AsyncInitializer;
+import com.palantir.atlasdb.compress.KeyValueServiceCompressionDictionaryStore;
 import com.palantir.atlasdb.keyvalue.api.KeyValueService;
 import com.palantir.atlasdb.logging.LoggingArgs;
 import com.palantir.atlasdb.table.description.Schema;
@@ -54,11 +55,24 @@ public final class TransactionManagersInitializer extends AsyncInitializer {
     @Idempotent
     public synchronized void tryInitialize() {
         TransactionTables.createTables(keyValueService);
+        createCompressionDictionaryTableIfUsed();
 
         createTablesAndIndexes();
         populateLoggingContext();
     }
 
+    private void createCompressionDictionaryTableIfUsed() {
+        if (usesCompressionDictionaries(schemas)) {
+            KeyValueServiceCompressionDictionaryStore.create(keyValueService);
+        }
+    }
+
+    private static boolean usesCompressionDictionaries(Set<Schema> schemas) {
+        return schemas.stream()
+                .flatMap(schema -> schema.getTableDefinitions().values().stream())
+                .anyMatch(table -> table.toTableMetadata().getColumns().usesDictionaryCompression());
+    }
+
     private void createTablesAndIndexes() {
         for (Schema schema : schemas) {
             Schemas.createTablesAndIndexes(schema, keyValueService);
@@ -18,8 +18,12 @@ package com.palantir.atlasdb.factory.timelock;
 
 import com.palantir.atlasdb.timelock.api.ConjureGetFreshTimestampsRequest;
 import com.palantir.atlasdb.timelock.api.ConjureGetFreshTimestampsResponse;
+import com.palantir.atlasdb.timelock.api.ConjureLockBatchRequest;
+import com.palantir.atlasdb.timelock.api.ConjureLockBatchResponse;
 import com.palantir.atlasdb.timelock.api.ConjureLockRequest;
 import com.palantir.atlasdb.timelock.api.ConjureLockResponse;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLeaseGroupsRequest;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLeaseGroupsResponse;
 import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksRequest;
 import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksResponse;
 import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsRequest;
@@ -69,6 +73,12 @@ public final class TimeoutSensitiveConjureTimelockService implements ConjureTime
         return longTimeoutProxy.lock(authHeader, namespace, request);
     }
 
+    @Override
+    public ConjureLockBatchResponse lockBatch(AuthHeader authHeader, String namespace,
+            ConjureLockBatchRequest request) {
+        return shortTimeoutProxy.lockBatch(authHeader, namespace, request);
+    }
+
     @Override
     public ConjureWaitForLocksResponse waitForLocks(AuthHeader authHeader, String namespace,
             ConjureLockRequest request) {
@@ -81,6 +91,12 @@ public final class TimeoutSensitiveConjureTimelockService implements ConjureTime
         return shortTimeoutProxy.refreshLocks(authHeader, namespace, request);
     }
 
+    @Override
+    public ConjureRefreshLeaseGroupsResponse refreshLeaseGroups(AuthHeader authHeader, String namespace,
+            ConjureRefreshLeaseGroupsRequest request) {
+        return shortTimeoutProxy.refreshLeaseGroups(authHeader, namespace, request);
+    }
+
     @Override
     public ConjureUnlockResponse unlock(AuthHeader authHeader, String namespace, ConjureUnlockRequest request) {
         return shortTimeoutProxy.unlock(authHeader, namespace, request);
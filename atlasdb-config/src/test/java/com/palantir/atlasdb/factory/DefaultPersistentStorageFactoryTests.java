@@ -20,6 +20,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.File;
 import java.util.List;
+import java.util.Map;
 
 import org.assertj.core.util.Files;
 import org.junit.Rule;
@@ -27,10 +28,20 @@ import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
 import com.google.common.base.MoreObjects;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.palantir.atlasdb.config.ImmutableRocksDbPersistentStorageConfig;
+import com.palantir.atlasdb.config.ImmutableRocksDbTuningConfig;
 import com.palantir.atlasdb.config.RocksDbPersistentStorageConfig;
 import com.palantir.atlasdb.persistent.api.PersistentStore;
+import com.palantir.atlasdb.persistent.rocksdb.RocksDbPersistentStore;
+import com.palantir.tritium.metrics.registry.DefaultTaggedMetricRegistry;
+import com.palantir.tritium.metrics.registry.MetricName;
+import com.palantir.tritium.metrics.registry.TaggedMetricRegistry;
+
+import okio.ByteString;
 
 public final class DefaultPersistentStorageFactoryTests {
     @Rule
@@ -64,6 +75,56 @@ public final class DefaultPersistentStorageFactoryTests {
         secondStore.close();
     }
 
+    @Test
+    public void tunedStoreSupportsBatchedWritesAndReads() throws Exception {
+        PersistentStore store = new DefaultPersistentStorageFactory()
+                .constructPersistentStore(createRocksDbConfig(testFolder.newFolder()));
+        PersistentStore.Handle handle = store.createSpace();
+        Map<ByteString, ByteString> entries = ImmutableMap.of(
+                ByteString.encodeUtf8("key"), ByteString.encodeUtf8("value"),
+                ByteString.encodeUtf8("key2"), ByteString.encodeUtf8("value2"));
+
+        store.put(handle, entries);
+
+        assertThat(store.get(handle, ImmutableList.copyOf(entries.keySet()))).isEqualTo(entries);
+        store.close();
+    }
+
+    @Test
+    public void exportsStatisticsAsMetrics() throws Exception {
+        TaggedMetricRegistry registry = new DefaultTaggedMetricRegistry();
+        PersistentStore store = new DefaultPersistentStorageFactory(registry)
+                .constructPersistentStore(createRocksDbConfig(testFolder.newFolder()));
+        PersistentStore.Handle handle = store.createSpace();
+        store.put(handle, ImmutableMap.of(ByteString.encodeUtf8("key"), ByteString.encodeUtf8("value")));
+
+        assertThat(keysWrittenGauge(registry).getValue()).isEqualTo(1L);
+
+        store.close();
+        assertThat(keysWrittenGauge(registry).getValue()).isEqualTo(0L);
+    }
+
+    @Test
+    public void doesNotExportStatisticsIfDisabled() throws Exception {
+        TaggedMetricRegistry registry = new DefaultTaggedMetricRegistry();
+        RocksDbPersistentStorageConfig config = ImmutableRocksDbPersistentStorageConfig.builder()
+                .from(createRocksDbConfig(testFolder.newFolder()))
+                .tuning(ImmutableRocksDbTuningConfig.builder().exportStatistics(false).build())
+                .build();
+        PersistentStore store = new DefaultPersistentStorageFactory(registry).constructPersistentStore(config);
+
+        assertThat(registry.getMetrics()).isEmpty();
+        store.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Gauge<Long> keysWrittenGauge(TaggedMetricRegistry registry) {
+        MetricName name = MetricName.builder()
+                .safeName(MetricRegistry.name(RocksDbPersistentStore.class, "keysWritten"))
+                .build();
+        return (Gauge<Long>) registry.getMetrics().get(name);
+    }
+
     private static ImmutableRocksDbPersistentStorageConfig createRocksDbConfig(File file) {
         return ImmutableRocksDbPersistentStorageConfig.builder()
                 .storagePath(relativePath(file))
@@ -1238,6 +1238,11 @@ public final class DbKvs extends AbstractKeyValueService {
         return true;
     }
 
+    @Override
+    public boolean supportsEfficientTimestampRangeDeletes() {
+        return true;
+    }
+
     @Override
     public ListenableFuture<Map<Cell, Value>> getAsync(TableReference tableRef, Map<Cell, Long> timestampByCell) {
         return Futures.immediateFuture(get(tableRef, timestampByCell));
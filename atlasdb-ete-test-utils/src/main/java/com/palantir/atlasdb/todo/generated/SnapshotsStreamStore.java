@@ -124,6 +124,18 @@ public final class SnapshotsStreamStore extends AbstractPersistentStreamStore {
         }
     }
 
+    @Override
+    protected void storeBlockWithoutTouchingMetadata(Transaction t, long id, long blockNumber, final byte[] block) {
+        Preconditions.checkArgument(block.length <= BLOCK_SIZE_IN_BYTES, "Block to store in DB must be less than BLOCK_SIZE_IN_BYTES");
+        final SnapshotsStreamValueTable.SnapshotsStreamValueRow row = SnapshotsStreamValueTable.SnapshotsStreamValueRow.of(id, blockNumber);
+        try {
+            tables.getSnapshotsStreamValueTable(t).putValue(row, block);
+        } catch (RuntimeException e) {
+            log.error("Error storing block {} for stream id {}", row.getBlockId(), row.getId(), e);
+            throw e;
+        }
+    }
+
     private void touchMetadataWhileStoringForConflicts(Transaction t, Long id, long blockNumber) {
         SnapshotsStreamMetadataTable metaTable = tables.getSnapshotsStreamMetadataTable(t);
         SnapshotsStreamMetadataTable.SnapshotsStreamMetadataRow row = SnapshotsStreamMetadataTable.SnapshotsStreamMetadataRow.of(id);
@@ -52,6 +52,9 @@ public class DefaultCleanerBuilder {
     private int backgroundScrubReadThreads = AtlasDbConstants.DEFAULT_BACKGROUND_SCRUB_READ_THREADS;
     private long backgroundScrubFrequencyMillis = AtlasDbConstants.DEFAULT_BACKGROUND_SCRUB_FREQUENCY_MILLIS;
     private int backgroundScrubBatchSize = AtlasDbConstants.DEFAULT_BACKGROUND_SCRUB_BATCH_SIZE;
+    private int backgroundScrubMaxCellsInFlight = AtlasDbConstants.DEFAULT_BACKGROUND_SCRUB_MAX_CELLS_IN_FLIGHT;
+    private long backgroundScrubMaxKeyBytesDeletedPerSecond =
+            AtlasDbConstants.DEFAULT_BACKGROUND_SCRUB_MAX_KEY_BYTES_DELETED_PER_SECOND;
     private boolean initalizeAsync = AtlasDbConstants.DEFAULT_INITIALIZE_ASYNC;
 
     public DefaultCleanerBuilder(KeyValueService keyValueService,
@@ -112,6 +115,17 @@ public class DefaultCleanerBuilder {
         return this;
     }
 
+    public DefaultCleanerBuilder setBackgroundScrubMaxCellsInFlight(int backgroundScrubMaxCellsInFlight) {
+        this.backgroundScrubMaxCellsInFlight = backgroundScrubMaxCellsInFlight;
+        return this;
+    }
+
+    public DefaultCleanerBuilder setBackgroundScrubMaxKeyBytesDeletedPerSecond(
+            long backgroundScrubMaxKeyBytesDeletedPerSecond) {
+        this.backgroundScrubMaxKeyBytesDeletedPerSecond = backgroundScrubMaxKeyBytesDeletedPerSecond;
+        return this;
+    }
+
     public DefaultCleanerBuilder setInitializeAsync(boolean initializeAsync) {
         this.initalizeAsync = initializeAsync;
         return this;
@@ -145,6 +159,8 @@ public class DefaultCleanerBuilder {
                 Suppliers.ofInstance(backgroundScrubBatchSize),
                 backgroundScrubThreads,
                 backgroundScrubReadThreads,
+                backgroundScrubMaxCellsInFlight,
+                backgroundScrubMaxKeyBytesDeletedPerSecond,
                 followerList,
                 metricsManager);
     }
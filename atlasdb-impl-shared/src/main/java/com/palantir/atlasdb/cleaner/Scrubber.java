@@ -26,9 +26,12 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 import javax.annotation.concurrent.GuardedBy;
@@ -36,6 +39,7 @@ import javax.annotation.concurrent.GuardedBy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.Counter;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.HashMultimap;
@@ -49,8 +53,10 @@ import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 import com.google.common.collect.Ordering;
 import com.google.common.collect.Sets;
+import com.google.common.primitives.Ints;
 import com.google.common.primitives.UnsignedBytes;
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.RateLimiter;
 import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.atlasdb.AtlasDbMetricNames;
 import com.palantir.atlasdb.encoding.PtBytes;
@@ -58,6 +64,7 @@ import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.KeyAlreadyExistsException;
 import com.palantir.atlasdb.keyvalue.api.KeyValueService;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.TimestampRangeDelete;
 import com.palantir.atlasdb.keyvalue.api.Value;
 import com.palantir.atlasdb.table.description.UniformRowNamePartitioner;
 import com.palantir.atlasdb.table.description.ValueType;
@@ -74,6 +81,7 @@ import com.palantir.common.collect.Maps2;
 import com.palantir.common.concurrent.ExecutorInheritableThreadLocal;
 import com.palantir.common.concurrent.NamedThreadFactory;
 import com.palantir.common.concurrent.PTExecutors;
+import com.palantir.logsafe.Preconditions;
 import com.palantir.logsafe.exceptions.SafeIllegalStateException;
 
 /**
@@ -109,6 +117,9 @@ public class Scrubber {
     private final Supplier<Integer> batchSizeSupplier;
     private final int threadCount;
     private final int readThreadCount;
+    private final int maxCellsInFlight;
+    private final RateLimiter deleteRateLimiter;
+    private final Counter scrubBacklog;
     private final ExecutorService readerExec;
     private final ExecutorService exec;
 
@@ -136,6 +147,46 @@ public class Scrubber {
                                   int readThreadCount,
                                   Collection<Follower> followers,
                                   MetricsManager metricsManager) {
+        return create(
+                keyValueService,
+                scrubberStore,
+                backgroundScrubFrequencyMillisSupplier,
+                isScrubEnabled,
+                unreadableTimestampSupplier,
+                immutableTimestampSupplier,
+                transactionService,
+                aggressiveScrub,
+                batchSizeSupplier,
+                threadCount,
+                readThreadCount,
+                AtlasDbConstants.DEFAULT_BACKGROUND_SCRUB_MAX_CELLS_IN_FLIGHT,
+                AtlasDbConstants.DEFAULT_BACKGROUND_SCRUB_MAX_KEY_BYTES_DELETED_PER_SECOND,
+                followers,
+                metricsManager);
+    }
+
+    /**
+     * @param maxCellsInFlight the maximum number of cells read from the scrub queue by the background task that may
+     *        be waiting to be scrubbed at any one time
+     * @param maxKeyBytesDeletedPerSecond the maximum rate at which scrub deletes data, measured by the row name, column
+     *        name and timestamp sizes of the deleted cell versions, not including their values;
+     *        {@link Long#MAX_VALUE} disables rate limiting
+     */
+    public static Scrubber create(KeyValueService keyValueService,
+                                  ScrubberStore scrubberStore,
+                                  Supplier<Long> backgroundScrubFrequencyMillisSupplier,
+                                  Supplier<Boolean> isScrubEnabled,
+                                  Supplier<Long> unreadableTimestampSupplier,
+                                  Supplier<Long> immutableTimestampSupplier,
+                                  TransactionService transactionService,
+                                  boolean aggressiveScrub,
+                                  Supplier<Integer> batchSizeSupplier,
+                                  int threadCount,
+                                  int readThreadCount,
+                                  int maxCellsInFlight,
+                                  long maxKeyBytesDeletedPerSecond,
+                                  Collection<Follower> followers,
+                                  MetricsManager metricsManager) {
         Scrubber scrubber = new Scrubber(
                 keyValueService,
                 scrubberStore,
@@ -148,6 +199,8 @@ public class Scrubber {
                 batchSizeSupplier,
                 threadCount,
                 readThreadCount,
+                maxCellsInFlight,
+                maxKeyBytesDeletedPerSecond,
                 followers,
                 metricsManager);
         return scrubber;
@@ -164,8 +217,13 @@ public class Scrubber {
                      Supplier<Integer> batchSizeSupplier,
                      int threadCount,
                      int readThreadCount,
+                     int maxCellsInFlight,
+                     long maxKeyBytesDeletedPerSecond,
                      Collection<Follower> followers,
                      MetricsManager metricsManager) {
+        Preconditions.checkArgument(maxCellsInFlight > 0, "Maximum number of cells in flight must be positive");
+        Preconditions.checkArgument(maxKeyBytesDeletedPerSecond > 0,
+                "Maximum key bytes deleted per second must be positive");
         this.keyValueService = keyValueService;
         this.scrubberStore = scrubberStore;
         this.backgroundScrubFrequencyMillisSupplier = backgroundScrubFrequencyMillisSupplier;
@@ -177,6 +235,11 @@ public class Scrubber {
         this.batchSizeSupplier = batchSizeSupplier;
         this.threadCount = threadCount;
         this.readThreadCount = readThreadCount;
+        this.maxCellsInFlight = maxCellsInFlight;
+        this.deleteRateLimiter = maxKeyBytesDeletedPerSecond == Long.MAX_VALUE
+                ? null
+                : RateLimiter.create(maxKeyBytesDeletedPerSecond);
+        this.scrubBacklog = metricsManager.registerOrGetCounter(Scrubber.class, AtlasDbMetricNames.SCRUB_BACKLOG);
         this.followers = followers;
         this.metricsManager = metricsManager;
 
@@ -257,6 +320,7 @@ public class Scrubber {
         }
         rangeBoundaries.add(PtBytes.EMPTY_BYTE_ARRAY);
 
+        InFlightScrubs inFlightScrubs = new InFlightScrubs();
         List<Future<Void>> readerFutures = Lists.newArrayList();
         final AtomicInteger totalCellsRead = new AtomicInteger(0);
         for (int i = 0; i < rangeBoundaries.size() - 1; i++) {
@@ -271,7 +335,7 @@ public class Scrubber {
                         // for pulling off the scrub queue, and a single entry in the scrub queue may
                         // match multiple tables. These will get broken down into smaller batches later
                         // on when we actually do deletes.
-                        int numCellsRead = scrubSomeCells(cells, txManager, maxScrubTimestamp);
+                        int numCellsRead = scrubSomeCells(cells, txManager, maxScrubTimestamp, inFlightScrubs);
                         int totalRead = totalCellsRead.addAndGet(numCellsRead);
                         log.debug("Scrub task processed {} cells in a batch, total {} processed so far.",
                                   numCellsRead, totalRead);
@@ -286,9 +350,14 @@ public class Scrubber {
             }));
         }
 
-        for (Future<Void> readerFuture : readerFutures) {
-            Futures.getUnchecked(readerFuture);
+        try {
+            for (Future<Void> readerFuture : readerFutures) {
+                Futures.getUnchecked(readerFuture);
+            }
+        } finally {
+            inFlightScrubs.awaitCompletion();
         }
+        inFlightScrubs.rethrowIfFailed();
 
         log.debug("Scrub background task running at timestamp {} processed a total of {} cells",
                   maxScrubTimestamp, totalCellsRead.get());
@@ -400,14 +469,16 @@ public class Scrubber {
     }
 
     /**
-     * Scrubs some cells.
+     * Submits some cells for scrubbing. Cells are split into batches per table, so that independent tables are
+     * scrubbed in parallel. This does not wait for the scrubs to complete; see {@link InFlightScrubs}.
      *
      * @return number of cells read from _scrub table
      */
     private int scrubSomeCells(
             SortedMap<Long, Multimap<TableReference, Cell>> scrubTimestampToTableNameToCell,
             TransactionManager txManager,
-            long maxScrubTimestamp) {
+            long maxScrubTimestamp,
+            InFlightScrubs inFlightScrubs) {
         log.trace("Attempting to scrub cells: {}", scrubTimestampToTableNameToCell);
 
         if (log.isDebugEnabled()) {
@@ -425,7 +496,6 @@ public class Scrubber {
         }
 
         int numCellsReadFromScrubTable = 0;
-        List<Future<Void>> scrubFutures = Lists.newArrayList();
         Map<TableReference, Multimap<Cell, Long>> failedWrites = Maps.newHashMap();
 
         for (Map.Entry<Long, Multimap<TableReference, Cell>> entry : scrubTimestampToTableNameToCell.entrySet()) {
@@ -451,18 +521,17 @@ public class Scrubber {
                     }
                 }
             } else if (commitTimestamp < maxScrubTimestamp) {
-                for (final List<Entry<TableReference, Cell>> batch :
-                        Iterables.partition(tableNameToCell.entries(), batchSizeSupplier.get())) {
-                    final Multimap<TableReference, Cell> batchMultimap = HashMultimap.create();
-                    for (Entry<TableReference, Cell> e : batch) {
-                        batchMultimap.put(e.getKey(), e.getValue());
+                for (Entry<TableReference, Collection<Cell>> cells : tableNameToCell.asMap().entrySet()) {
+                    TableReference tableRef = cells.getKey();
+                    for (List<Cell> batch : Iterables.partition(cells.getValue(), batchSizeSupplier.get())) {
+                        Multimap<TableReference, Cell> batchMultimap = HashMultimap.create();
+                        batchMultimap.putAll(tableRef, batch);
+                        TransactionType transactionType = aggressiveScrub
+                                ? TransactionType.AGGRESSIVE_HARD_DELETE
+                                : TransactionType.HARD_DELETE;
+                        inFlightScrubs.submit(batchMultimap.size(),
+                                () -> scrubCells(txManager, batchMultimap, scrubTimestamp, transactionType));
                     }
-                    scrubFutures.add(exec.submit(() -> {
-                        scrubCells(txManager, batchMultimap,
-                                scrubTimestamp,
-                                aggressiveScrub ? TransactionType.AGGRESSIVE_HARD_DELETE : TransactionType.HARD_DELETE);
-                        return null;
-                    }));
                 }
             }
             // else {
@@ -470,10 +539,6 @@ public class Scrubber {
             // }
         }
 
-        for (Future<Void> future : scrubFutures) {
-            Futures.getUnchecked(future);
-        }
-
         if (!failedWrites.isEmpty()) {
             scrubberStore.markCellsAsScrubbed(failedWrites, batchSizeSupplier.get());
         }
@@ -487,7 +552,7 @@ public class Scrubber {
             }
             long minTimestamp = Collections.min(scrubTimestampToTableNameToCell.keySet());
             long maxTimestamp = Collections.max(scrubTimestampToTableNameToCell.keySet());
-            log.debug("Finished scrubbing {} cells at {} timestamps ({}...{}) from tables {}",
+            log.debug("Submitted {} cells at {} timestamps ({}...{}) from tables {} for scrubbing",
                       numCellsReadFromScrubTable, scrubTimestampToTableNameToCell.size(),
                       minTimestamp, maxTimestamp, tables);
         }
@@ -512,7 +577,7 @@ public class Scrubber {
 
                 // If transactionType == TransactionType.AGGRESSIVE_HARD_DELETE this might
                 // force other transactions to abort or retry
-                deleteCellsAtTimestamps(txManager, tableRef, timestampsToDelete, transactionType);
+                deleteCellsAtTimestamps(txManager, tableRef, timestampsToDelete, scrubTimestamp, transactionType);
 
                 Multimap<Cell, Long> cellsToMarkScrubbed = HashMultimap.create(allTimestamps);
                 for (Cell cell : cells) {
@@ -526,28 +591,133 @@ public class Scrubber {
         lazyWriteMetric(AtlasDbMetricNames.SCRUBBED_CELLS, allCellsToMarkScrubbed.size());
     }
 
+    /**
+     * Deletes all values of the given cells strictly below the scrub timestamp, other than the garbage collection
+     * sentinel. If the key value service supports efficient timestamp range deletes, the deletes for a batch of cells
+     * are coalesced into a single ranged delete, as the timestamps to delete for every cell are only bounded by the
+     * scrub timestamp; otherwise each timestamp is deleted individually.
+     */
     private void deleteCellsAtTimestamps(TransactionManager txManager,
                                          TableReference tableRef,
                                          Multimap<Cell, Long> cellToTimestamp,
+                                         long scrubTimestamp,
                                          Transaction.TransactionType transactionType) {
         if (!cellToTimestamp.isEmpty()) {
             for (Follower follower : followers) {
                 follower.run(txManager, tableRef, cellToTimestamp.keySet(), transactionType);
             }
             keyValueService.addGarbageCollectionSentinelValues(tableRef, cellToTimestamp.keySet());
-            for (List<Entry<Cell, Long>> batch : Iterables.partition(cellToTimestamp.entries(), MAX_DELETES_IN_BATCH)) {
-                Builder<Cell, Long> builder = ImmutableMultimap.builder();
-                batch.stream().forEach(e -> builder.put(e));
-                keyValueService.delete(tableRef, builder.build());
-                lazyWriteMetric(AtlasDbMetricNames.DELETED_CELLS, batch.size());
+            if (keyValueService.supportsEfficientTimestampRangeDeletes()) {
+                deleteTimestampRanges(tableRef, cellToTimestamp, scrubTimestamp);
+            } else {
+                deleteTimestamps(tableRef, cellToTimestamp);
+            }
+        }
+    }
+
+    private void deleteTimestampRanges(TableReference tableRef, Multimap<Cell, Long> cellToTimestamp,
+            long scrubTimestamp) {
+        TimestampRangeDelete rangeDelete = new TimestampRangeDelete.Builder()
+                .timestamp(scrubTimestamp)
+                .endInclusive(false)
+                .deleteSentinels(false)
+                .build();
+        for (List<Cell> batch : Iterables.partition(cellToTimestamp.keySet(), MAX_DELETES_IN_BATCH)) {
+            long numDeleted = 0;
+            long keyBytesDeleted = 0;
+            for (Cell cell : batch) {
+                int numTimestamps = cellToTimestamp.get(cell).size();
+                numDeleted += numTimestamps;
+                keyBytesDeleted += numTimestamps * keyBytes(cell);
+            }
+            acquireDeletePermits(keyBytesDeleted);
+            keyValueService.deleteAllTimestamps(tableRef, Maps.toMap(batch, ignore -> rangeDelete));
+            markDeleted(numDeleted, keyBytesDeleted);
+        }
+    }
+
+    private void deleteTimestamps(TableReference tableRef, Multimap<Cell, Long> cellToTimestamp) {
+        for (List<Entry<Cell, Long>> batch : Iterables.partition(cellToTimestamp.entries(), MAX_DELETES_IN_BATCH)) {
+            Builder<Cell, Long> builder = ImmutableMultimap.builder();
+            long keyBytesDeleted = 0;
+            for (Entry<Cell, Long> entry : batch) {
+                builder.put(entry);
+                keyBytesDeleted += keyBytes(entry.getKey());
             }
+            acquireDeletePermits(keyBytesDeleted);
+            keyValueService.delete(tableRef, builder.build());
+            markDeleted(batch.size(), keyBytesDeleted);
         }
     }
 
+    private void acquireDeletePermits(long keyBytesDeleted) {
+        if (deleteRateLimiter != null) {
+            deleteRateLimiter.acquire(Math.max(1, Ints.saturatedCast(keyBytesDeleted)));
+        }
+    }
+
+    private void markDeleted(long numDeleted, long keyBytesDeleted) {
+        lazyWriteMetric(AtlasDbMetricNames.DELETED_CELLS, numDeleted);
+        lazyWriteMetric(AtlasDbMetricNames.SCRUB_DELETED_KEY_BYTES, keyBytesDeleted);
+    }
+
+    /**
+     * The size of the key of a single version of the given cell: its row and column names and its timestamp. Scrub
+     * never reads the values it deletes, so their sizes are not known.
+     */
+    private static long keyBytes(Cell cell) {
+        return cell.getRowName().length + cell.getColumnName().length + Long.BYTES;
+    }
+
     private void lazyWriteMetric(String name, long value) {
         metricsManager.registerOrGetMeter(Scrubber.class, name).mark(value);
     }
 
+    /**
+     * Tracks the scrubs submitted by a single run of the background scrub task. Readers of the scrub queue block
+     * once the configured number of cells is waiting to be scrubbed, so that the scrub queue is streamed through a
+     * bounded buffer rather than each page of it being processed before the next one is read.
+     */
+    private final class InFlightScrubs {
+        private final Semaphore cellPermits = new Semaphore(maxCellsInFlight);
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        void submit(int numCells, Runnable scrub) {
+            rethrowIfFailed();
+            int permits = Math.min(numCells, maxCellsInFlight);
+            cellPermits.acquireUninterruptibly(permits);
+            scrubBacklog.inc(numCells);
+            try {
+                exec.execute(() -> {
+                    try {
+                        scrub.run();
+                    } catch (Throwable t) { // (authorized)
+                        failure.compareAndSet(null, t);
+                    } finally {
+                        scrubBacklog.dec(numCells);
+                        cellPermits.release(permits);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                scrubBacklog.dec(numCells);
+                cellPermits.release(permits);
+                throw e;
+            }
+        }
+
+        void awaitCompletion() {
+            cellPermits.acquireUninterruptibly(maxCellsInFlight);
+            cellPermits.release(maxCellsInFlight);
+        }
+
+        void rethrowIfFailed() {
+            Throwable throwable = failure.get();
+            if (throwable != null) {
+                throw Throwables.rewrapAndThrowUncheckedException("Failed to scrub cells", throwable);
+            }
+        }
+    }
+
     public long getUnreadableTimestamp() {
         return unreadableTimestampSupplier.get();
     }
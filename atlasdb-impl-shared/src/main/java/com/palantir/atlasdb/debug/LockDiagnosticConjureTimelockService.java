@@ -16,12 +16,21 @@
 
 package com.palantir.atlasdb.debug;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 import com.palantir.atlasdb.timelock.api.ConjureGetFreshTimestampsRequest;
 import com.palantir.atlasdb.timelock.api.ConjureGetFreshTimestampsResponse;
+import com.palantir.atlasdb.timelock.api.ConjureLockBatchRequest;
+import com.palantir.atlasdb.timelock.api.ConjureLockBatchResponse;
+import com.palantir.atlasdb.timelock.api.ConjureLockDescriptor;
 import com.palantir.atlasdb.timelock.api.ConjureLockRequest;
 import com.palantir.atlasdb.timelock.api.ConjureLockResponse;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLeaseGroupsRequest;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLeaseGroupsResponse;
 import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksRequest;
 import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksResponse;
 import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsRequest;
@@ -32,6 +41,7 @@ import com.palantir.atlasdb.timelock.api.ConjureUnlockResponse;
 import com.palantir.atlasdb.timelock.api.ConjureWaitForLocksResponse;
 import com.palantir.atlasdb.timelock.api.GetCommitTimestampsRequest;
 import com.palantir.atlasdb.timelock.api.GetCommitTimestampsResponse;
+import com.palantir.lock.client.ConjureLockRequests;
 import com.palantir.lock.v2.LeaderTime;
 import com.palantir.tokens.auth.AuthHeader;
 
@@ -78,24 +88,31 @@ public class LockDiagnosticConjureTimelockService implements ConjureTimelockServ
 
     @Override
     public ConjureLockResponse lock(AuthHeader authHeader, String namespace, ConjureLockRequest request) {
-        request.getClientDescription()
-                .flatMap(LockDiagnosticConjureTimelockService::tryParseStartTimestamp)
-                .ifPresent(startTimestamp -> lockDiagnosticCollector.collect(
-                        startTimestamp, request.getRequestId(), request.getLockDescriptors()));
+        Set<ConjureLockDescriptor> lockDescriptors = collectLockRequest(request);
         ConjureLockResponse response = conjureDelegate.lock(authHeader, namespace, request);
-        localLockTracker.logLockResponse(request.getLockDescriptors(), response);
+        localLockTracker.logLockResponse(lockDescriptors, response);
+        return response;
+    }
+
+    @Override
+    public ConjureLockBatchResponse lockBatch(AuthHeader authHeader, String namespace,
+            ConjureLockBatchRequest request) {
+        Map<UUID, Set<ConjureLockDescriptor>> lockDescriptors = new HashMap<>();
+        for (ConjureLockRequest lockRequest : request.getRequests()) {
+            lockDescriptors.put(lockRequest.getRequestId(), collectLockRequest(lockRequest));
+        }
+        ConjureLockBatchResponse response = conjureDelegate.lockBatch(authHeader, namespace, request);
+        response.getResponses().forEach((requestId, lockResponse) ->
+                localLockTracker.logLockResponse(lockDescriptors.get(requestId), lockResponse));
         return response;
     }
 
     @Override
     public ConjureWaitForLocksResponse waitForLocks(AuthHeader authHeader, String namespace,
             ConjureLockRequest request) {
-        request.getClientDescription()
-                .flatMap(LockDiagnosticConjureTimelockService::tryParseStartTimestamp)
-                .ifPresent(startTimestamp -> lockDiagnosticCollector.collect(
-                        startTimestamp, request.getRequestId(), request.getLockDescriptors()));
+        Set<ConjureLockDescriptor> lockDescriptors = collectLockRequest(request);
         ConjureWaitForLocksResponse response = conjureDelegate.waitForLocks(authHeader, namespace, request);
-        localLockTracker.logWaitForLocksResponse(request.getLockDescriptors(), response);
+        localLockTracker.logWaitForLocksResponse(lockDescriptors, response);
         return response;
     }
 
@@ -107,6 +124,12 @@ public class LockDiagnosticConjureTimelockService implements ConjureTimelockServ
         return response;
     }
 
+    @Override
+    public ConjureRefreshLeaseGroupsResponse refreshLeaseGroups(AuthHeader authHeader, String namespace,
+            ConjureRefreshLeaseGroupsRequest request) {
+        return conjureDelegate.refreshLeaseGroups(authHeader, namespace, request);
+    }
+
     @Override
     public ConjureUnlockResponse unlock(AuthHeader authHeader, String namespace, ConjureUnlockRequest request) {
         ConjureUnlockResponse response = conjureDelegate.unlock(authHeader, namespace, request);
@@ -120,6 +143,15 @@ public class LockDiagnosticConjureTimelockService implements ConjureTimelockServ
         return conjureDelegate.getCommitTimestamps(authHeader, namespace, request);
     }
 
+    private Set<ConjureLockDescriptor> collectLockRequest(ConjureLockRequest request) {
+        Set<ConjureLockDescriptor> lockDescriptors = ConjureLockRequests.allLockDescriptors(request);
+        request.getClientDescription()
+                .flatMap(LockDiagnosticConjureTimelockService::tryParseStartTimestamp)
+                .ifPresent(startTimestamp -> lockDiagnosticCollector.collect(
+                        startTimestamp, request.getRequestId(), lockDescriptors));
+        return lockDescriptors;
+    }
+
     private static Optional<Long> tryParseStartTimestamp(String description) {
         try {
             return Optional.of(Long.parseLong(description));
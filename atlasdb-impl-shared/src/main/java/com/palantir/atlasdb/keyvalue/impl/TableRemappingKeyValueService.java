@@ -463,6 +463,11 @@ public final class TableRemappingKeyValueService extends ForwardingObject implem
         return delegate.shouldTriggerCompactions();
     }
 
+    @Override
+    public boolean supportsEfficientTimestampRangeDeletes() {
+        return delegate.supportsEfficientTimestampRangeDeletes();
+    }
+
     @Override
     public ListenableFuture<Map<Cell, Value>> getAsync(TableReference tableRef, Map<Cell, Long> timestampByCell) {
         try {
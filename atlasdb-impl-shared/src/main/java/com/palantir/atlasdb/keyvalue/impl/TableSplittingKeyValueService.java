@@ -395,6 +395,11 @@ public final class TableSplittingKeyValueService implements KeyValueService {
         return delegates.stream().anyMatch(KeyValueService::shouldTriggerCompactions);
     }
 
+    @Override
+    public boolean supportsEfficientTimestampRangeDeletes() {
+        return delegates.stream().allMatch(KeyValueService::supportsEfficientTimestampRangeDeletes);
+    }
+
     @Override
     public ListenableFuture<Map<Cell, Value>> getAsync(TableReference tableRef, Map<Cell, Long> timestampByCell) {
         return getDelegate(tableRef).getAsync(tableRef, timestampByCell);
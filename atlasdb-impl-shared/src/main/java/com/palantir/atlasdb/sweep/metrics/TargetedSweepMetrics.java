@@ -18,6 +18,7 @@ package com.palantir.atlasdb.sweep.metrics;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -36,6 +37,7 @@ import com.palantir.atlasdb.AtlasDbMetricNames;
 import com.palantir.atlasdb.cleaner.KeyValueServicePuncherStore;
 import com.palantir.atlasdb.keyvalue.api.KeyValueService;
 import com.palantir.atlasdb.sweep.queue.ShardAndStrategy;
+import com.palantir.atlasdb.sweep.queue.ShardBacklog;
 import com.palantir.atlasdb.sweep.queue.SweepQueueUtils;
 import com.palantir.atlasdb.table.description.SweepStrategy.SweeperStrategy;
 import com.palantir.atlasdb.util.AccumulatingValueMetric;
@@ -58,6 +60,7 @@ public class TargetedSweepMetrics {
     private static final Logger log = LoggerFactory.getLogger(TargetedSweepMetrics.class);
     private static final long ONE_WEEK = TimeUnit.DAYS.toMillis(7L);
     private final Map<SweeperStrategy, MetricsForStrategy> metricsForStrategyMap;
+    private final ShardBacklog shardBacklog = new ShardBacklog();
 
     private TargetedSweepMetrics(
             MetricsManager metricsManager,
@@ -69,6 +72,7 @@ public class TargetedSweepMetrics {
                 .map(strategyTag -> new MetricsForStrategy(
                         metricsManager,
                         strategyTag,
+                        shardBacklog,
                         tsToMillis,
                         clock,
                         metricsConfiguration.millisBetweenRecomputingMetrics()))
@@ -104,7 +108,17 @@ public class TargetedSweepMetrics {
         updateMetricsIfPresent(shardStrategy, metrics -> metrics.updateEnqueuedWrites(writes));
     }
 
+    /**
+     * Registers writes enqueued into the sweep queue for the given shard and strategy by a transaction with the given
+     * start timestamp. In addition to the enqueued writes metric, this updates the {@link ShardBacklog}.
+     */
+    public void updateEnqueuedWrites(ShardAndStrategy shardStrategy, long writes, long startTimestamp) {
+        shardBacklog.recordEnqueued(shardStrategy, startTimestamp, writes);
+        updateEnqueuedWrites(shardStrategy, writes);
+    }
+
     public void updateEntriesRead(ShardAndStrategy shardStrategy, long reads) {
+        shardBacklog.recordRead(shardStrategy, reads);
         updateMetricsIfPresent(shardStrategy, metrics -> metrics.updateEntriesRead(reads));
     }
 
@@ -121,8 +135,16 @@ public class TargetedSweepMetrics {
     }
 
     public void updateProgressForShard(ShardAndStrategy shardStrategy, long lastSweptTs) {
+        shardBacklog.recordSwept(shardStrategy, lastSweptTs);
         updateMetricsIfPresent(
-                shardStrategy, metrics -> metrics.updateProgressForShard(shardStrategy.shard(), lastSweptTs));
+                shardStrategy, metrics -> metrics.updateProgressForShard(shardStrategy, lastSweptTs));
+    }
+
+    /**
+     * Returns the node-local estimate of the backlog on each shard, as derived from the updates to these metrics.
+     */
+    public ShardBacklog getShardBacklog() {
+        return shardBacklog;
     }
 
     public void registerOccurrenceOf(ShardAndStrategy shardStrategy, SweepOutcome outcome) {
@@ -163,6 +185,8 @@ public class TargetedSweepMetrics {
     private static final class MetricsForStrategy {
         private final Map<String, String> tag;
         private final MetricsManager manager;
+        private final ShardBacklog shardBacklog;
+        private final Set<Integer> shardsWithLagGauge = ConcurrentHashMap.newKeySet();
         private final AccumulatingValueMetric enqueuedWrites;
         private final AccumulatingValueMetric entriesRead;
         private final AccumulatingValueMetric tombstonesPut;
@@ -173,10 +197,11 @@ public class TargetedSweepMetrics {
         private final SweepOutcomeMetrics outcomeMetrics;
         private final SlidingWindowMeanGauge batchSizeMean;
 
-        private MetricsForStrategy(MetricsManager manager, String strategy, Function<Long, Long> tsToMillis,
-                Clock wallClock, long recomputeMillis) {
+        private MetricsForStrategy(MetricsManager manager, String strategy, ShardBacklog shardBacklog,
+                Function<Long, Long> tsToMillis, Clock wallClock, long recomputeMillis) {
             tag = ImmutableMap.of(AtlasDbMetricNames.TAG_STRATEGY, strategy);
             this.manager = manager;
+            this.shardBacklog = shardBacklog;
             enqueuedWrites = new AccumulatingValueMetric();
             entriesRead = new AccumulatingValueMetric();
             tombstonesPut = new AccumulatingValueMetric();
@@ -269,8 +294,20 @@ public class TargetedSweepMetrics {
             sweepTimestamp.setValue(value);
         }
 
-        private void updateProgressForShard(int shard, long sweptTs) {
-            lastSweptTs.update(shard, sweptTs);
+        private void updateProgressForShard(ShardAndStrategy shardStrategy, long sweptTs) {
+            lastSweptTs.update(shardStrategy.shard(), sweptTs);
+            registerShardLagIfAbsent(shardStrategy);
+        }
+
+        private void registerShardLagIfAbsent(ShardAndStrategy shardStrategy) {
+            if (shardsWithLagGauge.add(shardStrategy.shard())) {
+                Gauge<Long> shardLag = () -> shardBacklog.getTimestampLag(shardStrategy);
+                manager.registerOrGet(TargetedSweepMetrics.class, AtlasDbMetricNames.SHARD_TIMESTAMP_LAG, shardLag,
+                        ImmutableMap.<String, String>builder()
+                                .putAll(tag)
+                                .put(AtlasDbMetricNames.TAG_SHARD, Integer.toString(shardStrategy.shard()))
+                                .build());
+            }
         }
 
         public void registerOccurrenceOf(SweepOutcome outcome) {
@@ -0,0 +1,119 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.sweep.queue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.palantir.atlasdb.sweep.queue.config.TargetedSweepRuntimeConfig;
+import com.palantir.common.time.Clock;
+import com.palantir.logsafe.SafeArg;
+
+/**
+ * Supplies the desired number of shards for the sweep queue. If auto scaling is disabled, this is simply the
+ * configured number of shards. Otherwise, the number of shards is doubled (up to the configured maximum) whenever the
+ * {@link ShardBacklog} reports a shard above the configured thresholds, at most once per cooldown period.
+ *
+ * Entries already enqueued stay on the shards they were written to, so the backlog that triggered a scale up does not
+ * go away when the number of shards increases. After scaling up, the number of shards is therefore only increased
+ * again if the backlog has grown since, rather than while it is draining.
+ *
+ * The backlog is a node-local estimate, so each node decides independently whether to scale up; the number of shards
+ * persisted in {@link ShardProgress} is the maximum requested by any node. Since that number can never decrease, a
+ * node only takes into account shards it has itself swept within the voting window (the cooldown period, but at least
+ * {@link #MINIMUM_VOTING_WINDOW_MILLIS}). The backlog of those shards is anchored to the persisted last swept
+ * timestamps, whereas a node that writes to a shard without sweeping it would only ever see its backlog grow.
+ *
+ * The result is intended to be passed through {@link SweepQueue#createProgressUpdatingSupplier(Supplier,
+ * ShardProgress, long)}, which persists any increase and guarantees the number of shards never decreases.
+ */
+public final class ShardAutoScaler implements Supplier<Integer> {
+    private static final Logger log = LoggerFactory.getLogger(ShardAutoScaler.class);
+    private static final long NEVER = Long.MIN_VALUE;
+    private static final long MINIMUM_VOTING_WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final Supplier<TargetedSweepRuntimeConfig> runtime;
+    private final ShardProgress progress;
+    private final ShardBacklog backlog;
+    private final Clock clock;
+
+    private int scaledShards = 0;
+    private long lastScaleUpMillis = NEVER;
+    private long pendingEntriesAtLastScaleUp = 0L;
+    private long timestampLagAtLastScaleUp = 0L;
+
+    public ShardAutoScaler(Supplier<TargetedSweepRuntimeConfig> runtime, ShardProgress progress,
+            ShardBacklog backlog, Clock clock) {
+        this.runtime = runtime;
+        this.progress = progress;
+        this.backlog = backlog;
+        this.clock = clock;
+    }
+
+    @Override
+    public synchronized Integer get() {
+        TargetedSweepRuntimeConfig config = runtime.get();
+        if (!config.autoScaleShards()) {
+            return config.shards();
+        }
+
+        int currentFloor = Math.max(config.shards(), scaledShards);
+        if (!shouldScaleUp(config)) {
+            return currentFloor;
+        }
+
+        int persisted = Math.max(currentFloor, progress.getNumberOfShards());
+        int target = Math.min(config.maximumAutoScaledShards(), persisted * 2);
+        if (target <= persisted) {
+            return persisted;
+        }
+
+        log.info("Targeted sweep backlog exceeded the configured thresholds, increasing the number of sweep queue "
+                        + "shards from {} to {}.",
+                SafeArg.of("currentShards", persisted),
+                SafeArg.of("newShards", target));
+        long votingWindow = votingWindowMillis(config);
+        lastScaleUpMillis = clock.getTimeMillis();
+        pendingEntriesAtLastScaleUp = backlog.getTotalPendingEntries(votingWindow);
+        timestampLagAtLastScaleUp = backlog.getMaximumTimestampLag(votingWindow);
+        scaledShards = target;
+        return target;
+    }
+
+    private boolean shouldScaleUp(TargetedSweepRuntimeConfig config) {
+        long votingWindow = votingWindowMillis(config);
+        if (lastScaleUpMillis != NEVER) {
+            boolean cooledDown = clock.getTimeMillis() - lastScaleUpMillis >= config.autoScaleCooldownMillis();
+            if (!cooledDown || !backlogGrewSinceLastScaleUp(votingWindow)) {
+                return false;
+            }
+        }
+        return backlog.anyShardExceeds(
+                config.autoScaleBacklogThreshold(), config.autoScaleTimestampLagThreshold(), votingWindow);
+    }
+
+    private boolean backlogGrewSinceLastScaleUp(long votingWindow) {
+        return backlog.getTotalPendingEntries(votingWindow) > pendingEntriesAtLastScaleUp
+                || backlog.getMaximumTimestampLag(votingWindow) > timestampLagAtLastScaleUp;
+    }
+
+    private static long votingWindowMillis(TargetedSweepRuntimeConfig config) {
+        return Math.max(config.autoScaleCooldownMillis(), MINIMUM_VOTING_WINDOW_MILLIS);
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.sweep.queue;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.palantir.atlasdb.table.description.SweepStrategy.SweeperStrategy;
+import com.palantir.common.time.Clock;
+
+/**
+ * Tracks an estimate of the outstanding work on each shard of the sweep queue, as observed by this node. The pending
+ * entries are the number of entries enqueued by this node that have not yet been read by targeted sweep, and the
+ * timestamp lag is the difference between the latest start timestamp enqueued into the shard and the last swept
+ * timestamp of the shard. Both values are node-local estimates: writes enqueued by other nodes are not counted, and
+ * the lag is only known once this node has both enqueued into and swept the shard.
+ *
+ * Since the last swept timestamp comes from the persisted {@link ShardProgress}, the estimate for a shard only tracks
+ * the shared state while this node keeps sweeping it. The aggregate queries used for auto scaling therefore only
+ * consider shards this node has swept recently; on a node that only writes to a shard, the pending entries of that
+ * shard grow without bound and must not be taken as evidence of a backlog.
+ */
+public final class ShardBacklog {
+    private static final long UNKNOWN = -1L;
+
+    private final ConcurrentMap<ShardAndStrategy, ShardState> states = new ConcurrentHashMap<>();
+    private final Clock clock;
+
+    public ShardBacklog() {
+        this(System::currentTimeMillis);
+    }
+
+    @VisibleForTesting
+    ShardBacklog(Clock clock) {
+        this.clock = clock;
+    }
+
+    public void recordEnqueued(ShardAndStrategy shardStrategy, long startTimestamp, long writes) {
+        ShardState state = getState(shardStrategy);
+        state.latestEnqueuedTs.accumulateAndGet(startTimestamp, Math::max);
+        state.pendingEntries.addAndGet(writes);
+    }
+
+    public void recordRead(ShardAndStrategy shardStrategy, long entries) {
+        getState(shardStrategy).pendingEntries.updateAndGet(pending -> Math.max(0L, pending - entries));
+    }
+
+    public void recordSwept(ShardAndStrategy shardStrategy, long lastSweptTimestamp) {
+        ShardState state = getState(shardStrategy);
+        state.lastSweptMillis.set(clock.getTimeMillis());
+        long sweptTs = state.lastSweptTs.accumulateAndGet(lastSweptTimestamp, Math::max);
+        if (sweptTs >= state.latestEnqueuedTs.get()) {
+            state.pendingEntries.set(0L);
+        }
+    }
+
+    public long getPendingEntries(ShardAndStrategy shardStrategy) {
+        ShardState state = states.get(shardStrategy);
+        return state == null ? 0L : state.pendingEntries.get();
+    }
+
+    /**
+     * Returns the number of timestamps between the last swept timestamp and the latest enqueued start timestamp of
+     * the given shard and strategy, or 0 if either is not yet known or sweep has caught up.
+     */
+    public long getTimestampLag(ShardAndStrategy shardStrategy) {
+        ShardState state = states.get(shardStrategy);
+        return state == null ? 0L : state.timestampLag();
+    }
+
+    /**
+     * Returns true if any shard swept by this node in the last sweptWithinMillis has more pending entries than
+     * pendingThreshold, or a timestamp lag greater than lagThreshold.
+     */
+    public boolean anyShardExceeds(long pendingThreshold, long lagThreshold, long sweptWithinMillis) {
+        return recentlySwept(sweptWithinMillis)
+                .anyMatch(state -> state.pendingEntries.get() > pendingThreshold
+                        || state.timestampLag() > lagThreshold);
+    }
+
+    public long getTotalPendingEntries(long sweptWithinMillis) {
+        return recentlySwept(sweptWithinMillis).mapToLong(state -> state.pendingEntries.get()).sum();
+    }
+
+    public long getMaximumTimestampLag(long sweptWithinMillis) {
+        return recentlySwept(sweptWithinMillis).mapToLong(ShardState::timestampLag).max().orElse(0L);
+    }
+
+    /**
+     * Returns the shards in [0, numShards) for the given strategy, ordered by descending number of pending entries
+     * and then by descending timestamp lag. Shards with equal backlog are ordered starting from offset and wrapping
+     * around, so that callers rotating the offset still visit idle shards.
+     */
+    public List<Integer> shardsByDescendingBacklog(SweeperStrategy strategy, int numShards, long offset) {
+        Comparator<Integer> byBacklog = Comparator
+                .<Integer>comparingLong(shard -> getPendingEntries(ShardAndStrategy.of(shard, strategy)))
+                .thenComparingLong(shard -> getTimestampLag(ShardAndStrategy.of(shard, strategy)))
+                .reversed();
+        return IntStream.range(0, numShards)
+                .mapToObj(index -> (int) ((index + offset) % numShards))
+                .sorted(byBacklog)
+                .collect(Collectors.toList());
+    }
+
+    private Stream<ShardState> recentlySwept(long sweptWithinMillis) {
+        long now = clock.getTimeMillis();
+        return states.values().stream()
+                .filter(state -> state.lastSweptMillis.get() != UNKNOWN
+                        && now - state.lastSweptMillis.get() <= sweptWithinMillis);
+    }
+
+    private ShardState getState(ShardAndStrategy shardStrategy) {
+        return states.computeIfAbsent(shardStrategy, ignore -> new ShardState());
+    }
+
+    private static final class ShardState {
+        private final AtomicLong latestEnqueuedTs = new AtomicLong(UNKNOWN);
+        private final AtomicLong lastSweptTs = new AtomicLong(UNKNOWN);
+        private final AtomicLong pendingEntries = new AtomicLong(0L);
+        private final AtomicLong lastSweptMillis = new AtomicLong(UNKNOWN);
+
+        private long timestampLag() {
+            long enqueued = latestEnqueuedTs.get();
+            long swept = lastSweptTs.get();
+            if (enqueued == UNKNOWN || swept == UNKNOWN) {
+                return 0L;
+            }
+            return Math.max(0L, enqueued - swept);
+        }
+    }
+}
@@ -76,7 +76,8 @@ public abstract class SweepQueueTable {
     private void updateWriteMetrics(Map<PartitionInfo, List<WriteInfo>> partitionedWrites) {
         maybeMetrics.ifPresent(metrics ->
                 partitionedWrites.forEach((info, writes) ->
-                        metrics.updateEnqueuedWrites(ShardAndStrategy.fromInfo(info), writes.size())));
+                        metrics.updateEnqueuedWrites(
+                                ShardAndStrategy.fromInfo(info), writes.size(), info.timestamp())));
     }
 
     /**
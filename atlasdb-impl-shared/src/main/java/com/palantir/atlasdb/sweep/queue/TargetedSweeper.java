@@ -23,13 +23,13 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Stopwatch;
-import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.palantir.atlasdb.cleaner.Follower;
 import com.palantir.atlasdb.keyvalue.api.InsufficientConsistencyException;
@@ -161,7 +161,8 @@ public class TargetedSweeper implements MultiTableSweepQueueWriter, BackgroundSw
                 metrics,
                 kvs,
                 timelockService,
-                Suppliers.compose(TargetedSweepRuntimeConfig::shards, runtime::get),
+                new ShardAutoScaler(runtime, new ShardProgress(kvs), metrics.getShardBacklog(),
+                        System::currentTimeMillis),
                 transaction,
                 follower,
                 () -> runtime.get().maximumPartitionsToBatchInSingleRead());
@@ -277,14 +278,27 @@ public class TargetedSweeper implements MultiTableSweepQueueWriter, BackgroundSw
         }
 
         private Optional<TargetedSweeperLock> tryToAcquireLockForNextShardAndStrategy() {
-            return IntStream.range(0, queue.getNumShards())
-                    .map(ignore -> getShardAndIncrement())
-                    .mapToObj(shard -> TargetedSweeperLock.tryAcquire(shard, sweepStrategy, timeLock))
+            return getShardsInOrderOfPreference()
+                    .map(shard -> TargetedSweeperLock.tryAcquire(shard, sweepStrategy, timeLock))
                     .filter(Optional::isPresent)
                     .map(Optional::get)
                     .findFirst();
         }
 
+        /**
+         * If shards are auto scaled, threads prefer the shards with the largest observed backlog; otherwise, shards
+         * are visited in round robin order.
+         */
+        private Stream<Integer> getShardsInOrderOfPreference() {
+            if (runtime.get().autoScaleShards()) {
+                return metrics.getShardBacklog()
+                        .shardsByDescendingBacklog(sweepStrategy, queue.getNumShards(), counter.getAndIncrement())
+                        .stream();
+            }
+            return IntStream.range(0, queue.getNumShards())
+                    .mapToObj(ignore -> getShardAndIncrement());
+        }
+
         private int getShardAndIncrement() {
             return (int) (counter.getAndIncrement() % queue.getNumShards());
         }
@@ -15,6 +15,8 @@
  */
 package com.palantir.atlasdb.sweep.queue.config;
 
+import java.util.concurrent.TimeUnit;
+
 import org.immutables.value.Value;
 
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
@@ -68,6 +70,64 @@ public abstract class TargetedSweepRuntimeConfig {
         return 1;
     }
 
+    /**
+     * If true, targeted sweep will automatically double the number of shards (up to
+     * {@link #maximumAutoScaledShards()}) when the backlog observed on any shard recently swept by this node exceeds
+     * {@link #autoScaleBacklogThreshold()} entries or {@link #autoScaleTimestampLagThreshold()} timestamps, and
+     * background threads will pick shards in order of their observed backlog instead of round robin. As with
+     * {@link #shards()}, an increase in the number of shards is persisted and cannot be reverted.
+     */
+    @Value.Default
+    public boolean autoScaleShards() {
+        return false;
+    }
+
+    /**
+     * The maximum number of shards that auto scaling will increase the number of shards to. Has no effect unless
+     * {@link #autoScaleShards()} is true, and never reduces the number of shards below {@link #shards()}.
+     */
+    @Value.Default
+    public int maximumAutoScaledShards() {
+        return 64;
+    }
+
+    /**
+     * The number of enqueued but not yet read sweep queue entries on a single shard above which auto scaling will
+     * increase the number of shards.
+     */
+    @Value.Default
+    public long autoScaleBacklogThreshold() {
+        return 1_000_000L;
+    }
+
+    /**
+     * The difference between the latest enqueued start timestamp and the last swept timestamp of a single shard above
+     * which auto scaling will increase the number of shards.
+     */
+    @Value.Default
+    public long autoScaleTimestampLagThreshold() {
+        return 100_000_000L;
+    }
+
+    /**
+     * Minimum time between two consecutive increases in the number of shards due to auto scaling. Writes are only
+     * distributed to new shards after the increase, so this should allow enough time for the existing backlog to be
+     * redistributed before deciding whether to scale again.
+     */
+    @Value.Default
+    public long autoScaleCooldownMillis() {
+        return TimeUnit.HOURS.toMillis(1L);
+    }
+
+    @Value.Check
+    void checkAutoScaling() {
+        Preconditions.checkArgument(maximumAutoScaledShards() >= 1 && maximumAutoScaledShards() <= 256,
+                "Maximum auto scaled shard number must be between 1 and 256 inclusive, but it is %s.",
+                maximumAutoScaledShards());
+        Preconditions.checkArgument(autoScaleCooldownMillis() >= 0,
+                "Auto scaling cooldown must not be negative, but found %s.", autoScaleCooldownMillis());
+    }
+
     @Value.Check
     void checkPartitionsToBatch() {
         Preconditions.checkArgument(maximumPartitionsToBatchInSingleRead() > 0,
@@ -147,6 +147,59 @@ public class SerializableTransaction extends SnapshotTransaction {
                                    boolean validateLocksOnReads,
                                    Supplier<TransactionConfig> transactionConfig,
                                    ConflictTracer conflictTracer) {
+        this(
+                metricsManager,
+                keyValueService,
+                timelockService,
+                lockWatchManager,
+                transactionService,
+                cleaner,
+                startTimeStamp,
+                conflictDetectionManager,
+                sweepStrategyManager,
+                immutableTimestamp,
+                immutableTsLock,
+                preCommitCondition,
+                constraintCheckingMode,
+                transactionTimeoutMillis,
+                readSentinelBehavior,
+                allowHiddenTableAccess,
+                timestampCache,
+                getRangesExecutor,
+                defaultGetRangesConcurrency,
+                sweepQueue,
+                deleteExecutor,
+                validateLocksOnReads,
+                transactionConfig,
+                conflictTracer,
+                SharedCellCache.disabled());
+    }
+
+    public SerializableTransaction(MetricsManager metricsManager,
+                                   KeyValueService keyValueService,
+                                   TimelockService timelockService,
+                                   LockWatchManager lockWatchManager,
+                                   TransactionService transactionService,
+                                   Cleaner cleaner,
+                                   Supplier<Long> startTimeStamp,
+                                   ConflictDetectionManager conflictDetectionManager,
+                                   SweepStrategyManager sweepStrategyManager,
+                                   long immutableTimestamp,
+                                   Optional<LockToken> immutableTsLock,
+                                   PreCommitCondition preCommitCondition,
+                                   AtlasDbConstraintCheckingMode constraintCheckingMode,
+                                   Long transactionTimeoutMillis,
+                                   TransactionReadSentinelBehavior readSentinelBehavior,
+                                   boolean allowHiddenTableAccess,
+                                   TimestampCache timestampCache,
+                                   ExecutorService getRangesExecutor,
+                                   int defaultGetRangesConcurrency,
+                                   MultiTableSweepQueueWriter sweepQueue,
+                                   ExecutorService deleteExecutor,
+                                   boolean validateLocksOnReads,
+                                   Supplier<TransactionConfig> transactionConfig,
+                                   ConflictTracer conflictTracer,
+                                   SharedCellCache sharedCellCache) {
         super(metricsManager,
               keyValueService,
               timelockService,
@@ -170,7 +223,8 @@ public class SerializableTransaction extends SnapshotTransaction {
               deleteExecutor,
               validateLocksOnReads,
               transactionConfig,
-              conflictTracer);
+              conflictTracer,
+              sharedCellCache);
     }
 
     @Override
@@ -790,7 +844,8 @@ public class SerializableTransaction extends SnapshotTransaction {
                 deleteExecutor,
                 validateLocksOnReads,
                 transactionConfig,
-                conflictTracer) {
+                conflictTracer,
+                SharedCellCache.disabled()) {
             @Override
             protected ListenableFuture<Map<Long, Long>> getCommitTimestamps(
                     TableReference tableRef,
@@ -234,6 +234,58 @@ public class SerializableTransactionManager extends SnapshotTransactionManager {
             boolean validateLocksOnReads,
             Supplier<TransactionConfig> transactionConfig,
             ConflictTracer conflictTracer) {
+        return createInstrumented(
+                metricsManager,
+                keyValueService,
+                timelockService,
+                lockWatchManager,
+                lockWatchEventCache,
+                timestampManagementService,
+                lockService,
+                transactionService,
+                constraintModeSupplier,
+                conflictDetectionManager,
+                sweepStrategyManager,
+                cleaner,
+                initializationPrerequisite,
+                allowHiddenTableAccess,
+                concurrentGetRangesThreadPoolSize,
+                defaultGetRangesConcurrency,
+                initializeAsync,
+                timestampCache,
+                sweepQueueWriter,
+                callback,
+                validateLocksOnReads,
+                transactionConfig,
+                conflictTracer,
+                SharedCellCache.disabled());
+    }
+
+    public static TransactionManager createInstrumented(
+            MetricsManager metricsManager,
+            KeyValueService keyValueService,
+            TimelockService timelockService,
+            LockWatchManager lockWatchManager,
+            LockWatchEventCache lockWatchEventCache,
+            TimestampManagementService timestampManagementService,
+            LockService lockService,
+            TransactionService transactionService,
+            Supplier<AtlasDbConstraintCheckingMode> constraintModeSupplier,
+            ConflictDetectionManager conflictDetectionManager,
+            SweepStrategyManager sweepStrategyManager,
+            Cleaner cleaner,
+            Supplier<Boolean> initializationPrerequisite,
+            boolean allowHiddenTableAccess,
+            int concurrentGetRangesThreadPoolSize,
+            int defaultGetRangesConcurrency,
+            boolean initializeAsync,
+            TimestampCache timestampCache,
+            MultiTableSweepQueueWriter sweepQueueWriter,
+            Callback<TransactionManager> callback,
+            boolean validateLocksOnReads,
+            Supplier<TransactionConfig> transactionConfig,
+            ConflictTracer conflictTracer,
+            SharedCellCache sharedCellCache) {
 
         return create(metricsManager,
                 keyValueService,
@@ -260,7 +312,8 @@ public class SerializableTransactionManager extends SnapshotTransactionManager {
                 validateLocksOnReads,
                 transactionConfig,
                 true,
-                conflictTracer);
+                conflictTracer,
+                sharedCellCache);
     }
 
     public static TransactionManager create(
@@ -312,7 +365,8 @@ public class SerializableTransactionManager extends SnapshotTransactionManager {
                         new NamedThreadFactory("AsyncInitializer-SerializableTransactionManager", true)),
                 validateLocksOnReads,
                 transactionConfig,
-                conflictTracer);
+                conflictTracer,
+                SharedCellCache.disabled());
     }
 
     public static TransactionManager create(
@@ -365,7 +419,8 @@ public class SerializableTransactionManager extends SnapshotTransactionManager {
                 validateLocksOnReads,
                 transactionConfig,
                 false,
-                conflictTracer);
+                conflictTracer,
+                SharedCellCache.disabled());
     }
 
     private static TransactionManager create(
@@ -393,7 +448,8 @@ public class SerializableTransactionManager extends SnapshotTransactionManager {
             boolean validateLocksOnReads,
             Supplier<TransactionConfig> transactionConfig,
             boolean shouldInstrument,
-            ConflictTracer conflictTracer) {
+            ConflictTracer conflictTracer,
+            SharedCellCache sharedCellCache) {
         TransactionManager transactionManager = new SerializableTransactionManager(
                 metricsManager,
                 keyValueService,
@@ -415,7 +471,8 @@ public class SerializableTransactionManager extends SnapshotTransactionManager {
                 DefaultTaskExecutors.createDefaultDeleteExecutor(),
                 validateLocksOnReads,
                 transactionConfig,
-                conflictTracer);
+                conflictTracer,
+                sharedCellCache);
 
         if (shouldInstrument) {
             transactionManager = AtlasDbMetrics.instrumentTimed(
@@ -468,7 +525,8 @@ public class SerializableTransactionManager extends SnapshotTransactionManager {
                 DefaultTaskExecutors.createDefaultDeleteExecutor(),
                 true,
                 () -> ImmutableTransactionConfig.builder().build(),
-                ConflictTracer.NO_OP);
+                ConflictTracer.NO_OP,
+                SharedCellCache.disabled());
     }
 
     public SerializableTransactionManager(MetricsManager metricsManager,
@@ -492,6 +550,53 @@ public class SerializableTransactionManager extends SnapshotTransactionManager {
             boolean validateLocksOnReads,
             Supplier<TransactionConfig> transactionConfig,
             ConflictTracer conflictTracer) {
+        this(
+                metricsManager,
+                keyValueService,
+                timelockService,
+                lockWatchManager,
+                lockWatchEventCache,
+                timestampManagementService,
+                lockService,
+                transactionService,
+                constraintModeSupplier,
+                conflictDetectionManager,
+                sweepStrategyManager,
+                cleaner,
+                timestampCache,
+                allowHiddenTableAccess,
+                concurrentGetRangesThreadPoolSize,
+                defaultGetRangesConcurrency,
+                sweepQueueWriter,
+                deleteExecutor,
+                validateLocksOnReads,
+                transactionConfig,
+                conflictTracer,
+                SharedCellCache.disabled());
+    }
+
+    public SerializableTransactionManager(MetricsManager metricsManager,
+            KeyValueService keyValueService,
+            TimelockService timelockService,
+            LockWatchManager lockWatchManager,
+            LockWatchEventCache lockWatchEventCache,
+            TimestampManagementService timestampManagementService,
+            LockService lockService,
+            TransactionService transactionService,
+            Supplier<AtlasDbConstraintCheckingMode> constraintModeSupplier,
+            ConflictDetectionManager conflictDetectionManager,
+            SweepStrategyManager sweepStrategyManager,
+            Cleaner cleaner,
+            TimestampCache timestampCache,
+            boolean allowHiddenTableAccess,
+            int concurrentGetRangesThreadPoolSize,
+            int defaultGetRangesConcurrency,
+            MultiTableSweepQueueWriter sweepQueueWriter,
+            ExecutorService deleteExecutor,
+            boolean validateLocksOnReads,
+            Supplier<TransactionConfig> transactionConfig,
+            ConflictTracer conflictTracer,
+            SharedCellCache sharedCellCache) {
         super(
                 metricsManager,
                 keyValueService,
@@ -513,7 +618,8 @@ public class SerializableTransactionManager extends SnapshotTransactionManager {
                 deleteExecutor,
                 validateLocksOnReads,
                 transactionConfig,
-                conflictTracer
+                conflictTracer,
+                sharedCellCache
         );
         this.conflictTracer = conflictTracer;
     }
@@ -547,7 +653,8 @@ public class SerializableTransactionManager extends SnapshotTransactionManager {
                 deleteExecutor,
                 validateLocksOnReads,
                 transactionConfig,
-                conflictTracer);
+                conflictTracer,
+                sharedCellCache);
     }
 
     @VisibleForTesting
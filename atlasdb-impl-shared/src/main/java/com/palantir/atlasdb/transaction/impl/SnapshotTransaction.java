@@ -22,6 +22,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +35,7 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentNavigableMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -183,6 +185,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
     private static final Logger constraintLogger = LoggerFactory.getLogger("dualschema.constraints");
 
     private static final int BATCH_SIZE_GET_FIRST_PAGE = 1000;
+    private static final int CONFLICT_CHECK_BATCH_SIZE = 10_000;
 
     private enum State {
         UNCOMMITTED,
@@ -238,6 +241,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
     protected final TransactionOutcomeMetrics transactionOutcomeMetrics;
     protected final boolean validateLocksOnReads;
     protected final Supplier<TransactionConfig> transactionConfig;
+    protected final SharedCellCache sharedCellCache;
 
     protected volatile boolean hasReads;
 
@@ -270,7 +274,8 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
             ExecutorService deleteExecutor,
             boolean validateLocksOnReads,
             Supplier<TransactionConfig> transactionConfig,
-            ConflictTracer conflictTracer) {
+            ConflictTracer conflictTracer,
+            SharedCellCache sharedCellCache) {
         this.metricsManager = metricsManager;
         this.lockWatchManager = lockWatchManager;
         this.conflictTracer = conflictTracer;
@@ -300,6 +305,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         this.transactionOutcomeMetrics = TransactionOutcomeMetrics.create(metricsManager);
         this.validateLocksOnReads = validateLocksOnReads;
         this.transactionConfig = transactionConfig;
+        this.sharedCellCache = sharedCellCache;
     }
 
     @Override
@@ -754,12 +760,48 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
      * This will load the given keys from the underlying key value service and apply postFiltering
      * so we have snapshot isolation.  If the value in the key value service is the empty array
      * this will be included here and needs to be filtered out.
+     *
+     * Cells of append-only tables are first looked up in the shared cell cache, and values loaded for them are
+     * shared with later transactions. Reads at the start timestamp never include this transaction's own writes.
      */
     private ListenableFuture<Map<Cell, byte[]>> getFromKeyValueService(
             TableReference tableRef,
             Set<Cell> cells,
             AsyncKeyValueService asyncKeyValueService,
             AsyncTransactionService asyncTransactionService) {
+        if (!sharedCellCache.isCached(tableRef)) {
+            return getFromKeyValueServiceUncached(tableRef, cells, asyncKeyValueService, asyncTransactionService);
+        }
+
+        Map<Cell, byte[]> cached = Maps.newHashMap();
+        for (Cell cell : cells) {
+            byte[] value = sharedCellCache.get(tableRef, cell, getStartTimestamp());
+            if (value != null) {
+                cached.put(cell, value);
+            }
+        }
+        if (cached.size() == cells.size()) {
+            return Futures.immediateFuture(cached);
+        }
+        return Futures.transform(
+                getFromKeyValueServiceUncached(
+                        tableRef,
+                        Sets.difference(cells, cached.keySet()),
+                        asyncKeyValueService,
+                        asyncTransactionService),
+                loaded -> {
+                    loaded.forEach((cell, value) -> sharedCellCache.put(tableRef, cell, value, getStartTimestamp()));
+                    cached.putAll(loaded);
+                    return cached;
+                },
+                MoreExecutors.directExecutor());
+    }
+
+    private ListenableFuture<Map<Cell, byte[]>> getFromKeyValueServiceUncached(
+            TableReference tableRef,
+            Set<Cell> cells,
+            AsyncKeyValueService asyncKeyValueService,
+            AsyncTransactionService asyncTransactionService) {
         Map<Cell, Long> toRead = Cells.constantValueMap(cells, getStartTimestamp());
         ListenableFuture<Collection<Map.Entry<Cell, byte[]>>> postFilteredResults =
                 Futures.transformAsync(
@@ -1735,6 +1777,12 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         }
     }
 
+    private <T> T timed(String timerName, Supplier<T> supplier) {
+        try (Timer.Context timer = getTimer(timerName).time()) {
+            return supplier.get();
+        }
+    }
+
     private <T> T timedAndTraced(String timerName, Supplier<T> supplier) {
         try (Timer.Context timer = getTimer(timerName).time();
                 CloseableTracer tracer = CloseableTracer.startSpan(timerName)) {
@@ -1816,6 +1864,10 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
      */
     protected void throwIfConflictOnCommit(LockToken commitLocksToken, TransactionService transactionService)
             throws TransactionConflictException {
+        if (shouldCheckConflictsInParallel()) {
+            throwIfConflictOnCommitInParallel(commitLocksToken, transactionService);
+            return;
+        }
         for (Map.Entry<TableReference, ConcurrentNavigableMap<Cell, byte[]>> write : writesByTable.entrySet()) {
             ConflictHandler conflictHandler = getConflictHandlerForTable(write.getKey());
             throwIfWriteAlreadyCommitted(
@@ -1827,6 +1879,77 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         }
     }
 
+    private boolean shouldCheckConflictsInParallel() {
+        long cellsToCheck = writesByTable.entrySet().stream()
+                .filter(write -> getConflictHandlerForTable(write.getKey()).checkWriteWriteConflicts())
+                .mapToLong(write -> write.getValue().size())
+                .sum();
+        return cellsToCheck > CONFLICT_CHECK_BATCH_SIZE;
+    }
+
+    /**
+     * Checks for write-write conflicts in batches of at most {@link #CONFLICT_CHECK_BATCH_SIZE} cells, across all
+     * tables at once. The batches run on the get ranges executor, so that the latest timestamp lookups of some
+     * batches overlap with the commit timestamp lookups of others. Conflicts are only evaluated once every batch of a
+     * table has completed, so the outcome is the same as that of checking each table in turn.
+     */
+    private void throwIfConflictOnCommitInParallel(LockToken commitLocksToken, TransactionService transactionService)
+            throws TransactionConflictException {
+        Map<TableReference, List<Future<DetectedConflicts>>> detections = new LinkedHashMap<>();
+        for (Map.Entry<TableReference, ConcurrentNavigableMap<Cell, byte[]>> write : writesByTable.entrySet()) {
+            TableReference tableRef = write.getKey();
+            if (write.getValue().isEmpty() || !getConflictHandlerForTable(tableRef).checkWriteWriteConflicts()) {
+                continue;
+            }
+            List<Future<DetectedConflicts>> tableDetections = new ArrayList<>();
+            for (List<Cell> batch : Iterables.partition(write.getValue().keySet(), CONFLICT_CHECK_BATCH_SIZE)) {
+                tableDetections.add(getRangesExecutor.submit(
+                        () -> detectWriteAlreadyCommitted(tableRef, batch, transactionService)));
+            }
+            detections.put(tableRef, tableDetections);
+        }
+
+        for (Map.Entry<TableReference, List<Future<DetectedConflicts>>> detection : detections.entrySet()) {
+            TableReference tableRef = detection.getKey();
+            Set<CellConflict> spanningWrites = Sets.newHashSet();
+            Set<CellConflict> dominatingWrites = Sets.newHashSet();
+            for (Future<DetectedConflicts> batchDetection : detection.getValue()) {
+                DetectedConflicts conflicts = AtlasFutures.getUnchecked(batchDetection);
+                spanningWrites.addAll(conflicts.spanningWrites);
+                dominatingWrites.addAll(conflicts.dominatingWrites);
+            }
+            throwIfConflictsDetected(
+                    tableRef,
+                    writesByTable.get(tableRef),
+                    getConflictHandlerForTable(tableRef),
+                    spanningWrites,
+                    dominatingWrites,
+                    commitLocksToken);
+        }
+    }
+
+    private DetectedConflicts detectWriteAlreadyCommitted(
+            TableReference tableRef,
+            Collection<Cell> cells,
+            TransactionService transactionService) {
+        DetectedConflicts conflicts = new DetectedConflicts();
+        Map<Cell, Long> keysToLoad = Maps.asMap(ImmutableSet.copyOf(cells), Functions.constant(Long.MAX_VALUE));
+        while (!keysToLoad.isEmpty()) {
+            keysToLoad = detectWriteAlreadyCommittedInternal(
+                    tableRef,
+                    keysToLoad,
+                    conflicts.spanningWrites,
+                    conflicts.dominatingWrites,
+                    transactionService);
+        }
+        return conflicts;
+    }
+
+    private static final class DetectedConflicts {
+        private final Set<CellConflict> spanningWrites = Sets.newHashSet();
+        private final Set<CellConflict> dominatingWrites = Sets.newHashSet();
+    }
+
     protected void throwIfWriteAlreadyCommitted(TableReference tableRef,
                                                 Map<Cell, byte[]> writes,
                                                 ConflictHandler conflictHandler,
@@ -1836,18 +1959,18 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         if (writes.isEmpty() || !conflictHandler.checkWriteWriteConflicts()) {
             return;
         }
-        Set<CellConflict> spanningWrites = Sets.newHashSet();
-        Set<CellConflict> dominatingWrites = Sets.newHashSet();
-        Map<Cell, Long> keysToLoad = Maps.asMap(writes.keySet(), Functions.constant(Long.MAX_VALUE));
-        while (!keysToLoad.isEmpty()) {
-            keysToLoad = detectWriteAlreadyCommittedInternal(
-                    tableRef,
-                    keysToLoad,
-                    spanningWrites,
-                    dominatingWrites,
-                    transactionService);
-        }
+        DetectedConflicts conflicts = detectWriteAlreadyCommitted(tableRef, writes.keySet(), transactionService);
+        throwIfConflictsDetected(tableRef, writes, conflictHandler, conflicts.spanningWrites,
+                conflicts.dominatingWrites, commitLocksToken);
+    }
 
+    private void throwIfConflictsDetected(TableReference tableRef,
+                                          Map<Cell, byte[]> writes,
+                                          ConflictHandler conflictHandler,
+                                          Set<CellConflict> spanningWrites,
+                                          Set<CellConflict> dominatingWrites,
+                                          LockToken commitLocksToken)
+            throws TransactionConflictException {
         if (conflictHandler == ConflictHandler.RETRY_ON_VALUE_CHANGED) {
             throwIfValueChangedConflict(tableRef, writes, spanningWrites, dominatingWrites, commitLocksToken);
         } else {
@@ -1934,8 +2057,10 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
                                                                   @Output Set<CellConflict> spanningWrites,
                                                                   @Output Set<CellConflict> dominatingWrites,
                                                                   TransactionService transactionService) {
-        Map<Cell, Long> rawResults = keyValueService.getLatestTimestamps(tableRef, keysToLoad);
-        Map<Long, Long> commitTimestamps = getCommitTimestampsSync(tableRef, rawResults.values(), false);
+        Map<Cell, Long> rawResults = timed("commitConflictCheckGetLatestTimestamps",
+                () -> keyValueService.getLatestTimestamps(tableRef, keysToLoad));
+        Map<Long, Long> commitTimestamps = timed("commitConflictCheckGetCommitTimestamps",
+                () -> getCommitTimestampsSync(tableRef, rawResults.values(), false));
 
         // TODO(fdesouza): Remove this once PDS-95791 is resolved.
         conflictTracer.collect(getStartTimestamp(), keysToLoad, rawResults, commitTimestamps);
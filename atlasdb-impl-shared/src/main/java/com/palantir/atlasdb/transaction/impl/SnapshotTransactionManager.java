@@ -100,6 +100,7 @@ import com.palantir.util.SafeShutdownRunner;
     final List<Runnable> closingCallbacks;
     final AtomicBoolean isClosed;
     private final ConflictTracer conflictTracer;
+    final SharedCellCache sharedCellCache;
 
     protected SnapshotTransactionManager(
             MetricsManager metricsManager,
@@ -123,6 +124,54 @@ import com.palantir.util.SafeShutdownRunner;
             boolean validateLocksOnReads,
             Supplier<TransactionConfig> transactionConfig,
             ConflictTracer conflictTracer) {
+        this(
+                metricsManager,
+                keyValueService,
+                timelockService,
+                lockWatchManager,
+                lockWatchEventCache,
+                timestampManagementService,
+                lockService,
+                transactionService,
+                constraintModeSupplier,
+                conflictDetectionManager,
+                sweepStrategyManager,
+                cleaner,
+                allowHiddenTableAccess,
+                concurrentGetRangesThreadPoolSize,
+                defaultGetRangesConcurrency,
+                timestampCache,
+                sweepQueueWriter,
+                deleteExecutor,
+                validateLocksOnReads,
+                transactionConfig,
+                conflictTracer,
+                SharedCellCache.disabled());
+    }
+
+    protected SnapshotTransactionManager(
+            MetricsManager metricsManager,
+            KeyValueService keyValueService,
+            TimelockService timelockService,
+            LockWatchManager lockWatchManager,
+            LockWatchEventCache lockWatchEventCache,
+            TimestampManagementService timestampManagementService,
+            LockService lockService,
+            @NotNull TransactionService transactionService,
+            Supplier<AtlasDbConstraintCheckingMode> constraintModeSupplier,
+            ConflictDetectionManager conflictDetectionManager,
+            SweepStrategyManager sweepStrategyManager,
+            Cleaner cleaner,
+            boolean allowHiddenTableAccess,
+            int concurrentGetRangesThreadPoolSize,
+            int defaultGetRangesConcurrency,
+            TimestampCache timestampCache,
+            MultiTableSweepQueueWriter sweepQueueWriter,
+            ExecutorService deleteExecutor,
+            boolean validateLocksOnReads,
+            Supplier<TransactionConfig> transactionConfig,
+            ConflictTracer conflictTracer,
+            SharedCellCache sharedCellCache) {
         super(metricsManager, timestampCache, () -> transactionConfig.get().retryStrategy());
         this.lockWatchManager = lockWatchManager;
         this.lockWatchEventCache = lockWatchEventCache;
@@ -147,6 +196,7 @@ import com.palantir.util.SafeShutdownRunner;
         this.validateLocksOnReads = validateLocksOnReads;
         this.transactionConfig = transactionConfig;
         this.conflictTracer = conflictTracer;
+        this.sharedCellCache = sharedCellCache;
     }
 
     @Override
@@ -300,7 +350,8 @@ import com.palantir.util.SafeShutdownRunner;
                 deleteExecutor,
                 validateLocksOnReads,
                 transactionConfig,
-                conflictTracer);
+                conflictTracer,
+                sharedCellCache);
     }
 
     @Override
@@ -341,7 +392,8 @@ import com.palantir.util.SafeShutdownRunner;
                 deleteExecutor,
                 validateLocksOnReads,
                 transactionConfig,
-                conflictTracer);
+                conflictTracer,
+                sharedCellCache);
         try {
             return runTaskThrowOnConflict(txn -> task.execute(txn, condition),
                     new ReadTransaction(transaction, sweepStrategyManager));
@@ -0,0 +1,165 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.annotation.CheckForNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.autobatch.Autobatchers;
+import com.palantir.atlasdb.autobatch.DisruptorAutobatcher;
+import com.palantir.atlasdb.cache.TimestampCache;
+import com.palantir.atlasdb.futures.AtlasFutures;
+import com.palantir.atlasdb.keyvalue.api.KeyAlreadyExistsException;
+
+/**
+ * This class coalesces read (that is, get) requests to an underlying {@link TransactionService}, such that concurrent
+ * lookups from all users of this service (for example, transactions validating their reads and targeted sweep
+ * threads) are served by bulk lookups against the transactions table. Write requests are not batched.
+ *
+ * Non-null results are final, and so are stored in a {@link TimestampCache} that may be shared with other users,
+ * which is consulted before any lookup is made. Null results are never cached, as the relevant transactions may
+ * still commit or be rolled back.
+ */
+public final class ReadBatchingTransactionService implements TransactionService {
+    private final TransactionService delegate;
+    private final TimestampCache timestampCache;
+    private final DisruptorAutobatcher<Long, Optional<Long>> autobatcher;
+
+    private ReadBatchingTransactionService(
+            TransactionService delegate,
+            TimestampCache timestampCache,
+            DisruptorAutobatcher<Long, Optional<Long>> autobatcher) {
+        this.delegate = delegate;
+        this.timestampCache = timestampCache;
+        this.autobatcher = autobatcher;
+    }
+
+    public static TransactionService create(TransactionService delegate, TimestampCache timestampCache) {
+        DisruptorAutobatcher<Long, Optional<Long>> autobatcher = Autobatchers
+                .<Long, Optional<Long>>coalescing(startTimestamps ->
+                        processBatch(delegate, timestampCache, startTimestamps))
+                .safeLoggablePurpose("read-batching-transaction-service")
+                .build();
+        return new ReadBatchingTransactionService(delegate, timestampCache, autobatcher);
+    }
+
+    @CheckForNull
+    @Override
+    public Long get(long startTimestamp) {
+        return AtlasFutures.getUnchecked(getAsync(startTimestamp));
+    }
+
+    @Override
+    public Map<Long, Long> get(Iterable<Long> startTimestamps) {
+        return AtlasFutures.getUnchecked(getAsync(startTimestamps));
+    }
+
+    @Override
+    public ListenableFuture<Long> getAsync(long startTimestamp) {
+        Long cached = timestampCache.getCommitTimestampIfPresent(startTimestamp);
+        if (cached != null) {
+            return Futures.immediateFuture(cached);
+        }
+        return Futures.transform(
+                autobatcher.apply(startTimestamp),
+                commitTimestamp -> commitTimestamp.orElse(null),
+                MoreExecutors.directExecutor());
+    }
+
+    @Override
+    public ListenableFuture<Map<Long, Long>> getAsync(Iterable<Long> startTimestamps) {
+        Map<Long, Long> result = new HashMap<>();
+        List<Long> uncached = new ArrayList<>();
+        for (Long startTimestamp : startTimestamps) {
+            Long cached = timestampCache.getCommitTimestampIfPresent(startTimestamp);
+            if (cached != null) {
+                result.put(startTimestamp, cached);
+            } else {
+                uncached.add(startTimestamp);
+            }
+        }
+
+        if (uncached.isEmpty()) {
+            return Futures.immediateFuture(result);
+        }
+
+        List<ListenableFuture<Optional<Long>>> lookups = uncached.stream()
+                .map(autobatcher::apply)
+                .collect(ImmutableList.toImmutableList());
+        return Futures.transform(
+                Futures.allAsList(lookups),
+                commitTimestamps -> {
+                    for (int i = 0; i < uncached.size(); i++) {
+                        Long startTimestamp = uncached.get(i);
+                        commitTimestamps.get(i).ifPresent(commitTs -> result.put(startTimestamp, commitTs));
+                    }
+                    return result;
+                },
+                MoreExecutors.directExecutor());
+    }
+
+    @Override
+    public void putUnlessExists(long startTimestamp, long commitTimestamp) throws KeyAlreadyExistsException {
+        delegate.putUnlessExists(startTimestamp, commitTimestamp);
+    }
+
+    @Override
+    public void putUnlessExistsMultiple(Map<Long, Long> startTimestampToCommitTimestamp) {
+        delegate.putUnlessExistsMultiple(startTimestampToCommitTimestamp);
+    }
+
+    @Override
+    public void close() {
+        autobatcher.close();
+        delegate.close();
+    }
+
+    /**
+     * Looks up all start timestamps requested since the last batch in bulk, splitting the lookup into chunks of at
+     * most {@link AtlasDbConstants#TRANSACTION_TIMESTAMP_LOAD_BATCH_LIMIT} start timestamps. Every requested start
+     * timestamp is present in the result, mapped to an empty optional if the transaction has not committed.
+     */
+    @VisibleForTesting
+    static Map<Long, Optional<Long>> processBatch(
+            TransactionService delegate, TimestampCache timestampCache, Set<Long> startTimestamps) {
+        Map<Long, Optional<Long>> result = new HashMap<>();
+        for (List<Long> batch : Iterables.partition(startTimestamps,
+                AtlasDbConstants.TRANSACTION_TIMESTAMP_LOAD_BATCH_LIMIT)) {
+            Map<Long, Long> commitTimestamps = delegate.get(batch);
+            for (Long startTimestamp : batch) {
+                Long commitTimestamp = commitTimestamps.get(startTimestamp);
+                if (commitTimestamp != null) {
+                    timestampCache.putAlreadyCommittedTransaction(startTimestamp, commitTimestamp);
+                }
+                result.put(startTimestamp, Optional.ofNullable(commitTimestamp));
+            }
+        }
+        return result;
+    }
+}
@@ -15,9 +15,14 @@
  */
 package com.palantir.atlasdb.cleaner;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Collection;
@@ -34,6 +39,7 @@ import org.junit.runners.Parameterized;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.palantir.atlasdb.keyvalue.api.Cell;
@@ -145,6 +151,103 @@ public class ScrubberTest {
         Assert.assertEquals(ImmutableList.of(), scrubQueue);
     }
 
+    @Test
+    public void scrubDeletesOverwrittenValuesButKeepsSentinelAndLatestValue() {
+        Cell cell = Cell.create(new byte[] {1}, new byte[] {2});
+        TableReference tableRef = TableReference.createFromFullyQualifiedName("foo.bar");
+        kvs.createTable(tableRef, new byte[] {});
+        kvs.putWithTimestamps(tableRef, ImmutableMultimap.<Cell, Value>builder()
+                .put(cell, Value.create(new byte[] {3}, 10))
+                .put(cell, Value.create(new byte[] {4}, 20))
+                .put(cell, Value.create(new byte[] {5}, 30))
+                .build());
+        transactions.putUnlessExists(10, 15);
+        transactions.putUnlessExists(20, 25);
+        transactions.putUnlessExists(30, 35);
+        scrubStore.queueCellsForScrubbing(ImmutableMultimap.of(cell, tableRef), 30, 100);
+        scrubber.runBackgroundScrubTask(null);
+
+        assertThat(kvs.getAllTimestamps(tableRef, ImmutableSet.of(cell), Long.MAX_VALUE).get(cell))
+                .containsExactlyInAnyOrder(Value.INVALID_VALUE_TIMESTAMP, 30L);
+    }
+
+    @Test
+    public void scrubDeletesEachTimestampIfRangeDeletesAreNotEfficient() {
+        KeyValueService perTimestampKvs = spy(kvs);
+        when(perTimestampKvs.supportsEfficientTimestampRangeDeletes()).thenReturn(false);
+        Scrubber perTimestampScrubber = getScrubber(perTimestampKvs, scrubStore, transactions);
+        Cell cell = Cell.create(new byte[] {1}, new byte[] {2});
+        TableReference tableRef = TableReference.createFromFullyQualifiedName("foo.bar");
+        kvs.createTable(tableRef, new byte[] {});
+        kvs.putWithTimestamps(tableRef, ImmutableMultimap.of(
+                cell, Value.create(new byte[] {3}, 10),
+                cell, Value.create(new byte[] {4}, 20)));
+        transactions.putUnlessExists(10, 15);
+        transactions.putUnlessExists(20, 25);
+        scrubStore.queueCellsForScrubbing(ImmutableMultimap.of(cell, tableRef), 20, 100);
+
+        try {
+            perTimestampScrubber.runBackgroundScrubTask(null);
+        } finally {
+            perTimestampScrubber.shutdown();
+        }
+
+        verify(perTimestampKvs).delete(tableRef, ImmutableMultimap.of(cell, 10L));
+        verify(perTimestampKvs, never()).deleteAllTimestamps(any(), any());
+        assertThat(kvs.getAllTimestamps(tableRef, ImmutableSet.of(cell), Long.MAX_VALUE).get(cell))
+                .containsExactlyInAnyOrder(Value.INVALID_VALUE_TIMESTAMP, 20L);
+    }
+
+    @Test
+    public void scrubsAllTablesWhenFewerCellsAreAllowedInFlightThanQueued() {
+        Scrubber boundedScrubber = getScrubber(kvs, scrubStore, transactions, 1, 10L);
+        Cell cell = Cell.create(new byte[] {1}, new byte[] {2});
+        List<TableReference> tableRefs = ImmutableList.of(
+                TableReference.createFromFullyQualifiedName("foo.bar"),
+                TableReference.createFromFullyQualifiedName("foo.baz"),
+                TableReference.createFromFullyQualifiedName("foo.qux"));
+        for (TableReference tableRef : tableRefs) {
+            kvs.createTable(tableRef, new byte[] {});
+            kvs.putWithTimestamps(tableRef, ImmutableMultimap.of(
+                    cell, Value.create(new byte[] {3}, 10),
+                    cell, Value.create(new byte[] {4}, 20)));
+            scrubStore.queueCellsForScrubbing(ImmutableMultimap.of(cell, tableRef), 20, 100);
+        }
+        transactions.putUnlessExists(10, 15);
+        transactions.putUnlessExists(20, 25);
+
+        try {
+            boundedScrubber.runBackgroundScrubTask(null);
+        } finally {
+            boundedScrubber.shutdown();
+        }
+
+        for (TableReference tableRef : tableRefs) {
+            assertThat(kvs.getAllTimestamps(tableRef, ImmutableSet.of(cell), Long.MAX_VALUE).get(cell))
+                    .containsExactlyInAnyOrder(Value.INVALID_VALUE_TIMESTAMP, 20L);
+        }
+        assertThat(BatchingVisitables.copyToList(scrubStore.getBatchingVisitableScrubQueue(Long.MAX_VALUE, null, null)))
+                .isEmpty();
+    }
+
+    private Scrubber getScrubber(KeyValueService keyValueService, ScrubberStore scrubberStore,
+            TransactionService transactionService, int maxCellsInFlight, long maxKeyBytesDeletedPerSecond) {
+        return Scrubber.create(keyValueService, scrubberStore,
+                () -> Long.MAX_VALUE, // background scrub frequency millis
+                () -> true, // scrub enabled
+                () -> 100L, // unreadable timestamp
+                () -> 100L, // immutable timestamp
+                transactionService,
+                false, // is aggressive
+                () -> 100, //  batch size
+                2, // thread count
+                1, // read thread count
+                maxCellsInFlight,
+                maxKeyBytesDeletedPerSecond,
+                ImmutableList.of(), // followers
+                MetricsManagers.createForTests());
+    }
+
     private Scrubber getScrubber(KeyValueService keyValueService, ScrubberStore scrubberStore,
             TransactionService transactionService) {
         return Scrubber.create(keyValueService, scrubberStore,
@@ -0,0 +1,171 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.sweep.queue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.palantir.atlasdb.keyvalue.impl.InMemoryKeyValueService;
+import com.palantir.atlasdb.sweep.queue.config.ImmutableTargetedSweepRuntimeConfig;
+import com.palantir.atlasdb.sweep.queue.config.TargetedSweepRuntimeConfig;
+
+public class ShardAutoScalerTest {
+    private static final long COOLDOWN = 1_000L;
+    private static final ShardAndStrategy CONS_ZERO = ShardAndStrategy.conservative(0);
+
+    private long clockTime;
+    private final ShardBacklog backlog = new ShardBacklog(() -> clockTime);
+    private ShardProgress progress;
+    private TargetedSweepRuntimeConfig config;
+    private ShardAutoScaler scaler;
+
+    @Before
+    public void setup() {
+        progress = new ShardProgress(new InMemoryKeyValueService(true));
+        config = autoScalingConfig(true);
+        clockTime = 0L;
+        scaler = new ShardAutoScaler(() -> config, progress, backlog, () -> clockTime);
+    }
+
+    @Test
+    public void returnsConfiguredShardsWhenAutoScalingIsDisabled() {
+        config = autoScalingConfig(false);
+        createBacklogAboveThreshold();
+
+        assertThat(scaler.get()).isEqualTo(4);
+    }
+
+    @Test
+    public void returnsConfiguredShardsWhenBacklogIsBelowThreshold() {
+        backlog.recordEnqueued(CONS_ZERO, 10L, 100L);
+
+        assertThat(scaler.get()).isEqualTo(4);
+    }
+
+    @Test
+    public void doublesShardsWhenBacklogExceedsThreshold() {
+        createBacklogAboveThreshold();
+
+        assertThat(scaler.get()).isEqualTo(8);
+    }
+
+    @Test
+    public void doesNotScaleAgainBeforeCooldownElapses() {
+        createBacklogAboveThreshold();
+        assertThat(scaler.get()).isEqualTo(8);
+
+        createBacklogAboveThreshold();
+        clockTime += COOLDOWN - 1;
+        assertThat(scaler.get()).isEqualTo(8);
+
+        clockTime += 1;
+        assertThat(scaler.get()).isEqualTo(16);
+    }
+
+    @Test
+    public void doesNotScaleAgainWhileBacklogDrains() {
+        createBacklogAboveThreshold();
+        createBacklogAboveThreshold();
+        assertThat(scaler.get()).isEqualTo(8);
+
+        clockTime += COOLDOWN;
+        assertThat(scaler.get()).isEqualTo(8);
+
+        backlog.recordRead(CONS_ZERO, 500L);
+        clockTime += COOLDOWN;
+        assertThat(scaler.get()).isEqualTo(8);
+    }
+
+    @Test
+    public void scalesAgainIfBacklogGrowsAfterScalingUp() {
+        createBacklogAboveThreshold();
+        assertThat(scaler.get()).isEqualTo(8);
+
+        backlog.recordEnqueued(CONS_ZERO, 20L, 10L);
+        clockTime += COOLDOWN;
+        assertThat(scaler.get()).isEqualTo(16);
+    }
+
+    @Test
+    public void doesNotScaleForShardsThisNodeOnlyWritesTo() {
+        for (int i = 0; i < 10; i++) {
+            backlog.recordEnqueued(CONS_ZERO, 10L * i, 1_001L);
+            clockTime += COOLDOWN;
+            assertThat(scaler.get()).isEqualTo(4);
+        }
+    }
+
+    @Test
+    public void doesNotScaleForShardsThisNodeStoppedSweeping() {
+        createBacklogAboveThreshold();
+        clockTime += TimeUnit.MINUTES.toMillis(5) + 1;
+
+        for (int i = 0; i < 10; i++) {
+            backlog.recordEnqueued(CONS_ZERO, 10L * i, 1_001L);
+            assertThat(scaler.get()).isEqualTo(4);
+            clockTime += COOLDOWN;
+        }
+    }
+
+    @Test
+    public void scalesFromPersistedNumberOfShards() {
+        progress.updateNumberOfShards(12);
+        createBacklogAboveThreshold();
+
+        assertThat(scaler.get()).isEqualTo(24);
+    }
+
+    @Test
+    public void doesNotExceedMaximumShards() {
+        progress.updateNumberOfShards(20);
+        createBacklogAboveThreshold();
+
+        assertThat(scaler.get()).isEqualTo(32);
+        createBacklogAboveThreshold();
+        clockTime += COOLDOWN;
+        assertThat(scaler.get()).isEqualTo(32);
+    }
+
+    @Test
+    public void neverReturnsFewerThanConfiguredShards() {
+        config = ImmutableTargetedSweepRuntimeConfig.builder()
+                .from(autoScalingConfig(true))
+                .shards(64)
+                .build();
+        createBacklogAboveThreshold();
+
+        assertThat(scaler.get()).isEqualTo(64);
+    }
+
+    private void createBacklogAboveThreshold() {
+        backlog.recordSwept(CONS_ZERO, 0L);
+        backlog.recordEnqueued(CONS_ZERO, 10L, 1_001L);
+    }
+
+    private static TargetedSweepRuntimeConfig autoScalingConfig(boolean enabled) {
+        return ImmutableTargetedSweepRuntimeConfig.builder()
+                .shards(4)
+                .autoScaleShards(enabled)
+                .maximumAutoScaledShards(32)
+                .autoScaleBacklogThreshold(1_000L)
+                .autoScaleCooldownMillis(COOLDOWN)
+                .build();
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.sweep.queue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.palantir.atlasdb.table.description.SweepStrategy.SweeperStrategy;
+
+public class ShardBacklogTest {
+    private static final ShardAndStrategy CONS_ZERO = ShardAndStrategy.conservative(0);
+    private static final ShardAndStrategy CONS_ONE = ShardAndStrategy.conservative(1);
+    private static final ShardAndStrategy CONS_TWO = ShardAndStrategy.conservative(2);
+    private static final ShardAndStrategy THOR_ONE = ShardAndStrategy.thorough(1);
+
+    private static final long WINDOW = 1_000L;
+
+    private long clockTime = 0L;
+    private final ShardBacklog backlog = new ShardBacklog(() -> clockTime);
+
+    @Test
+    public void unknownShardsHaveNoBacklog() {
+        assertThat(backlog.getPendingEntries(CONS_ZERO)).isEqualTo(0L);
+        assertThat(backlog.getTimestampLag(CONS_ZERO)).isEqualTo(0L);
+        assertThat(backlog.anyShardExceeds(0L, 0L, WINDOW)).isFalse();
+    }
+
+    @Test
+    public void pendingEntriesAreReducedByReads() {
+        backlog.recordEnqueued(CONS_ZERO, 100L, 10L);
+        backlog.recordEnqueued(CONS_ZERO, 200L, 5L);
+        backlog.recordRead(CONS_ZERO, 7L);
+
+        assertThat(backlog.getPendingEntries(CONS_ZERO)).isEqualTo(8L);
+        assertThat(backlog.getPendingEntries(THOR_ONE)).isEqualTo(0L);
+    }
+
+    @Test
+    public void pendingEntriesDoNotGoNegative() {
+        backlog.recordEnqueued(CONS_ZERO, 100L, 3L);
+        backlog.recordRead(CONS_ZERO, 10L);
+
+        assertThat(backlog.getPendingEntries(CONS_ZERO)).isEqualTo(0L);
+    }
+
+    @Test
+    public void timestampLagIsOnlyKnownAfterEnqueueingAndSweeping() {
+        backlog.recordEnqueued(CONS_ZERO, 1_000L, 1L);
+        assertThat(backlog.getTimestampLag(CONS_ZERO)).isEqualTo(0L);
+
+        backlog.recordSwept(CONS_ZERO, 400L);
+        assertThat(backlog.getTimestampLag(CONS_ZERO)).isEqualTo(600L);
+    }
+
+    @Test
+    public void sweepingPastLatestEnqueuedTimestampClearsBacklog() {
+        backlog.recordEnqueued(CONS_ZERO, 1_000L, 50L);
+        backlog.recordSwept(CONS_ZERO, 1_500L);
+
+        assertThat(backlog.getPendingEntries(CONS_ZERO)).isEqualTo(0L);
+        assertThat(backlog.getTimestampLag(CONS_ZERO)).isEqualTo(0L);
+    }
+
+    @Test
+    public void aggregatesBacklogAcrossShards() {
+        backlog.recordEnqueued(CONS_ZERO, 1_000L, 10L);
+        backlog.recordEnqueued(CONS_ONE, 2_000L, 5L);
+        backlog.recordSwept(CONS_ZERO, 900L);
+        backlog.recordSwept(CONS_ONE, 1_500L);
+
+        assertThat(backlog.getTotalPendingEntries(WINDOW)).isEqualTo(15L);
+        assertThat(backlog.getMaximumTimestampLag(WINDOW)).isEqualTo(500L);
+    }
+
+    @Test
+    public void aggregatesOnlyConsiderShardsSweptWithinTheWindow() {
+        backlog.recordEnqueued(CONS_ZERO, 1_000L, 10L);
+        backlog.recordEnqueued(CONS_ONE, 2_000L, 5L);
+        backlog.recordSwept(CONS_ONE, 1_500L);
+
+        assertThat(backlog.getTotalPendingEntries(WINDOW)).isEqualTo(5L);
+        assertThat(backlog.anyShardExceeds(9L, 1_000L, WINDOW)).isFalse();
+
+        clockTime += WINDOW + 1;
+        assertThat(backlog.getTotalPendingEntries(WINDOW)).isEqualTo(0L);
+        assertThat(backlog.getMaximumTimestampLag(WINDOW)).isEqualTo(0L);
+        assertThat(backlog.anyShardExceeds(0L, 0L, WINDOW)).isFalse();
+    }
+
+    @Test
+    public void lastSweptTimestampDoesNotDecrease() {
+        backlog.recordEnqueued(CONS_ZERO, 1_000L, 1L);
+        backlog.recordSwept(CONS_ZERO, 800L);
+        backlog.recordSwept(CONS_ZERO, 200L);
+
+        assertThat(backlog.getTimestampLag(CONS_ZERO)).isEqualTo(200L);
+    }
+
+    @Test
+    public void exceedsThresholdIfAnyShardHasTooManyPendingEntriesOrTooMuchLag() {
+        backlog.recordSwept(CONS_ZERO, 0L);
+        backlog.recordEnqueued(CONS_ZERO, 0L, 10L);
+        assertThat(backlog.anyShardExceeds(10L, 100L, WINDOW)).isFalse();
+        assertThat(backlog.anyShardExceeds(9L, 100L, WINDOW)).isTrue();
+
+        backlog.recordSwept(CONS_ONE, 0L);
+        backlog.recordEnqueued(CONS_ONE, 500L, 1L);
+        assertThat(backlog.anyShardExceeds(10L, 500L, WINDOW)).isFalse();
+        assertThat(backlog.anyShardExceeds(10L, 499L, WINDOW)).isTrue();
+    }
+
+    @Test
+    public void shardsAreOrderedByDescendingBacklog() {
+        backlog.recordEnqueued(CONS_ONE, 100L, 5L);
+        backlog.recordEnqueued(CONS_TWO, 100L, 20L);
+        backlog.recordEnqueued(THOR_ONE, 100L, 100L);
+
+        assertThat(backlog.shardsByDescendingBacklog(SweeperStrategy.CONSERVATIVE, 4, 0L))
+                .containsExactly(2, 1, 0, 3);
+    }
+
+    @Test
+    public void shardsWithEqualBacklogAreRotatedByOffset() {
+        backlog.recordEnqueued(CONS_ONE, 100L, 5L);
+
+        assertThat(backlog.shardsByDescendingBacklog(SweeperStrategy.CONSERVATIVE, 4, 2L))
+                .containsExactly(1, 2, 3, 0);
+        assertThat(backlog.shardsByDescendingBacklog(SweeperStrategy.CONSERVATIVE, 4, 7L))
+                .containsExactly(1, 3, 0, 2);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.palantir.atlasdb.cache.DefaultTimestampCache;
+import com.palantir.atlasdb.cache.TimestampCache;
+import com.palantir.atlasdb.transaction.impl.TransactionConstants;
+
+public class ReadBatchingTransactionServiceTest {
+    private final TransactionService delegate = mock(TransactionService.class);
+    private final TimestampCache timestampCache = DefaultTimestampCache.createForTests();
+    private final TransactionService readBatchingTransactionService = ReadBatchingTransactionService.create(
+            delegate, timestampCache);
+
+    @After
+    public void tearDown() {
+        readBatchingTransactionService.close();
+    }
+
+    @Test
+    public void getsValuesFromUnderlying() {
+        when(delegate.get(anyIterable())).thenReturn(ImmutableMap.of(3L, 5L));
+
+        assertThat(readBatchingTransactionService.get(3L)).isEqualTo(5L);
+    }
+
+    @Test
+    public void returnsNullForUncommittedTransactions() {
+        when(delegate.get(anyIterable())).thenReturn(ImmutableMap.of());
+
+        assertThat(readBatchingTransactionService.get(3L)).isNull();
+    }
+
+    @Test
+    public void multiGetReturnsOnlyCommittedAndAbortedTransactions() {
+        when(delegate.get(anyIterable()))
+                .thenReturn(ImmutableMap.of(1L, 2L, 3L, TransactionConstants.FAILED_COMMIT_TS));
+
+        assertThat(readBatchingTransactionService.get(ImmutableList.of(1L, 3L, 5L)))
+                .isEqualTo(ImmutableMap.of(1L, 2L, 3L, TransactionConstants.FAILED_COMMIT_TS));
+    }
+
+    @Test
+    public void cachedValuesAreNotLookedUp() {
+        timestampCache.putAlreadyCommittedTransaction(1L, 2L);
+
+        assertThat(readBatchingTransactionService.get(1L)).isEqualTo(2L);
+        assertThat(readBatchingTransactionService.get(ImmutableList.of(1L))).isEqualTo(ImmutableMap.of(1L, 2L));
+        verify(delegate, never()).get(anyIterable());
+    }
+
+    @Test
+    public void resolvedValuesArePutInSharedCache() {
+        Map<Long, Optional<Long>> result = ReadBatchingTransactionService.processBatch(
+                delegate, timestampCache, ImmutableSet.of(1L, 3L));
+
+        assertThat(result).isEqualTo(ImmutableMap.of(1L, Optional.empty(), 3L, Optional.empty()));
+
+        when(delegate.get(anyIterable())).thenReturn(ImmutableMap.of(1L, 2L));
+        result = ReadBatchingTransactionService.processBatch(delegate, timestampCache, ImmutableSet.of(1L, 3L));
+
+        assertThat(result).isEqualTo(ImmutableMap.of(1L, Optional.of(2L), 3L, Optional.empty()));
+        assertThat(timestampCache.getCommitTimestampIfPresent(1L)).isEqualTo(2L);
+        assertThat(timestampCache.getCommitTimestampIfPresent(3L)).isNull();
+    }
+
+    @Test
+    public void writesAreDelegated() {
+        readBatchingTransactionService.putUnlessExists(1L, 2L);
+
+        verify(delegate).putUnlessExists(1L, 2L);
+    }
+}
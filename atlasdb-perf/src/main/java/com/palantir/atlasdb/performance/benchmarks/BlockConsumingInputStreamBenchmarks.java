@@ -0,0 +1,115 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.performance.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.palantir.atlasdb.stream.BlockConsumingInputStream;
+import com.palantir.atlasdb.stream.BlockGetter;
+import com.palantir.atlasdb.stream.GenericStreamStore;
+import com.palantir.common.concurrent.PTExecutors;
+
+/**
+ * Measures the time taken to read a whole 256MB stream through a {@link BlockConsumingInputStream}, with and without
+ * reading ahead. Blocks are served from memory after a fixed delay per block, standing in for the latency of reading
+ * them from the key value service, so unlike {@link StreamStoreBenchmarks} this does not need a database.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BlockConsumingInputStreamBenchmarks {
+    private static final int BLOCK_SIZE = GenericStreamStore.BLOCK_SIZE_IN_BYTES;
+    private static final long NUM_BLOCKS = 256;
+    private static final int BLOCKS_IN_MEMORY = 4;
+    private static final long BLOCK_READ_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    @Param({"0", "1", "4", "8"})
+    public int batchesToReadAhead;
+
+    private final byte[] block = new byte[BLOCK_SIZE];
+    private final byte[] readBuffer = new byte[64 * 1024];
+    private ExecutorService readAheadExecutor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        readAheadExecutor = PTExecutors.newFixedThreadPool(16, "block-consuming-input-stream-benchmarks");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        readAheadExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public long readWholeStream() throws IOException {
+        long bytesRead = 0;
+        try (InputStream stream = createStream()) {
+            for (int read = stream.read(readBuffer); read != -1; read = stream.read(readBuffer)) {
+                bytesRead += read;
+            }
+        }
+        return bytesRead;
+    }
+
+    private InputStream createStream() throws IOException {
+        BlockGetter blockGetter = new BlockGetter() {
+            @Override
+            public void get(long firstBlock, long numBlocks, OutputStream destination) {
+                for (long i = 0; i < numBlocks; i++) {
+                    LockSupport.parkNanos(BLOCK_READ_LATENCY_NANOS);
+                    try {
+                        destination.write(block);
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            }
+
+            @Override
+            public int expectedBlockLength() {
+                return BLOCK_SIZE;
+            }
+        };
+
+        if (batchesToReadAhead == 0) {
+            return BlockConsumingInputStream.create(blockGetter, NUM_BLOCKS, BLOCKS_IN_MEMORY);
+        }
+        return BlockConsumingInputStream.createWithReadAhead(
+                blockGetter, NUM_BLOCKS, BLOCKS_IN_MEMORY, batchesToReadAhead, readAheadExecutor, () -> true);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.performance.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.ptobject.EncodingUtils;
+import com.palantir.atlasdb.schema.generated.SweepableCellsTable.SweepableCellsColumn;
+import com.palantir.atlasdb.schema.generated.SweepableCellsTable.SweepableCellsRow;
+
+/**
+ * Compares decoding the row and column names of a table generated with zero copy decoding (sweepable cells) using
+ * the generated hydrators, the generated in place readers, and the boxed decoding generated without the option.
+ */
+@State(Scope.Thread)
+public class GeneratedTableDecodingBenchmarks {
+    private static final int NUM_NAMES = 1024;
+
+    private final byte[][] rowNames = new byte[NUM_NAMES][];
+    private final byte[][] columnNames = new byte[NUM_NAMES][];
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        for (int i = 0; i < NUM_NAMES; i++) {
+            byte[] metadata = new byte[4];
+            random.nextBytes(metadata);
+            rowNames[i] = SweepableCellsRow.of(random.nextInt(1_000_000), metadata).persistToBytes();
+            columnNames[i] = SweepableCellsColumn.of(random.nextInt(50_000), random.nextInt(100_000) - 50_000)
+                    .persistToBytes();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(NUM_NAMES)
+    @Warmup(time = 3, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 5, timeUnit = TimeUnit.SECONDS)
+    public void hydrateRows(Blackhole blackhole) {
+        for (byte[] rowName : rowNames) {
+            blackhole.consume(SweepableCellsRow.BYTES_HYDRATOR.hydrateFromBytes(rowName));
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(NUM_NAMES)
+    @Warmup(time = 3, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 5, timeUnit = TimeUnit.SECONDS)
+    public void hydrateRowsBoxed(Blackhole blackhole) {
+        for (byte[] rowName : rowNames) {
+            hydrateRowBoxed(rowName, blackhole);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(NUM_NAMES)
+    @Warmup(time = 3, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 5, timeUnit = TimeUnit.SECONDS)
+    public void readRowComponentsInPlace(Blackhole blackhole) {
+        for (byte[] rowName : rowNames) {
+            blackhole.consume(SweepableCellsRow.readTimestampPartition(rowName));
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(NUM_NAMES)
+    @Warmup(time = 3, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 5, timeUnit = TimeUnit.SECONDS)
+    public void hydrateColumns(Blackhole blackhole) {
+        for (byte[] columnName : columnNames) {
+            blackhole.consume(SweepableCellsColumn.BYTES_HYDRATOR.hydrateFromBytes(columnName));
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(NUM_NAMES)
+    @Warmup(time = 3, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 5, timeUnit = TimeUnit.SECONDS)
+    public void hydrateColumnsBoxed(Blackhole blackhole) {
+        for (byte[] columnName : columnNames) {
+            hydrateColumnBoxed(columnName, blackhole);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(NUM_NAMES)
+    @Warmup(time = 3, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 5, timeUnit = TimeUnit.SECONDS)
+    public void readColumnComponentsInPlace(Blackhole blackhole) {
+        for (byte[] columnName : columnNames) {
+            blackhole.consume(SweepableCellsColumn.readTimestampModulus(columnName));
+            blackhole.consume(SweepableCellsColumn.readWriteIndex(columnName));
+        }
+    }
+
+    /**
+     * Decodes the row components as the hydrator generated without zero copy decoding does, into boxed locals.
+     */
+    private static void hydrateRowBoxed(byte[] input, Blackhole blackhole) {
+        int index = 0;
+        Long hashOfRowComponents = Long.MIN_VALUE ^ PtBytes.toLong(input, index);
+        index += 8;
+        Long timestampPartition = EncodingUtils.decodeUnsignedVarLong(input, index);
+        index += EncodingUtils.sizeOfUnsignedVarLong(timestampPartition);
+        byte[] metadata = EncodingUtils.getBytesFromOffsetToEnd(input, index);
+        blackhole.consume(hashOfRowComponents);
+        blackhole.consume(timestampPartition);
+        blackhole.consume(metadata);
+    }
+
+    /**
+     * Decodes the column components as the hydrator generated without zero copy decoding does, into boxed locals.
+     */
+    private static void hydrateColumnBoxed(byte[] input, Blackhole blackhole) {
+        int index = 0;
+        Long timestampModulus = EncodingUtils.decodeUnsignedVarLong(input, index);
+        index += EncodingUtils.sizeOfUnsignedVarLong(timestampModulus);
+        Long writeIndex = EncodingUtils.decodeSignedVarLong(input, index);
+        blackhole.consume(timestampModulus);
+        blackhole.consume(writeIndex);
+    }
+}
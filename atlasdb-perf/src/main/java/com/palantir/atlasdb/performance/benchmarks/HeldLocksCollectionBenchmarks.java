@@ -0,0 +1,115 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.performance.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.palantir.atlasdb.timelock.lock.AsyncResult;
+import com.palantir.atlasdb.timelock.lock.ExclusiveLock;
+import com.palantir.atlasdb.timelock.lock.HeldLocks;
+import com.palantir.atlasdb.timelock.lock.HeldLocksCollection;
+import com.palantir.atlasdb.timelock.lock.LeaderClock;
+import com.palantir.atlasdb.timelock.lock.LockLog;
+import com.palantir.atlasdb.timelock.lock.watch.LockWatchingService;
+import com.palantir.atlasdb.timelock.lock.watch.LockWatchingServiceImpl;
+import com.palantir.lock.StringLockDescriptor;
+import com.palantir.lock.v2.LockToken;
+
+/**
+ * Measures the cost of reaping and refreshing held locks on a lock service holding a large number of lock tokens.
+ * All tokens are refreshed before each iteration, so that no lease expires while measuring and each reaping tick
+ * only pays for the (empty) set of tokens that are due.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HeldLocksCollectionBenchmarks {
+    private static final int NUM_HELD_TOKENS = 1 << 20;
+    private static final int REFRESH_BATCH_SIZE = 1_000;
+
+    private HeldLocksCollection heldLocks;
+    private List<Set<LockToken>> refreshBatches;
+    private int nextRefreshBatch = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LeaderClock leaderClock = LeaderClock.create();
+        LockLog lockLog = new LockLog(new MetricRegistry(), () -> Long.MAX_VALUE);
+        heldLocks = HeldLocksCollection.create(leaderClock);
+        LockWatchingService lockWatchingService = new LockWatchingServiceImpl(heldLocks);
+
+        List<LockToken> tokens = new ArrayList<>(NUM_HELD_TOKENS);
+        for (int i = 0; i < NUM_HELD_TOKENS; i++) {
+            UUID requestId = UUID.randomUUID();
+            ExclusiveLock lock = new ExclusiveLock(StringLockDescriptor.of("lock-" + i));
+            AsyncResult<HeldLocks> result = new AsyncResult<>();
+            result.complete(HeldLocks.create(
+                    lockLog, ImmutableList.of(lock), requestId, leaderClock, lockWatchingService));
+            tokens.add(heldLocks.getExistingOrAcquire(requestId, () -> result).get().value());
+        }
+
+        refreshBatches = new ArrayList<>();
+        for (List<LockToken> batch : Iterables.partition(tokens, REFRESH_BATCH_SIZE)) {
+            refreshBatches.add(ImmutableSet.copyOf(batch));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void refreshAllTokens() {
+        refreshBatches.forEach(heldLocks::refresh);
+    }
+
+    @Benchmark
+    @Threads(1)
+    @BenchmarkMode(Mode.AverageTime)
+    public int reapTick() {
+        return heldLocks.removeExpired();
+    }
+
+    @Benchmark
+    @Threads(1)
+    @BenchmarkMode(Mode.Throughput)
+    @OperationsPerInvocation(REFRESH_BATCH_SIZE)
+    public Set<LockToken> refreshBatch() {
+        Set<LockToken> batch = refreshBatches.get(nextRefreshBatch);
+        nextRefreshBatch = (nextRefreshBatch + 1) % refreshBatches.size();
+        return heldLocks.refresh(batch).value();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.performance.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableSortedMap;
+import com.palantir.lock.HeldLocksToken;
+import com.palantir.lock.LockClient;
+import com.palantir.lock.LockMode;
+import com.palantir.lock.LockRequest;
+import com.palantir.lock.LockServerOptions;
+import com.palantir.lock.StringLockDescriptor;
+import com.palantir.lock.impl.LockServiceImpl;
+
+/**
+ * Measures the throughput of the legacy lock service when many threads, each acting as a distinct lock client, lock
+ * and unlock uncontended locks at the same time. The locks themselves never conflict, so any difference between the
+ * two variants comes from contention on the state the lock service keeps for each client.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LockServiceImplContentionBenchmarks {
+    @Param({"false", "true"})
+    public boolean useStripedClientState;
+
+    private LockServiceImpl lockService;
+    private final AtomicInteger clientIds = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        lockService = LockServiceImpl.create(LockServerOptions.builder()
+                .isStandaloneServer(false)
+                .useStripedClientState(useStripedClientState)
+                .build());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        lockService.close();
+    }
+
+    @State(Scope.Thread)
+    public static class ClientState {
+        private LockClient client;
+        private LockRequest request;
+
+        @Setup(Level.Trial)
+        public void setUp(LockServiceImplContentionBenchmarks benchmark) {
+            int clientId = benchmark.clientIds.getAndIncrement();
+            client = LockClient.of("client-" + clientId);
+            request = LockRequest.builder(
+                    ImmutableSortedMap.of(StringLockDescriptor.of("lock-" + clientId), LockMode.WRITE))
+                    .withLockedInVersionId(clientId)
+                    .doNotBlock()
+                    .build();
+        }
+    }
+
+    @Benchmark
+    @Threads(32)
+    @BenchmarkMode(Mode.Throughput)
+    public Long lockAndUnlock(ClientState state) throws InterruptedException {
+        HeldLocksToken token = lockService.lockWithFullLockResponse(state.client, state.request).getToken();
+        Long minLockedInVersionId = lockService.getMinLockedInVersionId(state.client);
+        lockService.getTokens(state.client);
+        lockService.unlock(token);
+        return minLockedInVersionId;
+    }
+}
@@ -28,19 +28,27 @@ import java.nio.charset.StandardCharsets;
 import java.util.concurrent.TimeUnit;
 
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
 
+import com.google.common.io.ByteStreams;
+import com.palantir.atlasdb.performance.benchmarks.table.LargeStreamingTable;
 import com.palantir.atlasdb.performance.benchmarks.table.StreamingTable;
 import com.palantir.atlasdb.performance.schema.generated.StreamTestTableFactory;
 import com.palantir.atlasdb.performance.schema.generated.ValueStreamStore;
+import com.palantir.atlasdb.stream.ImmutableStreamStorePersistenceConfiguration;
+import com.palantir.atlasdb.stream.StreamStorePersistenceConfiguration;
 import com.palantir.atlasdb.transaction.api.TransactionManager;
 
 @State(Scope.Benchmark)
 public class StreamStoreBenchmarks {
+    private static final int BLOCK_BATCHES_TO_READ_AHEAD = 4;
 
     @Benchmark
     @Threads(1)
@@ -93,4 +101,46 @@ public class StreamStoreBenchmarks {
             assertArrayEquals(table.getVeryLargeStreamFirstBytes(), firstBytes);
         }
     }
+
+    /**
+     * Reads a whole stream of 100MB to 10GB, fetching one batch of blocks at a time. The throughput is the stream
+     * size divided by the reported time.
+     */
+    @Benchmark
+    @Threads(1)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public long readEntireLargeStream(LargeStreamingTable table) throws IOException {
+        return readEntireStream(table, StreamStorePersistenceConfiguration.DEFAULT_CONFIG);
+    }
+
+    /**
+     * As {@link #readEntireLargeStream(LargeStreamingTable)}, but with several batches of blocks read ahead in
+     * parallel.
+     */
+    @Benchmark
+    @Threads(1)
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public long readEntireLargeStreamWithReadAhead(LargeStreamingTable table) throws IOException {
+        return readEntireStream(table, ImmutableStreamStorePersistenceConfiguration.builder()
+                .numBlockBatchesToReadAhead(BLOCK_BATCHES_TO_READ_AHEAD)
+                .build());
+    }
+
+    private static long readEntireStream(LargeStreamingTable table, StreamStorePersistenceConfiguration config)
+            throws IOException {
+        TransactionManager transactionManager = table.getTransactionManager();
+        ValueStreamStore store = ValueStreamStore.of(transactionManager, StreamTestTableFactory.of(), () -> config);
+        try (InputStream inputStream = transactionManager.runTaskThrowOnConflict(
+                txn -> store.loadStream(txn, table.getStreamId()))) {
+            long read = ByteStreams.exhaust(inputStream);
+            assertThat(read, is(table.getStreamSizeInBytes()));
+            return read;
+        }
+    }
 }
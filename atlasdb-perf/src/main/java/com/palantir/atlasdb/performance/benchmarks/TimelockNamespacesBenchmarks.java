@@ -0,0 +1,168 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.performance.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableList;
+import com.palantir.atlasdb.timelock.TimeLockResource;
+import com.palantir.atlasdb.util.MetricsManagers;
+import com.palantir.conjure.java.api.config.service.PartialServiceConfiguration;
+import com.palantir.conjure.java.api.config.service.UserAgent;
+import com.palantir.leader.NotCurrentLeaderException;
+import com.palantir.timelock.config.ImmutableDefaultClusterConfiguration;
+import com.palantir.timelock.config.ImmutablePaxosInstallConfiguration;
+import com.palantir.timelock.config.ImmutableSqlitePaxosPersistenceConfiguration;
+import com.palantir.timelock.config.ImmutableTimeLockInstallConfiguration;
+import com.palantir.timelock.config.ImmutableTimeLockRuntimeConfiguration;
+import com.palantir.timelock.config.TimeLockRuntimeConfiguration;
+import com.palantir.timelock.paxos.TimeLockAgent;
+
+/**
+ * Measures the latency of serving the first request of a namespace whose services have been evicted for being idle,
+ * compared to serving a request of a namespace whose services are live. Each namespace is served by an in-process,
+ * single node TimeLock agent with Paxos timestamp bound persistence, so reloading a namespace includes creating its
+ * leadership proxies, waiting for them to observe leadership and reading its timestamp bound from disk.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TimelockNamespacesBenchmarks {
+    private static final String EVICTED_NAMESPACE = "evicted";
+    private static final String LIVE_NAMESPACE = "live";
+    private static final UserAgent USER_AGENT = UserAgent.of(UserAgent.Agent.of("timelock-benchmarks", "0.0.0"));
+
+    private Path dataDirectory;
+    private TimeLockAgent evictingAgent;
+    private TimeLockResource evictingResource;
+    private TimeLockAgent agent;
+    private TimeLockResource resource;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDirectory = Files.createTempDirectory("timelock-namespaces-benchmarks");
+
+        AtomicReference<TimeLockResource> evictingResourceReference = new AtomicReference<>();
+        evictingAgent = createAgent("evicting", 8421, Optional.of(0L), evictingResourceReference);
+        evictingResource = evictingResourceReference.get();
+
+        AtomicReference<TimeLockResource> resourceReference = new AtomicReference<>();
+        agent = createAgent("live", 8422, Optional.empty(), resourceReference);
+        resource = resourceReference.get();
+
+        getFreshTimestamp(evictingResource, EVICTED_NAMESPACE);
+        getFreshTimestamp(resource, LIVE_NAMESPACE);
+    }
+
+    @Setup(Level.Invocation)
+    public void evictNamespace() {
+        evictingAgent.evictIdleNamespaces();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        evictingAgent.shutdown();
+        agent.shutdown();
+        try (Stream<Path> paths = Files.walk(dataDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    @BenchmarkMode(Mode.SampleTime)
+    public long getFreshTimestampFromEvictedNamespace() {
+        return getFreshTimestamp(evictingResource, EVICTED_NAMESPACE);
+    }
+
+    @Benchmark
+    @Threads(1)
+    @BenchmarkMode(Mode.SampleTime)
+    public long getFreshTimestampFromLiveNamespace() {
+        return getFreshTimestamp(resource, LIVE_NAMESPACE);
+    }
+
+    private static long getFreshTimestamp(TimeLockResource timeLockResource, String namespace) {
+        while (true) {
+            try {
+                return timeLockResource.getTimeService(namespace).getFreshTimestamp();
+            } catch (NotCurrentLeaderException e) {
+                // the leadership proxies of newly created services have not yet observed that we are the leader
+            }
+        }
+    }
+
+    private TimeLockAgent createAgent(
+            String name,
+            int port,
+            Optional<Long> idleNamespaceExpiryMillis,
+            AtomicReference<TimeLockResource> resourceReference) {
+        String localServer = "localhost:" + port;
+        TimeLockRuntimeConfiguration runtime = ImmutableTimeLockRuntimeConfiguration.builder()
+                .idleNamespaceExpiryMillis(idleNamespaceExpiryMillis)
+                .build();
+        return TimeLockAgent.create(
+                MetricsManagers.createForTests(),
+                ImmutableTimeLockInstallConfiguration.builder()
+                        .paxos(ImmutablePaxosInstallConfiguration.builder()
+                                .dataDirectory(dataDirectory.resolve(name).resolve("paxos").toFile())
+                                .sqlitePersistence(ImmutableSqlitePaxosPersistenceConfiguration.builder()
+                                        .dataDirectory(dataDirectory.resolve(name).resolve("sqlite").toFile())
+                                        .build())
+                                .isNewService(true)
+                                .build())
+                        .cluster(ImmutableDefaultClusterConfiguration.builder()
+                                .localServer(localServer)
+                                .cluster(PartialServiceConfiguration.of(
+                                        ImmutableList.of(localServer), Optional.empty()))
+                                .build())
+                        .build(),
+                () -> runtime,
+                USER_AGENT,
+                64,
+                TimeUnit.SECONDS.toMillis(1),
+                registered -> {
+                    if (registered instanceof TimeLockResource) {
+                        resourceReference.set((TimeLockResource) registered);
+                    }
+                },
+                Optional.empty());
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.performance.benchmarks.table;
+
+import java.io.InputStream;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.palantir.atlasdb.performance.backend.AtlasDbServicesConnector;
+import com.palantir.atlasdb.performance.schema.StreamTestSchema;
+import com.palantir.atlasdb.performance.schema.generated.StreamTestTableFactory;
+import com.palantir.atlasdb.performance.schema.generated.ValueStreamStore;
+import com.palantir.atlasdb.services.AtlasDbServices;
+import com.palantir.atlasdb.table.description.Schemas;
+import com.palantir.atlasdb.transaction.api.TransactionManager;
+
+/**
+ * Stores a single stream of streamSizeMegabytes megabytes. The contents are generated while storing, so that streams
+ * larger than the heap can be benchmarked.
+ */
+@State(Scope.Benchmark)
+public class LargeStreamingTable {
+    private static final int MEGABYTE = 1024 * 1024;
+
+    @Param({"100", "1000", "10000"})
+    private long streamSizeMegabytes;
+
+    private AtlasDbServicesConnector connector;
+    private AtlasDbServices services;
+
+    private long streamId;
+
+    public long getStreamId() {
+        return streamId;
+    }
+
+    public long getStreamSizeInBytes() {
+        return streamSizeMegabytes * MEGABYTE;
+    }
+
+    public TransactionManager getTransactionManager() {
+        return services.getTransactionManager();
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanup() throws Exception {
+        Schemas.deleteTablesAndIndexes(StreamTestSchema.getSchema(), services.getKeyValueService());
+        this.connector.close();
+    }
+
+    @Setup(Level.Trial)
+    public void setup(AtlasDbServicesConnector conn) {
+        this.connector = conn;
+        this.services = conn.connect();
+        Schemas.createTablesAndIndexes(StreamTestSchema.getSchema(), services.getKeyValueService());
+        ValueStreamStore store = ValueStreamStore.of(getTransactionManager(), StreamTestTableFactory.of());
+        streamId = store.storeStream(new GeneratedInputStream(getStreamSizeInBytes())).getLhSide();
+    }
+
+    /**
+     * Repeats one megabyte of random data until the requested number of bytes have been read.
+     */
+    private static final class GeneratedInputStream extends InputStream {
+        private final byte[] chunk = new byte[MEGABYTE];
+        private long remaining;
+
+        private GeneratedInputStream(long length) {
+            new Random(Tables.RANDOM_SEED).nextBytes(chunk);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() {
+            if (remaining <= 0) {
+                return -1;
+            }
+            return chunk[(int) (remaining-- % MEGABYTE)] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] bytes, int off, int len) {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int offsetInChunk = (int) (remaining % MEGABYTE);
+            int toCopy = (int) Math.min(Math.min(len, remaining), MEGABYTE - offsetInChunk);
+            System.arraycopy(chunk, offsetInChunk, bytes, off, toCopy);
+            remaining -= toCopy;
+            return toCopy;
+        }
+    }
+}
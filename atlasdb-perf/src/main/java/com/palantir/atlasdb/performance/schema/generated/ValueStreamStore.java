@@ -124,6 +124,18 @@ public final class ValueStreamStore extends AbstractPersistentStreamStore {
         }
     }
 
+    @Override
+    protected void storeBlockWithoutTouchingMetadata(Transaction t, long id, long blockNumber, final byte[] block) {
+        Preconditions.checkArgument(block.length <= BLOCK_SIZE_IN_BYTES, "Block to store in DB must be less than BLOCK_SIZE_IN_BYTES");
+        final ValueStreamValueTable.ValueStreamValueRow row = ValueStreamValueTable.ValueStreamValueRow.of(id, blockNumber);
+        try {
+            tables.getValueStreamValueTable(t).putValue(row, block);
+        } catch (RuntimeException e) {
+            log.error("Error storing block {} for stream id {}", row.getBlockId(), row.getId(), e);
+            throw e;
+        }
+    }
+
     private void touchMetadataWhileStoringForConflicts(Transaction t, Long id, long blockNumber) {
         ValueStreamMetadataTable metaTable = tables.getValueStreamMetadataTable(t);
         ValueStreamMetadataTable.ValueStreamMetadataRow row = ValueStreamMetadataTable.ValueStreamMetadataRow.of(id);
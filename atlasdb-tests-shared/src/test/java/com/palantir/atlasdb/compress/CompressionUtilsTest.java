@@ -19,13 +19,21 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Optional;
 
 import org.junit.Test;
 
 import com.palantir.atlasdb.table.description.ColumnValueDescription.Compression;
 
 public class CompressionUtilsTest {
+    private static final String DICTIONARY_KEY = "test.table/v";
+    private static final byte[] VALUE = "{\"name\":\"value\",\"description\":\"some description\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final CompressionDictionaries dictionaries = CompressionDictionaries.create(unused -> Optional.empty());
+
     @Test
     public void testCompressAndDecompress() {
         byte[] original = new byte[] { 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 };
@@ -73,4 +81,81 @@ public class CompressionUtilsTest {
         }
         assertTrue(threwIllegalArgumentException);
     }
+
+    @Test
+    public void testCompressAndDecompressWithLz4() {
+        byte[] original = new byte[1024];
+        byte[] compressed = CompressionUtils.compress(original, Compression.LZ4);
+        assertTrue(compressed.length < original.length);
+        assertArrayEquals(original, CompressionUtils.decompress(compressed, Compression.LZ4));
+        assertArrayEquals(new byte[0], CompressionUtils.decompress(
+                CompressionUtils.compress(new byte[0], Compression.LZ4), Compression.LZ4));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecompressExceptionWithLz4() {
+        CompressionUtils.decompress(new byte[] { 0, 0, 0, 10, 1, 2, 3 }, Compression.LZ4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLz4RejectsLengthsThatCannotBeDecompressedFromTheValue() {
+        CompressionUtils.decompress(new byte[] { 0x7f, -1, -1, -1, 1, 2, 3 }, Compression.LZ4);
+    }
+
+    @Test
+    public void testCompressAndDecompressWithDeflate() {
+        byte[] compressed = CompressionUtils.compress(VALUE, Compression.DEFLATE, DICTIONARY_KEY, dictionaries);
+        assertArrayEquals(VALUE, CompressionUtils.decompress(compressed, Compression.DEFLATE, dictionaries));
+    }
+
+    @Test
+    public void testDictionaryImprovesDeflateCompression() {
+        byte[] withoutDictionary = CompressionUtils.compress(VALUE, Compression.DEFLATE, DICTIONARY_KEY, dictionaries);
+        dictionaries.register(CompressionDictionary.create(DICTIONARY_KEY, VALUE));
+        byte[] withDictionary = CompressionUtils.compress(VALUE, Compression.DEFLATE, DICTIONARY_KEY, dictionaries);
+
+        assertTrue(withDictionary.length < withoutDictionary.length);
+        assertArrayEquals(VALUE, CompressionUtils.decompress(withDictionary, Compression.DEFLATE, dictionaries));
+        assertArrayEquals(VALUE, CompressionUtils.decompress(withoutDictionary, Compression.DEFLATE, dictionaries));
+    }
+
+    @Test
+    public void testDeflateDecompressesWithDictionaryRecordedInValue() {
+        dictionaries.register(CompressionDictionary.create(DICTIONARY_KEY, VALUE));
+        byte[] compressed = CompressionUtils.compress(VALUE, Compression.DEFLATE, DICTIONARY_KEY, dictionaries);
+
+        dictionaries.register(CompressionDictionary.create(DICTIONARY_KEY, new byte[] { 1, 2, 3 }));
+        assertArrayEquals(VALUE, CompressionUtils.decompress(compressed, Compression.DEFLATE, dictionaries));
+    }
+
+    @Test
+    public void testDeflateLoadsUnknownDictionaries() {
+        CompressionDictionary dictionary = CompressionDictionary.create(DICTIONARY_KEY, VALUE);
+        byte[] compressed = CompressionUtils.compressWithDeflate(VALUE, Optional.of(dictionary));
+
+        CompressionDictionaries loading = CompressionDictionaries.create(
+                id -> id == dictionary.getId() ? Optional.of(dictionary) : Optional.empty());
+        assertArrayEquals(VALUE, CompressionUtils.decompress(compressed, Compression.DEFLATE, loading));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDeflateThrowsIfDictionaryIsUnknown() {
+        byte[] compressed = CompressionUtils.compressWithDeflate(
+                VALUE, Optional.of(CompressionDictionary.create(DICTIONARY_KEY, VALUE)));
+        CompressionUtils.decompress(compressed, Compression.DEFLATE, dictionaries);
+    }
+
+    @Test
+    public void testDecompressWithoutDictionariesReadsValuesCompressedWithoutDictionary() {
+        byte[] compressed = CompressionUtils.compress(VALUE, Compression.DEFLATE);
+        assertArrayEquals(compressed, CompressionUtils.compressWithDeflate(VALUE, Optional.empty()));
+        assertArrayEquals(VALUE, CompressionUtils.decompress(compressed, Compression.DEFLATE));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDecompressWithoutDictionariesThrowsForValuesCompressedWithDictionary() {
+        byte[] compressed = CompressionUtils.compressWithDeflate(
+                VALUE, Optional.of(CompressionDictionary.create(DICTIONARY_KEY, VALUE)));
+        CompressionUtils.decompress(compressed, Compression.DEFLATE);
+    }
 }
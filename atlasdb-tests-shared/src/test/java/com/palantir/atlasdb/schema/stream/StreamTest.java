@@ -85,7 +85,9 @@ import com.palantir.atlasdb.schema.stream.generated.TestHashComponentsStreamMeta
 import com.palantir.atlasdb.schema.stream.generated.TestHashComponentsStreamMetadataTable.TestHashComponentsStreamMetadataRow;
 import com.palantir.atlasdb.schema.stream.generated.TestHashComponentsStreamStore;
 import com.palantir.atlasdb.schema.stream.generated.TestHashComponentsStreamValueTable.TestHashComponentsStreamValueRow;
+import com.palantir.atlasdb.stream.ImmutableStreamStorePersistenceConfiguration;
 import com.palantir.atlasdb.stream.PersistentStreamStore;
+import com.palantir.atlasdb.stream.StreamStorePersistenceConfiguration;
 import com.palantir.atlasdb.table.description.Schemas;
 import com.palantir.atlasdb.transaction.api.Transaction;
 import com.palantir.atlasdb.transaction.api.TransactionConflictException;
@@ -301,6 +303,42 @@ public class StreamTest extends AtlasDbTestCase {
         storeAndCheckByteStreams(maxMemStore, getIncompressibleBytes(20_000_000));
     }
 
+    @Test
+    public void testStoreAndLoadWithConcurrentBlockWritesAndReadAhead_defaultStream() throws IOException {
+        StreamStorePersistenceConfiguration config = ImmutableStreamStorePersistenceConfiguration.builder()
+                .numConcurrentBlockWrites(3)
+                .numBlockBatchesToReadAhead(2)
+                .build();
+        PersistentStreamStore store = useStoreWithHashedComponents
+                ? TestHashComponentsStreamStore.of(txManager, StreamTestTableFactory.of(), () -> config)
+                : StreamTestStreamStore.of(txManager, StreamTestTableFactory.of(), () -> config);
+        storeNonTransactionallyAndCheckByteStream(store, getIncompressibleBytes(10_500_000));
+    }
+
+    @Test
+    public void testStoreAndLoadWithConcurrentBlockWritesAndReadAhead_compressedStream() throws IOException {
+        StreamStorePersistenceConfiguration config = ImmutableStreamStorePersistenceConfiguration.builder()
+                .numConcurrentBlockWrites(3)
+                .numBlockBatchesToReadAhead(2)
+                .build();
+        PersistentStreamStore store = StreamTestWithHashStreamStore.of(
+                txManager, StreamTestTableFactory.of(), () -> config);
+        storeNonTransactionallyAndCheckByteStream(store, getCompressibleBytes(10_500_000));
+    }
+
+    private void storeNonTransactionallyAndCheckByteStream(PersistentStreamStore store, byte[] bytesToStore)
+            throws IOException {
+        Pair<Long, Sha256Hash> idAndHash = store.storeStream(new ByteArrayInputStream(bytesToStore));
+        assertEquals(Sha256Hash.computeHash(bytesToStore), idAndHash.getRhSide());
+
+        byte[] reference = PtBytes.toBytes("ref");
+        txManager.runTaskWithRetry(t -> {
+            store.markStreamAsUsed(t, idAndHash.getLhSide(), reference);
+            return null;
+        });
+        verifyLoadingStreams(store, idAndHash.getLhSide(), bytesToStore);
+    }
+
     private long storeAndCheckByteStreams(PersistentStreamStore store, byte[] bytesToStore) throws IOException {
         byte[] reference = PtBytes.toBytes("ref");
 
@@ -51,6 +51,7 @@ import java.util.Random;
 import java.util.SortedMap;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletionService;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
@@ -58,6 +59,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -93,6 +95,7 @@ import com.google.common.collect.Ordering;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.atlasdb.AtlasDbTestCase;
 import com.palantir.atlasdb.cache.DefaultTimestampCache;
@@ -424,7 +427,8 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
                         MoreExecutors.newDirectExecutorService(),
                         true,
                         () -> transactionConfig,
-                        ConflictTracer.NO_OP),
+                        ConflictTracer.NO_OP,
+                        SharedCellCache.disabled()),
                 pathTypeTracker);
         try {
             snapshot.get(TABLE, ImmutableSet.of(cell));
@@ -496,7 +500,8 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
                         MoreExecutors.newDirectExecutorService(),
                         true,
                         () -> transactionConfig,
-                        ConflictTracer.NO_OP),
+                        ConflictTracer.NO_OP,
+                        SharedCellCache.disabled()),
                 pathTypeTracker);
         snapshot.delete(TABLE, ImmutableSet.of(cell));
         snapshot.commit();
@@ -927,6 +932,72 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
         }
     }
 
+    @Test
+    public void writeWriteConflictsAreDetectedForLargeWriteSets() {
+        overrideConflictHandlerForTable(TABLE, ConflictHandler.RETRY_ON_WRITE_WRITE);
+        Map<Cell, byte[]> largeWrite = Maps.newHashMap();
+        for (int i = 0; i < 25_000; i++) {
+            largeWrite.put(Cell.create(PtBytes.toBytes("row" + i), PtBytes.toBytes("column1")), new byte[1]);
+        }
+        Cell conflictingCell = Cell.create(PtBytes.toBytes("row" + 12_345), PtBytes.toBytes("column1"));
+
+        Transaction t1 = txManager.createNewTransaction();
+        Transaction t2 = txManager.createNewTransaction();
+        t1.put(TABLE, largeWrite);
+        t2.put(TABLE, ImmutableMap.of(conflictingCell, new byte[1]));
+        t2.commit();
+        try {
+            t1.commit();
+            fail();
+        } catch (TransactionConflictException e) {
+            // good
+        }
+
+        Transaction t3 = txManager.createNewTransaction();
+        t3.put(TABLE, largeWrite);
+        t3.commit();
+    }
+
+    @Test
+    public void conflictCheckBatchesProgressWhileOneBatchIsBlocked() {
+        Map<Cell, byte[]> largeWrite = Maps.newHashMap();
+        for (int i = 0; i < 30_000; i++) {
+            largeWrite.put(Cell.create(PtBytes.toBytes("parallel" + i), PtBytes.toBytes("column1")), new byte[1]);
+        }
+        Cell blockedCell = Cell.create(PtBytes.toBytes("parallel0"), PtBytes.toBytes("column1"));
+        CountDownLatch otherBatchesChecked = new CountDownLatch(2);
+        AtomicBoolean blockedBatchReleased = new AtomicBoolean(false);
+        KeyValueService blockingKvs = new ForwardingKeyValueService() {
+            @Override
+            public KeyValueService delegate() {
+                return keyValueService;
+            }
+
+            @Override
+            public Map<Cell, Long> getLatestTimestamps(TableReference tableRef, Map<Cell, Long> timestampByCell) {
+                if (timestampByCell.containsKey(blockedCell)) {
+                    blockedBatchReleased.set(
+                            Uninterruptibles.awaitUninterruptibly(otherBatchesChecked, 10, TimeUnit.SECONDS));
+                    return super.getLatestTimestamps(tableRef, timestampByCell);
+                }
+                Map<Cell, Long> latestTimestamps = super.getLatestTimestamps(tableRef, timestampByCell);
+                otherBatchesChecked.countDown();
+                return latestTimestamps;
+            }
+        };
+
+        TimelockService timelockService = new LegacyTimelockService(timestampService, lockService, lockClient);
+        LockImmutableTimestampResponse res = timelockService.lockImmutableTimestamp();
+        long startTs = timelockService.getFreshTimestamp();
+        Transaction transaction = getSnapshotTransactionWith(blockingKvs, timelockService, () -> startTs, res,
+                PreCommitConditions.NO_OP, true, SharedCellCache.disabled());
+        transaction.put(TABLE, largeWrite);
+        transaction.commit();
+        timelockService.unlock(ImmutableSet.of(res.getLock()));
+
+        Assertions.assertThat(blockedBatchReleased.get()).isTrue();
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void disallowPutOnEmptyObject() {
         Transaction t1 = txManager.createNewTransaction();
@@ -1502,6 +1573,34 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
         transactionConfig = config;
     }
 
+    @Test
+    public void readsOfAppendOnlyTablesAreSharedWithLaterTransactions() {
+        TableReference appendOnlyTable = TableReference.createFromFullyQualifiedName("default.append_only");
+        keyValueService.createTable(appendOnlyTable, TableMetadata.builder().appendOnly(true).build().persistToBytes());
+        Cell cell = Cell.create(PtBytes.toBytes("row1"), PtBytes.toBytes("column1"));
+        byte[] value = PtBytes.toBytes("value");
+        writeCells(appendOnlyTable, ImmutableMap.of(cell, value));
+        writeCells(TABLE, ImmutableMap.of(cell, value));
+
+        TimelockService timelockService = new LegacyTimelockService(timestampService, lockService, lockClient);
+        SharedCellCache sharedCellCache = SharedCellCache.create(metricsManager.getRegistry(), keyValueService, 1_000L);
+        long startTs = timelockService.getFreshTimestamp();
+        Transaction reader = getSnapshotTransactionWith(timelockService, () -> startTs,
+                timelockService.lockImmutableTimestamp(), PreCommitConditions.NO_OP, true, sharedCellCache);
+        Assertions.assertThat(reader.get(appendOnlyTable, ImmutableSet.of(cell))).containsEntry(cell, value);
+        Assertions.assertThat(reader.get(TABLE, ImmutableSet.of(cell))).containsEntry(cell, value);
+
+        Assertions.assertThat(sharedCellCache.get(appendOnlyTable, cell, startTs - 1)).isNull();
+        Assertions.assertThat(sharedCellCache.get(TABLE, cell, startTs)).isNull();
+
+        // later readers are served from the cache, without reading the key value service
+        keyValueService.truncateTable(appendOnlyTable);
+        long laterTs = timelockService.getFreshTimestamp();
+        Transaction laterReader = getSnapshotTransactionWith(timelockService, () -> laterTs,
+                timelockService.lockImmutableTimestamp(), PreCommitConditions.NO_OP, true, sharedCellCache);
+        Assertions.assertThat(laterReader.get(appendOnlyTable, ImmutableSet.of(cell))).containsEntry(cell, value);
+    }
+
     private Transaction getSnapshotTransactionWith(
             TimelockService timelockService,
             Supplier<Long> startTs,
@@ -1521,11 +1620,45 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
             LockImmutableTimestampResponse lockImmutableTimestampResponse,
             PreCommitCondition preCommitCondition,
             boolean validateLocksOnReads) {
+        return getSnapshotTransactionWith(
+                timelockService,
+                startTs,
+                lockImmutableTimestampResponse,
+                preCommitCondition,
+                validateLocksOnReads,
+                SharedCellCache.disabled());
+    }
+
+    private Transaction getSnapshotTransactionWith(
+            TimelockService timelockService,
+            Supplier<Long> startTs,
+            LockImmutableTimestampResponse lockImmutableTimestampResponse,
+            PreCommitCondition preCommitCondition,
+            boolean validateLocksOnReads,
+            SharedCellCache sharedCellCache) {
+        return getSnapshotTransactionWith(
+                keyValueService,
+                timelockService,
+                startTs,
+                lockImmutableTimestampResponse,
+                preCommitCondition,
+                validateLocksOnReads,
+                sharedCellCache);
+    }
+
+    private Transaction getSnapshotTransactionWith(
+            KeyValueService kvs,
+            TimelockService timelockService,
+            Supplier<Long> startTs,
+            LockImmutableTimestampResponse lockImmutableTimestampResponse,
+            PreCommitCondition preCommitCondition,
+            boolean validateLocksOnReads,
+            SharedCellCache sharedCellCache) {
         PathTypeTracker pathTypeTracker = PathTypeTrackers.constructSynchronousTracker();
         return transactionWrapper.apply(
                 new SnapshotTransaction(
                         metricsManager,
-                        keyValueServiceWrapper.apply(keyValueService, pathTypeTracker),
+                        keyValueServiceWrapper.apply(kvs, pathTypeTracker),
                         timelockService,
                         NoOpLockWatchManager.INSTANCE,
                         transactionService,
@@ -1548,7 +1681,8 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
                         MoreExecutors.newDirectExecutorService(),
                         validateLocksOnReads,
                         () -> transactionConfig,
-                        ConflictTracer.NO_OP),
+                        ConflictTracer.NO_OP,
+                        sharedCellCache),
                 pathTypeTracker);
     }
 
@@ -17,17 +17,23 @@ package com.palantir.leader.proxy;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,6 +48,7 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.ListeningScheduledExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 import com.palantir.atlasdb.futures.AtlasFutures;
 import com.palantir.common.concurrent.PTExecutors;
 import com.palantir.common.remoting.ServiceNotAvailableException;
@@ -96,6 +103,8 @@ public final class AwaitingLeadershipProxy<T> extends AbstractInvocationHandler
      */
     private final AtomicReference<LeadershipToken> leadershipTokenRef;
     private final AtomicReference<T> delegateRef;
+    private final AtomicReference<LeadershipVerifier> leadershipVerifierRef;
+    private final ConcurrentMap<Method, MethodHandle> methodHandles;
     private final Class<T> interfaceClass;
     private volatile boolean isClosed;
 
@@ -110,6 +119,8 @@ public final class AwaitingLeadershipProxy<T> extends AbstractInvocationHandler
         this.executor = PTExecutors.newSingleThreadExecutor();
         this.leadershipTokenRef = new AtomicReference<>();
         this.delegateRef = new AtomicReference<>();
+        this.leadershipVerifierRef = new AtomicReference<>();
+        this.methodHandles = new ConcurrentHashMap<>();
         this.interfaceClass = interfaceClass;
         this.isClosed = false;
     }
@@ -214,12 +225,11 @@ public final class AwaitingLeadershipProxy<T> extends AbstractInvocationHandler
         final LeadershipToken leadershipToken = getLeadershipToken();
 
         T maybeValidDelegate = delegateRef.get();
+        MethodHandle methodHandle = getMethodHandle(method);
 
         ListenableFuture<StillLeadingStatus> leadingFuture =
                 Tracers.wrapListenableFuture("validate-leadership",
-                        () -> statusRetrier.execute(
-                                () -> Tracers.wrapListenableFuture("validate-leadership-attempt",
-                                        () -> leaderElectionService.isStillLeading(leadershipToken))));
+                        () -> getLeadershipVerifier(leadershipToken).isStillLeading());
 
         ListenableFuture<T> delegateFuture = Futures.transformAsync(leadingFuture,
                 leading -> {
@@ -245,8 +255,8 @@ public final class AwaitingLeadershipProxy<T> extends AbstractInvocationHandler
         if (!method.getReturnType().equals(ListenableFuture.class)) {
             T delegate = AtlasFutures.getUnchecked(delegateFuture);
             try (CloseableTracer ignored = CloseableTracer.startSpan("execute-on-delegate")) {
-                return method.invoke(delegate, args);
-            } catch (InvocationTargetException e) {
+                return (Object) methodHandle.invokeExact((Object) delegate, args);
+            } catch (Throwable e) {
                 throw handleDelegateThrewException(leadershipToken, e);
             }
         } else {
@@ -255,32 +265,65 @@ public final class AwaitingLeadershipProxy<T> extends AbstractInvocationHandler
                             delegate ->
                                     Tracers.wrapListenableFuture("execute-on-delegate-async", () -> {
                                         try {
-                                            return (ListenableFuture<Object>) method.invoke(delegate, args);
-                                        } catch (IllegalAccessException | InvocationTargetException e) {
-                                            return Futures.immediateFailedFuture(e);
+                                            return (ListenableFuture<Object>) (Object) methodHandle.invokeExact(
+                                                    (Object) delegate, args);
+                                        } catch (Throwable e) {
+                                            return Futures.immediateFailedFuture(new InvocationTargetException(e));
                                         }
                                     }),
                             executionExecutor)
                     .catchingAsync(InvocationTargetException.class, e -> {
-                        throw handleDelegateThrewException(leadershipToken, e);
+                        throw handleDelegateThrewException(leadershipToken, e.getTargetException());
                     }, executionExecutor);
         }
     }
 
     private RuntimeException handleDelegateThrewException(
-            LeadershipToken leadershipToken, InvocationTargetException exception) throws Exception {
-        if (exception.getTargetException() instanceof ServiceNotAvailableException
-                || exception.getTargetException() instanceof NotCurrentLeaderException) {
-            markAsNotLeading(leadershipToken, exception.getCause());
+            LeadershipToken leadershipToken, Throwable exception) throws Exception {
+        if (exception instanceof ServiceNotAvailableException || exception instanceof NotCurrentLeaderException) {
+            markAsNotLeading(leadershipToken, exception);
         }
         // Prevent blocked lock requests from receiving a non-retryable 500 on interrupts
         // in case of a leader election.
-        if (exception.getTargetException() instanceof InterruptedException && !isStillCurrentToken(leadershipToken)) {
-            throw notCurrentLeaderException("received an interrupt due to leader election.",
-                    exception.getTargetException());
+        if (exception instanceof InterruptedException && !isStillCurrentToken(leadershipToken)) {
+            throw notCurrentLeaderException("received an interrupt due to leader election.", exception);
         }
-        Throwables.propagateIfPossible(exception.getTargetException(), Exception.class);
-        throw new RuntimeException(exception.getTargetException());
+        Throwables.propagateIfPossible(exception, Exception.class);
+        throw new RuntimeException(exception);
+    }
+
+    private MethodHandle getMethodHandle(Method method) {
+        MethodHandle methodHandle = methodHandles.get(method);
+        if (methodHandle != null) {
+            return methodHandle;
+        }
+        return methodHandles.computeIfAbsent(method, AwaitingLeadershipProxy::createMethodHandle);
+    }
+
+    /**
+     * Returns a handle invoking the given interface method on a delegate passed as the first argument, with the
+     * method arguments spread from the second argument. Unlike {@link Method#invoke}, exceptions thrown by the
+     * delegate are not wrapped, and the access check is only performed once.
+     */
+    private static MethodHandle createMethodHandle(Method method) {
+        try {
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method)
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+        } catch (IllegalAccessException e) {
+            throw new SafeIllegalStateException("Unable to access proxied method",
+                    e, SafeArg.of("method", method.getName()));
+        }
+    }
+
+    private LeadershipVerifier getLeadershipVerifier(LeadershipToken leadershipToken) {
+        LeadershipVerifier verifier = leadershipVerifierRef.get();
+        if (verifier != null && verifier.leadershipToken == leadershipToken) {
+            return verifier;
+        }
+        return leadershipVerifierRef.updateAndGet(current -> current != null
+                && current.leadershipToken == leadershipToken ? current : new LeadershipVerifier(leadershipToken));
     }
 
     @VisibleForTesting
@@ -340,4 +383,71 @@ public final class AwaitingLeadershipProxy<T> extends AbstractInvocationHandler
         throw notCurrentLeaderException("method invoked on a non-leader (leadership lost)", cause);
     }
 
+    /**
+     * Shares leadership verifications of a single leadership token between concurrent calls, so that a burst of
+     * calls results in one verification (with retries on lack of quorum) rather than one per call. A call is only
+     * ever given the result of a verification that started after the call was made, so each call is still only
+     * served if this node was the leader at some point after the call arrived. Calls arriving while a verification
+     * is in flight are queued on the next one, which is started when the current one completes; no thread waits
+     * on a verification.
+     */
+    private final class LeadershipVerifier {
+        private final LeadershipToken leadershipToken;
+        private final Object lock = new Object();
+        @GuardedBy("lock")
+        @Nullable
+        private SettableFuture<StillLeadingStatus> inFlight;
+        @GuardedBy("lock")
+        @Nullable
+        private SettableFuture<StillLeadingStatus> next;
+
+        private LeadershipVerifier(LeadershipToken leadershipToken) {
+            this.leadershipToken = leadershipToken;
+        }
+
+        private ListenableFuture<StillLeadingStatus> isStillLeading() {
+            SettableFuture<StillLeadingStatus> verification;
+            boolean shouldStart = false;
+            synchronized (lock) {
+                if (inFlight == null) {
+                    inFlight = SettableFuture.create();
+                    verification = inFlight;
+                    shouldStart = true;
+                } else {
+                    if (next == null) {
+                        next = SettableFuture.create();
+                    }
+                    verification = next;
+                }
+            }
+            if (shouldStart) {
+                start(verification);
+            }
+            // one caller giving up must not cancel the verification for everyone else sharing it
+            return Futures.nonCancellationPropagating(verification);
+        }
+
+        private void start(SettableFuture<StillLeadingStatus> verification) {
+            try {
+                verification.setFuture(statusRetrier.execute(
+                        () -> Tracers.wrapListenableFuture("validate-leadership-attempt",
+                                () -> leaderElectionService.isStillLeading(leadershipToken))));
+            } catch (Throwable t) {
+                verification.setException(t);
+            }
+            verification.addListener(this::startNextVerification, MoreExecutors.directExecutor());
+        }
+
+        private void startNextVerification() {
+            SettableFuture<StillLeadingStatus> verification;
+            synchronized (lock) {
+                verification = next;
+                next = null;
+                inFlight = verification;
+            }
+            if (verification != null) {
+                start(verification);
+            }
+        }
+    }
 }
@@ -63,7 +63,7 @@ public abstract class PaxosResponses<T extends PaxosResponse> {
     }
 
     @Value.Derived
-    PaxosQuorumStatus getQuorumResult() {
+    public PaxosQuorumStatus getQuorumResult() {
         if (hasQuorum()) {
             return PaxosQuorumStatus.QUORUM_AGREED;
         } else if (thereWereDisagreements()) {
@@ -23,9 +23,12 @@ import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
@@ -171,6 +174,33 @@ public class AwaitingLeadershipProxyTest {
         future.get();
     }
 
+    @Test
+    public void callsMadeDuringLeadershipVerificationShareTheNextVerification() throws Exception {
+        ReturnsListenableFutureImpl listenableFuture = new ReturnsListenableFutureImpl();
+        ReturnsListenableFuture proxy =
+                AwaitingLeadershipProxy.newProxyInstance(
+                        ReturnsListenableFuture.class, () -> listenableFuture, leaderElectionService);
+        waitForLeadershipToBeGained();
+
+        SettableFuture<StillLeadingStatus> inProgressCheck = SettableFuture.create();
+        when(leaderElectionService.isStillLeading(any(LeadershipToken.class)))
+                .thenReturn(inProgressCheck)
+                .thenReturn(Futures.immediateFuture(StillLeadingStatus.LEADING));
+
+        List<ListenableFuture<?>> futures = new ArrayList<>();
+        futures.add(proxy.future());
+        for (int i = 0; i < 3; i++) {
+            futures.add(proxy.future());
+        }
+        assertThat(futures).noneMatch(Future::isDone);
+
+        listenableFuture.future.set(null);
+        inProgressCheck.set(StillLeadingStatus.LEADING);
+        Futures.allAsList(futures).get(5, TimeUnit.SECONDS);
+
+        verify(leaderElectionService, times(2)).isStillLeading(leadershipToken);
+    }
+
     @Test
     @SuppressWarnings("SelfEquals")
     // We're asserting that calling .equals on a proxy does not redirect
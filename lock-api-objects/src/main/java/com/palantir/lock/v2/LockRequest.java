@@ -20,6 +20,7 @@ import java.util.Set;
 
 import org.immutables.value.Value;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.palantir.lock.LockDescriptor;
@@ -39,6 +40,14 @@ public interface LockRequest {
     @Value.Parameter
     Optional<String> getClientDescription();
 
+    /**
+     * Lock descriptors to be locked in shared mode, so that other requests may hold them in shared mode at the same
+     * time. Omitted from the serialized form when empty, for compatibility with servers that do not support shared
+     * locks.
+     */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    Set<LockDescriptor> getSharedLockDescriptors();
+
     static LockRequest of(Set<LockDescriptor> lockDescriptors, long acquireTimeoutMs) {
         return ImmutableLockRequest.of(
                 lockDescriptors,
@@ -33,4 +33,5 @@ public interface StartTransactionRequestV5 {
     UUID requestorId();
     Optional<IdentifiedVersion> lastKnownLockLogVersion();
     int numTransactions();
+    Optional<UUID> leaseGroup();
 }
@@ -23,6 +23,7 @@ import javax.annotation.Nullable;
 
 import org.immutables.value.Value;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.palantir.lock.LockDescriptor;
@@ -45,6 +46,13 @@ public interface WaitForLocksRequest {
     @Value.Parameter
     Optional<String> getClientDescription();
 
+    /**
+     * Lock descriptors to be waited on only until they are not held exclusively. Omitted from the serialized form when
+     * empty, for compatibility with servers that do not support shared locks.
+     */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    Set<LockDescriptor> getSharedLockDescriptors();
+
     static WaitForLocksRequest of(Set<LockDescriptor> lockDescriptors, long acquireTimeoutMs) {
         return ImmutableWaitForLocksRequest.of(UUID.randomUUID(), lockDescriptors, acquireTimeoutMs, Optional.empty());
     }
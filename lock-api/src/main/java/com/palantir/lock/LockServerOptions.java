@@ -125,6 +125,17 @@ public class LockServerOptions implements Serializable {
         return 10000L;
     }
 
+    /**
+     * If true, the tokens, outstanding lock requests and locked version ids of each client are tracked in structures
+     * that are only locked per client, rather than behind a single monitor shared by all clients. This reduces
+     * contention between clients on a heavily loaded lock server. The default value is false.
+     */
+    @JsonProperty("useStripedClientState")
+    @Value.Default
+    public boolean useStripedClientState() {
+        return false;
+    }
+
     @Override
     public boolean equals(@Nullable Object obj) {
         if (this == obj) {
@@ -142,7 +153,8 @@ public class LockServerOptions implements Serializable {
                 && Objects.equal(getRandomBitCount(), other.getRandomBitCount())
                 && Objects.equal(getStuckTransactionTimeout(), other.getStuckTransactionTimeout())
                 && Objects.equal(getLockStateLoggerDir(), other.getLockStateLoggerDir())
-                && Objects.equal(slowLogTriggerMillis(), other.slowLogTriggerMillis());
+                && Objects.equal(slowLogTriggerMillis(), other.slowLogTriggerMillis())
+                && Objects.equal(useStripedClientState(), other.useStripedClientState());
     }
 
     @Override
@@ -155,7 +167,8 @@ public class LockServerOptions implements Serializable {
                 getRandomBitCount(),
                 getStuckTransactionTimeout(),
                 getLockStateLoggerDir(),
-                slowLogTriggerMillis());
+                slowLogTriggerMillis(),
+                useStripedClientState());
     }
 
     @Override
@@ -170,6 +183,7 @@ public class LockServerOptions implements Serializable {
                 .add("stuckTransactionTimeout", getStuckTransactionTimeout())
                 .add("lockStateLoggerDir", getLockStateLoggerDir())
                 .add("slowLogTriggerMillis", slowLogTriggerMillis())
+                .add("useStripedClientState", useStripedClientState())
                 .toString();
     }
 
@@ -205,6 +219,7 @@ public class LockServerOptions implements Serializable {
         private final SimpleTimeDuration stuckTransactionTimeout;
         private final String lockStateLoggerDir;
         private final long slowLogTriggerMillis;
+        private final boolean useStripedClientState;
 
         SerializationProxy(LockServerOptions lockServerOptions) {
             isStandaloneServer = lockServerOptions.isStandaloneServer();
@@ -221,6 +236,7 @@ public class LockServerOptions implements Serializable {
                     lockServerOptions.getStuckTransactionTimeout());
             lockStateLoggerDir = lockServerOptions.getLockStateLoggerDir();
             slowLogTriggerMillis = lockServerOptions.slowLogTriggerMillis();
+            useStripedClientState = lockServerOptions.useStripedClientState();
         }
 
         @JsonCreator
@@ -232,7 +248,8 @@ public class LockServerOptions implements Serializable {
                 @JsonProperty("stuckTransactionTimeout") SimpleTimeDuration stuckTransactionTimeout,
                 @JsonProperty("randomBitCount") int randomBitCount,
                 @JsonProperty("lockStateLoggerDir") String lockStateLoggerDir,
-                @JsonProperty("slowLogTriggerMillis") long slowLogTriggerMillis) {
+                @JsonProperty("slowLogTriggerMillis") long slowLogTriggerMillis,
+                @JsonProperty("useStripedClientState") boolean useStripedClientState) {
             this.isStandaloneServer = isStandaloneServer;
             this.maxAllowedLockTimeout = maxAllowedLockTimeout;
             this.maxAllowedClockDrift = maxAllowedClockDrift;
@@ -242,6 +259,7 @@ public class LockServerOptions implements Serializable {
             this.stuckTransactionTimeout = stuckTransactionTimeout;
             this.lockStateLoggerDir = lockStateLoggerDir;
             this.slowLogTriggerMillis = slowLogTriggerMillis;
+            this.useStripedClientState = useStripedClientState;
         }
 
         public LockServerOptions build() {
@@ -259,6 +277,7 @@ public class LockServerOptions implements Serializable {
                     .stuckTransactionTimeout(stuckTransactionTimeout)
                     .lockStateLoggerDir(lockStateLoggerDir)
                     .slowLogTriggerMillis(slowLogTriggerMillis)
+                    .useStripedClientState(useStripedClientState)
                     .build();
         }
     }
@@ -20,7 +20,10 @@ import java.net.SocketTimeoutException;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -44,25 +47,56 @@ import com.palantir.logsafe.exceptions.SafeIllegalStateException;
  * of bounded timeouts beneath us (e.g. in terms of the networking layer) when communicating with remote services.
  *
  * Fairness is admittedly compromised, but this is a closer approximation than the previous behaviour.
+ *
+ * Lock descriptors are only sent with shared prefixes while {@code sharePrefixedLockDescriptors} is true, as older
+ * TimeLock servers would not lock such descriptors.
+ *
+ * If a {@link LockRequestBatcher} is provided, lock requests are first made as part of a batch, and only made
+ * individually if the batch did not resolve them.
  */
 final class BlockEnforcingLockService {
     private final NamespacedConjureTimelockService namespacedConjureTimelockService;
     private final RemoteTimeoutRetryer timeoutRetryer;
+    private final Optional<LockRequestBatcher> batcher;
+    private final BooleanSupplier sharePrefixedLockDescriptors;
 
     private BlockEnforcingLockService(NamespacedConjureTimelockService namespacedConjureTimelockService,
-            RemoteTimeoutRetryer timeoutRetryer) {
+            RemoteTimeoutRetryer timeoutRetryer,
+            Optional<LockRequestBatcher> batcher,
+            BooleanSupplier sharePrefixedLockDescriptors) {
         this.namespacedConjureTimelockService = namespacedConjureTimelockService;
         this.timeoutRetryer = timeoutRetryer;
+        this.batcher = batcher;
+        this.sharePrefixedLockDescriptors = sharePrefixedLockDescriptors;
     }
 
     static BlockEnforcingLockService create(NamespacedConjureTimelockService namespacedConjureTimelockService) {
-        return new BlockEnforcingLockService(namespacedConjureTimelockService, RemoteTimeoutRetryer.createDefault());
+        return create(namespacedConjureTimelockService, Optional.empty(), () -> false);
     }
 
-    LockResponse lock(LockRequest request) {
+    static BlockEnforcingLockService create(NamespacedConjureTimelockService namespacedConjureTimelockService,
+            Optional<LockRequestBatcher> batcher,
+            BooleanSupplier sharePrefixedLockDescriptors) {
+        return new BlockEnforcingLockService(
+                namespacedConjureTimelockService,
+                RemoteTimeoutRetryer.createDefault(),
+                batcher,
+                sharePrefixedLockDescriptors);
+    }
+
+    LockResponse lock(LockRequest request, Optional<UUID> leaseGroup) {
+        ConjureLockRequest conjureRequest = ConjureLockRequest.builder()
+                .from(ConjureLockRequests.toConjure(request, sharePrefixedLockDescriptors.getAsBoolean()))
+                .leaseGroup(leaseGroup)
+                .build();
+        Optional<ConjureLockResponse> batchedResponse = batcher.flatMap(b -> b.lock(conjureRequest));
+        if (batchedResponse.isPresent()) {
+            return batchedResponse.get().accept(new ToLeasedLockResponse(leaseGroup));
+        }
+
         // The addition of a UUID takes place only at the Conjure level, so we must retry the same request.
         return timeoutRetryer.attemptUntilTimeLimitOrException(
-                ConjureLockRequests.toConjure(request),
+                conjureRequest,
                 Duration.ofMillis(request.getAcquireTimeoutMs()),
                 BlockEnforcingLockService::clampLockRequestToDeadline,
                 this::performSingleLockRequest,
@@ -71,7 +105,7 @@ final class BlockEnforcingLockService {
 
     WaitForLocksResponse waitForLocks(WaitForLocksRequest request) {
         return timeoutRetryer.attemptUntilTimeLimitOrException(
-                ConjureLockRequests.toConjure(request),
+                ConjureLockRequests.toConjure(request, sharePrefixedLockDescriptors.getAsBoolean()),
                 Duration.ofMillis(request.getAcquireTimeoutMs()),
                 BlockEnforcingLockService::clampLockRequestToDeadline,
                 this::performSingleWaitForLocksRequest,
@@ -88,19 +122,23 @@ final class BlockEnforcingLockService {
     private LockResponse performSingleLockRequest(ConjureLockRequest request) {
         return namespacedConjureTimelockService
                 .lock(request)
-                .accept(ToLeasedLockResponse.INSTANCE);
+                .accept(new ToLeasedLockResponse(request.getLeaseGroup()));
     }
 
     private WaitForLocksResponse performSingleWaitForLocksRequest(ConjureLockRequest request) {
         return ConjureLockRequests.fromConjure(namespacedConjureTimelockService.waitForLocks(request));
     }
 
-    private enum ToLeasedLockResponse implements ConjureLockResponse.Visitor<LockResponse> {
-        INSTANCE;
+    private static final class ToLeasedLockResponse implements ConjureLockResponse.Visitor<LockResponse> {
+        private final Optional<UUID> leaseGroup;
+
+        private ToLeasedLockResponse(Optional<UUID> leaseGroup) {
+            this.leaseGroup = leaseGroup;
+        }
 
         @Override
         public LockResponse visitSuccessful(SuccessfulLockResponse value) {
-            return LockResponse.successful(LeasedLockToken.of(value.getLockToken(), value.getLease()));
+            return LockResponse.successful(LeasedLockToken.of(value.getLockToken(), leaseGroup, value.getLease()));
         }
 
         @Override
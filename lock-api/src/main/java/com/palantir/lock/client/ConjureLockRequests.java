@@ -16,13 +16,20 @@
 
 package com.palantir.lock.client;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 import com.google.common.primitives.Ints;
 import com.palantir.atlasdb.timelock.api.ConjureLockDescriptor;
 import com.palantir.atlasdb.timelock.api.ConjureLockRequest;
+import com.palantir.atlasdb.timelock.api.ConjurePrefixedLockDescriptors;
 import com.palantir.atlasdb.timelock.api.ConjureWaitForLocksResponse;
 import com.palantir.conjure.java.lib.Bytes;
 import com.palantir.lock.LockDescriptor;
@@ -32,11 +39,22 @@ import com.palantir.lock.v2.WaitForLocksRequest;
 import com.palantir.lock.v2.WaitForLocksResponse;
 
 public final class ConjureLockRequests {
+    private static final int MIN_DESCRIPTORS_TO_SHARE_PREFIX = 2;
+
     private ConjureLockRequests() {}
 
     public static ConjureLockRequest toConjure(LockRequest request) {
-        return ConjureLockRequest.builder()
-                .lockDescriptors(toConjure(request.getLockDescriptors()))
+        return toConjure(request, false);
+    }
+
+    /**
+     * Converts the request, sending descriptors that share a prefix with the prefix only once if
+     * {@code sharePrefixes} is true. TimeLock servers that do not know about prefixed lock descriptors ignore them,
+     * and so would not lock those descriptors; prefixes must only be shared once every TimeLock server supports them.
+     */
+    public static ConjureLockRequest toConjure(LockRequest request, boolean sharePrefixes) {
+        return withLockDescriptors(ConjureLockRequest.builder(), request.getLockDescriptors(), sharePrefixes)
+                .sharedLockDescriptors(toConjureLockDescriptors(request.getSharedLockDescriptors()))
                 .clientDescription(request.getClientDescription())
                 .requestId(UUID.randomUUID())
                 .acquireTimeoutMs(Ints.checkedCast(request.getAcquireTimeoutMs()))
@@ -44,20 +62,99 @@ public final class ConjureLockRequests {
     }
 
     public static ConjureLockRequest toConjure(WaitForLocksRequest request) {
-        return ConjureLockRequest.builder()
-                .lockDescriptors(toConjure(request.getLockDescriptors()))
+        return toConjure(request, false);
+    }
+
+    public static ConjureLockRequest toConjure(WaitForLocksRequest request, boolean sharePrefixes) {
+        return withLockDescriptors(ConjureLockRequest.builder(), request.getLockDescriptors(), sharePrefixes)
+                .sharedLockDescriptors(toConjureLockDescriptors(request.getSharedLockDescriptors()))
                 .clientDescription(request.getClientDescription())
                 .requestId(request.getRequestId())
                 .acquireTimeoutMs(Ints.checkedCast(request.getAcquireTimeoutMs()))
                 .build();
     }
 
-    private static Set<ConjureLockDescriptor> toConjure(Set<LockDescriptor> lockDescriptors) {
-        return lockDescriptors.stream()
-                .map(LockDescriptor::getBytes)
-                .map(Bytes::from)
-                .map(ConjureLockDescriptor::of)
-                .collect(Collectors.toSet());
+    private static Set<ConjureLockDescriptor> toConjureLockDescriptors(Set<LockDescriptor> lockDescriptors) {
+        Set<ConjureLockDescriptor> conjureLockDescriptors = new HashSet<>(lockDescriptors.size());
+        for (LockDescriptor lockDescriptor : lockDescriptors) {
+            conjureLockDescriptors.add(ConjureLockDescriptor.of(Bytes.from(lockDescriptor.getBytes())));
+        }
+        return conjureLockDescriptors;
+    }
+
+    /**
+     * Returns every lock descriptor in the request, including those that were sent with a shared prefix.
+     */
+    public static Set<ConjureLockDescriptor> allLockDescriptors(ConjureLockRequest request) {
+        if (request.getPrefixedLockDescriptors().isEmpty()) {
+            return request.getLockDescriptors();
+        }
+
+        Set<ConjureLockDescriptor> lockDescriptors = new HashSet<>(request.getLockDescriptors());
+        for (ConjurePrefixedLockDescriptors prefixed : request.getPrefixedLockDescriptors()) {
+            byte[] prefix = prefixed.getPrefix().asNewByteArray();
+            for (Bytes suffix : prefixed.getSuffixes()) {
+                lockDescriptors.add(ConjureLockDescriptor.of(Bytes.from(concat(prefix, suffix.asNewByteArray()))));
+            }
+        }
+        return lockDescriptors;
+    }
+
+    /**
+     * If {@code sharePrefixes} is true, descriptors that share a prefix up to and including their first zero byte (for
+     * AtlasDB row and cell locks, the table name) with at least one other descriptor in the request are sent as
+     * suffixes of that prefix, so that the prefix is only sent once. Otherwise, every descriptor is sent in full.
+     */
+    private static ConjureLockRequest.Builder withLockDescriptors(
+            ConjureLockRequest.Builder builder,
+            Set<LockDescriptor> lockDescriptors,
+            boolean sharePrefixes) {
+        if (!sharePrefixes) {
+            return builder.lockDescriptors(toConjureLockDescriptors(lockDescriptors));
+        }
+
+        Map<ByteBuffer, List<byte[]>> descriptorsByPrefix = new HashMap<>();
+        for (LockDescriptor lockDescriptor : lockDescriptors) {
+            byte[] bytes = lockDescriptor.getBytes();
+            ByteBuffer prefix = ByteBuffer.wrap(bytes, 0, prefixLength(bytes));
+            descriptorsByPrefix.computeIfAbsent(prefix, unused -> new ArrayList<>()).add(bytes);
+        }
+
+        Set<ConjureLockDescriptor> unprefixed = new HashSet<>();
+        List<ConjurePrefixedLockDescriptors> prefixed = new ArrayList<>();
+        descriptorsByPrefix.forEach((prefix, descriptors) -> {
+            int prefixLength = prefix.remaining();
+            if (prefixLength == 0 || descriptors.size() < MIN_DESCRIPTORS_TO_SHARE_PREFIX) {
+                descriptors.forEach(bytes -> unprefixed.add(ConjureLockDescriptor.of(Bytes.from(bytes))));
+                return;
+            }
+
+            List<Bytes> suffixes = new ArrayList<>(descriptors.size());
+            for (byte[] bytes : descriptors) {
+                suffixes.add(Bytes.from(Arrays.copyOfRange(bytes, prefixLength, bytes.length)));
+            }
+            byte[] sharedPrefix = Arrays.copyOf(descriptors.get(0), prefixLength);
+            prefixed.add(ConjurePrefixedLockDescriptors.of(Bytes.from(sharedPrefix), suffixes));
+        });
+
+        return builder
+                .lockDescriptors(unprefixed)
+                .prefixedLockDescriptors(prefixed);
+    }
+
+    private static byte[] concat(byte[] prefix, byte[] suffix) {
+        byte[] result = Arrays.copyOf(prefix, prefix.length + suffix.length);
+        System.arraycopy(suffix, 0, result, prefix.length, suffix.length);
+        return result;
+    }
+
+    private static int prefixLength(byte[] bytes) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == 0) {
+                return i + 1;
+            }
+        }
+        return 0;
     }
 
     public static WaitForLocksResponse fromConjure(ConjureWaitForLocksResponse response) {
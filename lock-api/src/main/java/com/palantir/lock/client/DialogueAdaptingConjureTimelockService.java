@@ -22,8 +22,12 @@ import com.codahale.metrics.Meter;
 import com.codahale.metrics.Timer;
 import com.palantir.atlasdb.timelock.api.ConjureGetFreshTimestampsRequest;
 import com.palantir.atlasdb.timelock.api.ConjureGetFreshTimestampsResponse;
+import com.palantir.atlasdb.timelock.api.ConjureLockBatchRequest;
+import com.palantir.atlasdb.timelock.api.ConjureLockBatchResponse;
 import com.palantir.atlasdb.timelock.api.ConjureLockRequest;
 import com.palantir.atlasdb.timelock.api.ConjureLockResponse;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLeaseGroupsRequest;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLeaseGroupsResponse;
 import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksRequest;
 import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksResponse;
 import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsRequest;
@@ -74,6 +78,12 @@ public class DialogueAdaptingConjureTimelockService implements ConjureTimelockSe
         return dialogueDelegate.lock(authHeader, namespace, request);
     }
 
+    @Override
+    public ConjureLockBatchResponse lockBatch(AuthHeader authHeader, String namespace,
+            ConjureLockBatchRequest request) {
+        return dialogueDelegate.lockBatch(authHeader, namespace, request);
+    }
+
     @Override
     public ConjureWaitForLocksResponse waitForLocks(AuthHeader authHeader, String namespace,
             ConjureLockRequest request) {
@@ -86,6 +96,12 @@ public class DialogueAdaptingConjureTimelockService implements ConjureTimelockSe
         return dialogueDelegate.refreshLocks(authHeader, namespace, request);
     }
 
+    @Override
+    public ConjureRefreshLeaseGroupsResponse refreshLeaseGroups(AuthHeader authHeader, String namespace,
+            ConjureRefreshLeaseGroupsRequest request) {
+        return dialogueDelegate.refreshLeaseGroups(authHeader, namespace, request);
+    }
+
     @Override
     public ConjureUnlockResponse unlock(AuthHeader authHeader, String namespace, ConjureUnlockRequest request) {
         return dialogueDelegate.unlock(authHeader, namespace, request);
@@ -0,0 +1,115 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.client;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.palantir.conjure.java.api.errors.RemoteException;
+import com.palantir.conjure.java.api.errors.UnknownRemoteException;
+import com.palantir.logsafe.SafeArg;
+
+/**
+ * Tracks whether TimeLock supports an endpoint that older TimeLock servers do not serve, so that clients stop calling
+ * the endpoint once it has been found to be unsupported, rather than making a failing call every time. The endpoint is
+ * tried again once {@link #RECHECK_INTERVAL} has passed, so that clients start using it once TimeLock is upgraded.
+ */
+final class EndpointSupport {
+    private static final Logger log = LoggerFactory.getLogger(EndpointSupport.class);
+
+    @VisibleForTesting
+    static final Duration RECHECK_INTERVAL = Duration.ofMinutes(5);
+
+    private final String endpoint;
+    private final LongSupplier nanoClock;
+
+    private volatile boolean unsupported = false;
+    private volatile long lastFoundUnsupportedNanos;
+
+    @VisibleForTesting
+    EndpointSupport(String endpoint, LongSupplier nanoClock) {
+        this.endpoint = endpoint;
+        this.nanoClock = nanoClock;
+    }
+
+    static EndpointSupport create(String endpoint) {
+        return new EndpointSupport(endpoint, System::nanoTime);
+    }
+
+    /**
+     * Returns false if the endpoint was recently found to be unsupported.
+     */
+    boolean isSupported() {
+        return !unsupported || nanoClock.getAsLong() - lastFoundUnsupportedNanos >= RECHECK_INTERVAL.toNanos();
+    }
+
+    /**
+     * Calls the endpoint, unless it was recently found to be unsupported. Returns empty if the endpoint was not called,
+     * or if the call failed because the endpoint is unsupported; any other failure is rethrown.
+     */
+    <T> Optional<T> callIfSupported(Supplier<T> call) {
+        if (!isSupported()) {
+            return Optional.empty();
+        }
+
+        try {
+            T result = call.get();
+            unsupported = false;
+            return Optional.of(result);
+        } catch (RuntimeException e) {
+            if (!isUnsupportedEndpoint(e)) {
+                throw e;
+            }
+            log.info("TimeLock does not support the {} endpoint, so it will not be used for a while",
+                    SafeArg.of("endpoint", endpoint),
+                    SafeArg.of("recheckInterval", RECHECK_INTERVAL),
+                    e);
+            lastFoundUnsupportedNanos = nanoClock.getAsLong();
+            unsupported = true;
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns true if the given failure, or one of its causes, shows that the server does not serve the endpoint that
+     * was called.
+     */
+    static boolean isUnsupportedEndpoint(Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause != null) {
+            if (cause instanceof UnknownRemoteException && isUnsupportedEndpointStatus(
+                    ((UnknownRemoteException) cause).getStatus())) {
+                return true;
+            }
+            if (cause instanceof RemoteException && isUnsupportedEndpointStatus(
+                    ((RemoteException) cause).getStatus())) {
+                return true;
+            }
+            cause = cause.getCause();
+        }
+        return false;
+    }
+
+    private static boolean isUnsupportedEndpointStatus(int status) {
+        return status == 404 || status == 405;
+    }
+}
@@ -21,6 +21,7 @@ import java.util.UUID;
 
 import org.immutables.value.Value;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.palantir.lock.LockDescriptor;
@@ -43,6 +44,22 @@ public interface IdentifiedLockRequest {
     @Value.Parameter
     Optional<String> getClientDescription();
 
+    /**
+     * Lock descriptors to be locked in shared mode, so that other requests may hold them in shared mode at the same
+     * time. Omitted from the serialized form when empty, for compatibility with servers that do not support shared
+     * locks.
+     */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    Set<LockDescriptor> getSharedLockDescriptors();
+
+    /**
+     * The lease group that the locks should join once acquired, if any. Locks in the same lease group share a lease,
+     * and are refreshed together. Omitted from the serialized form when absent, for compatibility with servers that
+     * do not know about lease groups.
+     */
+    @JsonInclude(JsonInclude.Include.NON_ABSENT)
+    Optional<UUID> getLeaseGroup();
+
     static IdentifiedLockRequest of(Set<LockDescriptor> lockDescriptors, long acquireTimeoutMs) {
         return ImmutableIdentifiedLockRequest.of(
                 UUID.randomUUID(),
@@ -61,13 +78,13 @@ public interface IdentifiedLockRequest {
     }
 
     static IdentifiedLockRequest from(LockRequest lockRequest) {
-        if (lockRequest.getClientDescription().isPresent()) {
-            return of(
-                    lockRequest.getLockDescriptors(),
-                    lockRequest.getAcquireTimeoutMs(),
-                    lockRequest.getClientDescription().get());
-        }
-        return of(lockRequest.getLockDescriptors(), lockRequest.getAcquireTimeoutMs());
+        IdentifiedLockRequest request = lockRequest.getClientDescription().isPresent()
+                ? of(lockRequest.getLockDescriptors(),
+                        lockRequest.getAcquireTimeoutMs(),
+                        lockRequest.getClientDescription().get())
+                : of(lockRequest.getLockDescriptors(), lockRequest.getAcquireTimeoutMs());
+        return ImmutableIdentifiedLockRequest.copyOf(request)
+                .withSharedLockDescriptors(lockRequest.getSharedLockDescriptors());
     }
 
 }
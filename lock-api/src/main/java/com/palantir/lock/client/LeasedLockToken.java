@@ -16,6 +16,7 @@
 
 package com.palantir.lock.client;
 
+import java.util.Optional;
 import java.util.UUID;
 
 import javax.annotation.concurrent.GuardedBy;
@@ -29,6 +30,7 @@ import com.palantir.logsafe.SafeArg;
 
 public final class LeasedLockToken implements LockToken {
     private final ConjureLockToken serverToken;
+    private final Optional<UUID> leaseGroup;
     private final UUID requestId;
 
     @GuardedBy("this")
@@ -38,11 +40,16 @@ public final class LeasedLockToken implements LockToken {
     private boolean invalidated = false;
 
     static LeasedLockToken of(ConjureLockToken serverToken, Lease lease) {
-        return new LeasedLockToken(serverToken, UUID.randomUUID(), lease);
+        return of(serverToken, Optional.empty(), lease);
     }
 
-    private LeasedLockToken(ConjureLockToken serverToken, UUID requestId, Lease lease) {
+    static LeasedLockToken of(ConjureLockToken serverToken, Optional<UUID> leaseGroup, Lease lease) {
+        return new LeasedLockToken(serverToken, leaseGroup, UUID.randomUUID(), lease);
+    }
+
+    private LeasedLockToken(ConjureLockToken serverToken, Optional<UUID> leaseGroup, UUID requestId, Lease lease) {
         this.serverToken = serverToken;
+        this.leaseGroup = leaseGroup;
         this.requestId = requestId;
         this.lease = lease;
     }
@@ -51,6 +58,13 @@ public final class LeasedLockToken implements LockToken {
         return serverToken;
     }
 
+    /**
+     * The lease group that this lock joined on the server, if any. Refreshing the group refreshes this lock.
+     */
+    Optional<UUID> leaseGroup() {
+        return leaseGroup;
+    }
+
     synchronized Lease getLease() {
         return lease;
     }
@@ -70,6 +84,10 @@ public final class LeasedLockToken implements LockToken {
         return !invalidated && lease.isValid(currentLeaderTime);
     }
 
+    synchronized boolean isInvalidated() {
+        return invalidated;
+    }
+
     synchronized void invalidate() {
         invalidated = true;
     }
@@ -16,15 +16,24 @@
 
 package com.palantir.lock.client;
 
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.Sets;
 import com.palantir.atlasdb.timelock.api.ConjureIdentifiedVersion;
 import com.palantir.atlasdb.timelock.api.ConjureLockToken;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLeaseGroupsRequest;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLeaseGroupsResponse;
 import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksRequest;
 import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksResponse;
 import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsRequest;
@@ -45,24 +54,61 @@ import com.palantir.lock.v2.WaitForLocksResponse;
 import com.palantir.lock.watch.IdentifiedVersion;
 import com.palantir.logsafe.Preconditions;
 
-class LockLeaseService {
+/**
+ * Tracks the leases of locks acquired from TimeLock, only refreshing locks whose lease may have expired.
+ *
+ * Locks acquired within the same lease group epoch join the same lease group on the server, and are refreshed by
+ * refreshing their group, so that the size of refresh requests and the work done by the server to serve them depend
+ * on the number of groups rather than the number of locks. A new group is started every epoch, so that a group stops
+ * accepting new locks well before its lease could expire on the server, and groups whose locks have all been unlocked
+ * stop being refreshed.
+ *
+ * Older TimeLock servers cannot refresh lease groups. Against such servers, locks are not placed in lease groups and
+ * are refreshed individually, including any locks that were placed in groups before this was found out.
+ */
+class LockLeaseService implements AutoCloseable {
+    private static final Duration LEASE_GROUP_EPOCH = Duration.ofSeconds(1);
+
     private final NamespacedConjureTimelockService delegate;
     private final UUID clientId;
+    private final Supplier<UUID> leaseGroups;
     private final CoalescingSupplier<LeaderTime> time;
+    private final Optional<LockRequestBatcher> lockRequestBatcher;
     private final BlockEnforcingLockService lockService;
+    private final EndpointSupport leaseGroupSupport = EndpointSupport.create("refreshLeaseGroups");
 
     @VisibleForTesting
     LockLeaseService(
             NamespacedConjureTimelockService delegate,
-            UUID clientId) {
+            UUID clientId,
+            Supplier<UUID> leaseGroups) {
+        this(delegate, clientId, leaseGroups, Optional.empty(), () -> false);
+    }
+
+    private LockLeaseService(
+            NamespacedConjureTimelockService delegate,
+            UUID clientId,
+            Supplier<UUID> leaseGroups,
+            Optional<LockRequestBatcher> lockRequestBatcher,
+            BooleanSupplier sharePrefixedLockDescriptors) {
         this.delegate = delegate;
         this.clientId = clientId;
+        this.leaseGroups = leaseGroups;
         this.time = new CoalescingSupplier<>(delegate::leaderTime);
-        this.lockService = BlockEnforcingLockService.create(delegate);
+        this.lockRequestBatcher = lockRequestBatcher;
+        this.lockService = BlockEnforcingLockService.create(
+                delegate, lockRequestBatcher, sharePrefixedLockDescriptors);
     }
 
-    static LockLeaseService create(NamespacedConjureTimelockService conjureTimelock) {
-        return new LockLeaseService(conjureTimelock, UUID.randomUUID());
+    static LockLeaseService create(
+            NamespacedConjureTimelockService conjureTimelock,
+            BooleanSupplier sharePrefixedLockDescriptors) {
+        return new LockLeaseService(
+                conjureTimelock,
+                UUID.randomUUID(),
+                Suppliers.memoizeWithExpiration(UUID::randomUUID, LEASE_GROUP_EPOCH.toMillis(), TimeUnit.MILLISECONDS),
+                Optional.of(LockRequestBatcher.create(conjureTimelock)),
+                sharePrefixedLockDescriptors);
     }
 
     LockImmutableTimestampResponse lockImmutableTimestamp() {
@@ -75,6 +121,7 @@ class LockLeaseService {
                 .requestId(UUID.randomUUID())
                 .numTransactions(batchSize)
                 .lastKnownVersion(Optional.empty())
+                .leaseGroup(currentLeaseGroup())
                 .build();
         ConjureStartTransactionsResponse conjureResponse = delegate.startTransactions(request);
         StartTransactionResponseV4 response = StartTransactionResponseV4.of(
@@ -83,8 +130,10 @@ class LockLeaseService {
                 conjureResponse.getLease());
 
         Lease lease = response.lease();
-        LeasedLockToken leasedLockToken =
-                LeasedLockToken.of(ConjureLockToken.of(response.immutableTimestamp().getLock().getRequestId()), lease);
+        LeasedLockToken leasedLockToken = LeasedLockToken.of(
+                ConjureLockToken.of(response.immutableTimestamp().getLock().getRequestId()),
+                request.getLeaseGroup(),
+                lease);
         long immutableTs = response.immutableTimestamp().getImmutableTimestamp();
 
         return StartTransactionResponseV4.of(
@@ -100,11 +149,14 @@ class LockLeaseService {
                 .requestId(UUID.randomUUID())
                 .numTransactions(batchSize)
                 .lastKnownVersion(toConjure(maybeVersion))
+                .leaseGroup(currentLeaseGroup())
                 .build();
         ConjureStartTransactionsResponse response = delegate.startTransactions(request);
         Lease lease = response.getLease();
         LeasedLockToken leasedLockToken = LeasedLockToken.of(
-                ConjureLockToken.of(response.getImmutableTimestamp().getLock().getRequestId()), lease);
+                ConjureLockToken.of(response.getImmutableTimestamp().getLock().getRequestId()),
+                request.getLeaseGroup(),
+                lease);
         long immutableTs = response.getImmutableTimestamp().getImmutableTimestamp();
         return ConjureStartTransactionsResponse.builder()
                 .lease(lease)
@@ -123,7 +175,7 @@ class LockLeaseService {
     }
 
     LockResponse lock(LockRequest request) {
-        return lockService.lock(request);
+        return lockService.lock(request, currentLeaseGroup());
     }
 
     WaitForLocksResponse waitForLocks(WaitForLocksRequest request) {
@@ -142,10 +194,17 @@ class LockLeaseService {
                 .filter(token -> token.isValid(leaderTime))
                 .collect(Collectors.toSet());
 
-        Set<LeasedLockToken> toRefresh = Sets.difference(allTokens, validByLease);
-        Set<LeasedLockToken> refreshedTokens = refreshTokens(toRefresh);
+        Map<Boolean, Set<LeasedLockToken>> toRefreshByGrouping = Sets.difference(allTokens, validByLease).stream()
+                .collect(Collectors.partitioningBy(token -> token.leaseGroup().isPresent(), Collectors.toSet()));
+        Set<LeasedLockToken> refreshedByGroup = refreshLeaseGroups(toRefreshByGrouping.get(true));
 
-        return Sets.union(refreshedTokens, validByLease);
+        // tokens whose group was not refreshed are refreshed individually, in case they are still held
+        Set<LeasedLockToken> toRefreshIndividually = Sets.union(
+                toRefreshByGrouping.get(false),
+                Sets.difference(toRefreshByGrouping.get(true), refreshedByGroup));
+        Set<LeasedLockToken> refreshedTokens = refreshTokens(toRefreshIndividually);
+
+        return Sets.union(Sets.union(refreshedByGroup, refreshedTokens), validByLease);
     }
 
     Set<LockToken> unlock(Set<LockToken> tokens) {
@@ -159,6 +218,39 @@ class LockLeaseService {
                 .collect(Collectors.toSet());
     }
 
+    @Override
+    public void close() {
+        lockRequestBatcher.ifPresent(LockRequestBatcher::close);
+    }
+
+    private Set<LeasedLockToken> refreshLeaseGroups(Set<LeasedLockToken> leasedTokens) {
+        if (leasedTokens.isEmpty()) {
+            return leasedTokens;
+        }
+
+        Set<UUID> leaseGroupIds = leasedTokens.stream()
+                .map(token -> token.leaseGroup().get())
+                .collect(Collectors.toSet());
+        Optional<ConjureRefreshLeaseGroupsResponse> maybeResponse = leaseGroupSupport.callIfSupported(
+                () -> delegate.refreshLeaseGroups(ConjureRefreshLeaseGroupsRequest.of(leaseGroupIds)));
+        if (!maybeResponse.isPresent()) {
+            return Collections.emptySet();
+        }
+
+        ConjureRefreshLeaseGroupsResponse refreshLeaseGroupsResponse = maybeResponse.get();
+        Lease lease = refreshLeaseGroupsResponse.getLease();
+
+        // a group may contain tokens that have since been unlocked, or have been recreated on a new leader
+        Set<LeasedLockToken> refreshedTokens = leasedTokens.stream()
+                .filter(t -> refreshLeaseGroupsResponse.getRefreshedLeaseGroups().contains(t.leaseGroup().get()))
+                .filter(t -> !t.isInvalidated())
+                .filter(t -> t.getLease().leaderTime().isComparableWith(lease.leaderTime()))
+                .collect(Collectors.toSet());
+
+        refreshedTokens.forEach(t -> t.updateLease(lease));
+        return refreshedTokens;
+    }
+
     private Set<LeasedLockToken> refreshTokens(Set<LeasedLockToken> leasedTokens) {
         if (leasedTokens.isEmpty()) {
             return leasedTokens;
@@ -176,6 +268,10 @@ class LockLeaseService {
         return refreshedTokens;
     }
 
+    private Optional<UUID> currentLeaseGroup() {
+        return leaseGroupSupport.isSupported() ? Optional.of(leaseGroups.get()) : Optional.empty();
+    }
+
     @SuppressWarnings("unchecked")
     private static Set<LeasedLockToken> leasedTokens(Set<LockToken> tokens) {
         for (LockToken token : tokens) {
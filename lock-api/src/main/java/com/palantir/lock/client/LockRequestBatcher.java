@@ -0,0 +1,146 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.client;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.palantir.atlasdb.autobatch.Autobatchers;
+import com.palantir.atlasdb.autobatch.DisruptorAutobatcher;
+import com.palantir.atlasdb.futures.AtlasFutures;
+import com.palantir.atlasdb.timelock.api.ConjureLockBatchRequest;
+import com.palantir.atlasdb.timelock.api.ConjureLockRequest;
+import com.palantir.atlasdb.timelock.api.ConjureLockResponse;
+import com.palantir.conjure.java.api.errors.QosException;
+import com.palantir.conjure.java.api.errors.RemoteException;
+import com.palantir.conjure.java.api.errors.UnknownRemoteException;
+import com.palantir.logsafe.SafeArg;
+
+/**
+ * Coalesces concurrent lock requests into batched lock requests to TimeLock, which looks up the locks of all requests
+ * in a batch together.
+ *
+ * TimeLock only responds to the requests of a batch that succeeded or timed out straight away, so that a request
+ * waiting for locks held by others does not delay the rest of its batch. Such requests keep waiting on the server, and
+ * their outcome is obtained by making them individually with the same request id, which joins the acquisition already
+ * in progress and so is still bound by the acquire timeout of that request.
+ *
+ * If TimeLock does not support batched lock requests, the requests of the batch are made individually, and batching
+ * is skipped for a while. If TimeLock is throttling or unavailable, the requests of the batch fail rather than being
+ * made individually, which would only add to the load. If a batch fails for any other reason, its requests are made
+ * individually.
+ */
+final class LockRequestBatcher implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(LockRequestBatcher.class);
+
+    private final DisruptorAutobatcher<ConjureLockRequest, Optional<ConjureLockResponse>> autobatcher;
+    private final EndpointSupport batchSupport;
+
+    private LockRequestBatcher(
+            DisruptorAutobatcher<ConjureLockRequest, Optional<ConjureLockResponse>> autobatcher,
+            EndpointSupport batchSupport) {
+        this.autobatcher = autobatcher;
+        this.batchSupport = batchSupport;
+    }
+
+    static LockRequestBatcher create(NamespacedConjureTimelockService delegate) {
+        EndpointSupport batchSupport = EndpointSupport.create("lockBatch");
+        DisruptorAutobatcher<ConjureLockRequest, Optional<ConjureLockResponse>> autobatcher = Autobatchers
+                .<ConjureLockRequest, Optional<ConjureLockResponse>>coalescing(requests ->
+                        processBatch(delegate, batchSupport, requests))
+                .safeLoggablePurpose("lock-request-batcher")
+                .build();
+        return new LockRequestBatcher(autobatcher, batchSupport);
+    }
+
+    /**
+     * Returns the response to the given request if TimeLock resolved it as part of a batch, or empty if the request
+     * must be made individually.
+     */
+    Optional<ConjureLockResponse> lock(ConjureLockRequest request) {
+        if (!batchSupport.isSupported()) {
+            return Optional.empty();
+        }
+        return AtlasFutures.getUnchecked(autobatcher.apply(request));
+    }
+
+    @Override
+    public void close() {
+        autobatcher.close();
+    }
+
+    @VisibleForTesting
+    static Map<ConjureLockRequest, Optional<ConjureLockResponse>> processBatch(
+            NamespacedConjureTimelockService delegate,
+            EndpointSupport batchSupport,
+            Set<ConjureLockRequest> requests) {
+        Map<UUID, ConjureLockResponse> responses = lockBatch(delegate, batchSupport, requests);
+        Map<ConjureLockRequest, Optional<ConjureLockResponse>> result = new HashMap<>();
+        for (ConjureLockRequest request : requests) {
+            result.put(request, Optional.ofNullable(responses.get(request.getRequestId())));
+        }
+        return result;
+    }
+
+    private static Map<UUID, ConjureLockResponse> lockBatch(
+            NamespacedConjureTimelockService delegate,
+            EndpointSupport batchSupport,
+            Set<ConjureLockRequest> requests) {
+        try {
+            return batchSupport.callIfSupported(() ->
+                    delegate.lockBatch(ConjureLockBatchRequest.of(ImmutableList.copyOf(requests))).getResponses())
+                    .orElseGet(ImmutableMap::of);
+        } catch (RuntimeException e) {
+            if (isCausedByQos(e)) {
+                throw e;
+            }
+            log.debug("Failed to make a batch of lock requests to TimeLock, so they will be made individually",
+                    SafeArg.of("numRequests", requests.size()),
+                    e);
+            return ImmutableMap.of();
+        }
+    }
+
+    private static boolean isCausedByQos(Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause != null) {
+            if (cause instanceof QosException) {
+                return true;
+            }
+            if (cause instanceof UnknownRemoteException && isQosStatus(((UnknownRemoteException) cause).getStatus())) {
+                return true;
+            }
+            if (cause instanceof RemoteException && isQosStatus(((RemoteException) cause).getStatus())) {
+                return true;
+            }
+            cause = cause.getCause();
+        }
+        return false;
+    }
+
+    private static boolean isQosStatus(int status) {
+        return status == 429 || status == 503;
+    }
+}
@@ -18,8 +18,12 @@ package com.palantir.lock.client;
 
 import com.palantir.atlasdb.timelock.api.ConjureGetFreshTimestampsRequest;
 import com.palantir.atlasdb.timelock.api.ConjureGetFreshTimestampsResponse;
+import com.palantir.atlasdb.timelock.api.ConjureLockBatchRequest;
+import com.palantir.atlasdb.timelock.api.ConjureLockBatchResponse;
 import com.palantir.atlasdb.timelock.api.ConjureLockRequest;
 import com.palantir.atlasdb.timelock.api.ConjureLockResponse;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLeaseGroupsRequest;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLeaseGroupsResponse;
 import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksRequest;
 import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksResponse;
 import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsRequest;
@@ -63,6 +67,10 @@ public class NamespacedConjureTimelockService {
         return conjureTimelockService.lock(AUTH_HEADER, namespace, request);
     }
 
+    public ConjureLockBatchResponse lockBatch(ConjureLockBatchRequest request) {
+        return conjureTimelockService.lockBatch(AUTH_HEADER, namespace, request);
+    }
+
     public ConjureWaitForLocksResponse waitForLocks(ConjureLockRequest request) {
         return conjureTimelockService.waitForLocks(AUTH_HEADER, namespace, request);
     }
@@ -71,6 +79,10 @@ public class NamespacedConjureTimelockService {
         return conjureTimelockService.refreshLocks(AUTH_HEADER, namespace, request);
     }
 
+    public ConjureRefreshLeaseGroupsResponse refreshLeaseGroups(ConjureRefreshLeaseGroupsRequest request) {
+        return conjureTimelockService.refreshLeaseGroups(AUTH_HEADER, namespace, request);
+    }
+
     public ConjureUnlockResponse unlock(ConjureUnlockRequest request) {
         return conjureTimelockService.unlock(AUTH_HEADER, namespace, request);
     }
@@ -18,6 +18,7 @@ package com.palantir.lock.client;
 
 import java.util.List;
 import java.util.Set;
+import java.util.function.BooleanSupplier;
 
 import com.palantir.atlasdb.timelock.api.ConjureGetFreshTimestampsRequest;
 import com.palantir.atlasdb.timelock.api.ConjureGetFreshTimestampsResponse;
@@ -44,9 +45,10 @@ public final class RemoteTimelockServiceAdapter implements TimelockService, Auto
 
     private RemoteTimelockServiceAdapter(NamespacedTimelockRpcClient rpcClient,
             NamespacedConjureTimelockService conjureTimelockService,
-            LockWatchEventCache lockWatchEventCache) {
+            LockWatchEventCache lockWatchEventCache,
+            BooleanSupplier sharePrefixedLockDescriptors) {
         this.rpcClient = rpcClient;
-        this.lockLeaseService = LockLeaseService.create(conjureTimelockService);
+        this.lockLeaseService = LockLeaseService.create(conjureTimelockService, sharePrefixedLockDescriptors);
         this.transactionStarter = TransactionStarter.create(lockLeaseService, lockWatchEventCache);
         this.commitTimestampGetter = CommitTimestampGetter.create(lockLeaseService, lockWatchEventCache);
         this.conjureTimelockService = conjureTimelockService;
@@ -56,7 +58,22 @@ public final class RemoteTimelockServiceAdapter implements TimelockService, Auto
             NamespacedTimelockRpcClient rpcClient,
             NamespacedConjureTimelockService conjureClient,
             LockWatchEventCache lockWatchEventCache) {
-        return new RemoteTimelockServiceAdapter(rpcClient, conjureClient, lockWatchEventCache);
+        return create(rpcClient, conjureClient, lockWatchEventCache, () -> false);
+    }
+
+    /**
+     * As {@link #create(NamespacedTimelockRpcClient, NamespacedConjureTimelockService, LockWatchEventCache)}, but lock
+     * descriptors sharing a prefix are sent to TimeLock with the prefix only once while
+     * {@code sharePrefixedLockDescriptors} is true. This must only be enabled once every TimeLock server supports
+     * prefixed lock descriptors.
+     */
+    public static RemoteTimelockServiceAdapter create(
+            NamespacedTimelockRpcClient rpcClient,
+            NamespacedConjureTimelockService conjureClient,
+            LockWatchEventCache lockWatchEventCache,
+            BooleanSupplier sharePrefixedLockDescriptors) {
+        return new RemoteTimelockServiceAdapter(
+                rpcClient, conjureClient, lockWatchEventCache, sharePrefixedLockDescriptors);
     }
 
     public static RemoteTimelockServiceAdapter create(
@@ -136,5 +153,6 @@ public final class RemoteTimelockServiceAdapter implements TimelockService, Auto
     public void close() {
         transactionStarter.close();
         commitTimestampGetter.close();
+        lockLeaseService.close();
     }
 }
@@ -0,0 +1,124 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableSet;
+import com.palantir.atlasdb.timelock.api.ConjureLockDescriptor;
+import com.palantir.atlasdb.timelock.api.ConjureLockRequest;
+import com.palantir.atlasdb.timelock.api.ConjurePrefixedLockDescriptors;
+import com.palantir.conjure.java.lib.Bytes;
+import com.palantir.conjure.java.serialization.ObjectMappers;
+import com.palantir.lock.ByteArrayLockDescriptor;
+import com.palantir.lock.LockDescriptor;
+import com.palantir.lock.v2.ImmutableLockRequest;
+import com.palantir.lock.v2.LockRequest;
+
+public class ConjureLockRequestsTest {
+    private static final ObjectMapper MAPPER = ObjectMappers.newClientObjectMapper();
+
+    private static final LockDescriptor ROW_1 = descriptor("table1\0row1");
+    private static final LockDescriptor ROW_2 = descriptor("table1\0row2");
+    private static final LockDescriptor OTHER_TABLE_ROW = descriptor("table2\0row1");
+    private static final LockDescriptor NO_PREFIX = descriptor("lock");
+
+    @Test
+    public void descriptorsSharingPrefixAreSentOnceWithTheirSuffixes() {
+        ConjureLockRequest request = ConjureLockRequests.toConjure(
+                LockRequest.of(ImmutableSet.of(ROW_1, ROW_2, OTHER_TABLE_ROW, NO_PREFIX), 100), true);
+
+        assertThat(request.getLockDescriptors()).containsExactlyInAnyOrder(
+                toConjure(OTHER_TABLE_ROW), toConjure(NO_PREFIX));
+        ConjurePrefixedLockDescriptors prefixed = request.getPrefixedLockDescriptors().get(0);
+        assertThat(request.getPrefixedLockDescriptors()).hasSize(1);
+        assertThat(prefixed.getPrefix()).isEqualTo(bytes("table1\0"));
+        assertThat(prefixed.getSuffixes()).containsExactlyInAnyOrder(bytes("row1"), bytes("row2"));
+    }
+
+    @Test
+    public void allLockDescriptorsRestoresPrefixedDescriptors() {
+        Set<LockDescriptor> descriptors = ImmutableSet.of(ROW_1, ROW_2, OTHER_TABLE_ROW, NO_PREFIX);
+        ConjureLockRequest request = ConjureLockRequests.toConjure(LockRequest.of(descriptors, 100), true);
+
+        assertThat(ConjureLockRequests.allLockDescriptors(request)).containsExactlyInAnyOrder(
+                toConjure(ROW_1), toConjure(ROW_2), toConjure(OTHER_TABLE_ROW), toConjure(NO_PREFIX));
+    }
+
+    @Test
+    public void prefixesAreNotSharedByDefault() {
+        ConjureLockRequest request = ConjureLockRequests.toConjure(
+                LockRequest.of(ImmutableSet.of(ROW_1, ROW_2, OTHER_TABLE_ROW, NO_PREFIX), 100));
+
+        assertThat(request.getPrefixedLockDescriptors()).isEmpty();
+        assertThat(request.getLockDescriptors()).containsExactlyInAnyOrder(
+                toConjure(ROW_1), toConjure(ROW_2), toConjure(OTHER_TABLE_ROW), toConjure(NO_PREFIX));
+    }
+
+    @Test
+    public void serversUnawareOfPrefixedDescriptorsSeeEveryDescriptorByDefault() throws Exception {
+        Set<LockDescriptor> descriptors = ImmutableSet.of(ROW_1, ROW_2, OTHER_TABLE_ROW, NO_PREFIX);
+
+        assertThat(readByServerUnawareOfPrefixes(ConjureLockRequests.toConjure(LockRequest.of(descriptors, 100))))
+                .containsExactlyInAnyOrder(
+                        toConjure(ROW_1), toConjure(ROW_2), toConjure(OTHER_TABLE_ROW), toConjure(NO_PREFIX));
+        assertThat(readByServerUnawareOfPrefixes(
+                ConjureLockRequests.toConjure(LockRequest.of(descriptors, 100), true)))
+                .containsExactlyInAnyOrder(toConjure(OTHER_TABLE_ROW), toConjure(NO_PREFIX));
+    }
+
+    /**
+     * Returns the lock descriptors that a TimeLock server predating prefixed lock descriptors would lock, given that
+     * such servers ignore fields they do not know about.
+     */
+    private static Set<ConjureLockDescriptor> readByServerUnawareOfPrefixes(ConjureLockRequest request)
+            throws Exception {
+        ObjectNode json = MAPPER.valueToTree(request);
+        json.remove("prefixedLockDescriptors");
+        return ConjureLockRequests.allLockDescriptors(MAPPER.treeToValue(json, ConjureLockRequest.class));
+    }
+
+    @Test
+    public void sharedLockDescriptorsAreSentSeparately() {
+        LockRequest lockRequest = ImmutableLockRequest.builder()
+                .from(LockRequest.of(ImmutableSet.of(ROW_1), 100))
+                .sharedLockDescriptors(ImmutableSet.of(ROW_2))
+                .build();
+        ConjureLockRequest request = ConjureLockRequests.toConjure(lockRequest);
+
+        assertThat(ConjureLockRequests.allLockDescriptors(request)).containsExactly(toConjure(ROW_1));
+        assertThat(request.getSharedLockDescriptors()).containsExactly(toConjure(ROW_2));
+    }
+
+    private static LockDescriptor descriptor(String name) {
+        return ByteArrayLockDescriptor.of(name.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ConjureLockDescriptor toConjure(LockDescriptor descriptor) {
+        return ConjureLockDescriptor.of(Bytes.from(descriptor.getBytes()));
+    }
+
+    private static Bytes bytes(String value) {
+        return Bytes.from(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -18,12 +18,14 @@ package com.palantir.lock.client;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.time.Duration;
 import java.util.Collections;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
@@ -32,13 +34,17 @@ import java.util.function.Supplier;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableSet;
+import com.palantir.atlasdb.timelock.api.ConjureLockRequest;
 import com.palantir.atlasdb.timelock.api.ConjureLockResponse;
 import com.palantir.atlasdb.timelock.api.ConjureLockToken;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLeaseGroupsRequest;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLeaseGroupsResponse;
 import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksRequest;
 import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksResponse;
 import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsResponse;
@@ -47,6 +53,7 @@ import com.palantir.atlasdb.timelock.api.ConjureUnlockResponse;
 import com.palantir.atlasdb.timelock.api.SuccessfulLockResponse;
 import com.palantir.atlasdb.timelock.api.UnsuccessfulLockResponse;
 import com.palantir.common.time.NanoTime;
+import com.palantir.conjure.java.api.errors.UnknownRemoteException;
 import com.palantir.lock.v2.LeaderTime;
 import com.palantir.lock.v2.LeadershipId;
 import com.palantir.lock.v2.Lease;
@@ -67,6 +74,7 @@ public class LockLeaseServiceTest {
     private static final Duration LEASE_DURATION = Duration.ofSeconds(1);
     private static final LeadershipId LEADER_ID = LeadershipId.random();
     private static final UUID SERVICE_ID = UUID.randomUUID();
+    private static final UUID LEASE_GROUP = UUID.randomUUID();
 
     private static final ConjureLockToken LOCK_TOKEN = ConjureLockToken.of(UUID.randomUUID());
 
@@ -82,7 +90,7 @@ public class LockLeaseServiceTest {
             ConjureUnlockRequest request = inv.getArgument(0);
             return ConjureUnlockResponse.of(request.getTokens());
         });
-        lockLeaseService = new LockLeaseService(timelock, SERVICE_ID);
+        lockLeaseService = new LockLeaseService(timelock, SERVICE_ID, () -> LEASE_GROUP);
     }
 
     @Test
@@ -197,6 +205,96 @@ public class LockLeaseServiceTest {
         assertThat(refreshedLeasedLockToken).isEqualTo(leasedLockToken);
     }
 
+    @Test
+    public void lockRequestsJoinTheCurrentLeaseGroup() {
+        when(timelock.lock(any()))
+                .thenReturn(ConjureLockResponse.successful(SuccessfulLockResponse.of(LOCK_TOKEN, getLease())));
+
+        LeasedLockToken leasedLockToken = (LeasedLockToken) lockLeaseService.lock(lockRequest).getToken();
+
+        ArgumentCaptor<ConjureLockRequest> captor = ArgumentCaptor.forClass(ConjureLockRequest.class);
+        verify(timelock).lock(captor.capture());
+        assertThat(captor.getValue().getLeaseGroup()).contains(LEASE_GROUP);
+        assertThat(leasedLockToken.leaseGroup()).contains(LEASE_GROUP);
+    }
+
+    @Test
+    public void shouldRefreshGroupedTokensThroughTheirLeaseGroup() {
+        LeasedLockToken first = groupedTokenWithExpiredLease();
+        LeasedLockToken second = groupedTokenWithExpiredLease();
+
+        when(timelock.refreshLeaseGroups(ConjureRefreshLeaseGroupsRequest.of(ImmutableSet.of(LEASE_GROUP))))
+                .thenReturn(ConjureRefreshLeaseGroupsResponse.of(ImmutableSet.of(LEASE_GROUP), getLease()));
+
+        Set<LockToken> refreshed = lockLeaseService.refreshLockLeases(ImmutableSet.of(first, second));
+
+        assertThat(refreshed).containsExactlyInAnyOrder(first, second);
+        assertValid(first);
+        assertValid(second);
+        verify(timelock, never()).refreshLocks(any());
+    }
+
+    @Test
+    public void shouldRefreshTokensIndividuallyIfTheirLeaseGroupWasNotRefreshed() {
+        LeasedLockToken token = groupedTokenWithExpiredLease();
+
+        when(timelock.refreshLeaseGroups(any()))
+                .thenReturn(ConjureRefreshLeaseGroupsResponse.of(ImmutableSet.of(), getLease()));
+        when(timelock.refreshLocks(any()))
+                .thenReturn(ConjureRefreshLocksResponse.of(ImmutableSet.of(), getLease()));
+
+        assertThat(lockLeaseService.refreshLockLeases(ImmutableSet.of(token))).isEmpty();
+        verify(timelock).refreshLocks(ConjureRefreshLocksRequest.of(ImmutableSet.of(token.serverToken())));
+    }
+
+    @Test
+    public void shouldNotRefreshUnlockedTokensThroughTheirLeaseGroup() {
+        LeasedLockToken token = groupedTokenWithExpiredLease();
+        lockLeaseService.unlock(ImmutableSet.of(token));
+
+        when(timelock.refreshLeaseGroups(any()))
+                .thenReturn(ConjureRefreshLeaseGroupsResponse.of(ImmutableSet.of(LEASE_GROUP), getLease()));
+        when(timelock.refreshLocks(any()))
+                .thenReturn(ConjureRefreshLocksResponse.of(ImmutableSet.of(), getLease()));
+
+        assertThat(lockLeaseService.refreshLockLeases(ImmutableSet.of(token))).isEmpty();
+    }
+
+    @Test
+    public void fallsBackToIndividualRefreshesIfTheServerCannotRefreshLeaseGroups() {
+        LeasedLockToken token = groupedTokenWithExpiredLease();
+
+        when(timelock.refreshLeaseGroups(any())).thenThrow(new UnknownRemoteException(404, ""));
+        when(timelock.refreshLocks(any())).thenReturn(
+                ConjureRefreshLocksResponse.of(ImmutableSet.of(token.serverToken()), getLease()));
+
+        assertThat(lockLeaseService.refreshLockLeases(ImmutableSet.of(token))).containsExactly(token);
+        assertValid(token);
+    }
+
+    @Test
+    public void locksDoNotJoinLeaseGroupsOnceTheServerIsKnownNotToSupportThem() {
+        when(timelock.refreshLeaseGroups(any())).thenThrow(new UnknownRemoteException(404, ""));
+        when(timelock.refreshLocks(any())).thenReturn(ConjureRefreshLocksResponse.of(ImmutableSet.of(), getLease()));
+        lockLeaseService.refreshLockLeases(ImmutableSet.of(groupedTokenWithExpiredLease()));
+
+        when(timelock.lock(any()))
+                .thenReturn(ConjureLockResponse.successful(SuccessfulLockResponse.of(LOCK_TOKEN, getLease())));
+        LeasedLockToken leasedLockToken = (LeasedLockToken) lockLeaseService.lock(lockRequest).getToken();
+
+        ArgumentCaptor<ConjureLockRequest> captor = ArgumentCaptor.forClass(ConjureLockRequest.class);
+        verify(timelock).lock(captor.capture());
+        assertThat(captor.getValue().getLeaseGroup()).isEmpty();
+        assertThat(leasedLockToken.leaseGroup()).isEmpty();
+    }
+
+    private LeasedLockToken groupedTokenWithExpiredLease() {
+        LeasedLockToken token = LeasedLockToken.of(
+                ConjureLockToken.of(UUID.randomUUID()), Optional.of(LEASE_GROUP), getLease(Duration.ZERO));
+        assertInvalid(token);
+        return token;
+    }
+
     private ConjureStartTransactionsResponse startTransactionsResponseWith(ConjureLockToken lockToken, Lease lease) {
         return ConjureStartTransactionsResponse.builder()
                 .immutableTimestamp(LockImmutableTimestampResponse.of(1L,
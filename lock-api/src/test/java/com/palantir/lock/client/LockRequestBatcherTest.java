@@ -0,0 +1,116 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.palantir.atlasdb.timelock.api.ConjureLockBatchRequest;
+import com.palantir.atlasdb.timelock.api.ConjureLockBatchResponse;
+import com.palantir.atlasdb.timelock.api.ConjureLockRequest;
+import com.palantir.atlasdb.timelock.api.ConjureLockResponse;
+import com.palantir.atlasdb.timelock.api.UnsuccessfulLockResponse;
+import com.palantir.conjure.java.api.errors.QosException;
+import com.palantir.conjure.java.api.errors.UnknownRemoteException;
+import com.palantir.lock.StringLockDescriptor;
+import com.palantir.lock.v2.LockRequest;
+
+public class LockRequestBatcherTest {
+    private static final ConjureLockRequest REQUEST_1 = request("foo");
+    private static final ConjureLockRequest REQUEST_2 = request("bar");
+    private static final ConjureLockResponse TIMED_OUT = ConjureLockResponse.unsuccessful(
+            UnsuccessfulLockResponse.of());
+
+    private final NamespacedConjureTimelockService timelock = mock(NamespacedConjureTimelockService.class);
+    private final AtomicLong nanos = new AtomicLong();
+    private final EndpointSupport batchSupport = new EndpointSupport("lockBatch", nanos::get);
+
+    @Test
+    public void sendsAllRequestsInOneBatch() {
+        when(timelock.lockBatch(any())).thenReturn(ConjureLockBatchResponse.of(ImmutableMap.of()));
+
+        LockRequestBatcher.processBatch(timelock, batchSupport, ImmutableSet.of(REQUEST_1, REQUEST_2));
+
+        verify(timelock).lockBatch(ConjureLockBatchRequest.of(ImmutableSet.of(REQUEST_1, REQUEST_2).asList()));
+    }
+
+    @Test
+    public void returnsResponsesByRequestAndEmptyForUnresolvedRequests() {
+        when(timelock.lockBatch(any())).thenReturn(
+                ConjureLockBatchResponse.of(ImmutableMap.of(REQUEST_1.getRequestId(), TIMED_OUT)));
+
+        Map<ConjureLockRequest, Optional<ConjureLockResponse>> responses =
+                LockRequestBatcher.processBatch(timelock, batchSupport, ImmutableSet.of(REQUEST_1, REQUEST_2));
+
+        assertThat(responses).isEqualTo(ImmutableMap.of(
+                REQUEST_1, Optional.of(TIMED_OUT),
+                REQUEST_2, Optional.empty()));
+    }
+
+    @Test
+    public void returnsEmptyForAllRequestsIfBatchFails() {
+        when(timelock.lockBatch(any())).thenThrow(new RuntimeException("unsupported"));
+
+        Map<ConjureLockRequest, Optional<ConjureLockResponse>> responses =
+                LockRequestBatcher.processBatch(timelock, batchSupport, ImmutableSet.of(REQUEST_1, REQUEST_2));
+
+        assertThat(responses).isEqualTo(ImmutableMap.of(
+                REQUEST_1, Optional.empty(),
+                REQUEST_2, Optional.empty()));
+    }
+
+    @Test
+    public void skipsBatchesForAWhileIfTheServerDoesNotSupportThem() {
+        when(timelock.lockBatch(any())).thenThrow(new UnknownRemoteException(404, ""));
+
+        assertThat(LockRequestBatcher.processBatch(timelock, batchSupport, ImmutableSet.of(REQUEST_1)))
+                .isEqualTo(ImmutableMap.of(REQUEST_1, Optional.empty()));
+        assertThat(batchSupport.isSupported()).isFalse();
+
+        LockRequestBatcher.processBatch(timelock, batchSupport, ImmutableSet.of(REQUEST_2));
+        verify(timelock, times(1)).lockBatch(any());
+
+        nanos.addAndGet(EndpointSupport.RECHECK_INTERVAL.toNanos());
+        assertThat(batchSupport.isSupported()).isTrue();
+    }
+
+    @Test
+    public void failsAllRequestsRatherThanMakingThemIndividuallyIfThrottled() {
+        QosException throttle = QosException.throttle();
+        when(timelock.lockBatch(any())).thenThrow(throttle);
+
+        assertThatThrownBy(() -> LockRequestBatcher.processBatch(timelock, batchSupport, ImmutableSet.of(REQUEST_1)))
+                .isEqualTo(throttle);
+        assertThat(batchSupport.isSupported()).isTrue();
+    }
+
+    private static ConjureLockRequest request(String lock) {
+        return ConjureLockRequests.toConjure(LockRequest.of(ImmutableSet.of(StringLockDescriptor.of(lock)), 100));
+    }
+}
@@ -156,7 +156,8 @@ public class LegacyTimelockService implements TimelockService {
 
     @Override
     public WaitForLocksResponse waitForLocks(WaitForLocksRequest request) {
-        com.palantir.lock.LockRequest legacyRequest = toLegacyWaitForLocksRequest(request.getLockDescriptors());
+        com.palantir.lock.LockRequest legacyRequest = toLegacyWaitForLocksRequest(
+                Sets.union(request.getLockDescriptors(), request.getSharedLockDescriptors()));
 
         // this blocks indefinitely, and can only fail if the connection fails (and throws an exception)
         lockAnonymous(legacyRequest);
@@ -164,7 +165,8 @@ public class LegacyTimelockService implements TimelockService {
     }
 
     private com.palantir.lock.LockRequest toLegacyLockRequest(LockRequest request) {
-        SortedMap<LockDescriptor, LockMode> locks = buildLockMap(request.getLockDescriptors(), LockMode.WRITE);
+        SortedMap<LockDescriptor, LockMode> locks = buildLockMap(request.getSharedLockDescriptors(), LockMode.READ);
+        locks.putAll(buildLockMap(request.getLockDescriptors(), LockMode.WRITE));
         return com.palantir.lock.LockRequest.builder(locks)
                 .blockForAtMost(SimpleTimeDuration.of(request.getAcquireTimeoutMs(), TimeUnit.MILLISECONDS))
                 .build();
@@ -0,0 +1,60 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.impl;
+
+import java.util.Collection;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.google.common.collect.SetMultimap;
+import com.palantir.lock.LockClient;
+
+/**
+ * Tracks a collection of values for each lock client, such as the tokens it holds or the version ids it has locked.
+ * Values are stored in collections created by the supplied factory, so the iteration order of the values of a client
+ * is that of the collection (for example, ascending for a sorted multiset).
+ */
+@ThreadSafe
+interface LockClientIndex<V> {
+    void put(LockClient client, V value);
+
+    void remove(LockClient client, V value);
+
+    /**
+     * Applies the reader to the values of the given client (which are empty if the client has none), while no
+     * concurrent modification of these values is possible. The reader must not retain or modify the collection, and
+     * must not call back into this index.
+     */
+    <T> T read(LockClient client, Function<? super Collection<V>, T> reader);
+
+    /**
+     * Returns a copy of the values of all clients. Duplicate values of a client are only included once.
+     */
+    SetMultimap<LockClient, V> snapshot();
+
+    /**
+     * Returns the total number of values over all clients.
+     */
+    int size();
+
+    static <V> LockClientIndex<V> create(boolean striped, Supplier<? extends Collection<V>> valuesFactory) {
+        return striped
+                ? new StripedLockClientIndex<>(valuesFactory)
+                : new SynchronizedLockClientIndex<>(valuesFactory);
+    }
+}
@@ -24,6 +24,7 @@ import static com.palantir.lock.LockGroupBehavior.LOCK_AS_MANY_AS_POSSIBLE;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -59,7 +60,6 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.Collections2;
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedMap;
@@ -68,9 +68,6 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.MapMaker;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Multimap;
-import com.google.common.collect.Multimaps;
-import com.google.common.collect.SetMultimap;
 import com.google.common.collect.TreeMultiset;
 import com.palantir.common.base.Throwables;
 import com.palantir.common.concurrent.PTExecutors;
@@ -207,17 +204,15 @@ public final class LockServiceImpl
             new PriorityBlockingQueue<>(1, ExpiringToken.COMPARATOR);
 
     /** The mapping from lock client to the set of tokens held by that client. */
-    private final SetMultimap<LockClient, HeldLocksToken> lockClientMultimap =
-            Multimaps.synchronizedSetMultimap(HashMultimap.<LockClient, HeldLocksToken>create());
+    private final LockClientIndex<HeldLocksToken> lockClientMultimap;
 
-    private final SetMultimap<LockClient, LockRequest> outstandingLockRequestMultimap =
-        Multimaps.synchronizedSetMultimap(HashMultimap.<LockClient, LockRequest>create());
+    private final LockClientIndex<LockRequest> outstandingLockRequestMultimap;
 
     private final Set<Thread> indefinitelyBlockingThreads =
             ConcurrentHashMap.newKeySet();
 
-    private final Multimap<LockClient, Long> versionIdMap = Multimaps.synchronizedMultimap(
-            Multimaps.newMultimap(Maps.<LockClient, Collection<Long>>newHashMap(), TreeMultiset::create));
+    /** The mapping from lock client to the (sorted) version ids of the tokens held by that client. */
+    private final LockClientIndex<Long> versionIdMap;
 
     private static final AtomicInteger instanceCount = new AtomicInteger();
     private static final int MAX_FAILED_LOCKS_TO_LOG = 20;
@@ -262,6 +257,9 @@ public final class LockServiceImpl
         this.stuckTransactionTimeout = SimpleTimeDuration.of(options.getStuckTransactionTimeout());
         this.lockStateLoggerDir = options.getLockStateLoggerDir();
         this.slowLogTriggerMillis = options.slowLogTriggerMillis();
+        this.lockClientMultimap = LockClientIndex.create(options.useStripedClientState(), HashSet::new);
+        this.outstandingLockRequestMultimap = LockClientIndex.create(options.useStripedClientState(), HashSet::new);
+        this.versionIdMap = LockClientIndex.create(options.useStripedClientState(), TreeMultiset::create);
     }
 
     private HeldLocksToken createHeldLocksToken(LockClient client,
@@ -655,12 +653,10 @@ public final class LockServiceImpl
             throw new SafeIllegalArgumentException("Illegal client!");
         }
         ImmutableSet.Builder<HeldLocksToken> tokens = ImmutableSet.builder();
-        synchronized (lockClientMultimap) {
-            for (HeldLocksToken token : lockClientMultimap.get(client)) {
-                @Nullable HeldLocks<HeldLocksToken> heldLocks = heldLocksTokenMap.get(token);
-                if ((heldLocks != null) && !isFrozen(heldLocks.locks.getKeys())) {
-                    tokens.add(token);
-                }
+        for (HeldLocksToken token : lockClientMultimap.read(client, ImmutableList::copyOf)) {
+            @Nullable HeldLocks<HeldLocksToken> heldLocks = heldLocksTokenMap.get(token);
+            if ((heldLocks != null) && !isFrozen(heldLocks.locks.getKeys())) {
+                tokens.add(token);
             }
         }
         ImmutableSet<HeldLocksToken> tokenSet = tokens.build();
@@ -950,13 +946,8 @@ public final class LockServiceImpl
 
     @Override
     @Nullable public Long getMinLockedInVersionId(LockClient client) {
-        Long versionId = null;
-        synchronized (versionIdMap) {
-            Collection<Long> versionsForClient = versionIdMap.get(client);
-            if (versionsForClient != null && !versionsForClient.isEmpty()) {
-                versionId = versionsForClient.iterator().next();
-            }
-        }
+        Long versionId = versionIdMap.read(client,
+                versionsForClient -> versionsForClient.isEmpty() ? null : versionsForClient.iterator().next());
         if (log.isTraceEnabled()) {
             log.trace(".getMinLockedInVersionId() returns {}", versionId);
         }
@@ -1059,7 +1050,7 @@ public final class LockServiceImpl
     private void logAllHeldAndOutstandingLocks() throws IOException {
         LockServiceStateLogger lockServiceStateLogger = new LockServiceStateLogger(
                 heldLocksTokenMap,
-                outstandingLockRequestMultimap,
+                outstandingLockRequestMultimap.snapshot(),
                 descriptorToLockMap.asMap(),
                 lockStateLoggerDir);
         lockServiceStateLogger.logLocks();
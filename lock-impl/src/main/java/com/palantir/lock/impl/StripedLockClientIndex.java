@@ -0,0 +1,89 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.impl;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.SetMultimap;
+import com.palantir.lock.LockClient;
+
+/**
+ * A {@link LockClientIndex} in which the values of each client are only ever accessed from within an atomic
+ * {@link ConcurrentHashMap} computation on that client, so that operations on different clients do not contend.
+ * Clients without values are removed from the map.
+ */
+final class StripedLockClientIndex<V> implements LockClientIndex<V> {
+    private final ConcurrentMap<LockClient, Collection<V>> valuesByClient = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final Supplier<? extends Collection<V>> valuesFactory;
+
+    StripedLockClientIndex(Supplier<? extends Collection<V>> valuesFactory) {
+        this.valuesFactory = valuesFactory;
+    }
+
+    @Override
+    public void put(LockClient client, V value) {
+        valuesByClient.compute(client, (unused, values) -> {
+            Collection<V> valuesForClient = values == null ? valuesFactory.get() : values;
+            if (valuesForClient.add(value)) {
+                size.incrementAndGet();
+            }
+            return valuesForClient;
+        });
+    }
+
+    @Override
+    public void remove(LockClient client, V value) {
+        valuesByClient.computeIfPresent(client, (unused, values) -> {
+            if (values.remove(value)) {
+                size.decrementAndGet();
+            }
+            return values.isEmpty() ? null : values;
+        });
+    }
+
+    @Override
+    public <T> T read(LockClient client, Function<? super Collection<V>, T> reader) {
+        AtomicReference<T> result = new AtomicReference<>();
+        Collection<V> values = valuesByClient.computeIfPresent(client, (unused, valuesForClient) -> {
+            result.set(reader.apply(valuesForClient));
+            return valuesForClient;
+        });
+        return values == null ? reader.apply(ImmutableList.of()) : result.get();
+    }
+
+    @Override
+    public SetMultimap<LockClient, V> snapshot() {
+        ImmutableSetMultimap.Builder<LockClient, V> builder = ImmutableSetMultimap.builder();
+        for (LockClient client : valuesByClient.keySet()) {
+            read(client, values -> builder.putAll(client, values));
+        }
+        return builder.build();
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+}
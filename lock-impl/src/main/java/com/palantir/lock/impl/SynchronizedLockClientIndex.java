@@ -0,0 +1,68 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.impl;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
+import com.google.common.collect.SetMultimap;
+import com.palantir.lock.LockClient;
+
+/**
+ * A {@link LockClientIndex} guarded by a single monitor, which is shared by all clients.
+ */
+final class SynchronizedLockClientIndex<V> implements LockClientIndex<V> {
+    private final Multimap<LockClient, V> valuesByClient;
+
+    SynchronizedLockClientIndex(Supplier<? extends Collection<V>> valuesFactory) {
+        this.valuesByClient = Multimaps.synchronizedMultimap(
+                Multimaps.newMultimap(new HashMap<LockClient, Collection<V>>(), valuesFactory::get));
+    }
+
+    @Override
+    public void put(LockClient client, V value) {
+        valuesByClient.put(client, value);
+    }
+
+    @Override
+    public void remove(LockClient client, V value) {
+        valuesByClient.remove(client, value);
+    }
+
+    @Override
+    public <T> T read(LockClient client, Function<? super Collection<V>, T> reader) {
+        synchronized (valuesByClient) {
+            return reader.apply(valuesByClient.get(client));
+        }
+    }
+
+    @Override
+    public SetMultimap<LockClient, V> snapshot() {
+        synchronized (valuesByClient) {
+            return ImmutableSetMultimap.copyOf(valuesByClient);
+        }
+    }
+
+    @Override
+    public int size() {
+        return valuesByClient.size();
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock;
+
+import com.palantir.lock.impl.LockServiceImpl;
+import com.palantir.lock.logger.LockServiceTestUtils;
+
+public final class StripedLockServiceIntegrationTest extends LockServiceTest {
+    @Override
+    protected LockService getLockService() {
+        return LockServiceImpl.create(LockServerOptions.builder()
+                .isStandaloneServer(false)
+                .lockStateLoggerDir(LockServiceTestUtils.TEST_LOG_STATE_DIR)
+                .useStripedClientState(true)
+                .build());
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.TreeMultiset;
+import com.palantir.lock.LockClient;
+
+@RunWith(Parameterized.class)
+public class LockClientIndexTest {
+    private static final LockClient CLIENT_A = LockClient.of("a");
+    private static final LockClient CLIENT_B = LockClient.of("b");
+
+    @Parameterized.Parameters(name = "striped = {0}")
+    public static Iterable<Boolean> data() {
+        return ImmutableList.of(false, true);
+    }
+
+    @Parameterized.Parameter
+    public boolean striped;
+
+    @Test
+    public void readsValuesOfClient() {
+        LockClientIndex<String> index = LockClientIndex.create(striped, HashSet::new);
+        index.put(CLIENT_A, "foo");
+        index.put(CLIENT_A, "bar");
+        index.put(CLIENT_B, "baz");
+
+        assertThat(index.read(CLIENT_A, ImmutableList::copyOf)).containsExactlyInAnyOrder("foo", "bar");
+        assertThat(index.read(CLIENT_B, ImmutableList::copyOf)).containsExactly("baz");
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.snapshot()).isEqualTo(ImmutableSetMultimap.of(
+                CLIENT_A, "foo", CLIENT_A, "bar", CLIENT_B, "baz"));
+    }
+
+    @Test
+    public void readsEmptyValuesForUnknownClient() {
+        LockClientIndex<String> index = LockClientIndex.create(striped, HashSet::new);
+
+        assertThat(index.read(CLIENT_A, ImmutableList::copyOf)).isEmpty();
+    }
+
+    @Test
+    public void removesOnlyGivenValue() {
+        LockClientIndex<String> index = LockClientIndex.create(striped, HashSet::new);
+        index.put(CLIENT_A, "foo");
+        index.put(CLIENT_A, "bar");
+
+        index.remove(CLIENT_A, "foo");
+        index.remove(CLIENT_A, "unknown");
+        index.remove(CLIENT_B, "bar");
+
+        assertThat(index.read(CLIENT_A, ImmutableList::copyOf)).containsExactly("bar");
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void valuesAreOrderedByCollection() {
+        LockClientIndex<Long> index = LockClientIndex.create(striped, TreeMultiset::create);
+        index.put(CLIENT_A, 5L);
+        index.put(CLIENT_A, 3L);
+        index.put(CLIENT_A, 3L);
+        index.remove(CLIENT_A, 3L);
+
+        assertThat(index.read(CLIENT_A, ImmutableList::copyOf)).containsExactly(3L, 5L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void concurrentUpdatesAreNotLost() throws Exception {
+        LockClientIndex<Integer> index = LockClientIndex.create(striped, HashSet::new);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = IntStream.range(0, 8)
+                    .mapToObj(thread -> executor.submit(() -> {
+                        LockClient client = thread % 2 == 0 ? CLIENT_A : CLIENT_B;
+                        for (int i = 0; i < 1_000; i++) {
+                            int value = thread * 1_000 + i;
+                            index.put(client, value);
+                            if (i % 2 == 0) {
+                                index.remove(client, value);
+                            }
+                        }
+                    }))
+                    .collect(Collectors.toList());
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(index.size()).isEqualTo(4_000);
+        assertThat(index.read(CLIENT_A, ImmutableList::copyOf)).hasSize(2_000);
+        assertThat(index.read(CLIENT_B, ImmutableList::copyOf)).hasSize(2_000);
+    }
+}
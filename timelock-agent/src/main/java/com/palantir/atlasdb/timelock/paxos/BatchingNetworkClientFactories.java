@@ -26,6 +26,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.palantir.common.streams.KeyedStream;
 import com.palantir.paxos.PaxosAcceptorNetworkClient;
+import com.palantir.paxos.PaxosLatestRoundVerifier;
 import com.palantir.paxos.PaxosLearnerNetworkClient;
 
 @Value.Immutable
@@ -91,6 +92,18 @@ abstract class BatchingNetworkClientFactories implements
                 client);
     }
 
+    /**
+     * Leadership checks for all clients are batched together by the acceptor network client factory, so we do not
+     * additionally coalesce them per client; batching twice would only add context switches on the hot path.
+     */
+    @Override
+    public Factory<PaxosLatestRoundVerifier> latestRoundVerifier() {
+        return client -> metrics().instrument(
+                PaxosLatestRoundVerifier.class,
+                acceptorNetworkClientFactory().latestRoundVerifierForClient(client),
+                client);
+    }
+
     public abstract static class Builder implements NetworkClientFactories.Builder {}
 
 }
@@ -69,7 +69,6 @@ public interface Dependencies {
         com.palantir.atlasdb.timelock.paxos.NetworkClientFactories networkClientFactories();
         Supplier<PaxosRuntimeConfiguration> runtime();
         AutobatchingLeadershipObserverFactory leadershipObserverFactory();
-        Factories.PaxosLatestRoundVerifierFactory latestRoundVerifierFactory();
     }
 
     interface LeaderElectionService {
@@ -81,7 +80,6 @@ public interface Dependencies {
         PaxosLeadershipEventRecorder eventRecorder();
         PaxosLearner localLearner();
         com.palantir.atlasdb.timelock.paxos.NetworkClientFactories networkClientFactories();
-        Factories.PaxosLatestRoundVerifierFactory latestRoundVerifierFactory();
     }
 
     interface HealthCheckPinger {
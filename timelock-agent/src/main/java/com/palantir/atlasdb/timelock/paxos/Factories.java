@@ -25,9 +25,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 import com.palantir.atlasdb.timelock.paxos.NetworkClientFactories.Factory;
 import com.palantir.paxos.LeaderPinger;
-import com.palantir.paxos.PaxosAcceptorNetworkClient;
 import com.palantir.paxos.PaxosConstants;
-import com.palantir.paxos.PaxosLatestRoundVerifier;
 import com.palantir.paxos.SingleLeaderPinger;
 import com.palantir.timelock.paxos.HealthCheckPinger;
 
@@ -46,10 +44,6 @@ public interface Factories {
         LocalAndRemotes<HealthCheckPinger> create(Dependencies.HealthCheckPinger dependencies);
     }
 
-    interface PaxosLatestRoundVerifierFactory {
-        PaxosLatestRoundVerifier create(PaxosAcceptorNetworkClient acceptorNetworkClient);
-    }
-
     @Value.Immutable
     abstract class BatchingLeaderPingerFactory implements LeaderPingerFactoryContainer, Dependencies.LeaderPinger {
 
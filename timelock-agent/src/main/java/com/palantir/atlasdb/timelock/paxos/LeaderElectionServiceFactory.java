@@ -50,7 +50,8 @@ public class LeaderElectionServiceFactory {
                 .knowledge(dependencies.localLearner())
                 .acceptorClient(acceptorClient)
                 .learnerClient(dependencies.networkClientFactories().learner().create(dependencies.paxosClient()))
-                .latestRoundVerifier(dependencies.latestRoundVerifierFactory().create(acceptorClient))
+                .latestRoundVerifier(
+                        dependencies.networkClientFactories().latestRoundVerifier().create(dependencies.paxosClient()))
                 .decorateProposer(uninstrumentedPaxosProposer -> instrumentProposer(
                         dependencies.paxosClient(),
                         dependencies.metrics(),
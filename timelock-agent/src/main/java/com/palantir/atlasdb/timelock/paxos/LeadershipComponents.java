@@ -19,9 +19,17 @@ package com.palantir.atlasdb.timelock.paxos;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 
 import org.immutables.value.Value;
 import org.slf4j.Logger;
@@ -43,28 +51,76 @@ public class LeadershipComponents {
 
     private static final Logger log = LoggerFactory.getLogger(LeadershipComponents.class);
 
-    private final ConcurrentMap<Client, LeadershipContext> leadershipContextByClient = Maps.newConcurrentMap();
+    private final ConcurrentMap<Client, LeadershipContext> leadershipContextByGroup = Maps.newConcurrentMap();
     private final ShutdownAwareCloser closer = new ShutdownAwareCloser();
 
+    // guarded by this
+    private final Map<Client, Integer> proxyCountByGroup = new HashMap<>();
+    private final Map<Object, ProxyRegistration> registrationByProxy = new IdentityHashMap<>();
+    private final Map<LeadershipContext, ContextRegistration> registrationByContext = new IdentityHashMap<>();
+
     private final Factory<LeadershipContext> leadershipContextFactory;
     private final LocalAndRemotes<HealthCheckPinger> healthCheckPingers;
+    private final UnaryOperator<Client> leadershipGroups;
 
     LeadershipComponents(
             Factory<LeadershipContext> leadershipContextFactory,
-            LocalAndRemotes<HealthCheckPinger> healthCheckPingers) {
+            LocalAndRemotes<HealthCheckPinger> healthCheckPingers,
+            UnaryOperator<Client> leadershipGroups) {
         this.leadershipContextFactory = leadershipContextFactory;
         this.healthCheckPingers = healthCheckPingers;
+        this.leadershipGroups = leadershipGroups;
     }
 
+    /**
+     * Wraps the given delegate in a proxy that is only usable while this node leads the given client. The proxy
+     * should be passed to {@link #closeLeadershipProxy(Object)} once it is no longer needed; otherwise it is closed
+     * when timelock shuts down.
+     */
     public <T> T wrapInLeadershipProxy(Client client, Class<T> clazz, Supplier<T> delegateSupplier) {
-        LeadershipContext context = getOrCreateNewLeadershipContext(client);
+        Client leadershipGroup = leadershipGroups.apply(client);
+        LeadershipContext context = acquireLeadershipContext(leadershipGroup);
         T instance = AwaitingLeadershipProxy.newProxyInstance(clazz, delegateSupplier, context.leaderElectionService());
 
         // this is acceptable since the proxy returned implements Closeable and needs to be closed
         Closeable closeableInstance = (Closeable) instance;
-        closer.register(closeableInstance);
+        T instrumentedInstance = context.leadershipMetrics().instrument(clazz, instance);
+        ProxyRegistration registration = ImmutableProxyRegistration.of(leadershipGroup, closeableInstance);
+        synchronized (this) {
+            registrationByProxy.put(instrumentedInstance, registration);
+        }
+        try {
+            closer.register(closeableInstance);
+        } catch (RuntimeException e) {
+            closeLeadershipProxy(instrumentedInstance);
+            throw e;
+        }
 
-        return context.leadershipMetrics().instrument(clazz, instance);
+        return instrumentedInstance;
+    }
+
+    /**
+     * Closes a proxy returned by {@link #wrapInLeadershipProxy(Client, Class, Supplier)}. Once no proxy of a
+     * leadership group remains, the leadership context of the group is released as well; it is created again if
+     * the group is used afterwards. Closing a proxy more than once has no further effect.
+     */
+    public void closeLeadershipProxy(Object proxy) {
+        ProxyRegistration registration;
+        Optional<ContextRegistration> releasedContext;
+        synchronized (this) {
+            registration = registrationByProxy.remove(proxy);
+            if (registration == null) {
+                return;
+            }
+            releasedContext = releaseLeadershipContext(registration.leadershipGroup());
+        }
+        closer.deregister(registration.proxy());
+        closeQuietly(registration.proxy());
+        releasedContext.ifPresent(context -> {
+            // no need to step down: this node's leadership is picked up again if the context is recreated
+            closer.deregister(context.shutdownHook());
+            closeQuietly(context.ownedResources());
+        });
     }
 
     public void shutdown() {
@@ -76,21 +132,54 @@ public class LeadershipComponents {
     }
 
     public LeaderPingHealthCheck healthCheck(NamespaceTracker namespaceTracker) {
-        return new LeaderPingHealthCheck(namespaceTracker, healthCheckPingers.all());
+        NamespaceTracker leadershipGroupTracker = () -> namespaceTracker.trackedNamespaces().stream()
+                .map(leadershipGroups)
+                .collect(Collectors.toSet());
+        return new LeaderPingHealthCheck(leadershipGroupTracker, healthCheckPingers.all());
     }
 
     public boolean requestHostileTakeover(Client client) {
-        return getOrCreateNewLeadershipContext(client).leaderElectionService().hostileTakeover();
+        return getOrCreateNewLeadershipContext(leadershipGroups.apply(client)).leaderElectionService()
+                .hostileTakeover();
+    }
+
+    private synchronized LeadershipContext acquireLeadershipContext(Client leadershipGroup) {
+        LeadershipContext context = getOrCreateNewLeadershipContext(leadershipGroup);
+        proxyCountByGroup.merge(leadershipGroup, 1, Integer::sum);
+        return context;
     }
 
-    private LeadershipContext getOrCreateNewLeadershipContext(Client client) {
-        return leadershipContextByClient.computeIfAbsent(client, this::createNewLeadershipContext);
+    private synchronized Optional<ContextRegistration> releaseLeadershipContext(Client leadershipGroup) {
+        int remainingProxies = proxyCountByGroup.merge(leadershipGroup, -1, Integer::sum);
+        if (remainingProxies > 0) {
+            return Optional.empty();
+        }
+        proxyCountByGroup.remove(leadershipGroup);
+        LeadershipContext context = leadershipContextByGroup.remove(leadershipGroup);
+        return Optional.ofNullable(context).map(registrationByContext::remove);
     }
 
-    private LeadershipContext createNewLeadershipContext(Client client) {
-        LeadershipContext uninstrumentedLeadershipContext = leadershipContextFactory.create(client);
-        closer.register(uninstrumentedLeadershipContext.closeables());
-        closer.register(() -> shutdownLeaderElectionService(uninstrumentedLeadershipContext.leaderElectionService()));
+    private synchronized LeadershipContext getOrCreateNewLeadershipContext(Client leadershipGroup) {
+        // clients in the same leadership group share a leader election service, and so a pinger and proposer
+        return leadershipContextByGroup.computeIfAbsent(leadershipGroup, this::createNewLeadershipContext);
+    }
+
+    private LeadershipContext createNewLeadershipContext(Client leadershipGroup) {
+        LeadershipContext uninstrumentedLeadershipContext = leadershipContextFactory.create(leadershipGroup);
+        closer.register(uninstrumentedLeadershipContext.sharedCloseables());
+
+        LeaderElectionService leaderElectionService = uninstrumentedLeadershipContext.leaderElectionService();
+        Closer ownedResources = Closer.create();
+        uninstrumentedLeadershipContext.closeables().forEach(ownedResources::register);
+        ownedResources.register(leaderElectionService::markNotEligibleForLeadership);
+        Closeable shutdownHook = () -> {
+            shutdownLeaderElectionService(leaderElectionService);
+            ownedResources.close();
+        };
+        closer.register(shutdownHook);
+
+        registrationByContext.put(uninstrumentedLeadershipContext,
+                ImmutableContextRegistration.of(shutdownHook, ownedResources));
         return uninstrumentedLeadershipContext;
     }
 
@@ -99,9 +188,17 @@ public class LeadershipComponents {
         leaderElectionService.stepDown();
     }
 
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to close leadership resources that are no longer used.", e);
+        }
+    }
+
     private static class ShutdownAwareCloser {
         private boolean isShutdown = false;
-        private final Closer closer = Closer.create();
+        private final Set<Closeable> closeables = new LinkedHashSet<>();
 
         synchronized void register(Closeable closeable) {
             register(ImmutableList.of(closeable));
@@ -121,10 +218,17 @@ public class LeadershipComponents {
                 immediateCloser.shutdown();
                 throw new NotCurrentLeaderException("This timelock node is being shutdown");
             } else {
-                closeables.forEach(closer::register);
+                this.closeables.addAll(closeables);
             }
         }
 
+        /**
+         * Stops tracking a {@link Closeable} that has been closed by its owner before timelock shuts down.
+         */
+        synchronized void deregister(Closeable closeable) {
+            closeables.remove(closeable);
+        }
+
         /**
          * This is to be called when timelock is shutting down. It will close in LIFO order any resources that were
          * registered during their creation.
@@ -134,6 +238,9 @@ public class LeadershipComponents {
                 return;
             }
 
+            Closer closer = Closer.create();
+            closeables.forEach(closer::register);
+            closeables.clear();
             try {
                 closer.close();
             } catch (IOException e) {
@@ -144,10 +251,37 @@ public class LeadershipComponents {
         }
     }
 
+    @Value.Immutable
+    interface ProxyRegistration {
+        @Value.Parameter
+        Client leadershipGroup();
+
+        @Value.Parameter
+        Closeable proxy();
+    }
+
+    @Value.Immutable
+    interface ContextRegistration {
+        @Value.Parameter
+        Closeable shutdownHook();
+
+        @Value.Parameter
+        Closeable ownedResources();
+    }
+
     @Value.Immutable
     abstract static class LeadershipContext {
         abstract LeaderElectionService leaderElectionService();
         abstract TimelockLeadershipMetrics leadershipMetrics();
+
+        /**
+         * Resources used by this context alone, closed once the context is released or timelock shuts down.
+         */
         abstract List<Closeable> closeables();
+
+        /**
+         * Resources shared with the contexts of other leadership groups, closed only when timelock shuts down.
+         */
+        abstract List<Closeable> sharedCloseables();
     }
 }
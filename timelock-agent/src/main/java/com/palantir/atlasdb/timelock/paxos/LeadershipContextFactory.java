@@ -18,6 +18,7 @@ package com.palantir.atlasdb.timelock.paxos;
 
 import java.time.Duration;
 import java.util.UUID;
+import java.util.function.UnaryOperator;
 
 import org.immutables.value.Value;
 
@@ -43,7 +44,6 @@ public abstract class LeadershipContextFactory implements
     abstract Factories.LeaderPingHealthCheckFactory healthCheckPingersFactory();
     abstract NetworkClientFactories.Builder networkClientFactoryBuilder();
     abstract Factories.LeaderPingerFactoryContainer.Builder leaderPingerFactoryBuilder();
-    public abstract Factories.PaxosLatestRoundVerifierFactory latestRoundVerifierFactory();
 
     @Value.Derived
     @Override
@@ -62,6 +62,15 @@ public abstract class LeadershipContextFactory implements
                 install().install().paxos().canCreateNewClients());
     }
 
+    /**
+     * Maps each client to the client whose leader it follows. Clients that map to the same client share a leader,
+     * and {@link #create(Client)} is called with the client they map to.
+     */
+    @Value.Default
+    public UnaryOperator<Client> leadershipGroups() {
+        return UnaryOperator.identity();
+    }
+
     @Value.Derived
     public UUID leaderUuid() {
         return install().nodeUuid();
@@ -106,12 +115,17 @@ public abstract class LeadershipContextFactory implements
 
         BatchingLeaderElectionService leaderElectionService =
                 leaderElectionServiceFactory().create(clientAwareComponents);
-        return ImmutableLeadershipContext.builder()
+        ImmutableLeadershipContext.Builder context = ImmutableLeadershipContext.builder()
                 .leadershipMetrics(clientAwareComponents.leadershipMetrics())
                 .leaderElectionService(leaderElectionService)
                 .addCloseables(leaderElectionService)
-                .addAllCloseables(leaderPingerFactory().closeables())
-                .build();
+                .addAllSharedCloseables(leaderPingerFactory().closeables());
+        if (useCase() == PaxosUseCase.LEADER_FOR_EACH_CLIENT) {
+            // the paxos client is only used by this context; with a single leader, all contexts share it
+            Client paxosClient = clientAwareComponents.paxosClient();
+            context.addCloseables(() -> components().release(paxosClient));
+        }
+        return context.build();
     }
 
     @Value.Derived
@@ -0,0 +1,53 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.paxos;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.UnaryOperator;
+
+import com.google.common.hash.Hashing;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.paxos.Client;
+
+/**
+ * Partitions clients into a fixed number of shards, each of which elects its own leader through the batched
+ * leadership Paxos endpoints, so that different nodes of the cluster may lead different shards. A client is mapped to
+ * the pseudo-client of its shard, which is never a valid namespace. Clients are assigned with consistent hashing, so
+ * changing the number of shards moves as few clients as possible to a different shard.
+ */
+public final class LeadershipShards implements UnaryOperator<Client> {
+    private static final String SHARD_CLIENT_PREFIX = "leadershipShard.";
+
+    private final int numberOfShards;
+
+    public LeadershipShards(int numberOfShards) {
+        Preconditions.checkArgument(numberOfShards > 0, "The number of shards must be positive",
+                SafeArg.of("numberOfShards", numberOfShards));
+        this.numberOfShards = numberOfShards;
+    }
+
+    @Override
+    public Client apply(Client client) {
+        return Client.of(SHARD_CLIENT_PREFIX + shard(client));
+    }
+
+    int shard(Client client) {
+        return Hashing.consistentHash(
+                Hashing.murmur3_128().hashString(client.value(), StandardCharsets.UTF_8),
+                numberOfShards);
+    }
+}
@@ -22,7 +22,10 @@ import java.util.List;
 import org.immutables.value.Value;
 
 import com.palantir.paxos.Client;
+import com.palantir.paxos.CoalescingPaxosLatestRoundVerifier;
 import com.palantir.paxos.PaxosAcceptorNetworkClient;
+import com.palantir.paxos.PaxosLatestRoundVerifier;
+import com.palantir.paxos.PaxosLatestRoundVerifierImpl;
 import com.palantir.paxos.PaxosLearnerNetworkClient;
 
 @Value.Immutable
@@ -32,6 +35,11 @@ public interface NetworkClientFactories {
     Factory<PaxosLearnerNetworkClient> learner();
     List<Closeable> closeables();
 
+    default Factory<PaxosLatestRoundVerifier> latestRoundVerifier() {
+        return client -> new CoalescingPaxosLatestRoundVerifier(
+                new PaxosLatestRoundVerifierImpl(acceptor().create(client)));
+    }
+
     interface Factory<T> {
         T create(Client client);
     }
@@ -26,6 +26,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.palantir.atlasdb.timelock.paxos.NetworkClientFactories.Factory;
 import com.palantir.common.streams.KeyedStream;
+import com.palantir.paxos.Client;
 import com.palantir.timestamp.ManagedTimestampService;
 
 @Value.Immutable
@@ -66,7 +67,15 @@ public abstract class PaxosResources {
     public LeadershipComponents leadershipComponents() {
         return new LeadershipComponents(
                 leadershipContextFactory(),
-                leadershipContextFactory().healthCheckPingers());
+                leadershipContextFactory().healthCheckPingers(),
+                leadershipContextFactory().leadershipGroups());
+    }
+
+    /**
+     * Releases the timestamp Paxos components of a client whose timestamp service has been discarded.
+     */
+    public void releaseTimestampComponents(Client client) {
+        timestampPaxosComponents().release(client);
     }
 
     private static BatchPaxosResources batchResourcesFromComponents(LocalPaxosComponents components) {
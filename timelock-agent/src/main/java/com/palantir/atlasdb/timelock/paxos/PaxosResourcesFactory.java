@@ -22,6 +22,7 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 import org.immutables.value.Value;
@@ -34,9 +35,8 @@ import com.palantir.conjure.java.api.config.service.UserAgent;
 import com.palantir.conjure.java.config.ssl.SslSocketFactories;
 import com.palantir.conjure.java.config.ssl.TrustContext;
 import com.palantir.leader.PingableLeader;
-import com.palantir.paxos.CoalescingPaxosLatestRoundVerifier;
+import com.palantir.paxos.Client;
 import com.palantir.paxos.PaxosAcceptorNetworkClient;
-import com.palantir.paxos.PaxosLatestRoundVerifierImpl;
 import com.palantir.paxos.PaxosLearnerNetworkClient;
 import com.palantir.paxos.PaxosProposer;
 import com.palantir.paxos.PaxosProposerImpl;
@@ -105,11 +105,6 @@ public final class PaxosResourcesFactory {
                             .collect(Collectors.toList()));
         };
 
-        // we do *not* use CoalescingPaxosLatestRoundVerifier because any coalescing will happen in the
-        // AutobatchingPaxosAcceptorNetworkClient. This is for us to avoid context switching as much as possible on the
-        // hot path since batching twice doesn't necessarily give us anything.
-        Factories.PaxosLatestRoundVerifierFactory latestRoundVerifierFactory = PaxosLatestRoundVerifierImpl::new;
-
         LeadershipContextFactory factory = ImmutableLeadershipContextFactory.builder()
                 .install(install)
                 .sharedExecutor(sharedExecutor)
@@ -117,10 +112,10 @@ public final class PaxosResourcesFactory {
                 .runtime(paxosRuntime)
                 .useCase(PaxosUseCase.LEADER_FOR_EACH_CLIENT)
                 .metrics(timelockMetrics)
+                .leadershipGroups(install.leadershipGroups())
                 .networkClientFactoryBuilder(ImmutableBatchingNetworkClientFactories.builder())
                 .leaderPingerFactoryBuilder(ImmutableBatchingLeaderPingerFactory.builder())
                 .healthCheckPingersFactory(healthCheckPingersFactory)
-                .latestRoundVerifierFactory(latestRoundVerifierFactory)
                 .build();
 
         return resourcesBuilder
@@ -150,9 +145,6 @@ public final class PaxosResourcesFactory {
                             .collect(Collectors.toList()));
         };
 
-        Factories.PaxosLatestRoundVerifierFactory latestRoundVerifierFactory = acceptorClient ->
-                new CoalescingPaxosLatestRoundVerifier(new PaxosLatestRoundVerifierImpl(acceptorClient));
-
         LeadershipContextFactory factory = ImmutableLeadershipContextFactory.builder()
                 .install(install)
                 .sharedExecutor(sharedExecutor)
@@ -164,7 +156,6 @@ public final class PaxosResourcesFactory {
                         .useBatchedEndpoints(() -> paxosRuntime.get().enableBatchingForSingleLeader()))
                 .leaderPingerFactoryBuilder(ImmutableSingleLeaderPingerFactory.builder())
                 .healthCheckPingersFactory(healthCheckPingersFactory)
-                .latestRoundVerifierFactory(latestRoundVerifierFactory)
                 .build();
 
         return resourcesBuilder
@@ -316,7 +307,16 @@ public final class PaxosResourcesFactory {
 
         @Value.Derived
         default boolean useLeaderForEachClient() {
-            return install().paxos().leaderMode() == PaxosLeaderMode.LEADER_PER_CLIENT;
+            PaxosLeaderMode leaderMode = install().paxos().leaderMode();
+            return leaderMode == PaxosLeaderMode.LEADER_PER_CLIENT || leaderMode == PaxosLeaderMode.LEADER_PER_SHARD;
+        }
+
+        @Value.Derived
+        default UnaryOperator<Client> leadershipGroups() {
+            if (install().paxos().leaderMode() == PaxosLeaderMode.LEADER_PER_SHARD) {
+                return new LeadershipShards(install().paxos().leaderShards());
+            }
+            return UnaryOperator.identity();
         }
 
     }
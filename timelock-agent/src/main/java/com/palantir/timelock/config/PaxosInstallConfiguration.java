@@ -69,6 +69,10 @@ public interface PaxosInstallConfiguration {
     enum PaxosLeaderMode {
         SINGLE_LEADER,
         LEADER_PER_CLIENT,
+        /**
+         * Clients are partitioned into {@link #leaderShards()} groups, each of which elects its own leader.
+         */
+        LEADER_PER_SHARD,
         AUTO_MIGRATION_MODE
     }
 
@@ -78,6 +82,22 @@ public interface PaxosInstallConfiguration {
         return PaxosLeaderMode.SINGLE_LEADER;
     }
 
+    /**
+     * The number of groups that clients are partitioned into when using {@link PaxosLeaderMode#LEADER_PER_SHARD}.
+     * This must be the same on all nodes of the cluster, and should only be changed while the whole cluster is down,
+     * as otherwise different nodes may consider themselves the leader for the same client.
+     */
+    @JsonProperty("leader-shards")
+    @Value.Default
+    default int leaderShards() {
+        return 16;
+    }
+
+    @Value.Check
+    default void checkLeaderShardsIsPositive() {
+        Preconditions.checkArgument(leaderShards() > 0, "The number of leader shards must be positive");
+    }
+
     @Value.Check
     default void checkLeaderModeIsNotInAutoMigrationMode() {
         Preconditions.checkState(
@@ -15,6 +15,8 @@
  */
 package com.palantir.timelock.config;
 
+import java.util.Optional;
+
 import org.immutables.value.Value;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
@@ -22,7 +24,9 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.google.common.base.Preconditions;
+import com.palantir.atlasdb.timelock.NamespaceRequestSchedulingConfig;
 import com.palantir.atlasdb.timelock.lock.watch.LockWatchTestRuntimeConfig;
+import com.palantir.lock.LockServerOptions;
 
 /**
  * Dynamic (live-reloaded) portions of TimeLock's configuration.
@@ -58,17 +62,52 @@ public abstract class TimeLockRuntimeConfiguration {
         return 10000;
     }
 
+    /**
+     * If true, the legacy lock service of each client tracks its per-client state in structures that are only locked
+     * per lock client, rather than behind monitors shared by all lock clients. Only applies to clients whose lock
+     * service is created after the change. Disabled by default.
+     */
+    @JsonProperty("striped-legacy-lock-client-state")
+    @Value.Default
+    public boolean stripedLegacyLockClientState() {
+        return false;
+    }
+
     @JsonProperty("test-only-lock-watches")
     @Value.Default
     public LockWatchTestRuntimeConfig lockWatchTestConfig() {
         return LockWatchTestRuntimeConfig.defaultConfig();
     }
 
+    /**
+     * Per-namespace request limits, used to stop a single misbehaving client from degrading TimeLock's latency for all
+     * other clients. Disabled by default.
+     */
+    @JsonProperty("request-scheduling")
+    @Value.Default
+    public NamespaceRequestSchedulingConfig requestScheduling() {
+        return NamespaceRequestSchedulingConfig.disabled();
+    }
+
+    /**
+     * If present, the services of a client that has not made a request for this many milliseconds and holds no locks
+     * are discarded, and created again from persisted state when the client next makes a request. This bounds the
+     * memory used by clients that are no longer active. Locks taken out through the legacy lock service are not
+     * tracked, so this must be at least their maximum allowed timeout (ten minutes). Disabled by default.
+     */
+    @JsonProperty("idle-namespace-expiry-millis")
+    public abstract Optional<Long> idleNamespaceExpiryMillis();
+
     @Value.Check
     public void check() {
         Preconditions.checkState(maxNumberOfClients() >= 0,
                 "Maximum number of clients must be non-negative, but found %s", maxNumberOfClients());
         Preconditions.checkState(slowLockLogTriggerMillis() >= 0,
                 "Slow lock log trigger threshold must be non-negative, but found %s", slowLockLogTriggerMillis());
+        idleNamespaceExpiryMillis().ifPresent(expiry -> Preconditions.checkState(
+                expiry >= LockServerOptions.DEFAULT.getMaxAllowedLockTimeout().toMillis(),
+                "Idle namespace expiry must be at least the maximum allowed lock timeout of %s ms, but found %s",
+                LockServerOptions.DEFAULT.getMaxAllowedLockTimeout().toMillis(),
+                expiry));
     }
 }
@@ -29,6 +29,8 @@ import com.palantir.atlasdb.debug.LockDiagnosticConfig;
 import com.palantir.atlasdb.timelock.AsyncTimelockResource;
 import com.palantir.atlasdb.timelock.AsyncTimelockService;
 import com.palantir.atlasdb.timelock.AsyncTimelockServiceImpl;
+import com.palantir.atlasdb.timelock.ImmutableTimeLockServices;
+import com.palantir.atlasdb.timelock.NamespaceRequestScheduler;
 import com.palantir.atlasdb.timelock.TimeLockServices;
 import com.palantir.atlasdb.timelock.lock.AsyncLockService;
 import com.palantir.atlasdb.timelock.lock.LockLog;
@@ -37,6 +39,8 @@ import com.palantir.atlasdb.timelock.paxos.LeadershipComponents;
 import com.palantir.atlasdb.util.MetricsManager;
 import com.palantir.common.concurrent.NamedThreadFactory;
 import com.palantir.common.concurrent.PTExecutors;
+import com.palantir.leader.NotCurrentLeaderException;
+import com.palantir.lock.CloseableLockService;
 import com.palantir.lock.LockService;
 import com.palantir.logsafe.SafeArg;
 import com.palantir.paxos.Client;
@@ -49,17 +53,20 @@ public class AsyncTimeLockServicesCreator implements TimeLockServicesCreator {
     private final LockLog lockLog;
     private final LeadershipComponents leadershipComponents;
     private final Map<Client, LockDiagnosticConfig> lockDiagnosticConfig;
+    private final NamespaceRequestScheduler requestScheduler;
 
     AsyncTimeLockServicesCreator(
             MetricsManager metricsManager,
             LockLog lockLog,
             LeadershipComponents leadershipComponents,
             // TODO(fdesouza): Remove this once PDS-95791 is resolved.
-            Map<Client, LockDiagnosticConfig> lockDiagnosticConfig) {
+            Map<Client, LockDiagnosticConfig> lockDiagnosticConfig,
+            NamespaceRequestScheduler requestScheduler) {
         this.metricsManager = metricsManager;
         this.lockLog = lockLog;
         this.leadershipComponents = leadershipComponents;
         this.lockDiagnosticConfig = lockDiagnosticConfig;
+        this.requestScheduler = requestScheduler;
     }
 
     @Override
@@ -70,25 +77,47 @@ public class AsyncTimeLockServicesCreator implements TimeLockServicesCreator {
         log.info("Creating async timelock services for client {}", SafeArg.of("client", client));
         LockLog maybeEnhancedLockLog = maybeEnhancedLockLog(client);
 
-        AsyncTimelockService asyncTimelockService = leadershipComponents.wrapInLeadershipProxy(
+        AsyncTimelockService leadershipProxiedTimelockService = leadershipComponents.wrapInLeadershipProxy(
                 client,
                 AsyncTimelockService.class,
                 () -> createRawAsyncTimelockService(client, rawTimestampServiceSupplier, maybeEnhancedLockLog));
+        AsyncTimelockService asyncTimelockService = requestScheduler.wrap(
+                AsyncTimelockService.class, client.value(), leadershipProxiedTimelockService);
 
         AsyncTimelockResource asyncTimelockResource =
                 new AsyncTimelockResource(maybeEnhancedLockLog, asyncTimelockService);
 
-        LockService lockService = leadershipComponents.wrapInLeadershipProxy(
+        CloseableLockService leadershipProxiedLockService = leadershipComponents.wrapInLeadershipProxy(
                 client,
-                LockService.class,
+                CloseableLockService.class,
                 Suppliers.compose(NonTransactionalLockService::new, rawLockServiceSupplier::get));
+        LockService lockService = requestScheduler.wrap(
+                LockService.class, client.value(), leadershipProxiedLockService);
 
-        return TimeLockServices.create(
-                asyncTimelockService,
-                lockService,
-                asyncTimelockService,
-                asyncTimelockResource,
-                asyncTimelockService);
+        return ImmutableTimeLockServices.builder()
+                .from(TimeLockServices.create(
+                        asyncTimelockService,
+                        lockService,
+                        asyncTimelockService,
+                        asyncTimelockResource,
+                        asyncTimelockService))
+                .activeLocksCheck(() -> hasActiveLocksOrRequests(leadershipProxiedTimelockService))
+                .closer(() -> {
+                    // Closing the proxies closes their delegates, and releases leadership state nobody else uses.
+                    leadershipComponents.closeLeadershipProxy(leadershipProxiedTimelockService);
+                    leadershipComponents.closeLeadershipProxy(leadershipProxiedLockService);
+                    requestScheduler.forget(client.value());
+                })
+                .build();
+    }
+
+    private static boolean hasActiveLocksOrRequests(AsyncTimelockService leadershipProxiedTimelockService) {
+        try {
+            return leadershipProxiedTimelockService.hasActiveLocksOrRequests();
+        } catch (NotCurrentLeaderException e) {
+            // Locks are only held by the leader.
+            return false;
+        }
     }
 
     private AsyncTimelockService createRawAsyncTimelockService(
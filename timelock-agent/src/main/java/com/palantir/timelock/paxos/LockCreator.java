@@ -43,6 +43,7 @@ public class LockCreator {
     public CloseableLockService createThreadPoolingLockService() {
         LockServerOptions lockServerOptions = LockServerOptions.builder()
                 .slowLogTriggerMillis(runtime.get().slowLockLogTriggerMillis())
+                .useStripedClientState(runtime.get().stripedLegacyLockClientState())
                 .build();
 
         LockServiceImpl rawLockService = LockServiceImpl.create(lockServerOptions, sharedExecutor);
@@ -15,6 +15,7 @@
  */
 package com.palantir.timelock.paxos;
 
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import com.palantir.atlasdb.config.LeaderConfig;
@@ -25,9 +26,13 @@ import com.palantir.timestamp.ManagedTimestampService;
 public class PaxosTimestampCreator implements TimestampCreator {
 
     private final Factory<ManagedTimestampService> timestampServiceFactory;
+    private final Consumer<Client> componentsReleaser;
 
-    PaxosTimestampCreator(Factory<ManagedTimestampService> timestampServiceFactory) {
+    PaxosTimestampCreator(
+            Factory<ManagedTimestampService> timestampServiceFactory,
+            Consumer<Client> componentsReleaser) {
         this.timestampServiceFactory = timestampServiceFactory;
+        this.componentsReleaser = componentsReleaser;
     }
 
     @Override
@@ -35,4 +40,9 @@ public class PaxosTimestampCreator implements TimestampCreator {
         return () -> timestampServiceFactory.create(client);
     }
 
+    @Override
+    public void release(Client client) {
+        componentsReleaser.accept(client);
+    }
+
 }
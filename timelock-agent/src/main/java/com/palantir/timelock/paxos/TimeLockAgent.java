@@ -21,10 +21,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableSet;
 import com.palantir.atlasdb.config.AuxiliaryRemotingParameters;
@@ -38,6 +44,8 @@ import com.palantir.atlasdb.http.RedirectRetryTargeter;
 import com.palantir.atlasdb.timelock.AsyncTimelockService;
 import com.palantir.atlasdb.timelock.ConjureLockWatchingResource;
 import com.palantir.atlasdb.timelock.ConjureTimelockResource;
+import com.palantir.atlasdb.timelock.ImmutableTimeLockServices;
+import com.palantir.atlasdb.timelock.NamespaceRequestScheduler;
 import com.palantir.atlasdb.timelock.TimeLockResource;
 import com.palantir.atlasdb.timelock.TimeLockServices;
 import com.palantir.atlasdb.timelock.TimelockNamespaces;
@@ -53,6 +61,7 @@ import com.palantir.atlasdb.timelock.paxos.ImmutableTimelockPaxosInstallationCon
 import com.palantir.atlasdb.timelock.paxos.PaxosResources;
 import com.palantir.atlasdb.timelock.paxos.PaxosResourcesFactory;
 import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.common.concurrent.NamedThreadFactory;
 import com.palantir.common.concurrent.PTExecutors;
 import com.palantir.conjure.java.api.config.service.ServicesConfigBlock;
 import com.palantir.conjure.java.api.config.service.UserAgent;
@@ -73,7 +82,9 @@ import com.zaxxer.hikari.HikariDataSource;
 
 @SuppressWarnings("checkstyle:FinalClass") // This is mocked internally
 public class TimeLockAgent {
+    private static final Logger log = LoggerFactory.getLogger(TimeLockAgent.class);
     private static final Long SCHEMA_VERSION = 2L;
+    private static final long NAMESPACE_EVICTION_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
 
     private final MetricsManager metricsManager;
     private final TimeLockInstallConfiguration install;
@@ -88,6 +99,9 @@ public class TimeLockAgent {
     private final HikariDataSource sqliteDataSource;
     private final FeedbackHandler feedbackHandler;
 
+    private final ScheduledExecutorService namespaceEvictionExecutor = PTExecutors.newSingleThreadScheduledExecutor(
+            new NamedThreadFactory("timelock-namespace-eviction", true));
+
     private LeaderPingHealthCheck healthCheck;
     private TimelockNamespaces namespaces;
 
@@ -174,7 +188,9 @@ public class TimeLockAgent {
                 metricsManager,
                 lockLog,
                 paxosResources.leadershipComponents(),
-                install.lockDiagnosticConfig()
+                install.lockDiagnosticConfig(),
+                new NamespaceRequestScheduler(metricsManager,
+                        Suppliers.compose(TimeLockRuntimeConfiguration::requestScheduling, runtime::get))
         );
 
         this.noSimultaneousServiceCheck = NoSimultaneousServiceCheck.create(
@@ -190,7 +206,9 @@ public class TimeLockAgent {
     private TimestampCreator getTimestampCreator() {
         TsBoundPersisterConfiguration timestampBoundPersistence = install.timestampBoundPersistence();
         if (timestampBoundPersistence instanceof PaxosTsBoundPersisterConfiguration) {
-            return new PaxosTimestampCreator(paxosResources.timestampServiceFactory());
+            return new PaxosTimestampCreator(
+                    paxosResources.timestampServiceFactory(),
+                    paxosResources::releaseTimestampComponents);
         } else if (timestampBoundPersistence instanceof DatabaseTsBoundPersisterConfiguration) {
             return new DbBoundTimestampCreator(
                     ((DatabaseTsBoundPersisterConfiguration) timestampBoundPersistence)
@@ -208,7 +226,9 @@ public class TimeLockAgent {
         namespaces = new TimelockNamespaces(
                 metricsManager,
                 this::createInvalidatingTimeLockServices,
-                Suppliers.compose(TimeLockRuntimeConfiguration::maxNumberOfClients, runtime::get));
+                Suppliers.compose(TimeLockRuntimeConfiguration::maxNumberOfClients, runtime::get),
+                Suppliers.compose(TimeLockRuntimeConfiguration::idleNamespaceExpiryMillis, runtime::get));
+        scheduleIdleNamespaceEviction();
         registerManagementResource();
         // Finally, register the health check, and endpoints associated with the clients.
         TimeLockResource resource = TimeLockResource.create(namespaces);
@@ -340,7 +360,33 @@ public class TimeLockAgent {
         Supplier<ManagedTimestampService> rawTimestampServiceSupplier = timestampCreator
                 .createTimestampService(typedClient, leaderConfig);
         Supplier<LockService> rawLockServiceSupplier = lockCreator::createThreadPoolingLockService;
-        return timelockCreator.createTimeLockServices(typedClient, rawTimestampServiceSupplier, rawLockServiceSupplier);
+        TimeLockServices services = timelockCreator.createTimeLockServices(
+                typedClient, rawTimestampServiceSupplier, rawLockServiceSupplier);
+        return ImmutableTimeLockServices.builder()
+                .from(services)
+                .closer(() -> {
+                    services.getCloser().close();
+                    timestampCreator.release(typedClient);
+                })
+                .build();
+    }
+
+    private void scheduleIdleNamespaceEviction() {
+        namespaceEvictionExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                namespaces.evictIdleNamespaces();
+            } catch (Throwable t) {
+                log.warn("Error while evicting idle namespaces. Trying again on next iteration.", t);
+            }
+        }, NAMESPACE_EVICTION_INTERVAL_MILLIS, NAMESPACE_EVICTION_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Evicts the services of idle clients now, rather than waiting for the next scheduled eviction.
+     */
+    @VisibleForTesting
+    public void evictIdleNamespaces() {
+        namespaces.evictIdleNamespaces();
     }
 
     public HealthStatusReport timeLockAdjudicationFeedback() {
@@ -348,6 +394,7 @@ public class TimeLockAgent {
     }
 
     public void shutdown() {
+        namespaceEvictionExecutor.shutdown();
         paxosResources.leadershipComponents().shutdown();
         sqliteDataSource.close();
     }
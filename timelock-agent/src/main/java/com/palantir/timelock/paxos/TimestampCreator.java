@@ -23,4 +23,12 @@ import com.palantir.timestamp.ManagedTimestampService;
 
 public interface TimestampCreator {
     Supplier<ManagedTimestampService> createTimestampService(Client client, LeaderConfig leaderConfig);
+
+    /**
+     * Releases anything held on behalf of the given client once the timestamp services created for it have been
+     * discarded. Timestamp services may be created for the client again afterwards.
+     */
+    default void release(Client client) {
+        // nothing to release by default
+    }
 }
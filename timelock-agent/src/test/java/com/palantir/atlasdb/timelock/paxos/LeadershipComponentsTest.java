@@ -0,0 +1,146 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.paxos;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.palantir.leader.LeaderElectionService;
+import com.palantir.leader.LeaderElectionService.LeadershipToken;
+import com.palantir.leader.LeaderElectionService.StillLeadingStatus;
+import com.palantir.paxos.Client;
+import com.palantir.timelock.paxos.HealthCheckPinger;
+
+public class LeadershipComponentsTest {
+    private static final Client CLIENT = Client.of("tom");
+
+    private final Closeable sharedResource = mock(Closeable.class);
+    private final List<Closeable> ownedResources = new ArrayList<>();
+    private final LeadershipComponents leadershipComponents = new LeadershipComponents(
+            this::createContext,
+            ImmutableLocalAndRemotes.of(mock(HealthCheckPinger.class), ImmutableList.of()),
+            UnaryOperator.identity());
+
+    @After
+    public void after() {
+        leadershipComponents.shutdown();
+    }
+
+    @Test
+    public void contextIsSharedByProxiesOfTheSameLeadershipGroup() {
+        wrapInLeadershipProxy();
+        wrapInLeadershipProxy();
+
+        assertThat(ownedResources).hasSize(1);
+    }
+
+    @Test
+    public void contextIsReleasedOnceItsLastProxyIsClosed() throws IOException {
+        Runnable first = wrapInLeadershipProxy();
+        Runnable second = wrapInLeadershipProxy();
+
+        leadershipComponents.closeLeadershipProxy(first);
+        verify(ownedResources.get(0), never()).close();
+
+        leadershipComponents.closeLeadershipProxy(second);
+        verify(ownedResources.get(0)).close();
+        verify(sharedResource, never()).close();
+    }
+
+    @Test
+    public void closingAProxyAgainHasNoFurtherEffect() throws IOException {
+        Runnable first = wrapInLeadershipProxy();
+        wrapInLeadershipProxy();
+
+        leadershipComponents.closeLeadershipProxy(first);
+        leadershipComponents.closeLeadershipProxy(first);
+
+        verify(ownedResources.get(0), never()).close();
+    }
+
+    @Test
+    public void releasedContextIsCreatedAgainWhenNeeded() throws IOException {
+        Runnable proxy = wrapInLeadershipProxy();
+        leadershipComponents.closeLeadershipProxy(proxy);
+
+        wrapInLeadershipProxy();
+
+        assertThat(ownedResources).hasSize(2);
+        verify(ownedResources.get(1), never()).close();
+    }
+
+    @Test
+    public void shutdownClosesOwnedAndSharedResources() throws IOException {
+        wrapInLeadershipProxy();
+
+        leadershipComponents.shutdown();
+
+        verify(ownedResources.get(0)).close();
+        verify(sharedResource).close();
+    }
+
+    private Runnable wrapInLeadershipProxy() {
+        return leadershipComponents.wrapInLeadershipProxy(CLIENT, Runnable.class, () -> mock(Runnable.class));
+    }
+
+    private LeadershipComponents.LeadershipContext createContext(Client unused) {
+        Closeable ownedResource = mock(Closeable.class);
+        ownedResources.add(ownedResource);
+        return ImmutableLeadershipContext.builder()
+                .leaderElectionService(leaderElectionService())
+                .leadershipMetrics(leadershipMetrics())
+                .addCloseables(ownedResource)
+                .addSharedCloseables(sharedResource)
+                .build();
+    }
+
+    private static LeaderElectionService leaderElectionService() {
+        LeaderElectionService leaderElectionService = mock(LeaderElectionService.class);
+        LeadershipToken leadershipToken = mock(LeadershipToken.class);
+        try {
+            when(leaderElectionService.blockOnBecomingLeader()).thenReturn(leadershipToken);
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+        when(leaderElectionService.getCurrentTokenIfLeading()).thenReturn(Optional.empty());
+        when(leaderElectionService.isStillLeading(leadershipToken))
+                .thenReturn(Futures.immediateFuture(StillLeadingStatus.LEADING));
+        return leaderElectionService;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TimelockLeadershipMetrics leadershipMetrics() {
+        TimelockLeadershipMetrics leadershipMetrics = mock(TimelockLeadershipMetrics.class);
+        when(leadershipMetrics.instrument(any(), any())).thenAnswer(invocation -> invocation.getArgument(1));
+        return leadershipMetrics;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.paxos;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import com.palantir.paxos.Client;
+
+public class LeadershipShardsTest {
+    private static final int NUMBER_OF_SHARDS = 4;
+
+    private final LeadershipShards shards = new LeadershipShards(NUMBER_OF_SHARDS);
+
+    @Test
+    public void mapsClientsToTheSameShardEachTime() {
+        Client client = Client.of("tom");
+
+        assertThat(new LeadershipShards(NUMBER_OF_SHARDS).apply(client)).isEqualTo(shards.apply(client));
+    }
+
+    @Test
+    public void spreadsClientsAcrossAllShards() {
+        Set<Integer> usedShards = IntStream.range(0, 1000)
+                .mapToObj(index -> shards.shard(Client.of("client-" + index)))
+                .collect(Collectors.toSet());
+
+        assertThat(usedShards).containsExactlyInAnyOrder(0, 1, 2, 3);
+    }
+
+    @Test
+    public void shardClientsAreNotValidNamespaces() {
+        assertThat(shards.apply(Client.of("tom")).value()).contains(".");
+    }
+
+    @Test
+    public void throwsIfNumberOfShardsIsNotPositive() {
+        assertThatThrownBy(() -> new LeadershipShards(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
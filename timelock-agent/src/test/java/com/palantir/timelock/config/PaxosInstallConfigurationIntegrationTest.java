@@ -114,6 +114,16 @@ public class PaxosInstallConfigurationIntegrationTest {
                 .hasMessageContaining("File-based data directory can't be a subdirectory of the SQLite data directory");
     }
 
+    @Test
+    public void cannotCreateConfigurationWithNoLeaderShards() {
+        assertThatThrownBy(() -> createPartialConfiguration(nonexistentFileDirectory, nonexistentSqliteDirectory)
+                .isNewService(true)
+                .leaderShards(0)
+                .build())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("The number of leader shards must be positive");
+    }
+
     private File getAndCreateRandomSubdirectory() {
         try {
             return temporaryFolder.newFolder();
@@ -17,6 +17,8 @@ package com.palantir.timelock.config;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.concurrent.TimeUnit;
+
 import org.junit.Test;
 
 public class TimeLockRuntimeConfigurationTest {
@@ -39,4 +41,17 @@ public class TimeLockRuntimeConfigurationTest {
                 .build()).isInstanceOf(IllegalStateException.class);
     }
 
+    @Test
+    public void canSpecifyIdleNamespaceExpiryOfAtLeastMaximumLockTimeout() {
+        ImmutableTimeLockRuntimeConfiguration.builder()
+                .idleNamespaceExpiryMillis(TimeUnit.MINUTES.toMillis(10))
+                .build();
+    }
+
+    @Test
+    public void throwOnIdleNamespaceExpiryShorterThanMaximumLockTimeout() {
+        assertThatThrownBy(() -> ImmutableTimeLockRuntimeConfiguration.builder()
+                .idleNamespaceExpiryMillis(TimeUnit.MINUTES.toMillis(1))
+                .build()).isInstanceOf(IllegalStateException.class);
+    }
 }
@@ -16,11 +16,15 @@
 package com.palantir.atlasdb.timelock;
 
 import java.io.Closeable;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 
 import com.google.common.util.concurrent.ListenableFuture;
 import com.palantir.atlasdb.timelock.api.GetCommitTimestampsResponse;
+import com.palantir.atlasdb.timelock.lock.Leased;
 import com.palantir.atlasdb.timelock.lock.watch.LockWatchingService;
 import com.palantir.lock.client.IdentifiedLockRequest;
 import com.palantir.lock.v2.IdentifiedTimeLockRequest;
@@ -50,10 +54,20 @@ public interface AsyncTimelockService extends ManagedTimestampService, LockWatch
 
     ListenableFuture<RefreshLockResponseV2> refreshLockLeases(Set<LockToken> tokens);
 
+    ListenableFuture<Leased<Set<UUID>>> refreshLeaseGroups(Set<UUID> leaseGroupIds);
+
     ListenableFuture<WaitForLocksResponse> waitForLocks(WaitForLocksRequest request);
 
     ListenableFuture<LockResponseV2> lock(IdentifiedLockRequest request);
 
+    /**
+     * Makes each of the given lock requests as {@link #lock(IdentifiedLockRequest)} would, returning the responses to
+     * the requests that have already succeeded or timed out, keyed by request id. Requests that are still waiting for
+     * their locks, or that failed, are not included; their outcome can be obtained by making them again with the same
+     * request id.
+     */
+    Map<UUID, LockResponseV2> lockBatch(List<IdentifiedLockRequest> requests);
+
     long getImmutableTimestamp();
 
     LockImmutableTimestampResponse lockImmutableTimestamp(IdentifiedTimeLockRequest request);
@@ -72,4 +86,6 @@ public interface AsyncTimelockService extends ManagedTimestampService, LockWatch
     ListenableFuture<LeaderTime> leaderTime();
 
     ListenableFuture<TimestampRange> getFreshTimestampsAsync(int timestampsToRequest);
+
+    boolean hasActiveLocksOrRequests();
 }
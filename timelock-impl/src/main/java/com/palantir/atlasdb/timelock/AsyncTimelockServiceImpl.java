@@ -15,6 +15,9 @@
  */
 package com.palantir.atlasdb.timelock;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -89,7 +92,7 @@ public class AsyncTimelockServiceImpl implements AsyncTimelockService {
     @Override
     public LockImmutableTimestampResponse lockImmutableTimestamp(IdentifiedTimeLockRequest request) {
         Leased<LockImmutableTimestampResponse> leasedLockImmutableTimestampResponse =
-                lockImmutableTimestampWithLease(request.getRequestId());
+                lockImmutableTimestampWithLease(request.getRequestId(), Optional.empty());
 
         return leasedLockImmutableTimestampResponse.value();
     }
@@ -104,7 +107,9 @@ public class AsyncTimelockServiceImpl implements AsyncTimelockService {
     public ListenableFuture<LockResponseV2> lock(IdentifiedLockRequest request) {
         AsyncResult<Leased<LockToken>> result = lockService.lock(
                 request.getRequestId(),
+                request.getLeaseGroup(),
                 request.getLockDescriptors(),
+                request.getSharedLockDescriptors(),
                 TimeLimit.of(request.getAcquireTimeoutMs()));
         lockLog.registerRequest(request, result);
         SettableFuture<LockResponseV2> response = SettableFuture.create();
@@ -120,11 +125,32 @@ public class AsyncTimelockServiceImpl implements AsyncTimelockService {
         return response;
     }
 
+    @Override
+    public Map<UUID, LockResponseV2> lockBatch(List<IdentifiedLockRequest> requests) {
+        List<AsyncResult<Leased<LockToken>>> results = lockService.lock(requests);
+        Map<UUID, LockResponseV2> responses = new HashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            IdentifiedLockRequest request = requests.get(i);
+            AsyncResult<Leased<LockToken>> result = results.get(i);
+            // unresolved requests are made again individually, which registers them with the lock log
+            if (result.isTimedOut()) {
+                lockLog.registerRequest(request, result);
+                responses.put(request.getRequestId(), LockResponseV2.timedOut());
+            } else if (result.isCompletedSuccessfully()) {
+                lockLog.registerRequest(request, result);
+                responses.put(request.getRequestId(),
+                        LockResponseV2.successful(result.get().value(), result.get().lease()));
+            }
+        }
+        return responses;
+    }
+
     @Override
     public ListenableFuture<WaitForLocksResponse> waitForLocks(WaitForLocksRequest request) {
         AsyncResult<Void> result = lockService.waitForLocks(
                 request.getRequestId(),
                 request.getLockDescriptors(),
+                request.getSharedLockDescriptors(),
                 TimeLimit.of(request.getAcquireTimeoutMs()));
         lockLog.registerRequest(request, result);
         SettableFuture<WaitForLocksResponse> response = SettableFuture.create();
@@ -145,6 +171,11 @@ public class AsyncTimelockServiceImpl implements AsyncTimelockService {
         return Futures.immediateFuture(lockService.refresh(tokens));
     }
 
+    @Override
+    public ListenableFuture<Leased<Set<UUID>>> refreshLeaseGroups(Set<UUID> leaseGroupIds) {
+        return Futures.immediateFuture(lockService.refreshLeaseGroups(leaseGroupIds));
+    }
+
     @Override
     public ListenableFuture<Set<LockToken>> unlock(Set<LockToken> tokens) {
         return Futures.immediateFuture(lockService.unlock(tokens));
@@ -176,7 +207,7 @@ public class AsyncTimelockServiceImpl implements AsyncTimelockService {
     @Override
     public StartTransactionResponseV4 startTransactions(StartTransactionRequestV4 request) {
         Leased<LockImmutableTimestampResponse> leasedLockImmutableTimestampResponse =
-                lockImmutableTimestampWithLease(request.requestId());
+                lockImmutableTimestampWithLease(request.requestId(), Optional.empty());
 
         PartitionedTimestamps partitionedTimestamps =
                 timestampService.getFreshTimestampsForClient(request.requestorId(), request.numTransactions());
@@ -187,10 +218,12 @@ public class AsyncTimelockServiceImpl implements AsyncTimelockService {
                 leasedLockImmutableTimestampResponse.lease());
     }
 
-    private Leased<LockImmutableTimestampResponse> lockImmutableTimestampWithLease(UUID requestId) {
+    private Leased<LockImmutableTimestampResponse> lockImmutableTimestampWithLease(
+            UUID requestId,
+            Optional<UUID> leaseGroupId) {
         long timestamp = timestampService.getFreshTimestamp();
 
-        Leased<LockToken> leasedLock = lockService.lockImmutableTimestamp(requestId, timestamp).get();
+        Leased<LockToken> leasedLock = lockService.lockImmutableTimestamp(requestId, leaseGroupId, timestamp).get();
         long immutableTs = lockService.getImmutableTimestamp().orElse(timestamp);
 
         LockImmutableTimestampResponse lockImmutableTimestampResponse =
@@ -207,7 +240,7 @@ public class AsyncTimelockServiceImpl implements AsyncTimelockService {
 
     private StartTransactionResponseV5 startTransactionsWithWatchesSync(StartTransactionRequestV5 request) {
         Leased<LockImmutableTimestampResponse> leasedLockImmutableTimestampResponse =
-                lockImmutableTimestampWithLease(request.requestId());
+                lockImmutableTimestampWithLease(request.requestId(), request.leaseGroup());
 
         ValueAndLockWatchStateUpdate<PartitionedTimestamps> timestampsAndUpdate = lockService.getLockWatchingService()
                 .runTask(request.lastKnownLockLogVersion(), () ->
@@ -240,6 +273,11 @@ public class AsyncTimelockServiceImpl implements AsyncTimelockService {
         return Futures.immediateFuture(getFreshTimestamps(timestampsToRequest));
     }
 
+    @Override
+    public boolean hasActiveLocksOrRequests() {
+        return lockService.hasActiveLocksOrRequests();
+    }
+
     @Override
     public long currentTimeMillis() {
         return System.currentTimeMillis();
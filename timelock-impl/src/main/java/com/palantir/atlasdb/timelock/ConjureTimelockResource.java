@@ -16,10 +16,15 @@
 
 package com.palantir.atlasdb.timelock;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.Futures;
@@ -30,10 +35,14 @@ import com.palantir.atlasdb.http.RedirectRetryTargeter;
 import com.palantir.atlasdb.timelock.api.ConjureGetFreshTimestampsRequest;
 import com.palantir.atlasdb.timelock.api.ConjureGetFreshTimestampsResponse;
 import com.palantir.atlasdb.timelock.api.ConjureIdentifiedVersion;
+import com.palantir.atlasdb.timelock.api.ConjureLockBatchRequest;
+import com.palantir.atlasdb.timelock.api.ConjureLockBatchResponse;
 import com.palantir.atlasdb.timelock.api.ConjureLockDescriptor;
 import com.palantir.atlasdb.timelock.api.ConjureLockRequest;
 import com.palantir.atlasdb.timelock.api.ConjureLockResponse;
 import com.palantir.atlasdb.timelock.api.ConjureLockToken;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLeaseGroupsRequest;
+import com.palantir.atlasdb.timelock.api.ConjureRefreshLeaseGroupsResponse;
 import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksRequest;
 import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksResponse;
 import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsRequest;
@@ -51,6 +60,7 @@ import com.palantir.atlasdb.timelock.api.UnsuccessfulLockResponse;
 import com.palantir.conjure.java.undertow.lib.UndertowService;
 import com.palantir.lock.ByteArrayLockDescriptor;
 import com.palantir.lock.LockDescriptor;
+import com.palantir.lock.client.ConjureLockRequests;
 import com.palantir.lock.client.IdentifiedLockRequest;
 import com.palantir.lock.client.ImmutableIdentifiedLockRequest;
 import com.palantir.lock.v2.ImmutableStartTransactionRequestV5;
@@ -101,6 +111,7 @@ public final class ConjureTimelockResource implements UndertowConjureTimelockSer
                     .requestorId(request.getRequestorId())
                     .numTransactions(request.getNumTransactions())
                     .lastKnownLockLogVersion(request.getLastKnownVersion().map(this::toIdentifiedVersion))
+                    .leaseGroup(request.getLeaseGroup())
                     .build();
             ListenableFuture<StartTransactionResponseV5> responseFuture =
                     forNamespace(namespace).startTransactionsWithWatches(legacyRequest);
@@ -136,27 +147,52 @@ public final class ConjureTimelockResource implements UndertowConjureTimelockSer
     public ListenableFuture<ConjureLockResponse> lock(
             AuthHeader authHeader, String namespace, ConjureLockRequest request) {
         return handleExceptions(() -> {
-            IdentifiedLockRequest lockRequest = ImmutableIdentifiedLockRequest.builder()
-                    .lockDescriptors(fromConjureLockDescriptors(request.getLockDescriptors()))
-                    .clientDescription(request.getClientDescription())
-                    .requestId(request.getRequestId())
-                    .acquireTimeoutMs(request.getAcquireTimeoutMs())
-                    .build();
+            IdentifiedLockRequest lockRequest = fromConjureLockRequest(request);
             ListenableFuture<LockResponseV2> tokenFuture = forNamespace(namespace).lock(lockRequest);
-            return Futures.transform(tokenFuture, token -> token.accept(Visitor.of(success ->
-                    ConjureLockResponse.successful(
-                            SuccessfulLockResponse.of(
-                                    ConjureLockToken.of(success.getToken().getRequestId()), success.getLease())),
-                    failure -> ConjureLockResponse.unsuccessful(UnsuccessfulLockResponse.of()))), MoreExecutors.directExecutor());
+            return Futures.transform(
+                    tokenFuture, ConjureTimelockResource::toConjureLockResponse, MoreExecutors.directExecutor());
         });
     }
 
+    @Override
+    public ListenableFuture<ConjureLockBatchResponse> lockBatch(
+            AuthHeader authHeader, String namespace, ConjureLockBatchRequest request) {
+        return handleExceptions(() -> {
+            List<IdentifiedLockRequest> lockRequests = request.getRequests().stream()
+                    .map(ConjureTimelockResource::fromConjureLockRequest)
+                    .collect(Collectors.toList());
+            Map<UUID, ConjureLockResponse> responses = new HashMap<>();
+            forNamespace(namespace).lockBatch(lockRequests).forEach(
+                    (requestId, response) -> responses.put(requestId, toConjureLockResponse(response)));
+            return Futures.immediateFuture(ConjureLockBatchResponse.of(responses));
+        });
+    }
+
+    private static ConjureLockResponse toConjureLockResponse(LockResponseV2 response) {
+        return response.accept(Visitor.of(
+                success -> ConjureLockResponse.successful(SuccessfulLockResponse.of(
+                        ConjureLockToken.of(success.getToken().getRequestId()), success.getLease())),
+                failure -> ConjureLockResponse.unsuccessful(UnsuccessfulLockResponse.of())));
+    }
+
+    private static IdentifiedLockRequest fromConjureLockRequest(ConjureLockRequest request) {
+        return ImmutableIdentifiedLockRequest.builder()
+                .lockDescriptors(fromConjureLockDescriptors(ConjureLockRequests.allLockDescriptors(request)))
+                .sharedLockDescriptors(fromConjureLockDescriptors(request.getSharedLockDescriptors()))
+                .clientDescription(request.getClientDescription())
+                .requestId(request.getRequestId())
+                .acquireTimeoutMs(request.getAcquireTimeoutMs())
+                .leaseGroup(request.getLeaseGroup())
+                .build();
+    }
+
     @Override
     public ListenableFuture<ConjureWaitForLocksResponse> waitForLocks(
             AuthHeader authHeader, String namespace, ConjureLockRequest request) {
         return handleExceptions(() -> {
             WaitForLocksRequest lockRequest = ImmutableWaitForLocksRequest.builder()
-                    .lockDescriptors(fromConjureLockDescriptors(request.getLockDescriptors()))
+                    .lockDescriptors(fromConjureLockDescriptors(ConjureLockRequests.allLockDescriptors(request)))
+                    .sharedLockDescriptors(fromConjureLockDescriptors(request.getSharedLockDescriptors()))
                     .clientDescription(request.getClientDescription())
                     .requestId(request.getRequestId())
                     .acquireTimeoutMs(request.getAcquireTimeoutMs())
@@ -188,6 +224,15 @@ public final class ConjureTimelockResource implements UndertowConjureTimelockSer
                 MoreExecutors.directExecutor()));
     }
 
+    @Override
+    public ListenableFuture<ConjureRefreshLeaseGroupsResponse> refreshLeaseGroups(
+            AuthHeader authHeader, String namespace, ConjureRefreshLeaseGroupsRequest request) {
+        return handleExceptions(() -> Futures.transform(
+                forNamespace(namespace).refreshLeaseGroups(request.getLeaseGroups()),
+                refreshed -> ConjureRefreshLeaseGroupsResponse.of(refreshed.value(), refreshed.lease()),
+                MoreExecutors.directExecutor()));
+    }
+
     @Override
     public ListenableFuture<ConjureUnlockResponse> unlock(
             AuthHeader authHeader, String namespace, ConjureUnlockRequest request) {
@@ -262,6 +307,12 @@ public final class ConjureTimelockResource implements UndertowConjureTimelockSer
             return unwrap(resource.lock(authHeader, namespace, request));
         }
 
+        @Override
+        public ConjureLockBatchResponse lockBatch(AuthHeader authHeader, String namespace,
+                ConjureLockBatchRequest request) {
+            return unwrap(resource.lockBatch(authHeader, namespace, request));
+        }
+
         @Override
         public ConjureWaitForLocksResponse waitForLocks(AuthHeader authHeader, String namespace,
                 ConjureLockRequest request) {
@@ -274,6 +325,12 @@ public final class ConjureTimelockResource implements UndertowConjureTimelockSer
             return unwrap(resource.refreshLocks(authHeader, namespace, request));
         }
 
+        @Override
+        public ConjureRefreshLeaseGroupsResponse refreshLeaseGroups(AuthHeader authHeader, String namespace,
+                ConjureRefreshLeaseGroupsRequest request) {
+            return unwrap(resource.refreshLeaseGroups(authHeader, namespace, request));
+        }
+
         @Override
         public ConjureUnlockResponse unlock(AuthHeader authHeader, String namespace, ConjureUnlockRequest request) {
             return unwrap(resource.unlock(authHeader, namespace, request));
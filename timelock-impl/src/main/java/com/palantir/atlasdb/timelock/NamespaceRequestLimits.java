@@ -0,0 +1,72 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock;
+
+import java.util.Optional;
+
+import org.immutables.value.Value;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.common.base.Preconditions;
+
+/**
+ * Limits on the requests a single namespace may make to this TimeLock node.
+ */
+@JsonSerialize(as = ImmutableNamespaceRequestLimits.class)
+@JsonDeserialize(as = ImmutableNamespaceRequestLimits.class)
+@Value.Immutable
+public abstract class NamespaceRequestLimits {
+    /**
+     * The share of the node's concurrent requests this namespace is entitled to when the node is at capacity, relative
+     * to the weights of the other namespaces with requests in flight.
+     */
+    @JsonProperty("weight")
+    @Value.Default
+    public int weight() {
+        return 1;
+    }
+
+    /**
+     * The maximum number of requests from this namespace that may be in flight at once, regardless of how busy the
+     * node is.
+     */
+    @JsonProperty("max-concurrent-requests")
+    @Value.Default
+    public int maxConcurrentRequests() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * The maximum sustained rate of requests from this namespace. Requests are not rate limited if absent.
+     */
+    @JsonProperty("requests-per-second")
+    public abstract Optional<Double> requestsPerSecond();
+
+    @Value.Check
+    void check() {
+        Preconditions.checkState(weight() > 0, "Weight must be positive, but found %s", weight());
+        Preconditions.checkState(maxConcurrentRequests() > 0,
+                "Maximum concurrent requests must be positive, but found %s", maxConcurrentRequests());
+        requestsPerSecond().ifPresent(rate -> Preconditions.checkState(rate > 0,
+                "Requests per second must be positive, but found %s", rate));
+    }
+
+    public static NamespaceRequestLimits unlimited() {
+        return ImmutableNamespaceRequestLimits.builder().build();
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.annotation.concurrent.GuardedBy;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.RateLimiter;
+import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.lock.impl.TooManyRequestsException;
+
+/**
+ * Admits requests to the services of each namespace according to the current {@link NamespaceRequestSchedulingConfig},
+ * and reports per-namespace request rates, queue wait and CPU time.
+ *
+ * Requests run on the HTTP server's threads, so rather than queueing them itself, the scheduler decides whether each
+ * request may proceed. A request that cannot be admitted waits for at most the configured queue wait, and is then
+ * rejected with a {@link TooManyRequestsException}, which clients see as a request to back off and retry.
+ *
+ * Admission state is kept per namespace, and requests wait on their own namespace. Only the number of requests in
+ * flight and the weight of the namespaces with requests in flight are shared across namespaces, as atomic counters, so
+ * the total number of concurrent requests may briefly exceed the configured total. A released request signals one
+ * waiting request of its own namespace and, if the node was at capacity, one waiting request of each namespace that
+ * was waiting for capacity.
+ *
+ * CPU time only covers the work done on the calling thread while the request is dispatched. For requests returning a
+ * future, work done once the future is completed on another thread (for example, granting a lock that was waited for)
+ * is not included.
+ */
+public final class NamespaceRequestScheduler {
+    private static final ThreadMXBean threadMxBean = ManagementFactory.getThreadMXBean();
+    private static final String METRIC_PREFIX = NamespaceRequestScheduler.class.getName() + ".";
+    private static final String NAMESPACE_TAG = "namespace";
+
+    private final MetricsManager metricsManager;
+    private final Supplier<NamespaceRequestSchedulingConfig> config;
+    private final ConcurrentMap<String, NamespaceState> namespaces = new ConcurrentHashMap<>();
+    private final Set<NamespaceState> namespacesWaitingForCapacity = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger totalInFlight = new AtomicInteger();
+    private final AtomicLong totalActiveWeight = new AtomicLong();
+
+    public NamespaceRequestScheduler(
+            MetricsManager metricsManager,
+            Supplier<NamespaceRequestSchedulingConfig> config) {
+        this.metricsManager = metricsManager;
+        this.config = config;
+    }
+
+    /**
+     * Returns a view of the given service whose requests are scheduled as requests of the given namespace.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T wrap(Class<T> interfaceClass, String namespace, T delegate) {
+        return (T) Proxy.newProxyInstance(
+                interfaceClass.getClassLoader(),
+                new Class<?>[] {interfaceClass},
+                new NamespaceSchedulingProxy<>(this, namespace, delegate));
+    }
+
+    /**
+     * Drops the state and metrics of the given namespace, unless it has requests in flight. This is called when the
+     * services of the namespace are evicted; the state is created again on its next request.
+     */
+    public void forget(String namespace) {
+        namespaces.computeIfPresent(namespace, (unused, state) -> {
+            if (state.hasRequestsInFlight()) {
+                return state;
+            }
+            metricsManager.deregisterTaggedMetrics(name -> name.safeName().startsWith(METRIC_PREFIX)
+                    && namespace.equals(name.safeTags().get(NAMESPACE_TAG)));
+            return null;
+        });
+    }
+
+    /**
+     * Admits a request from the given namespace, or throws a {@link TooManyRequestsException} if it cannot be admitted
+     * in time. Requests that are not limited are always admitted, and only counted towards the request rate of the
+     * namespace. The returned permit must be released once the request has been dispatched.
+     */
+    Permit acquire(String namespace, boolean limited) {
+        NamespaceState state = namespaces.computeIfAbsent(namespace, NamespaceState::new);
+        state.requests.mark();
+
+        NamespaceRequestSchedulingConfig currentConfig = config.get();
+        if (!currentConfig.enabled() || !limited) {
+            return new Permit(state, false);
+        }
+
+        NamespaceRequestLimits limits = currentConfig.limitsFor(namespace);
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(currentConfig.maxQueueWaitMillis());
+        boolean admitted = state.awaitAdmission(limits, currentConfig.totalConcurrentRequests(), deadlineNanos);
+        // rate tokens are only taken by admitted requests, so that rejected requests do not use up the rate
+        if (admitted && !state.tryAcquireRate(limits, deadlineNanos - System.nanoTime())) {
+            state.release();
+            admitted = false;
+        }
+        state.queueWaitMicros.update(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+
+        if (!admitted) {
+            state.rejectedRequests.mark();
+            throw new TooManyRequestsException("TimeLock is unable to admit further requests for this namespace at "
+                    + "the moment.");
+        }
+        return new Permit(state, true);
+    }
+
+    @VisibleForTesting
+    int getInFlight(String namespace) {
+        NamespaceState state = namespaces.get(namespace);
+        return state == null ? 0 : state.getInFlight();
+    }
+
+    static long currentThreadCpuTimeNanos() {
+        return threadMxBean.isCurrentThreadCpuTimeSupported() ? threadMxBean.getCurrentThreadCpuTime() : 0;
+    }
+
+    private void signalNamespacesWaitingForCapacity(NamespaceState released) {
+        for (NamespaceState state : namespacesWaitingForCapacity) {
+            if (state != released) {
+                state.signal();
+            }
+        }
+    }
+
+    final class Permit {
+        private final NamespaceState state;
+        private final boolean counted;
+
+        private Permit(NamespaceState state, boolean counted) {
+            this.state = state;
+            this.counted = counted;
+        }
+
+        void recordCpuTime(long cpuTimeNanos) {
+            state.cpuTimeNanos.inc(cpuTimeNanos);
+        }
+
+        void release() {
+            if (counted) {
+                state.release();
+            }
+        }
+    }
+
+    private final class NamespaceState {
+        private final Meter requests;
+        private final Meter rejectedRequests;
+        private final Histogram queueWaitMicros;
+        private final Counter cpuTimeNanos;
+
+        @GuardedBy("this")
+        private RateLimiter rateLimiter;
+        @GuardedBy("this")
+        private int inFlight = 0;
+        @GuardedBy("this")
+        private int activeWeight = 0;
+        @GuardedBy("this")
+        private int waitingForCapacity = 0;
+
+        private NamespaceState(String namespace) {
+            Map<String, String> tags = ImmutableMap.of(NAMESPACE_TAG, namespace);
+            this.requests = metricsManager.registerOrGetTaggedMeter(
+                    NamespaceRequestScheduler.class, "requests", tags);
+            this.rejectedRequests = metricsManager.registerOrGetTaggedMeter(
+                    NamespaceRequestScheduler.class, "rejectedRequests", tags);
+            this.queueWaitMicros = metricsManager.registerOrGetTaggedHistogram(
+                    NamespaceRequestScheduler.class, "queueWaitMicros", tags);
+            this.cpuTimeNanos = metricsManager.registerOrGetTaggedCounter(
+                    NamespaceRequestScheduler.class, "cpuTimeNanos", tags);
+        }
+
+        private synchronized boolean awaitAdmission(
+                NamespaceRequestLimits limits,
+                int totalConcurrentRequests,
+                long deadlineNanos) {
+            while (!tryAdmit(limits, totalConcurrentRequests)) {
+                long remainingNanos = deadlineNanos - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                // requests at the limit of their namespace can only be admitted once a request of the namespace is
+                // released, so they need not be signalled when requests of other namespaces are released
+                boolean waitingForCapacityOfNode = inFlight < limits.maxConcurrentRequests();
+                if (waitingForCapacityOfNode && waitingForCapacity++ == 0) {
+                    namespacesWaitingForCapacity.add(this);
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                } finally {
+                    if (waitingForCapacityOfNode && --waitingForCapacity == 0) {
+                        namespacesWaitingForCapacity.remove(this);
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * A namespace is never admitted more than its maximum concurrent requests. Beyond that, requests are admitted
+         * freely until the node is at capacity, after which only namespaces below their weighted share of the capacity
+         * are admitted further requests.
+         */
+        @GuardedBy("this")
+        private boolean tryAdmit(NamespaceRequestLimits limits, int totalConcurrentRequests) {
+            if (inFlight >= limits.maxConcurrentRequests()) {
+                return false;
+            }
+            if (totalInFlight.get() >= totalConcurrentRequests
+                    && inFlight >= fairShare(limits.weight(), totalConcurrentRequests)) {
+                return false;
+            }
+
+            if (inFlight == 0) {
+                activeWeight = limits.weight();
+                totalActiveWeight.addAndGet(activeWeight);
+            }
+            inFlight++;
+            totalInFlight.incrementAndGet();
+            return true;
+        }
+
+        @GuardedBy("this")
+        private long fairShare(int weight, int totalConcurrentRequests) {
+            long weightOfActiveNamespaces = inFlight == 0 ? totalActiveWeight.get() + weight : totalActiveWeight.get();
+            long effectiveWeight = inFlight == 0 ? weight : activeWeight;
+            return Math.max(1, totalConcurrentRequests * effectiveWeight / Math.max(1, weightOfActiveNamespaces));
+        }
+
+        private void release() {
+            boolean wasAtCapacity;
+            synchronized (this) {
+                inFlight--;
+                if (inFlight == 0) {
+                    totalActiveWeight.addAndGet(-activeWeight);
+                }
+                wasAtCapacity = totalInFlight.getAndDecrement() >= config.get().totalConcurrentRequests();
+                notify();
+            }
+            if (wasAtCapacity) {
+                signalNamespacesWaitingForCapacity(this);
+            }
+        }
+
+        private synchronized void signal() {
+            notify();
+        }
+
+        private synchronized int getInFlight() {
+            return inFlight;
+        }
+
+        private synchronized boolean hasRequestsInFlight() {
+            return inFlight > 0 || waitingForCapacity > 0;
+        }
+
+        private boolean tryAcquireRate(NamespaceRequestLimits limits, long maxWaitNanos) {
+            if (!limits.requestsPerSecond().isPresent()) {
+                return true;
+            }
+            return getRateLimiter(limits.requestsPerSecond().get())
+                    .tryAcquire(Math.max(0, maxWaitNanos), TimeUnit.NANOSECONDS);
+        }
+
+        private synchronized RateLimiter getRateLimiter(double requestsPerSecond) {
+            if (rateLimiter == null) {
+                rateLimiter = RateLimiter.create(requestsPerSecond);
+            } else if (rateLimiter.getRate() != requestsPerSecond) {
+                rateLimiter.setRate(requestsPerSecond);
+            }
+            return rateLimiter;
+        }
+    }
+}
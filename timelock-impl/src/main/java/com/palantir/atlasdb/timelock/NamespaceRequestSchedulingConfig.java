@@ -0,0 +1,86 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock;
+
+import java.util.Map;
+
+import org.immutables.value.Value;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.common.base.Preconditions;
+
+/**
+ * Configures how requests from different namespaces share this TimeLock node. When enabled, each namespace is held to
+ * its {@link NamespaceRequestLimits}, and once {@link #totalConcurrentRequests()} requests are in flight across all
+ * namespaces, a namespace is only admitted further requests while it is below its weighted share of that total.
+ * Requests that cannot be admitted within {@link #maxQueueWaitMillis()} are rejected, and clients are asked to back
+ * off.
+ */
+@JsonSerialize(as = ImmutableNamespaceRequestSchedulingConfig.class)
+@JsonDeserialize(as = ImmutableNamespaceRequestSchedulingConfig.class)
+@Value.Immutable
+public abstract class NamespaceRequestSchedulingConfig {
+    @JsonProperty("enabled")
+    @Value.Default
+    public boolean enabled() {
+        return false;
+    }
+
+    @JsonProperty("total-concurrent-requests")
+    @Value.Default
+    public int totalConcurrentRequests() {
+        return 1024;
+    }
+
+    /**
+     * How long a request may wait to be admitted before it is rejected.
+     */
+    @JsonProperty("max-queue-wait-millis")
+    @Value.Default
+    public long maxQueueWaitMillis() {
+        return 0;
+    }
+
+    @JsonProperty("default-limits")
+    @Value.Default
+    public NamespaceRequestLimits defaultLimits() {
+        return NamespaceRequestLimits.unlimited();
+    }
+
+    /**
+     * Limits for specific namespaces, which replace {@link #defaultLimits()} for those namespaces.
+     */
+    @JsonProperty("namespaces")
+    public abstract Map<String, NamespaceRequestLimits> namespaceLimits();
+
+    public NamespaceRequestLimits limitsFor(String namespace) {
+        return namespaceLimits().getOrDefault(namespace, defaultLimits());
+    }
+
+    @Value.Check
+    void check() {
+        Preconditions.checkState(totalConcurrentRequests() > 0,
+                "Total concurrent requests must be positive, but found %s", totalConcurrentRequests());
+        Preconditions.checkState(maxQueueWaitMillis() >= 0,
+                "Maximum queue wait must be non-negative, but found %s", maxQueueWaitMillis());
+    }
+
+    public static NamespaceRequestSchedulingConfig disabled() {
+        return ImmutableNamespaceRequestSchedulingConfig.builder().build();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.reflect.AbstractInvocationHandler;
+
+/**
+ * Schedules every call to the delegate as a request of its namespace. A call only holds its permit while it is being
+ * dispatched, so a call returning a future, such as a lock request waiting for locks held by others, does not hold
+ * back other requests of its namespace while it waits.
+ *
+ * Calls that keep existing locks alive or release them, and cheap calls for the time or timestamps, are never limited,
+ * so that clients do not lose their locks or fail to make progress when expensive calls of the same namespace are
+ * being rejected.
+ */
+final class NamespaceSchedulingProxy<T> extends AbstractInvocationHandler {
+    private static final Set<String> UNLIMITED_METHODS = ImmutableSet.of(
+            "unlock",
+            "unlockSimple",
+            "unlockAndFreeze",
+            "refreshLockLeases",
+            "refreshLeaseGroups",
+            "refreshLockRefreshTokens",
+            "refreshTokens",
+            "refreshGrant",
+            "currentTimeMillis",
+            "leaderTime",
+            "getFreshTimestamp",
+            "getFreshTimestamps",
+            "getFreshTimestampsAsync");
+
+    private final NamespaceRequestScheduler scheduler;
+    private final String namespace;
+    private final T delegate;
+
+    NamespaceSchedulingProxy(NamespaceRequestScheduler scheduler, String namespace, T delegate) {
+        this.scheduler = scheduler;
+        this.namespace = namespace;
+        this.delegate = delegate;
+    }
+
+    @Override
+    protected Object handleInvocation(Object proxy, Method method, Object[] args) throws Throwable {
+        NamespaceRequestScheduler.Permit permit =
+                scheduler.acquire(namespace, !UNLIMITED_METHODS.contains(method.getName()));
+        long startCpuTimeNanos = NamespaceRequestScheduler.currentThreadCpuTimeNanos();
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        } finally {
+            permit.recordCpuTime(NamespaceRequestScheduler.currentThreadCpuTimeNanos() - startCpuTimeNanos);
+            permit.release();
+        }
+    }
+}
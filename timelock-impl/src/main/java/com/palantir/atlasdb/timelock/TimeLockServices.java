@@ -15,6 +15,9 @@
  */
 package com.palantir.atlasdb.timelock;
 
+import java.io.Closeable;
+import java.util.function.BooleanSupplier;
+
 import org.immutables.value.Value;
 
 import com.palantir.lock.LockService;
@@ -45,4 +48,21 @@ public interface TimeLockServices {
     // The RPC-independent leadership-enabled implementation of the timelock service
     AsyncTimelockService getTimelockService();
     TimestampManagementService getTimestampManagementService();
+
+    /**
+     * Whether these services currently hold locks or have outstanding lock requests, in which case they must not be
+     * discarded. Services that cannot tell are always considered active.
+     */
+    @Value.Default
+    default BooleanSupplier getActiveLocksCheck() {
+        return () -> true;
+    }
+
+    /**
+     * Releases the resources owned by these services. After this is called, the services must not be used again.
+     */
+    @Value.Default
+    default Closeable getCloser() {
+        return () -> { };
+    }
 }
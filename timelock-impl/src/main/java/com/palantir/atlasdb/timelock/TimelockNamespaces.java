@@ -18,9 +18,12 @@ package com.palantir.atlasdb.timelock;
 
 import static java.util.stream.Collectors.toSet;
 
+import java.io.IOException;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -29,36 +32,102 @@ import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.Counter;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.palantir.paxos.Client;
 import com.palantir.atlasdb.timelock.paxos.PaxosTimeLockConstants;
 import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.common.time.Clock;
+import com.palantir.common.time.SystemClock;
 import com.palantir.logsafe.SafeArg;
 import com.palantir.logsafe.exceptions.SafeIllegalStateException;
 
+/**
+ * Holds the {@link TimeLockServices} of every client, creating them on first use.
+ *
+ * If an idle namespace expiry is configured, {@link #evictIdleNamespaces()} discards the services of clients that
+ * have not been accessed for at least that long and hold no locks. The services of an evicted client are created
+ * again, from its persisted state, the next time the client makes a request.
+ */
 public final class TimelockNamespaces {
     @VisibleForTesting static final String ACTIVE_CLIENTS = "activeClients";
     @VisibleForTesting static final String MAX_CLIENTS = "maxClients";
+    @VisibleForTesting static final String EVICTED_CLIENTS = "evictedClients";
+    @VisibleForTesting static final String RELOADED_CLIENTS = "reloadedClients";
 
     private static final Predicate<String> isValidName = Pattern.compile("^(?!tl$)[a-zA-Z0-9_-]+$").asPredicate();
     private static final Logger log = LoggerFactory.getLogger(TimelockNamespaces.class);
 
-    private final ConcurrentMap<String, TimeLockServices> services = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, NamespaceServices> services = new ConcurrentHashMap<>();
+    private final Set<String> evictedNamespaces = ConcurrentHashMap.newKeySet();
     private final Function<String, TimeLockServices> factory;
     private final Supplier<Integer> maxNumberOfClients;
+    private final Supplier<Optional<Long>> idleNamespaceExpiryMillis;
+    private final Clock clock;
+    private final Counter evictedClients;
+    private final Counter reloadedClients;
 
     public TimelockNamespaces(
             MetricsManager metrics,
             Function<String, TimeLockServices> factory,
             Supplier<Integer> maxNumberOfClients) {
+        this(metrics, factory, maxNumberOfClients, Optional::empty);
+    }
+
+    public TimelockNamespaces(
+            MetricsManager metrics,
+            Function<String, TimeLockServices> factory,
+            Supplier<Integer> maxNumberOfClients,
+            Supplier<Optional<Long>> idleNamespaceExpiryMillis) {
+        this(metrics, factory, maxNumberOfClients, idleNamespaceExpiryMillis, new SystemClock());
+    }
+
+    @VisibleForTesting
+    TimelockNamespaces(
+            MetricsManager metrics,
+            Function<String, TimeLockServices> factory,
+            Supplier<Integer> maxNumberOfClients,
+            Supplier<Optional<Long>> idleNamespaceExpiryMillis,
+            Clock clock) {
         this.factory = factory;
         this.maxNumberOfClients = maxNumberOfClients;
+        this.idleNamespaceExpiryMillis = idleNamespaceExpiryMillis;
+        this.clock = clock;
+        this.evictedClients = metrics.registerOrGetCounter(TimelockNamespaces.class, EVICTED_CLIENTS);
+        this.reloadedClients = metrics.registerOrGetCounter(TimelockNamespaces.class, RELOADED_CLIENTS);
         registerClientCapacityMetrics(metrics);
     }
 
     public TimeLockServices get(String namespace) {
-        return services.computeIfAbsent(namespace, this::createNewClient);
+        while (true) {
+            NamespaceServices namespaceServices = services.computeIfAbsent(namespace, this::createNewClient);
+            if (namespaceServices.markAccessed(clock.getTimeMillis())) {
+                return namespaceServices.services;
+            }
+            // Evicted concurrently; make sure we do not pick up the same instance again.
+            closeAndRemove(namespace, namespaceServices);
+        }
+    }
+
+    /**
+     * Evicts the services of every client that has not been accessed for at least the configured idle namespace
+     * expiry and that holds no locks, closing them. Does nothing if no expiry is configured.
+     */
+    public void evictIdleNamespaces() {
+        Optional<Long> expiryMillis = idleNamespaceExpiryMillis.get();
+        if (!expiryMillis.isPresent()) {
+            return;
+        }
+
+        services.forEach((namespace, namespaceServices) -> {
+            if (namespaceServices.tryEvict(clock.getTimeMillis(), expiryMillis.get())) {
+                evictedNamespaces.add(namespace);
+                evictedClients.inc();
+                closeAndRemove(namespace, namespaceServices);
+                log.info("Evicted services for idle TimeLock client {}.", SafeArg.of("client", namespace));
+            }
+        });
     }
 
     public Set<Client> getActiveClients() {
@@ -73,7 +142,7 @@ public final class TimelockNamespaces {
         return maxNumberOfClients.get();
     }
 
-    private TimeLockServices createNewClient(String namespace) {
+    private NamespaceServices createNewClient(String namespace) {
         Preconditions.checkArgument(isValidName.test(namespace),
                 "Invalid namespace", SafeArg.of("namespace", namespace));
         Preconditions.checkArgument(!namespace.equals(PaxosTimeLockConstants.LEADER_ELECTION_NAMESPACE),
@@ -92,12 +161,91 @@ public final class TimelockNamespaces {
         }
 
         TimeLockServices services = factory.apply(namespace);
-        log.info("Successfully created services for a new TimeLock client {}.", SafeArg.of("client", namespace));
-        return services;
+        if (evictedNamespaces.remove(namespace)) {
+            reloadedClients.inc();
+            log.info("Successfully reloaded services for TimeLock client {}.", SafeArg.of("client", namespace));
+        } else {
+            log.info("Successfully created services for a new TimeLock client {}.", SafeArg.of("client", namespace));
+        }
+        return new NamespaceServices(services, clock.getTimeMillis());
+    }
+
+    /**
+     * Closes the given evicted services and removes them, unless they have already been removed. They are closed
+     * before being removed so that services for the namespace are only created again once the evicted ones have
+     * released everything they hold.
+     */
+    private void closeAndRemove(String namespace, NamespaceServices evicted) {
+        services.computeIfPresent(namespace, (unused, current) -> {
+            if (current != evicted) {
+                return current;
+            }
+            close(namespace, evicted.services);
+            return null;
+        });
+    }
+
+    private static void close(String namespace, TimeLockServices evictedServices) {
+        try {
+            evictedServices.getCloser().close();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to close the services of evicted TimeLock client {}.",
+                    SafeArg.of("client", namespace),
+                    e);
+        }
     }
 
     private void registerClientCapacityMetrics(MetricsManager metricsManager) {
         metricsManager.registerMetric(TimelockNamespaces.class, ACTIVE_CLIENTS, this::getNumberOfActiveClients);
         metricsManager.registerMetric(TimelockNamespaces.class, MAX_CLIENTS, this::getMaxNumberOfClients);
     }
+
+    private static final class NamespaceServices {
+        private static final long EVICTED = Long.MIN_VALUE;
+
+        private final TimeLockServices services;
+        private final AtomicLong lastAccessMillis;
+
+        private NamespaceServices(TimeLockServices services, long creationMillis) {
+            this.services = services;
+            this.lastAccessMillis = new AtomicLong(creationMillis);
+        }
+
+        /**
+         * Records an access, returning false if these services have already been evicted and must not be used.
+         */
+        boolean markAccessed(long nowMillis) {
+            long lastAccess = lastAccessMillis.get();
+            while (lastAccess != EVICTED) {
+                if (lastAccess >= nowMillis || lastAccessMillis.compareAndSet(lastAccess, nowMillis)) {
+                    return true;
+                }
+                lastAccess = lastAccessMillis.get();
+            }
+            return false;
+        }
+
+        /**
+         * Marks these services as evicted if they have not been accessed for the given expiry and hold no locks.
+         * Fails if an access is recorded concurrently, so services returned by {@link #get(String)} are never
+         * evicted from under the request that is about to use them.
+         */
+        boolean tryEvict(long nowMillis, long expiryMillis) {
+            long lastAccess = lastAccessMillis.get();
+            if (lastAccess == EVICTED || nowMillis - lastAccess < expiryMillis || hasActiveLocks()) {
+                return false;
+            }
+            return lastAccessMillis.compareAndSet(lastAccess, EVICTED);
+        }
+
+        private boolean hasActiveLocks() {
+            try {
+                return services.getActiveLocksCheck().getAsBoolean();
+            } catch (RuntimeException e) {
+                log.info("Could not determine whether the services of a TimeLock client hold locks; "
+                        + "not evicting them.", e);
+                return true;
+            }
+        }
+    }
 }
@@ -16,6 +16,8 @@
 package com.palantir.atlasdb.timelock.lock;
 
 import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -31,6 +33,7 @@ import com.palantir.atlasdb.timelock.lock.watch.LockEventLogImpl;
 import com.palantir.atlasdb.timelock.lock.watch.LockWatchingService;
 import com.palantir.atlasdb.timelock.lock.watch.LockWatchingServiceImpl;
 import com.palantir.lock.LockDescriptor;
+import com.palantir.lock.client.IdentifiedLockRequest;
 import com.palantir.lock.v2.LeaderTime;
 import com.palantir.lock.v2.LockToken;
 import com.palantir.lock.v2.RefreshLockResponseV2;
@@ -110,7 +113,9 @@ public class AsyncLockService implements Closeable {
     private void scheduleExpiredLockReaper() {
         reaperExecutor.scheduleAtFixedRate(() -> {
             try {
-                heldLocks.removeExpired();
+                long startNanos = System.nanoTime();
+                int numRemoved = heldLocks.removeExpired();
+                lockLog.expiredLocksReaped(numRemoved, System.nanoTime() - startNanos);
             } catch (Throwable t) {
                 log.warn("Error while removing expired lock requests. Trying again on next iteration.", t);
             }
@@ -118,14 +123,67 @@ public class AsyncLockService implements Closeable {
     }
 
     public AsyncResult<Leased<LockToken>> lock(UUID requestId, Set<LockDescriptor> lockDescriptors, TimeLimit timeout) {
+        return lock(requestId, Optional.empty(), lockDescriptors, timeout);
+    }
+
+    public AsyncResult<Leased<LockToken>> lock(
+            UUID requestId,
+            Optional<UUID> leaseGroupId,
+            Set<LockDescriptor> lockDescriptors,
+            TimeLimit timeout) {
+        return lock(requestId, leaseGroupId, lockDescriptors, ImmutableSet.of(), timeout);
+    }
+
+    /**
+     * Acquires the given lock descriptors exclusively, and the given shared lock descriptors in shared mode, so that
+     * they may be held by other requests in shared mode at the same time.
+     */
+    public AsyncResult<Leased<LockToken>> lock(
+            UUID requestId,
+            Optional<UUID> leaseGroupId,
+            Set<LockDescriptor> lockDescriptors,
+            Set<LockDescriptor> sharedLockDescriptors,
+            TimeLimit timeout) {
         return heldLocks.getExistingOrAcquire(
                 requestId,
-                () -> acquireLocks(requestId, lockDescriptors, timeout));
+                leaseGroupId,
+                () -> acquireLocks(requestId, lockDescriptors, sharedLockDescriptors, timeout));
+    }
+
+    /**
+     * Makes each of the given requests as {@link #lock(UUID, Optional, Set, Set, TimeLimit)} would, so that each
+     * request is acquired, times out or fails independently of the others. The locks of all requests are looked up in
+     * a single pass over the lock collection.
+     */
+    public List<AsyncResult<Leased<LockToken>>> lock(List<IdentifiedLockRequest> requests) {
+        List<OrderedLocks> orderedLocks = locks.getAll(
+                requests,
+                IdentifiedLockRequest::getLockDescriptors,
+                IdentifiedLockRequest::getSharedLockDescriptors);
+        List<AsyncResult<Leased<LockToken>>> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            IdentifiedLockRequest request = requests.get(i);
+            OrderedLocks requestLocks = orderedLocks.get(i);
+            results.add(heldLocks.getExistingOrAcquire(
+                    request.getRequestId(),
+                    request.getLeaseGroup(),
+                    () -> lockAcquirer.acquireLocks(
+                            request.getRequestId(), requestLocks, TimeLimit.of(request.getAcquireTimeoutMs()))));
+        }
+        return results;
     }
 
     public AsyncResult<Leased<LockToken>> lockImmutableTimestamp(UUID requestId, long timestamp) {
+        return lockImmutableTimestamp(requestId, Optional.empty(), timestamp);
+    }
+
+    public AsyncResult<Leased<LockToken>> lockImmutableTimestamp(
+            UUID requestId,
+            Optional<UUID> leaseGroupId,
+            long timestamp) {
         AsyncResult<Leased<LockToken>> immutableTimestampLockResult = heldLocks.getExistingOrAcquire(
                 requestId,
+                leaseGroupId,
                 () -> acquireImmutableTimestampLock(requestId, timestamp));
         // TODO(fdesouza): Remove this once PDS-95791 is resolved.
         lockLog.registerLockImmutableTimestampRequest(requestId, timestamp, immutableTimestampLockResult);
@@ -133,9 +191,21 @@ public class AsyncLockService implements Closeable {
     }
 
     public AsyncResult<Void> waitForLocks(UUID requestId, Set<LockDescriptor> lockDescriptors, TimeLimit timeout) {
+        return waitForLocks(requestId, lockDescriptors, ImmutableSet.of(), timeout);
+    }
+
+    /**
+     * Waits until the given lock descriptors are not held by anyone, and the given shared lock descriptors are not held
+     * exclusively.
+     */
+    public AsyncResult<Void> waitForLocks(
+            UUID requestId,
+            Set<LockDescriptor> lockDescriptors,
+            Set<LockDescriptor> sharedLockDescriptors,
+            TimeLimit timeout) {
         return awaitedLocks.getExistingOrAwait(
                 requestId,
-                () -> awaitLocks(requestId, lockDescriptors, timeout));
+                () -> awaitLocks(requestId, lockDescriptors, sharedLockDescriptors, timeout));
     }
 
     public Optional<Long> getImmutableTimestamp() {
@@ -143,14 +213,14 @@ public class AsyncLockService implements Closeable {
     }
 
     private AsyncResult<HeldLocks> acquireLocks(UUID requestId, Set<LockDescriptor> lockDescriptors,
-            TimeLimit timeout) {
-        OrderedLocks orderedLocks = locks.getAll(lockDescriptors);
+            Set<LockDescriptor> sharedLockDescriptors, TimeLimit timeout) {
+        OrderedLocks orderedLocks = locks.getAll(lockDescriptors, sharedLockDescriptors);
         return lockAcquirer.acquireLocks(requestId, orderedLocks, timeout);
     }
 
     private AsyncResult<Void> awaitLocks(UUID requestId, Set<LockDescriptor> lockDescriptors,
-            TimeLimit timeout) {
-        OrderedLocks orderedLocks = locks.getAll(lockDescriptors);
+            Set<LockDescriptor> sharedLockDescriptors, TimeLimit timeout) {
+        OrderedLocks orderedLocks = locks.getAll(lockDescriptors, sharedLockDescriptors);
         return lockAcquirer.waitForLocks(requestId, orderedLocks, timeout);
     }
 
@@ -180,10 +250,22 @@ public class AsyncLockService implements Closeable {
                 refreshedTokens.lease());
     }
 
+    public Leased<Set<UUID>> refreshLeaseGroups(Set<UUID> leaseGroupIds) {
+        return heldLocks.refreshLeaseGroups(leaseGroupIds);
+    }
+
     public LeaderTime leaderTime() {
         return leaderClock.time();
     }
 
+    /**
+     * Returns true if any locks are currently held (or not yet reaped), or if any requests to acquire or wait for
+     * locks are outstanding.
+     */
+    public boolean hasActiveLocksOrRequests() {
+        return !heldLocks.isEmpty() || !awaitedLocks.isEmpty();
+    }
+
     public LockWatchingService getLockWatchingService() {
         return lockWatchingService;
     }
@@ -40,6 +40,10 @@ public class AwaitedLocksCollection {
         return result;
     }
 
+    public boolean isEmpty() {
+        return requestsById.isEmpty();
+    }
+
     private void registerCompletionHandler(UUID requestId, AsyncResult<Void> result) {
         // Modifying the map synchronously in this callback can deadlock.
         // The thread that completes this result will be inside a synchronized method on AsyncLock; if a supplier
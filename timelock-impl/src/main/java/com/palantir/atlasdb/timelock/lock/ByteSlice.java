@@ -0,0 +1,99 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.lock;
+
+import java.util.Arrays;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * A range of a byte array, compared by content. Slices allow locks to be looked up by part of their descriptor
+ * without copying it; {@link #compact()} should be used before a slice is retained, so that it does not keep the rest
+ * of the array reachable. The underlying array must not be modified once a slice of it has been created.
+ */
+@Immutable
+final class ByteSlice {
+    private final byte[] bytes;
+    private final int offset;
+    private final int length;
+    private final int hash;
+
+    private ByteSlice(byte[] bytes, int offset, int length) {
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+        this.hash = computeHash(bytes, offset, length);
+    }
+
+    static ByteSlice of(byte[] bytes, int offset, int length) {
+        return new ByteSlice(bytes, offset, length);
+    }
+
+    /**
+     * Returns a slice with the same contents that is backed by an array of exactly its length.
+     */
+    ByteSlice compact() {
+        if (offset == 0 && length == bytes.length) {
+            return this;
+        }
+        return new ByteSlice(Arrays.copyOfRange(bytes, offset, offset + length), 0, length);
+    }
+
+    int length() {
+        return length;
+    }
+
+    void copyTo(byte[] target, int targetOffset) {
+        System.arraycopy(bytes, offset, target, targetOffset, length);
+    }
+
+    boolean contentEquals(byte[] other, int otherOffset, int otherLength) {
+        if (length != otherLength) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (bytes[offset + i] != other[otherOffset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        ByteSlice other = (ByteSlice) obj;
+        return hash == other.hash && contentEquals(other.bytes, other.offset, other.length);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    private static int computeHash(byte[] bytes, int offset, int length) {
+        int result = 1;
+        for (int i = offset; i < offset + length; i++) {
+            result = 31 * result + bytes[i];
+        }
+        return result;
+    }
+}
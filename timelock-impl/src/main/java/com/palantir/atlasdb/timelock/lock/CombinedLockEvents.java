@@ -54,4 +54,9 @@ public class CombinedLockEvents implements LockEvents {
     public void explicitlyUnlocked(UUID requestId) {
         lockEvents.forEach(events -> events.explicitlyUnlocked(requestId));
     }
+
+    @Override
+    public void expiredLocksReaped(int numRemoved, long durationNanos) {
+        lockEvents.forEach(events -> events.expiredLocksReaped(numRemoved, durationNanos));
+    }
 }
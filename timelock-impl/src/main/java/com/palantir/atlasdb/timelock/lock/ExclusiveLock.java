@@ -15,9 +15,12 @@
  */
 package com.palantir.atlasdb.timelock.lock;
 
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.NotThreadSafe;
@@ -28,27 +31,51 @@ import com.palantir.atlasdb.timelock.util.LoggableIllegalStateException;
 import com.palantir.lock.LockDescriptor;
 import com.palantir.logsafe.SafeArg;
 
+/**
+ * A lock that is held either by a single request, or in shared mode (through a {@link SharedLock} view) by any number
+ * of requests at once. Requests are granted in the order they were made: a request for the lock in either mode that
+ * cannot be granted yet blocks all requests behind it, so that a steady stream of shared holders cannot starve a
+ * request for exclusive access.
+ */
 public class ExclusiveLock implements AsyncLock {
 
-    private final LockDescriptor descriptor;
+    private final Supplier<LockDescriptor> descriptor;
 
     @GuardedBy("this")
     private final LockRequestQueue queue = new LockRequestQueue();
     @GuardedBy("this")
     private UUID currentHolder = null;
+    @GuardedBy("this")
+    private final Set<UUID> sharedHolders = new HashSet<>();
 
     public ExclusiveLock(LockDescriptor descriptor) {
+        this(() -> descriptor);
+    }
+
+    /**
+     * Creates a lock whose descriptor is only materialized when requested, so that locks need not retain their full
+     * descriptor.
+     */
+    ExclusiveLock(Supplier<LockDescriptor> descriptor) {
         this.descriptor = descriptor;
     }
 
     @Override
     public synchronized AsyncResult<Void> lock(UUID requestId) {
-        return submit(new LockRequest(requestId, false));
+        return submit(new LockRequest(requestId, false, false));
     }
 
     @Override
     public synchronized AsyncResult<Void> waitUntilAvailable(UUID requestId) {
-        return submit(new LockRequest(requestId, true));
+        return submit(new LockRequest(requestId, true, false));
+    }
+
+    synchronized AsyncResult<Void> lockShared(UUID requestId) {
+        return submit(new LockRequest(requestId, false, true));
+    }
+
+    synchronized AsyncResult<Void> waitUntilAvailableForShared(UUID requestId) {
+        return submit(new LockRequest(requestId, true, true));
     }
 
     @Override
@@ -56,17 +83,33 @@ public class ExclusiveLock implements AsyncLock {
         if (Objects.equals(requestId, currentHolder)) {
             currentHolder = null;
             processQueue();
+        } else if (sharedHolders.remove(requestId)) {
+            processQueue();
+        }
+    }
+
+    /**
+     * Releases a shared hold of the given request. If no other request holds the lock afterwards, the given action is
+     * run before the lock can be granted to any waiting request.
+     */
+    synchronized void unlockShared(UUID requestId, Runnable ifNoLongerHeld) {
+        if (sharedHolders.remove(requestId)) {
+            if (sharedHolders.isEmpty()) {
+                ifNoLongerHeld.run();
+            }
+            processQueue();
         }
     }
 
     @Override
     public synchronized void timeout(UUID requestId) {
         queue.timeoutAndRemoveIfStillQueued(requestId);
+        processQueue();
     }
 
     @Override
     public LockDescriptor getDescriptor() {
-        return descriptor;
+        return descriptor.get();
     }
 
     @VisibleForTesting
@@ -74,6 +117,11 @@ public class ExclusiveLock implements AsyncLock {
         return currentHolder;
     }
 
+    @VisibleForTesting
+    synchronized Set<UUID> getSharedHolders() {
+        return new HashSet<>(sharedHolders);
+    }
+
     @GuardedBy("this")
     private AsyncResult<Void> submit(LockRequest request) {
         queue.enqueue(request);
@@ -84,25 +132,36 @@ public class ExclusiveLock implements AsyncLock {
 
     @GuardedBy("this")
     private void processQueue() {
-        while (!queue.isEmpty() && currentHolder == null) {
+        while (!queue.isEmpty() && canGrant(queue.peek())) {
             LockRequest head = queue.dequeue();
 
             if (!head.releaseImmediately) {
-                currentHolder = head.requestId;
+                if (head.shared) {
+                    sharedHolders.add(head.requestId);
+                } else {
+                    currentHolder = head.requestId;
+                }
             }
 
             head.result.complete(null);
         }
     }
 
+    @GuardedBy("this")
+    private boolean canGrant(LockRequest request) {
+        return currentHolder == null && (request.shared || sharedHolders.isEmpty());
+    }
+
     private static class LockRequest {
         private final AsyncResult<Void> result = new AsyncResult<>();
         private final UUID requestId;
         private final boolean releaseImmediately;
+        private final boolean shared;
 
-        LockRequest(UUID requestId, boolean releaseImmediately) {
+        LockRequest(UUID requestId, boolean releaseImmediately, boolean shared) {
             this.requestId = requestId;
             this.releaseImmediately = releaseImmediately;
+            this.shared = shared;
         }
     }
 
@@ -126,6 +185,10 @@ public class ExclusiveLock implements AsyncLock {
             return queue.isEmpty();
         }
 
+        public LockRequest peek() {
+            return queue.values().iterator().next();
+        }
+
         public LockRequest dequeue() {
             return queue.remove(queue.keySet().iterator().next());
         }
@@ -25,6 +25,7 @@ import javax.annotation.concurrent.GuardedBy;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableSet;
 import com.palantir.atlasdb.timelock.lock.watch.LockWatchingService;
 import com.palantir.common.time.NanoTime;
 import com.palantir.lock.LockDescriptor;
@@ -35,10 +36,15 @@ public class HeldLocks {
     private final LockLog lockLog;
     private final Collection<AsyncLock> acquiredLocks;
     private final LockToken token;
-    private final LeaseExpirationTimer expirationTimer;
     private final LockWatchingService lockWatchingService;
     private final Supplier<Set<LockDescriptor>> descriptors = Suppliers.memoize(this::getLockDescriptors);
 
+    @GuardedBy("this")
+    private LeaseExpirationTimer expirationTimer;
+
+    @GuardedBy("this")
+    private boolean leaseShared = false;
+
     @GuardedBy("this")
     private boolean isUnlocked = false;
 
@@ -86,6 +92,21 @@ public class HeldLocks {
         return true;
     }
 
+    /**
+     * Makes these locks share the lease tracked by the given timer from now on, so that refreshing these locks or any
+     * other locks sharing the timer refreshes all of them. The shared lease is refreshed, as these locks were just
+     * acquired.
+     */
+    public synchronized void shareLease(LeaseExpirationTimer sharedTimer) {
+        sharedTimer.refresh();
+        expirationTimer = sharedTimer;
+        leaseShared = true;
+    }
+
+    public synchronized boolean hasSharedLease() {
+        return leaseShared;
+    }
+
     public synchronized boolean unlockExplicitly() {
         boolean successfullyUnlocked = unlockInternal();
         if (successfullyUnlocked) {
@@ -99,15 +120,34 @@ public class HeldLocks {
             return false;
         }
         isUnlocked = true;
-        lockWatchingService.registerUnlock(descriptors.get());
+        lockWatchingService.registerUnlock(exclusiveDescriptors());
 
         for (AsyncLock lock : acquiredLocks) {
-            lock.unlock(token.getRequestId());
+            if (lock instanceof SharedLock) {
+                ((SharedLock) lock).unlock(token.getRequestId(), () -> registerUnlock(lock.getDescriptor()));
+            } else {
+                lock.unlock(token.getRequestId());
+            }
         }
 
         return true;
     }
 
+    /**
+     * Shared locks may still be held by other requests after being released here, so their unlocks are only
+     * registered once their last holder releases them.
+     */
+    private Set<LockDescriptor> exclusiveDescriptors() {
+        return acquiredLocks.stream()
+                .filter(lock -> !(lock instanceof SharedLock))
+                .map(AsyncLock::getDescriptor)
+                .collect(Collectors.toSet());
+    }
+
+    private void registerUnlock(LockDescriptor descriptor) {
+        lockWatchingService.registerUnlock(ImmutableSet.of(descriptor));
+    }
+
     public LockToken getToken() {
         return token;
     }
@@ -116,7 +156,7 @@ public class HeldLocks {
         return token.getRequestId();
     }
 
-    public NanoTime lastRefreshTime() {
+    public synchronized NanoTime lastRefreshTime() {
         return expirationTimer.lastRefreshTime();
     }
 
@@ -15,6 +15,9 @@
  */
 package com.palantir.atlasdb.timelock.lock;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentMap;
@@ -32,14 +35,24 @@ import com.palantir.lock.v2.Lease;
 import com.palantir.lock.v2.LockToken;
 
 public class HeldLocksCollection {
+    private static final Duration EXPIRY_RESOLUTION = Duration.ofMillis(100);
+
     @VisibleForTesting
     final ConcurrentMap<UUID, AsyncResult<HeldLocks>> heldLocksById = Maps.newConcurrentMap();
 
+    @VisibleForTesting
+    final ConcurrentMap<UUID, LeaseGroup> leaseGroupsById = Maps.newConcurrentMap();
+
     private final LeaderClock leaderClock;
+    private final LeaseExpiryQueue expiryQueue;
+    private final LeaseExpiryQueue leaseGroupExpiryQueue;
 
     @VisibleForTesting
     HeldLocksCollection(LeaderClock leaderClock) {
         this.leaderClock = leaderClock;
+        NanoTime origin = leaderClock.time().currentTime();
+        this.expiryQueue = new LeaseExpiryQueue(origin, EXPIRY_RESOLUTION);
+        this.leaseGroupExpiryQueue = new LeaseExpiryQueue(origin, EXPIRY_RESOLUTION);
     }
 
     public static HeldLocksCollection create(LeaderClock leaderClock) {
@@ -49,26 +62,103 @@ public class HeldLocksCollection {
     public AsyncResult<Leased<LockToken>> getExistingOrAcquire(
             UUID requestId,
             Supplier<AsyncResult<HeldLocks>> lockAcquirer) {
-        return heldLocksById.computeIfAbsent(
-                requestId, ignored -> lockAcquirer.get())
-                .map(this::createLeasableLockToken);
+        return getExistingOrAcquire(requestId, Optional.empty(), lockAcquirer);
+    }
+
+    /**
+     * As {@link #getExistingOrAcquire(UUID, Supplier)}, but if a lease group is specified, the locks join that group
+     * once acquired (creating it if necessary) and from then on share its lease. If the group has expired by the time
+     * the locks are acquired, the locks keep a lease of their own instead.
+     */
+    public AsyncResult<Leased<LockToken>> getExistingOrAcquire(
+            UUID requestId,
+            Optional<UUID> leaseGroupId,
+            Supplier<AsyncResult<HeldLocks>> lockAcquirer) {
+        return heldLocksById.computeIfAbsent(requestId, ignored -> {
+            leaseGroupId.ifPresent(this::reserveLeaseGroup);
+            return trackOnCompletion(requestId, leaseGroupId, lockAcquirer.get());
+        }).map(this::createLeasableLockToken);
     }
 
     public Set<LockToken> unlock(Set<LockToken> tokens) {
         Set<LockToken> unlocked = filter(tokens, HeldLocks::unlockExplicitly);
         for (LockToken token : unlocked) {
             heldLocksById.remove(token.getRequestId());
+            expiryQueue.remove(token.getRequestId());
         }
         return unlocked;
     }
 
     public Leased<Set<LockToken>> refresh(Set<LockToken> tokens) {
         Lease lease = leaseWithStart(leaderClock.time());
-        return Leased.of(filter(tokens, HeldLocks::refresh), lease);
+        Set<LockToken> refreshed = filter(tokens, HeldLocks::refresh);
+        for (LockToken token : refreshed) {
+            AsyncResult<HeldLocks> lockResult = heldLocksById.get(token.getRequestId());
+            if (lockResult != null && !lockResult.test(HeldLocks::hasSharedLease)) {
+                scheduleExpiry(token.getRequestId(), lockResult);
+            }
+        }
+        return Leased.of(refreshed, lease);
+    }
+
+    /**
+     * Refreshes the shared lease of every member of the given lease groups, and returns the ids of the groups that
+     * were refreshed. The work done is proportional to the number of groups, not the number of their members.
+     */
+    public Leased<Set<UUID>> refreshLeaseGroups(Set<UUID> leaseGroupIds) {
+        Lease lease = leaseWithStart(leaderClock.time());
+        Set<UUID> refreshed = Sets.newHashSetWithExpectedSize(leaseGroupIds.size());
+        for (UUID leaseGroupId : leaseGroupIds) {
+            LeaseGroup group = leaseGroupsById.get(leaseGroupId);
+            if (group != null && group.refresh()) {
+                refreshed.add(leaseGroupId);
+            }
+        }
+        return Leased.of(refreshed, lease);
     }
 
-    public void removeExpired() {
-        heldLocksById.values().removeIf(this::shouldRemove);
+    /**
+     * Removes lock requests that have failed, timed out, or whose locks have expired, and returns the number of
+     * requests removed. Only requests whose lease deadline has passed (or that completed unsuccessfully) are
+     * examined; requests that turn out to have been refreshed in the meantime are rescheduled. Requests sharing the
+     * lease of a lease group are only examined once the lease of the group has expired.
+     */
+    public int removeExpired() {
+        NanoTime now = leaderClock.time().currentTime();
+        int removed = 0;
+        for (UUID requestId : expiryQueue.pollDue(now)) {
+            removed += removeIfExpired(requestId);
+        }
+        for (UUID leaseGroupId : leaseGroupExpiryQueue.pollDue(now)) {
+            LeaseGroup group = leaseGroupsById.get(leaseGroupId);
+            if (group == null) {
+                continue;
+            }
+
+            Optional<List<UUID>> members = group.closeIfExpired();
+            if (members.isPresent()) {
+                forgetIfRetired(leaseGroupId, group);
+                for (UUID requestId : members.get()) {
+                    removed += removeIfExpired(requestId);
+                }
+            } else {
+                scheduleExpiry(leaseGroupId, group);
+            }
+        }
+        return removed;
+    }
+
+    private int removeIfExpired(UUID requestId) {
+        AsyncResult<HeldLocks> lockResult = heldLocksById.get(requestId);
+        if (lockResult == null) {
+            return 0;
+        }
+
+        if (shouldRemove(lockResult)) {
+            return heldLocksById.remove(requestId, lockResult) ? 1 : 0;
+        }
+        scheduleExpiry(requestId, lockResult);
+        return 0;
     }
 
     public void failAllOutstandingRequestsWithNotCurrentLeaderException() {
@@ -76,6 +166,13 @@ public class HeldLocksCollection {
         heldLocksById.values().forEach(result -> result.failIfNotCompleted(ex));
     }
 
+    /**
+     * Returns true if no locks are held and no lock requests are pending.
+     */
+    public boolean isEmpty() {
+        return heldLocksById.isEmpty();
+    }
+
     public Set<HeldLocks> locksHeld() {
         return heldLocksById.values().stream()
                 .filter(AsyncResult::isCompletedSuccessfully)
@@ -83,6 +180,76 @@ public class HeldLocksCollection {
                 .collect(Collectors.toSet());
     }
 
+    private AsyncResult<HeldLocks> trackOnCompletion(
+            UUID requestId,
+            Optional<UUID> leaseGroupId,
+            AsyncResult<HeldLocks> lockResult) {
+        lockResult.onComplete(() -> {
+            boolean joinedLeaseGroup = leaseGroupId.isPresent() && completeLeaseGroupReservation(
+                    leaseGroupId.get(), lockResult);
+            if (!joinedLeaseGroup) {
+                scheduleExpiry(requestId, lockResult);
+            }
+        });
+        return lockResult;
+    }
+
+    private void reserveLeaseGroup(UUID leaseGroupId) {
+        leaseGroupsById.compute(leaseGroupId, (id, existing) -> {
+            LeaseGroup group = existing;
+            if (group == null) {
+                group = new LeaseGroup(() -> leaderClock.time().currentTime());
+                scheduleExpiry(id, group);
+            }
+            group.reserve();
+            return group;
+        });
+    }
+
+    /**
+     * Joins the locks to the lease group they reserved a place in, if they were acquired and the group has not been
+     * closed in the meantime. A group is never removed while it has outstanding reservations, so a closed group is
+     * never replaced by a new group with the same id.
+     *
+     * @return true if the locks joined the group
+     */
+    private boolean completeLeaseGroupReservation(UUID leaseGroupId, AsyncResult<HeldLocks> lockResult) {
+        LeaseGroup group = leaseGroupsById.get(leaseGroupId);
+        if (group == null) {
+            return false;
+        }
+
+        boolean joined;
+        if (lockResult.isCompletedSuccessfully()) {
+            joined = group.join(lockResult.get());
+        } else {
+            group.cancelReservation();
+            joined = false;
+        }
+        forgetIfRetired(leaseGroupId, group);
+        return joined;
+    }
+
+    private void forgetIfRetired(UUID leaseGroupId, LeaseGroup group) {
+        leaseGroupsById.computeIfPresent(leaseGroupId, (id, existing) ->
+                existing == group && group.isRetired() ? null : existing);
+    }
+
+    private void scheduleExpiry(UUID leaseGroupId, LeaseGroup group) {
+        leaseGroupExpiryQueue.schedule(
+                leaseGroupId, group.lastRefreshTime().plus(LockLeaseContract.SERVER_LEASE_TIMEOUT));
+    }
+
+    private void scheduleExpiry(UUID requestId, AsyncResult<HeldLocks> lockResult) {
+        if (lockResult.isCompletedSuccessfully()) {
+            NanoTime deadline = lockResult.get().lastRefreshTime().plus(LockLeaseContract.SERVER_LEASE_TIMEOUT);
+            expiryQueue.schedule(requestId, deadline);
+        } else if (lockResult.isComplete()) {
+            // failed and timed out requests should be removed on the next reaping iteration
+            expiryQueue.schedule(requestId, leaderClock.time().currentTime());
+        }
+    }
+
     private Leased<LockToken> createLeasableLockToken(HeldLocks heldLocks) {
         return Leased.of(heldLocks.getToken(), leaseWithStart(heldLocks.lastRefreshTime()));
     }
@@ -0,0 +1,158 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.lock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.palantir.common.time.NanoTime;
+import com.palantir.logsafe.Preconditions;
+
+/**
+ * Tracks the lease deadlines of held lock requests in buckets of {@code resolution} width, so that expired requests
+ * can be found without looking at every request that is currently held.
+ *
+ * Scheduling a request moves it from its previous bucket (if any) to the bucket containing its new deadline in
+ * constant time. {@link #pollDue(NanoTime)} removes and returns every request in a bucket that may contain a deadline
+ * at or before the given time; as buckets are not split further, the returned requests may include some whose
+ * deadline is up to {@code resolution} in the future, so callers must check expiry themselves and reschedule requests
+ * that have not yet expired.
+ *
+ * A request may transiently be present in more than one bucket when it is scheduled concurrently from several
+ * threads, but it is never absent from all buckets after having been scheduled and before being polled or removed.
+ */
+@ThreadSafe
+final class LeaseExpiryQueue {
+    private final NanoTime origin;
+    private final long resolutionNanos;
+
+    private final ConcurrentNavigableMap<Long, Bucket> buckets = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<UUID, Bucket> bucketsByRequestId = Maps.newConcurrentMap();
+
+    LeaseExpiryQueue(NanoTime origin, Duration resolution) {
+        Preconditions.checkArgument(!resolution.isNegative() && !resolution.isZero(), "resolution must be positive");
+        this.origin = origin;
+        this.resolutionNanos = resolution.toNanos();
+    }
+
+    void schedule(UUID requestId, NanoTime deadline) {
+        long index = bucketIndex(deadline);
+
+        Bucket current = bucketsByRequestId.get(requestId);
+        if (current != null && current.index == index && current.contains(requestId)) {
+            return;
+        }
+
+        Bucket bucket = buckets.computeIfAbsent(index, Bucket::new);
+        while (!bucket.add(requestId)) {
+            // the bucket was polled concurrently; a fresh bucket will be picked up by the next poll
+            buckets.remove(index, bucket);
+            bucket = buckets.computeIfAbsent(index, Bucket::new);
+        }
+
+        Bucket previous = bucketsByRequestId.put(requestId, bucket);
+        if (previous != null && previous != bucket) {
+            previous.remove(requestId);
+        }
+    }
+
+    void remove(UUID requestId) {
+        Bucket bucket = bucketsByRequestId.remove(requestId);
+        if (bucket != null) {
+            bucket.remove(requestId);
+        }
+    }
+
+    /**
+     * Removes and returns all requests in buckets that may contain a deadline at or before {@code now}.
+     */
+    List<UUID> pollDue(NanoTime now) {
+        ConcurrentNavigableMap<Long, Bucket> dueBuckets = buckets.headMap(bucketIndex(now), true);
+
+        List<UUID> dueRequests = new ArrayList<>();
+        for (Map.Entry<Long, Bucket> entry = dueBuckets.pollFirstEntry(); entry != null;
+                entry = dueBuckets.pollFirstEntry()) {
+            Bucket bucket = entry.getValue();
+            for (UUID requestId : bucket.close()) {
+                bucketsByRequestId.remove(requestId, bucket);
+                dueRequests.add(requestId);
+            }
+        }
+        return dueRequests;
+    }
+
+    int size() {
+        return bucketsByRequestId.size();
+    }
+
+    /**
+     * The index of the bucket containing {@code time}, where bucket {@code i} contains all times in
+     * {@code (origin + (i - 1) * resolution, origin + i * resolution]}.
+     */
+    private long bucketIndex(NanoTime time) {
+        return -Math.floorDiv(-NanoTime.nanosBetween(origin, time), resolutionNanos);
+    }
+
+    private static final class Bucket {
+        private final long index;
+
+        @GuardedBy("this")
+        private Set<UUID> requestIds = Sets.newHashSet();
+
+        private Bucket(long index) {
+            this.index = index;
+        }
+
+        synchronized boolean add(UUID requestId) {
+            if (requestIds == null) {
+                return false;
+            }
+            requestIds.add(requestId);
+            return true;
+        }
+
+        synchronized void remove(UUID requestId) {
+            if (requestIds != null) {
+                requestIds.remove(requestId);
+            }
+        }
+
+        synchronized boolean contains(UUID requestId) {
+            return requestIds != null && requestIds.contains(requestId);
+        }
+
+        /**
+         * Returns the requests in this bucket, after which no further requests may be added to it.
+         */
+        synchronized Set<UUID> close() {
+            Set<UUID> closedRequestIds = requestIds;
+            requestIds = null;
+            return closedRequestIds;
+        }
+    }
+}
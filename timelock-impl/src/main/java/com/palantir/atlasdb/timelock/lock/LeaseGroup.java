@@ -0,0 +1,143 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.lock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.palantir.common.time.NanoTime;
+
+/**
+ * A group of held lock requests that share a single lease, so that a client can refresh all of them by refreshing the
+ * group. Refreshing the group is constant time regardless of its size.
+ *
+ * Membership is append-only and stored as the raw bits of the members' request ids. Members that are unlocked
+ * individually are not removed from the group; callers must skip request ids that are no longer held once the group
+ * has been closed.
+ *
+ * Lock requests reserve a place in the group before they start acquiring their locks. A closed group must be kept
+ * until every reservation has completed, so that a request completing after the group has expired cannot cause a new
+ * group to be created under the same id, which would make the expired members appear refreshed.
+ */
+@ThreadSafe
+final class LeaseGroup {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final LeaseExpirationTimer expirationTimer;
+
+    @GuardedBy("this")
+    private long[] memberBits = new long[2 * INITIAL_CAPACITY];
+
+    @GuardedBy("this")
+    private int size = 0;
+
+    @GuardedBy("this")
+    private int reservations = 0;
+
+    @GuardedBy("this")
+    private boolean closed = false;
+
+    LeaseGroup(Supplier<NanoTime> clock) {
+        this.expirationTimer = new LeaseExpirationTimer(clock);
+    }
+
+    /**
+     * Records that a lock request will try to join this group once it completes. Every reservation must be followed
+     * by exactly one call to {@link #join(HeldLocks)} or {@link #cancelReservation()}.
+     */
+    synchronized void reserve() {
+        reservations++;
+    }
+
+    synchronized void cancelReservation() {
+        reservations--;
+    }
+
+    /**
+     * Completes a reservation, adding the given locks to this group and making them share the group's lease, unless
+     * the group has been closed.
+     *
+     * @return true if the locks were added to the group
+     */
+    synchronized boolean join(HeldLocks heldLocks) {
+        reservations--;
+        if (closed) {
+            return false;
+        }
+
+        heldLocks.shareLease(expirationTimer);
+        if (2 * size == memberBits.length) {
+            memberBits = Arrays.copyOf(memberBits, 2 * memberBits.length);
+        }
+        UUID requestId = heldLocks.getRequestId();
+        memberBits[2 * size] = requestId.getMostSignificantBits();
+        memberBits[2 * size + 1] = requestId.getLeastSignificantBits();
+        size++;
+        return true;
+    }
+
+    /**
+     * Refreshes the lease of every member of this group, unless the group has been closed.
+     *
+     * @return true if the group was refreshed
+     */
+    synchronized boolean refresh() {
+        if (closed) {
+            return false;
+        }
+
+        expirationTimer.refresh();
+        return true;
+    }
+
+    /**
+     * Closes this group if its lease has expired, so that it can no longer be joined or refreshed.
+     *
+     * @return the request ids of every member ever added to the group, if it was closed
+     */
+    synchronized Optional<List<UUID>> closeIfExpired() {
+        if (closed || !expirationTimer.isExpired()) {
+            return Optional.empty();
+        }
+
+        closed = true;
+        List<UUID> members = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            members.add(new UUID(memberBits[2 * i], memberBits[2 * i + 1]));
+        }
+        memberBits = null;
+        return Optional.of(members);
+    }
+
+    /**
+     * Returns true if this group has been closed and no lock request may still try to join it, so that it can be
+     * forgotten.
+     */
+    synchronized boolean isRetired() {
+        return closed && reservations == 0;
+    }
+
+    NanoTime lastRefreshTime() {
+        return expirationTimer.lastRefreshTime();
+    }
+}
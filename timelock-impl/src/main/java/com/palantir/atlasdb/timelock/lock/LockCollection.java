@@ -16,44 +16,114 @@
 package com.palantir.atlasdb.timelock.lock;
 
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
+import com.google.common.collect.SetMultimap;
+import com.google.common.collect.Sets;
+import com.google.common.primitives.Bytes;
 import com.palantir.lock.LockDescriptor;
 
+/**
+ * Locks are kept in one {@link LockDescriptorTable} per table prefix, where the prefix of a descriptor is everything up
+ * to and including its first zero byte (the table name, for AtlasDB row and cell descriptors). Descriptors without a
+ * zero byte all share the empty prefix. This way only the suffix of a descriptor is hashed to find its lock, and the
+ * prefix is only looked up once for every run of descriptors in the same table.
+ */
 public class LockCollection {
 
-    private final LoadingCache<LockDescriptor, AsyncLock> locksById;
+    private final Cache<ByteSlice, LockDescriptorTable> tablesByPrefix;
 
     public LockCollection() {
-        locksById = Caffeine.newBuilder()
+        tablesByPrefix = Caffeine.newBuilder()
                 .weakValues()
-                .build(ExclusiveLock::new);
+                .build();
     }
 
     public OrderedLocks getAll(Set<LockDescriptor> descriptors) {
-        List<LockDescriptor> orderedDescriptors = sort(descriptors);
+        return getAll(descriptors, ImmutableSet.of());
+    }
+
+    /**
+     * Returns the locks for the given descriptors in a consistent global order, where the locks for shared
+     * descriptors are acquired in shared mode. Descriptors that are both exclusive and shared are locked exclusively.
+     */
+    public OrderedLocks getAll(Set<LockDescriptor> descriptors, Set<LockDescriptor> sharedDescriptors) {
+        List<LockDescriptor> orderedDescriptors = sort(Sets.union(descriptors, sharedDescriptors));
 
-        List<AsyncLock> locks = Lists.newArrayListWithExpectedSize(descriptors.size());
+        List<AsyncLock> locks = Lists.newArrayListWithExpectedSize(orderedDescriptors.size());
+        LockDescriptorTable table = null;
         for (LockDescriptor descriptor : orderedDescriptors) {
-            locks.add(getLock(descriptor));
+            byte[] bytes = descriptor.getBytes();
+            int prefixLength = Bytes.indexOf(bytes, (byte) 0) + 1;
+            if (table == null || !table.hasPrefix(bytes, prefixLength)) {
+                table = getTable(ByteSlice.of(bytes, 0, prefixLength));
+            }
+            ExclusiveLock lock = table.getLock(ByteSlice.of(bytes, prefixLength, bytes.length - prefixLength));
+            locks.add(descriptors.contains(descriptor) ? lock : new SharedLock(lock));
         }
 
         return OrderedLocks.fromOrderedList(locks);
     }
 
+    /**
+     * Returns the locks for each of the given requests, as {@link #getAll(Set, Set)} would for each request on its
+     * own. All descriptors of all requests are sorted and looked up together, once per distinct descriptor.
+     */
+    public <T> List<OrderedLocks> getAll(
+            List<T> requests,
+            Function<? super T, Set<LockDescriptor>> descriptors,
+            Function<? super T, Set<LockDescriptor>> sharedDescriptors) {
+        SetMultimap<LockDescriptor, Integer> requestIndicesByDescriptor = HashMultimap.create();
+        List<List<AsyncLock>> locksByRequest = Lists.newArrayListWithExpectedSize(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            T request = requests.get(i);
+            for (LockDescriptor descriptor : Sets.union(descriptors.apply(request), sharedDescriptors.apply(request))) {
+                requestIndicesByDescriptor.put(descriptor, i);
+            }
+            locksByRequest.add(new ArrayList<>());
+        }
+
+        LockDescriptorTable table = null;
+        for (LockDescriptor descriptor : sort(requestIndicesByDescriptor.keySet())) {
+            byte[] bytes = descriptor.getBytes();
+            int prefixLength = Bytes.indexOf(bytes, (byte) 0) + 1;
+            if (table == null || !table.hasPrefix(bytes, prefixLength)) {
+                table = getTable(ByteSlice.of(bytes, 0, prefixLength));
+            }
+            ExclusiveLock lock = table.getLock(ByteSlice.of(bytes, prefixLength, bytes.length - prefixLength));
+            for (int i : requestIndicesByDescriptor.get(descriptor)) {
+                boolean exclusive = descriptors.apply(requests.get(i)).contains(descriptor);
+                locksByRequest.get(i).add(exclusive ? lock : new SharedLock(lock));
+            }
+        }
+
+        return locksByRequest.stream()
+                .map(OrderedLocks::fromOrderedList)
+                .collect(Collectors.toList());
+    }
+
     private static List<LockDescriptor> sort(Set<LockDescriptor> descriptors) {
         List<LockDescriptor> orderedDescriptors = Lists.newArrayList(descriptors);
         orderedDescriptors.sort(Comparator.naturalOrder());
         return orderedDescriptors;
     }
 
-    private AsyncLock getLock(LockDescriptor descriptor) {
-        return locksById.get(descriptor);
+    private LockDescriptorTable getTable(ByteSlice prefix) {
+        LockDescriptorTable existing = tablesByPrefix.getIfPresent(prefix);
+        if (existing != null) {
+            return existing;
+        }
+        return tablesByPrefix.get(prefix.compact(), LockDescriptorTable::new);
     }
 
 }
@@ -0,0 +1,57 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.lock;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.palantir.lock.ByteArrayLockDescriptor;
+import com.palantir.lock.LockDescriptor;
+
+/**
+ * The locks for all lock descriptors sharing a table prefix, keyed only by the remainder of their descriptor. Locks
+ * retain their table and their suffix instead of their full descriptor, so the prefix is stored once per table.
+ */
+final class LockDescriptorTable {
+    private final ByteSlice prefix;
+    private final Cache<ByteSlice, ExclusiveLock> locksBySuffix = Caffeine.newBuilder()
+            .weakValues()
+            .build();
+
+    LockDescriptorTable(ByteSlice prefix) {
+        this.prefix = prefix;
+    }
+
+    boolean hasPrefix(byte[] descriptor, int prefixLength) {
+        return prefix.contentEquals(descriptor, 0, prefixLength);
+    }
+
+    ExclusiveLock getLock(ByteSlice suffix) {
+        ExclusiveLock existing = locksBySuffix.getIfPresent(suffix);
+        if (existing != null) {
+            return existing;
+        }
+        return locksBySuffix.get(
+                suffix.compact(),
+                retainedSuffix -> new ExclusiveLock(() -> descriptor(retainedSuffix)));
+    }
+
+    private LockDescriptor descriptor(ByteSlice suffix) {
+        byte[] bytes = new byte[prefix.length() + suffix.length()];
+        prefix.copyTo(bytes, 0);
+        suffix.copyTo(bytes, prefix.length());
+        return ByteArrayLockDescriptor.of(bytes);
+    }
+}
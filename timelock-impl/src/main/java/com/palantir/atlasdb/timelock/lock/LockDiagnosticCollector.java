@@ -85,6 +85,11 @@ public class LockDiagnosticCollector implements LockEvents {
         updateCacheWithNextLockInfo(requestId, LockState.RELEASED);
     }
 
+    @Override
+    public void expiredLocksReaped(int numRemoved, long durationNanos) {
+        // do nothing
+    }
+
     LockDiagnosticInfo getAndLogCurrentState(Set<UUID> requestIds) {
         Map<UUID, Optional<LockInfo>> cacheSnapshot = ImmutableMap.copyOf(cache.asMap());
         Map<UUID, Optional<LockInfo>> viewForRequestIds = Maps.toMap(requestIds,
@@ -113,6 +113,10 @@ public class LockLog {
         events.explicitlyUnlocked(requestId);
     }
 
+    void expiredLocksReaped(int numRemoved, long durationNanos) {
+        events.expiredLocksReaped(numRemoved, durationNanos);
+    }
+
     /**
      * TODO(fdesouza): Remove this once PDS-95791 is resolved.
      * @deprecated Remove this once PDS-95791 is resolved.
@@ -23,6 +23,7 @@ import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
@@ -39,6 +40,8 @@ public class LoggingLockEvents implements LockEvents {
     private final Meter successfulSlowAcquisitionMeter;
     private final Meter timedOutSlowAcquisitionMeter;
     private final Meter lockExpiredMeter;
+    private final Timer reaperTickTimer;
+    private final Histogram reaperRemovedPerTick;
     private final Supplier<Long> thresholdMillis;
 
     LoggingLockEvents(MetricRegistry metrics, Supplier<Long> thresholdMillis) {
@@ -46,6 +49,8 @@ public class LoggingLockEvents implements LockEvents {
         this.successfulSlowAcquisitionMeter = metrics.meter("lock.successful-slow-acquisition");
         this.timedOutSlowAcquisitionMeter = metrics.meter("lock.timeout-slow-acquisition");
         this.lockExpiredMeter = metrics.meter("lock.expired");
+        this.reaperTickTimer = metrics.timer("lock.reaper.tick-duration");
+        this.reaperRemovedPerTick = metrics.histogram("lock.reaper.expired-per-tick");
         this.thresholdMillis = thresholdMillis;
     }
 
@@ -97,6 +102,12 @@ public class LoggingLockEvents implements LockEvents {
         // do nothing
     }
 
+    @Override
+    public void expiredLocksReaped(int numRemoved, long durationNanos) {
+        reaperTickTimer.update(durationNanos, TimeUnit.NANOSECONDS);
+        reaperRemovedPerTick.update(numRemoved);
+    }
+
     private boolean isSlowAcquisition(long acquisitionTimeMillis) {
         return acquisitionTimeMillis != 0 && acquisitionTimeMillis >= thresholdMillis.get();
     }
@@ -0,0 +1,65 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.lock;
+
+import java.util.UUID;
+
+import com.palantir.lock.LockDescriptor;
+
+/**
+ * A view of an {@link ExclusiveLock} that acquires it in shared mode, so that it can be held by several requests at
+ * once, as long as no request holds it exclusively.
+ */
+final class SharedLock implements AsyncLock {
+    private final ExclusiveLock lock;
+
+    SharedLock(ExclusiveLock lock) {
+        this.lock = lock;
+    }
+
+    @Override
+    public AsyncResult<Void> lock(UUID requestId) {
+        return lock.lockShared(requestId);
+    }
+
+    @Override
+    public AsyncResult<Void> waitUntilAvailable(UUID requestId) {
+        return lock.waitUntilAvailableForShared(requestId);
+    }
+
+    @Override
+    public void unlock(UUID requestId) {
+        lock.unlock(requestId);
+    }
+
+    /**
+     * Unlocks on behalf of the given request, running the given action before the lock can be granted to anyone else
+     * if no other request holds it any more.
+     */
+    void unlock(UUID requestId, Runnable ifNoLongerHeld) {
+        lock.unlockShared(requestId, ifNoLongerHeld);
+    }
+
+    @Override
+    public void timeout(UUID requestId) {
+        lock.timeout(requestId);
+    }
+
+    @Override
+    public LockDescriptor getDescriptor() {
+        return lock.getDescriptor();
+    }
+}
@@ -27,15 +27,18 @@ import java.util.concurrent.ExecutorService;
 import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.palantir.atlasdb.autobatch.Autobatchers;
+import com.palantir.atlasdb.autobatch.CoalescingRequestFunction;
 import com.palantir.atlasdb.autobatch.DisruptorAutobatcher;
 import com.palantir.logsafe.Preconditions;
 import com.palantir.paxos.BooleanPaxosResponse;
 import com.palantir.paxos.Client;
 import com.palantir.paxos.PaxosAcceptorNetworkClient;
+import com.palantir.paxos.PaxosLatestRoundVerifier;
 import com.palantir.paxos.PaxosLong;
 import com.palantir.paxos.PaxosPromise;
 import com.palantir.paxos.PaxosProposal;
 import com.palantir.paxos.PaxosProposalId;
+import com.palantir.paxos.PaxosQuorumStatus;
 import com.palantir.paxos.PaxosResponses;
 
 public class AutobatchingPaxosAcceptorNetworkClientFactory implements Closeable {
@@ -43,14 +46,17 @@ public class AutobatchingPaxosAcceptorNetworkClientFactory implements Closeable
     private final DisruptorAutobatcher<Map.Entry<Client, WithSeq<PaxosProposalId>>, PaxosResponses<PaxosPromise>> prepare;
     private final DisruptorAutobatcher<Map.Entry<Client, PaxosProposal>, PaxosResponses<BooleanPaxosResponse>> accept;
     private final DisruptorAutobatcher<Client, PaxosResponses<PaxosLong>> latestSequence;
+    private final DisruptorAutobatcher<WithSeq<Client>, PaxosQuorumStatus> latestRound;
 
     private AutobatchingPaxosAcceptorNetworkClientFactory(
             DisruptorAutobatcher<Map.Entry<Client, WithSeq<PaxosProposalId>>, PaxosResponses<PaxosPromise>> prepare,
             DisruptorAutobatcher<Map.Entry<Client, PaxosProposal>, PaxosResponses<BooleanPaxosResponse>> accept,
-            DisruptorAutobatcher<Client, PaxosResponses<PaxosLong>> latestSequence) {
+            DisruptorAutobatcher<Client, PaxosResponses<PaxosLong>> latestSequence,
+            DisruptorAutobatcher<WithSeq<Client>, PaxosQuorumStatus> latestRound) {
         this.prepare = prepare;
         this.accept = accept;
         this.latestSequence = latestSequence;
+        this.latestRound = latestRound;
     }
 
     public static AutobatchingPaxosAcceptorNetworkClientFactory create(
@@ -70,23 +76,44 @@ public class AutobatchingPaxosAcceptorNetworkClientFactory implements Closeable
                         .safeLoggablePurpose("batch-paxos-acceptor.accept")
                         .build();
 
+        // the latest sequence caches are shared between both autobatchers below, so that leadership verification
+        // benefits from the cache digests received while serving plain latest sequence requests and vice versa
+        CoalescingRequestFunction<Client, PaxosResponses<PaxosLong>> latestSequences =
+                wrap(acceptors, executors, quorumSize, BatchingPaxosLatestSequenceCache::new);
+
         DisruptorAutobatcher<Client, PaxosResponses<PaxosLong>> latestSequenceAutobatcher =
-                Autobatchers.coalescing(wrap(acceptors, executors, quorumSize, BatchingPaxosLatestSequenceCache::new))
+                Autobatchers.coalescing(latestSequences)
                         .safeLoggablePurpose("batch-paxos-acceptor.latest-sequence-cache")
                         .build();
 
-        return new AutobatchingPaxosAcceptorNetworkClientFactory(prepare, accept, latestSequenceAutobatcher);
+        DisruptorAutobatcher<WithSeq<Client>, PaxosQuorumStatus> latestRoundAutobatcher =
+                Autobatchers.coalescing(new LatestRoundVerifierCoalescingFunction(latestSequences))
+                        .safeLoggablePurpose("batch-paxos-acceptor.latest-round-verifier")
+                        .build();
+
+        return new AutobatchingPaxosAcceptorNetworkClientFactory(
+                prepare, accept, latestSequenceAutobatcher, latestRoundAutobatcher);
     }
 
     public PaxosAcceptorNetworkClient paxosAcceptorForClient(Client client) {
         return new AutobatchingPaxosAcceptorNetworkClient(client);
     }
 
+    /**
+     * Returns a {@link PaxosLatestRoundVerifier} for the given client whose checks are batched together with the
+     * checks of all other clients served by this factory, such that each remote acceptor receives a single request
+     * per batch regardless of the number of clients being verified.
+     */
+    public PaxosLatestRoundVerifier latestRoundVerifierForClient(Client client) {
+        return new AutobatchingPaxosLatestRoundVerifier(client);
+    }
+
     @Override
     public void close() {
         prepare.close();
         accept.close();
         latestSequence.close();
+        latestRound.close();
     }
 
     private final class AutobatchingPaxosAcceptorNetworkClient implements PaxosAcceptorNetworkClient {
@@ -131,4 +158,27 @@ public class AutobatchingPaxosAcceptorNetworkClientFactory implements Closeable
         }
     }
 
+    private final class AutobatchingPaxosLatestRoundVerifier implements PaxosLatestRoundVerifier {
+
+        private final Client client;
+
+        private AutobatchingPaxosLatestRoundVerifier(Client client) {
+            this.client = client;
+        }
+
+        @Override
+        public PaxosQuorumStatus isLatestRound(long round) {
+            try {
+                return isLatestRoundAsync(round).get();
+            } catch (ExecutionException | InterruptedException e) {
+                throw AutobatcherExecutionExceptions.handleAutobatcherExceptions(e);
+            }
+        }
+
+        @Override
+        public ListenableFuture<PaxosQuorumStatus> isLatestRoundAsync(long round) {
+            return latestRound.apply(WithSeq.of(client, round));
+        }
+    }
+
 }
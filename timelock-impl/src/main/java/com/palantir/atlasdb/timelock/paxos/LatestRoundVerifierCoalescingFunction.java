@@ -0,0 +1,66 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.paxos;
+
+import static java.util.stream.Collectors.toSet;
+
+import java.util.Map;
+import java.util.Set;
+
+import com.palantir.atlasdb.autobatch.CoalescingRequestFunction;
+import com.palantir.common.streams.KeyedStream;
+import com.palantir.paxos.BooleanPaxosResponse;
+import com.palantir.paxos.Client;
+import com.palantir.paxos.PaxosLong;
+import com.palantir.paxos.PaxosQuorumStatus;
+import com.palantir.paxos.PaxosResponses;
+
+/**
+ * Verifies whether rounds are still the latest round for many clients at once. The latest sequences for all distinct
+ * clients in the batch are fetched with a single call to the (quorum checking) delegate, which issues one batched
+ * request per acceptor, and the quorum status of each requested round is then computed from the combined responses.
+ */
+final class LatestRoundVerifierCoalescingFunction
+        implements CoalescingRequestFunction<WithSeq<Client>, PaxosQuorumStatus> {
+
+    private final CoalescingRequestFunction<Client, PaxosResponses<PaxosLong>> latestSequences;
+
+    LatestRoundVerifierCoalescingFunction(
+            CoalescingRequestFunction<Client, PaxosResponses<PaxosLong>> latestSequences) {
+        this.latestSequences = latestSequences;
+    }
+
+    @Override
+    public Map<WithSeq<Client>, PaxosQuorumStatus> apply(Set<WithSeq<Client>> request) {
+        Set<Client> clients = request.stream()
+                .map(WithSeq::value)
+                .collect(toSet());
+
+        Map<Client, PaxosResponses<PaxosLong>> latestSequencesByClient = latestSequences.apply(clients);
+
+        return KeyedStream.of(request)
+                .map(clientWithSeq -> isLatestRound(clientWithSeq, latestSequencesByClient.get(clientWithSeq.value())))
+                .collectToMap();
+    }
+
+    private static PaxosQuorumStatus isLatestRound(
+            WithSeq<Client> clientWithSeq,
+            PaxosResponses<PaxosLong> latestSequencesFromAcceptors) {
+        return latestSequencesFromAcceptors
+                .map(latestSequence -> new BooleanPaxosResponse(clientWithSeq.seq() >= latestSequence.getValue()))
+                .getQuorumResult();
+    }
+}
@@ -124,6 +124,14 @@ public class LocalPaxosComponents {
         return getOrCreateComponents(client).pingableLeader();
     }
 
+    /**
+     * Drops the components of the given client. They are created again from their persisted state if the client is
+     * used afterwards, so this only needs to be called once the client is no longer expected to be used.
+     */
+    public void release(Client client) {
+        componentsByClient.remove(client);
+    }
+
     public BatchPaxosAcceptor batchAcceptor() {
         return memoizedBatchAcceptor.get();
     }
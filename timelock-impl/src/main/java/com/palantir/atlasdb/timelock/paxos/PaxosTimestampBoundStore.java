@@ -186,9 +186,12 @@ public class PaxosTimestampBoundStore implements TimestampBoundStore {
     }
 
     /**
-     * Gets the timestamp bound learned for a given sequence number by polling all learners. Note that it suffices
-     * to receive the value from a single learner, because Paxos guarantees that learners will not learn
-     * different values for a given sequence number.
+     * Gets the timestamp bound learned for a given sequence number, from the local learner if it has learned it and
+     * otherwise by polling all learners. Note that it suffices to receive the value from a single learner, because
+     * Paxos guarantees that learners will not learn different values for a given sequence number.
+     *
+     * While following, the local learner learns each bound agreed by the leader, so a node that gains leadership
+     * usually already knows the latest bound and does not need to ask the other nodes for it.
      *
      * @param seq The sequence number to poll the learners for
      * @return Sequence ID and bound for the specified sequence number, or an empty Optional if we cannot connect
@@ -199,6 +202,11 @@ public class PaxosTimestampBoundStore implements TimestampBoundStore {
             return Optional.of(ImmutableSequenceAndBound.of(PaxosAcceptor.NO_LOG_ENTRY, 0L));
         }
 
+        Optional<PaxosValue> locallyLearnedValue = knowledge.getLearnedValue(seq);
+        if (locallyLearnedValue.isPresent()) {
+            return Optional.of(ImmutableSequenceAndBound.of(seq, PtBytes.toLong(locallyLearnedValue.get().getData())));
+        }
+
         PaxosResponses<PaxosContainer<Optional<PaxosLong>>> responses =
                 learnerClient.getLearnedValue(seq, maybeValue -> PaxosContainer.of(maybeValue
                         .map(PaxosValue::getData)
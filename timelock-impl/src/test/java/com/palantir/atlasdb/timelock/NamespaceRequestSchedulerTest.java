@@ -0,0 +1,221 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.lock.impl.TooManyRequestsException;
+import com.palantir.tritium.metrics.registry.DefaultTaggedMetricRegistry;
+import com.palantir.tritium.metrics.registry.TaggedMetricRegistry;
+
+public class NamespaceRequestSchedulerTest {
+    private static final String NAMESPACE_A = "a";
+    private static final String NAMESPACE_B = "b";
+
+    private final AtomicReference<NamespaceRequestSchedulingConfig> config = new AtomicReference<>(
+            ImmutableNamespaceRequestSchedulingConfig.builder()
+                    .enabled(true)
+                    .totalConcurrentRequests(4)
+                    .build());
+    private final TaggedMetricRegistry taggedMetrics = new DefaultTaggedMetricRegistry();
+    private final NamespaceRequestScheduler scheduler = new NamespaceRequestScheduler(
+            new MetricsManager(new MetricRegistry(), taggedMetrics, unused -> false),
+            config::get);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void after() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void synchronousRequestsReleaseTheirPermitOnReturn() {
+        Supplier<String> service = wrap(NAMESPACE_A, () -> "result");
+
+        assertThat(service.get()).isEqualTo("result");
+        assertThat(scheduler.getInFlight(NAMESPACE_A)).isZero();
+    }
+
+    @Test
+    public void asynchronousRequestsReleaseTheirPermitOnceDispatched() {
+        SettableFuture<String> future = SettableFuture.create();
+        Supplier<ListenableFuture<String>> service = wrap(NAMESPACE_A, () -> future);
+
+        assertThat(service.get()).isSameAs(future);
+        assertThat(scheduler.getInFlight(NAMESPACE_A)).isZero();
+    }
+
+    @Test
+    public void rejectsRequestsBeyondMaximumConcurrentRequestsOfNamespace() {
+        setLimits(NAMESPACE_A, ImmutableNamespaceRequestLimits.builder().maxConcurrentRequests(1).build());
+
+        scheduler.acquire(NAMESPACE_A, true);
+
+        assertThatThrownBy(() -> scheduler.acquire(NAMESPACE_A, true)).isInstanceOf(TooManyRequestsException.class);
+        assertThat(scheduler.acquire(NAMESPACE_B, true)).isNotNull();
+    }
+
+    @Test
+    public void doesNotLimitRequestsThatKeepLocksAlive() {
+        setLimits(NAMESPACE_A, ImmutableNamespaceRequestLimits.builder().maxConcurrentRequests(1).build());
+        LockLeases service = scheduler.wrap(LockLeases.class, NAMESPACE_A, () -> "refreshed");
+
+        scheduler.acquire(NAMESPACE_A, true);
+
+        assertThat(service.refreshLockLeases()).isEqualTo("refreshed");
+        assertThat(scheduler.getInFlight(NAMESPACE_A)).isEqualTo(1);
+    }
+
+    @Test
+    public void namespaceAboveItsShareIsRejectedWhenAtCapacityButOthersAreAdmitted() {
+        for (int i = 0; i < 4; i++) {
+            scheduler.acquire(NAMESPACE_A, true);
+        }
+
+        assertThatThrownBy(() -> scheduler.acquire(NAMESPACE_A, true)).isInstanceOf(TooManyRequestsException.class);
+        assertThat(scheduler.acquire(NAMESPACE_B, true)).isNotNull();
+    }
+
+    @Test
+    public void heavierNamespacesHaveALargerShare() {
+        setLimits(NAMESPACE_B, ImmutableNamespaceRequestLimits.builder().weight(3).build());
+        for (int i = 0; i < 4; i++) {
+            scheduler.acquire(NAMESPACE_A, true);
+        }
+
+        scheduler.acquire(NAMESPACE_B, true);
+        scheduler.acquire(NAMESPACE_B, true);
+        scheduler.acquire(NAMESPACE_B, true);
+        assertThatThrownBy(() -> scheduler.acquire(NAMESPACE_B, true)).isInstanceOf(TooManyRequestsException.class);
+        assertThatThrownBy(() -> scheduler.acquire(NAMESPACE_A, true)).isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    public void rateLimitsRequestsOfNamespace() {
+        setLimits(NAMESPACE_A, ImmutableNamespaceRequestLimits.builder().requestsPerSecond(0.001).build());
+        Supplier<String> service = wrap(NAMESPACE_A, () -> "result");
+
+        service.get();
+
+        assertThatThrownBy(service::get).isInstanceOf(TooManyRequestsException.class);
+    }
+
+    @Test
+    public void requestsRejectedByTheRateLimitDoNotKeepTheirAdmission() {
+        setLimits(NAMESPACE_A, ImmutableNamespaceRequestLimits.builder().requestsPerSecond(0.001).build());
+
+        scheduler.acquire(NAMESPACE_A, true);
+
+        assertThatThrownBy(() -> scheduler.acquire(NAMESPACE_A, true)).isInstanceOf(TooManyRequestsException.class);
+        assertThat(scheduler.getInFlight(NAMESPACE_A)).isEqualTo(1);
+    }
+
+    @Test
+    public void waitingRequestIsAdmittedWhenARequestOfItsNamespaceIsReleased() throws Exception {
+        config.set(ImmutableNamespaceRequestSchedulingConfig.builder().from(config.get()).maxQueueWaitMillis(10_000)
+                .putNamespaceLimits(NAMESPACE_A, ImmutableNamespaceRequestLimits.builder().maxConcurrentRequests(1)
+                        .build())
+                .build());
+        NamespaceRequestScheduler.Permit permit = scheduler.acquire(NAMESPACE_A, true);
+
+        CompletableFuture<NamespaceRequestScheduler.Permit> waiting =
+                CompletableFuture.supplyAsync(() -> scheduler.acquire(NAMESPACE_A, true), executor);
+        permit.release();
+
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(scheduler.getInFlight(NAMESPACE_A)).isEqualTo(1);
+    }
+
+    @Test
+    public void waitingRequestIsAdmittedWhenTheNodeIsNoLongerAtCapacity() throws Exception {
+        config.set(ImmutableNamespaceRequestSchedulingConfig.builder().from(config.get()).maxQueueWaitMillis(10_000)
+                .totalConcurrentRequests(2)
+                .build());
+        NamespaceRequestScheduler.Permit permit = scheduler.acquire(NAMESPACE_A, true);
+        scheduler.acquire(NAMESPACE_B, true);
+
+        CompletableFuture<NamespaceRequestScheduler.Permit> waiting =
+                CompletableFuture.supplyAsync(() -> scheduler.acquire(NAMESPACE_B, true), executor);
+        permit.release();
+
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(scheduler.getInFlight(NAMESPACE_B)).isEqualTo(2);
+    }
+
+    @Test
+    public void forgettingANamespaceRemovesItsMetrics() {
+        scheduler.acquire(NAMESPACE_A, true).release();
+        scheduler.acquire(NAMESPACE_B, true).release();
+
+        scheduler.forget(NAMESPACE_A);
+
+        assertThat(taggedMetrics.getMetrics().keySet().stream()
+                .map(name -> name.safeTags().get("namespace"))
+                .collect(Collectors.toSet()))
+                .containsExactly(NAMESPACE_B);
+    }
+
+    @Test
+    public void doesNotForgetNamespacesWithRequestsInFlight() {
+        scheduler.acquire(NAMESPACE_A, true);
+
+        scheduler.forget(NAMESPACE_A);
+
+        assertThat(scheduler.getInFlight(NAMESPACE_A)).isEqualTo(1);
+    }
+
+    @Test
+    public void doesNotLimitRequestsWhenDisabled() {
+        config.set(NamespaceRequestSchedulingConfig.disabled());
+
+        for (int i = 0; i < 10; i++) {
+            scheduler.acquire(NAMESPACE_A, true);
+        }
+        assertThat(scheduler.getInFlight(NAMESPACE_A)).isZero();
+    }
+
+    private void setLimits(String namespace, NamespaceRequestLimits limits) {
+        config.set(ImmutableNamespaceRequestSchedulingConfig.builder()
+                .from(config.get())
+                .putNamespaceLimits(namespace, limits)
+                .build());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Supplier<T> wrap(String namespace, Supplier<T> delegate) {
+        return scheduler.wrap(Supplier.class, namespace, delegate);
+    }
+
+    public interface LockLeases {
+        String refreshLockLeases();
+    }
+}
@@ -20,11 +20,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Function;
@@ -46,6 +49,7 @@ public class TimelockNamespacesTest {
     private static final String CLIENT_B = "b-client";
     
     private static final int DEFAULT_MAX_NUMBER_OF_CLIENTS = 5;
+    private static final long IDLE_EXPIRY_MILLIS = 1_000;
 
     private final TimeLockServices servicesA = mock(TimeLockServices.class);
     private final TimeLockServices servicesB = mock(TimeLockServices.class);
@@ -58,6 +62,7 @@ public class TimelockNamespacesTest {
             DefaultTaggedMetricRegistry.getDefault(),
             unused -> false);
     private TimelockNamespaces namespaces;
+    private long currentTimeMillis = 0;
 
     @Before
     public void before() {
@@ -148,6 +153,86 @@ public class TimelockNamespacesTest {
         assertMaxClientsIs(77);
     }
 
+    @Test
+    public void evictsAndLaterReloadsServicesIdleForLongerThanExpiry() throws IOException {
+        TimelockNamespaces evictingNamespaces = createEvictingNamespaces();
+        Closeable closer = idleServices(servicesA);
+
+        evictingNamespaces.get(CLIENT_A);
+        currentTimeMillis += IDLE_EXPIRY_MILLIS;
+        evictingNamespaces.evictIdleNamespaces();
+
+        verify(closer).close();
+        assertThat(evictingNamespaces.getNumberOfActiveClients()).isEqualTo(0);
+        assertThat(getCounterValue(TimelockNamespaces.EVICTED_CLIENTS)).isEqualTo(1);
+
+        assertThat(evictingNamespaces.get(CLIENT_A)).isEqualTo(servicesA);
+        verify(serviceFactory, times(2)).apply(CLIENT_A);
+        assertThat(getCounterValue(TimelockNamespaces.RELOADED_CLIENTS)).isEqualTo(1);
+    }
+
+    @Test
+    public void doesNotEvictRecentlyAccessedServices() {
+        TimelockNamespaces evictingNamespaces = createEvictingNamespaces();
+
+        evictingNamespaces.get(CLIENT_A);
+        currentTimeMillis += IDLE_EXPIRY_MILLIS - 1;
+        evictingNamespaces.get(CLIENT_A);
+        currentTimeMillis += IDLE_EXPIRY_MILLIS - 1;
+        evictingNamespaces.evictIdleNamespaces();
+
+        verify(servicesA, never()).getCloser();
+        assertThat(evictingNamespaces.get(CLIENT_A)).isEqualTo(servicesA);
+        verify(serviceFactory, times(1)).apply(CLIENT_A);
+    }
+
+    @Test
+    public void doesNotEvictServicesHoldingLocks() throws IOException {
+        TimelockNamespaces evictingNamespaces = createEvictingNamespaces();
+        Closeable closer = mock(Closeable.class);
+        when(servicesA.getActiveLocksCheck()).thenReturn(() -> true);
+        when(servicesA.getCloser()).thenReturn(closer);
+
+        evictingNamespaces.get(CLIENT_A);
+        currentTimeMillis += IDLE_EXPIRY_MILLIS;
+        evictingNamespaces.evictIdleNamespaces();
+
+        verify(closer, never()).close();
+        assertThat(evictingNamespaces.getNumberOfActiveClients()).isEqualTo(1);
+    }
+
+    @Test
+    public void doesNotEvictIfNoExpiryIsConfigured() {
+        namespaces.get(CLIENT_A);
+        namespaces.evictIdleNamespaces();
+
+        assertThat(namespaces.getNumberOfActiveClients()).isEqualTo(1);
+        verifyNoMoreInteractions(servicesA);
+    }
+
+    private TimelockNamespaces createEvictingNamespaces() {
+        return new TimelockNamespaces(
+                metricsManager,
+                serviceFactory,
+                maxNumberOfClientsSupplier,
+                () -> Optional.of(IDLE_EXPIRY_MILLIS),
+                () -> currentTimeMillis);
+    }
+
+    private static Closeable idleServices(TimeLockServices services) {
+        Closeable closer = mock(Closeable.class);
+        when(services.getActiveLocksCheck()).thenReturn(() -> false);
+        when(services.getCloser()).thenReturn(closer);
+        return closer;
+    }
+
+    private long getCounterValue(String counterName) {
+        return metricsManager.getRegistry()
+                .getCounters()
+                .get(TimelockNamespaces.class.getCanonicalName() + "." + counterName)
+                .getCount();
+    }
+
     private void createMaximumNumberOfClients() {
         for (int i = 0; i < DEFAULT_MAX_NUMBER_OF_CLIENTS; i++) {
             namespaces.get(uniqueClient());
@@ -0,0 +1,99 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import com.palantir.common.time.NanoTime;
+
+public class LeaseExpiryQueueTest {
+
+    private static final UUID REQUEST_1 = UUID.randomUUID();
+    private static final UUID REQUEST_2 = UUID.randomUUID();
+    private static final Duration RESOLUTION = Duration.ofMillis(100);
+
+    private final LeaseExpiryQueue queue = new LeaseExpiryQueue(time(0), RESOLUTION);
+
+    @Test
+    public void onlyPollsRequestsInDueBuckets() {
+        queue.schedule(REQUEST_1, time(1_000));
+        queue.schedule(REQUEST_2, time(5_000));
+
+        assertThat(queue.pollDue(time(500))).isEmpty();
+        assertThat(queue.pollDue(time(1_000))).containsExactly(REQUEST_1);
+        assertThat(queue.pollDue(time(1_000))).isEmpty();
+        assertThat(queue.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void pollsRequestsWhoseDeadlineIsWithinTheCurrentBucket() {
+        queue.schedule(REQUEST_1, time(1_050));
+
+        assertThat(queue.pollDue(time(1_001))).containsExactly(REQUEST_1);
+    }
+
+    @Test
+    public void reschedulingMovesRequestToNewBucket() {
+        queue.schedule(REQUEST_1, time(1_000));
+        queue.schedule(REQUEST_1, time(3_000));
+
+        assertThat(queue.pollDue(time(2_000))).isEmpty();
+        assertThat(queue.pollDue(time(3_000))).containsExactly(REQUEST_1);
+    }
+
+    @Test
+    public void reschedulingIntoTheSameBucketIsIdempotent() {
+        queue.schedule(REQUEST_1, time(1_010));
+        queue.schedule(REQUEST_1, time(1_020));
+
+        assertThat(queue.pollDue(time(1_100))).containsExactly(REQUEST_1);
+    }
+
+    @Test
+    public void removedRequestsAreNotPolled() {
+        queue.schedule(REQUEST_1, time(1_000));
+        queue.schedule(REQUEST_2, time(1_000));
+        queue.remove(REQUEST_1);
+
+        assertThat(queue.pollDue(time(1_000))).containsExactly(REQUEST_2);
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    public void requestsCanBeRescheduledAfterBeingPolled() {
+        queue.schedule(REQUEST_1, time(1_000));
+        assertThat(queue.pollDue(time(1_000))).containsExactly(REQUEST_1);
+
+        queue.schedule(REQUEST_1, time(1_000));
+        assertThat(queue.pollDue(time(1_000))).containsExactly(REQUEST_1);
+    }
+
+    @Test
+    public void handlesDeadlinesBeforeOrigin() {
+        queue.schedule(REQUEST_1, time(-1_000));
+
+        assertThat(queue.pollDue(time(0))).containsExactly(REQUEST_1);
+    }
+
+    private static NanoTime time(long millis) {
+        return NanoTime.createForTests(Duration.ofMillis(millis).toNanos());
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.paxos;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.palantir.atlasdb.autobatch.CoalescingRequestFunction;
+import com.palantir.paxos.Client;
+import com.palantir.paxos.PaxosLong;
+import com.palantir.paxos.PaxosQuorumStatus;
+import com.palantir.paxos.PaxosResponses;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LatestRoundVerifierCoalescingFunctionTests {
+
+    private static final int QUORUM_SIZE = 2;
+    private static final Client CLIENT_1 = Client.of("client-1");
+    private static final Client CLIENT_2 = Client.of("client-2");
+    private static final Client CLIENT_3 = Client.of("client-3");
+
+    @Mock
+    private CoalescingRequestFunction<Client, PaxosResponses<PaxosLong>> latestSequences;
+
+    @Test
+    public void fetchesLatestSequencesForAllClientsInSingleRequest() {
+        Set<WithSeq<Client>> request = ImmutableSet.of(
+                WithSeq.of(CLIENT_1, 10),
+                WithSeq.of(CLIENT_1, 11),
+                WithSeq.of(CLIENT_2, 5),
+                WithSeq.of(CLIENT_3, 7));
+
+        when(latestSequences.apply(ImmutableSet.of(CLIENT_1, CLIENT_2, CLIENT_3)))
+                .thenReturn(ImmutableMap.of(
+                        CLIENT_1, responses(11, 11, 10),
+                        CLIENT_2, responses(5, 6),
+                        CLIENT_3, responses(7)));
+
+        Map<WithSeq<Client>, PaxosQuorumStatus> results = new LatestRoundVerifierCoalescingFunction(latestSequences)
+                .apply(request);
+
+        assertThat(results).containsOnly(
+                entry(WithSeq.of(CLIENT_1, 10), PaxosQuorumStatus.SOME_DISAGREED),
+                entry(WithSeq.of(CLIENT_1, 11), PaxosQuorumStatus.QUORUM_AGREED),
+                entry(WithSeq.of(CLIENT_2, 5), PaxosQuorumStatus.SOME_DISAGREED),
+                entry(WithSeq.of(CLIENT_3, 7), PaxosQuorumStatus.NO_QUORUM));
+
+        verify(latestSequences).apply(ImmutableSet.of(CLIENT_1, CLIENT_2, CLIENT_3));
+        verifyNoMoreInteractions(latestSequences);
+    }
+
+    private static PaxosResponses<PaxosLong> responses(long... latestSequences) {
+        ImmutableList.Builder<PaxosLong> responses = ImmutableList.builder();
+        for (long latestSequence : latestSequences) {
+            responses.add(PaxosLong.of(latestSequence));
+        }
+        return PaxosResponses.of(QUORUM_SIZE, responses.build());
+    }
+}
@@ -85,6 +85,18 @@ public class LocalPaxosComponentsTest {
         assertThat(acceptor.getLatestSequencePreparedOrAccepted()).isEqualTo(PAXOS_ROUND_TWO);
     }
 
+    @Test
+    public void releasedClientIsRecreatedFromPersistedState() {
+        PaxosLearner learner = paxosComponents.learner(CLIENT);
+        learner.learn(PAXOS_ROUND_ONE, PAXOS_VALUE);
+
+        paxosComponents.release(CLIENT);
+
+        PaxosLearner recreatedLearner = paxosComponents.learner(CLIENT);
+        assertThat(recreatedLearner).isNotSameAs(learner);
+        assertThat(recreatedLearner.getGreatestLearnedValue()).map(PaxosValue::getRound).contains(PAXOS_ROUND_ONE);
+    }
+
     @Test
     public void addsClientsInSubdirectory() {
         paxosComponents.learner(CLIENT);
@@ -21,9 +21,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 
 import java.io.IOException;
 import java.nio.file.Paths;
@@ -281,6 +283,22 @@ public class PaxosTimestampBoundStoreTest {
         assertThat(additionalStore2.getUpperLimit()).isGreaterThanOrEqualTo(TIMESTAMP_3);
     }
 
+    @Test
+    public void readsBoundLearnedLocallyWithoutPollingOtherLearners() {
+        store.storeUpperLimit(TIMESTAMP_1);
+
+        PaxosLearnerNetworkClient learnerClient = mock(PaxosLearnerNetworkClient.class);
+        PaxosTimestampBoundStore newStore = new PaxosTimestampBoundStore(
+                createPaxosProposer(0),
+                learners.get(0),
+                acceptorClient,
+                learnerClient,
+                1000L);
+
+        assertThat(newStore.getUpperLimit()).isEqualTo(TIMESTAMP_1);
+        verifyZeroInteractions(learnerClient);
+    }
+
     @Test
     public void canGetAgreedInitialState() {
         PaxosTimestampBoundStore.SequenceAndBound sequenceAndBound = store.getAgreedState(0);
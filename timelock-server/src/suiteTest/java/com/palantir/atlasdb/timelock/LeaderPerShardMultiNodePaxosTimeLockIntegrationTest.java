@@ -0,0 +1,143 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.awaitility.Awaitility;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Multimaps;
+import com.google.common.collect.SetMultimap;
+import com.palantir.atlasdb.timelock.paxos.LeadershipShards;
+import com.palantir.atlasdb.timelock.suite.LeaderPerShardPaxosSuite;
+import com.palantir.atlasdb.timelock.util.ParameterInjector;
+import com.palantir.common.streams.KeyedStream;
+import com.palantir.conjure.java.api.errors.QosException;
+import com.palantir.paxos.Client;
+
+@RunWith(Parameterized.class)
+public class LeaderPerShardMultiNodePaxosTimeLockIntegrationTest {
+
+    @ClassRule
+    public static ParameterInjector<TestableTimelockCluster> injector =
+            ParameterInjector.withFallBackConfiguration(() -> LeaderPerShardPaxosSuite.LEADER_PER_SHARD_PAXOS);
+
+    private static final LeadershipShards SHARDS = new LeadershipShards(LeaderPerShardPaxosSuite.LEADER_SHARDS);
+
+    @Parameterized.Parameter
+    public TestableTimelockCluster cluster;
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Iterable<TestableTimelockCluster> params() {
+        return injector.getParameter();
+    }
+
+    @Test
+    public void shardsCanBeLedByDifferentNodes() {
+        // a node only tries to gain leadership of a shard once it has seen a namespace in that shard, so by only
+        // letting each node see namespaces of its own shard, each shard is led by a different node
+        Map<TestableTimelockServer, String> allocations = allocateNamespacesInDifferentShardsToAllNodes();
+
+        allocations.values().stream()
+                .map(cluster::client)
+                .map(NamespacedClients::throughWireMockProxy)
+                .forEach(NamespacedClients::getFreshTimestamp);
+
+        SetMultimap<TestableTimelockServer, String> namespacesByLeader =
+                ImmutableSetMultimap.copyOf(cluster.currentLeaders(allocations.values())).inverse();
+
+        assertThat(namespacesByLeader)
+                .isEqualTo(Multimaps.forMap(allocations));
+
+        cluster.servers().forEach(TestableTimelockServer::allowAllNamespaces);
+    }
+
+    @Test
+    public void nonLeadersRedirectToTheLeaderOfTheShard() {
+        Map<TestableTimelockServer, String> allocations = allocateNamespacesInDifferentShardsToAllNodes();
+        TestableTimelockServer leader = Iterables.get(allocations.keySet(), 0);
+        String namespace = allocations.get(leader);
+        cluster.client(namespace).throughWireMockProxy().getFreshTimestamp();
+
+        cluster.servers().forEach(TestableTimelockServer::allowAllNamespaces);
+
+        String namespaceInSameShard = randomNamespaceInShard(SHARDS.apply(Client.of(namespace)));
+        cluster.client(namespaceInSameShard).throughWireMockProxy().getFreshTimestamp();
+        assertThat(cluster.currentLeaderFor(namespaceInSameShard))
+                .as("namespaces in the same shard share a leader")
+                .isEqualTo(leader);
+
+        Set<TestableTimelockServer> nonLeaders = cluster.servers().stream()
+                .filter(server -> !server.equals(leader))
+                .collect(Collectors.toSet());
+        Awaitility.await()
+                .atMost(30, TimeUnit.SECONDS)
+                .pollInterval(500, TimeUnit.MILLISECONDS)
+                .untilAsserted(() -> nonLeaders.forEach(nonLeader ->
+                        assertThatThrownBy(() -> nonLeader.client(namespaceInSameShard).getFreshTimestamp())
+                                .as("non leaders should redirect to the leader of the shard")
+                                .hasRootCauseInstanceOf(QosException.RetryOther.class)
+                                .satisfies(error -> assertThat(redirectPort(error))
+                                        .isEqualTo(leader.serverHolder().getTimelockWiremockPort()))));
+    }
+
+    private Map<TestableTimelockServer, String> allocateNamespacesInDifferentShardsToAllNodes() {
+        Set<Client> usedShards = new HashSet<>();
+        Map<TestableTimelockServer, String> namespaceAllocations = KeyedStream.of(cluster.servers())
+                .map(unused -> Stream.generate(LeaderPerShardMultiNodePaxosTimeLockIntegrationTest::randomNamespace)
+                        .filter(namespace -> usedShards.add(SHARDS.apply(Client.of(namespace))))
+                        .findFirst()
+                        .get())
+                .collectToMap();
+
+        namespaceAllocations.forEach((server, namespace) -> server.rejectAllNamespacesOtherThan(
+                ImmutableSet.of(namespace)));
+
+        return namespaceAllocations;
+    }
+
+    private static String randomNamespaceInShard(Client shard) {
+        return Stream.generate(LeaderPerShardMultiNodePaxosTimeLockIntegrationTest::randomNamespace)
+                .filter(namespace -> SHARDS.apply(Client.of(namespace)).equals(shard))
+                .findFirst()
+                .get();
+    }
+
+    private static int redirectPort(Throwable error) {
+        return ((QosException.RetryOther) Throwables.getRootCause(error)).getRedirectTo().getPort();
+    }
+
+    private static String randomNamespace() {
+        return UUID.randomUUID().toString();
+    }
+}
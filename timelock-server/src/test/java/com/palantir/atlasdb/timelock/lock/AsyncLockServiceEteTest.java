@@ -20,6 +20,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -34,6 +35,7 @@ import org.junit.rules.TestRule;
 
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.Uninterruptibles;
 import com.palantir.atlasdb.timelock.lock.watch.LockWatchingService;
 import com.palantir.atlasdb.timelock.lock.watch.LockWatchingServiceImpl;
@@ -42,6 +44,8 @@ import com.palantir.flake.ShouldRetry;
 import com.palantir.leader.NotCurrentLeaderException;
 import com.palantir.lock.LockDescriptor;
 import com.palantir.lock.StringLockDescriptor;
+import com.palantir.lock.client.IdentifiedLockRequest;
+import com.palantir.lock.client.ImmutableIdentifiedLockRequest;
 import com.palantir.lock.v2.LockToken;
 
 public class AsyncLockServiceEteTest {
@@ -311,6 +315,37 @@ public class AsyncLockServiceEteTest {
         assertThat(executor.isShutdown()).isTrue();
     }
 
+    @Test
+    public void batchedRequestsAreAcquiredAndTimedOutIndependently() {
+        LockToken currentHolder = lockSynchronously(REQUEST_1, LOCK_A);
+
+        List<AsyncResult<Leased<LockToken>>> results = service.lock(ImmutableList.of(
+                identifiedRequest(REQUEST_2, SHORT_TIMEOUT, LOCK_A),
+                identifiedRequest(UUID.randomUUID(), TIMEOUT, LOCK_B)));
+        assertThat(results.get(0).isComplete()).isFalse();
+        assertThat(results.get(1).isCompletedSuccessfully()).isTrue();
+        assertLocked(LOCK_B);
+
+        waitForTimeout(SHORT_TIMEOUT);
+        assertThat(results.get(0).isTimedOut()).isTrue();
+        assertTrue(service.unlock(currentHolder));
+        assertTrue(service.unlock(results.get(1).get().value()));
+    }
+
+    @Test
+    public void waitingBatchedRequestCanBeJoinedByIndividualRequest() {
+        LockToken currentHolder = lockSynchronously(REQUEST_1, LOCK_A);
+
+        AsyncResult<Leased<LockToken>> batched = service.lock(
+                ImmutableList.of(identifiedRequest(REQUEST_2, TIMEOUT, LOCK_A))).get(0);
+        AsyncResult<Leased<LockToken>> individual = lock(REQUEST_2, LOCK_A);
+        assertThat(individual.isComplete()).isFalse();
+
+        service.unlock(currentHolder);
+        assertThat(batched.isCompletedSuccessfully()).isTrue();
+        assertThat(individual.get().value()).isEqualTo(batched.get().value());
+    }
+
     @Test
     public void clientSideLeasePeriodShouldBeLessThanServerSideLeasePeriod() {
         assertThat(LockLeaseContract.CLIENT_LEASE_TIMEOUT).isLessThan(LockLeaseContract.SERVER_LEASE_TIMEOUT);
@@ -332,6 +367,14 @@ public class AsyncLockServiceEteTest {
         return service.lock(requestId, descriptors(locks), TIMEOUT);
     }
 
+    private static IdentifiedLockRequest identifiedRequest(UUID requestId, TimeLimit timeout, String... locks) {
+        return ImmutableIdentifiedLockRequest.builder()
+                .requestId(requestId)
+                .lockDescriptors(descriptors(locks))
+                .acquireTimeoutMs(timeout.getTimeMillis())
+                .build();
+    }
+
     private AsyncResult<Void> waitForLocks(UUID requestId, String... locks) {
         return service.waitForLocks(requestId, descriptors(locks), TIMEOUT);
     }
@@ -20,6 +20,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.Assert.assertTrue;
 
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
@@ -222,6 +223,85 @@ public class ExclusiveLockTests {
         assertThat(request2.isCompletedSuccessfully()).isTrue();
     }
 
+    @Test
+    public void sharedLockCanBeHeldByMultipleRequests() {
+        lock.lockShared(REQUEST_1).get();
+        lock.lockShared(REQUEST_2).get();
+
+        assertThat(lock.getSharedHolders()).containsExactlyInAnyOrder(REQUEST_1, REQUEST_2);
+    }
+
+    @Test
+    public void sharedRequestWaitsForExclusiveHolder() {
+        lockSynchronously(REQUEST_1);
+        AsyncResult<Void> sharedRequest = lock.lockShared(REQUEST_2);
+
+        assertThat(sharedRequest.isComplete()).isFalse();
+        unlock(REQUEST_1);
+        assertThat(sharedRequest.isCompletedSuccessfully()).isTrue();
+    }
+
+    @Test
+    public void exclusiveRequestWaitsForAllSharedHolders() {
+        lock.lockShared(REQUEST_1).get();
+        lock.lockShared(REQUEST_2).get();
+        AsyncResult<Void> exclusiveRequest = lockAsync(REQUEST_3);
+
+        unlock(REQUEST_1);
+        assertThat(exclusiveRequest.isComplete()).isFalse();
+
+        unlock(REQUEST_2);
+        assertThat(exclusiveRequest.isCompletedSuccessfully()).isTrue();
+    }
+
+    @Test
+    public void queuedExclusiveRequestBlocksLaterSharedRequests() {
+        lock.lockShared(REQUEST_1).get();
+        AsyncResult<Void> exclusiveRequest = lockAsync(REQUEST_2);
+        AsyncResult<Void> sharedRequest = lock.lockShared(REQUEST_3);
+
+        assertThat(sharedRequest.isComplete()).isFalse();
+
+        unlock(REQUEST_1);
+        assertThat(exclusiveRequest.isCompletedSuccessfully()).isTrue();
+        assertThat(sharedRequest.isComplete()).isFalse();
+
+        unlock(REQUEST_2);
+        assertThat(sharedRequest.isCompletedSuccessfully()).isTrue();
+    }
+
+    @Test
+    public void timedOutExclusiveRequestUnblocksLaterSharedRequests() {
+        lock.lockShared(REQUEST_1).get();
+        lockAsync(REQUEST_2);
+        AsyncResult<Void> sharedRequest = lock.lockShared(REQUEST_3);
+
+        lock.timeout(REQUEST_2);
+
+        assertThat(sharedRequest.isCompletedSuccessfully()).isTrue();
+    }
+
+    @Test
+    public void waitUntilAvailableForSharedOnlyWaitsForExclusiveHolder() {
+        lock.lockShared(REQUEST_1).get();
+        lock.waitUntilAvailableForShared(REQUEST_2).get();
+
+        assertThat(lock.getSharedHolders()).containsExactly(REQUEST_1);
+    }
+
+    @Test
+    public void unlockSharedRunsActionOnlyWhenLastHolderReleases() {
+        AtomicInteger released = new AtomicInteger();
+        lock.lockShared(REQUEST_1).get();
+        lock.lockShared(REQUEST_2).get();
+
+        lock.unlockShared(REQUEST_1, released::incrementAndGet);
+        assertThat(released).hasValue(0);
+
+        lock.unlockShared(REQUEST_2, released::incrementAndGet);
+        assertThat(released).hasValue(1);
+    }
+
     private AsyncResult<Void> waitUntilAvailableAsync(UUID request) {
         return lock.waitUntilAvailable(request);
     }
@@ -17,11 +17,13 @@ package com.palantir.atlasdb.timelock.lock;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.time.Duration;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
@@ -45,6 +47,7 @@ public class HeldLocksCollectionTest {
 
     private static final UUID REQUEST_ID = UUID.randomUUID();
     private static final UUID REQUEST_ID_2 = UUID.randomUUID();
+    private static final UUID LEASE_GROUP = UUID.randomUUID();
     private static final LockDescriptor LOCK_DESCRIPTOR = StringLockDescriptor.of("foo");
 
     private AtomicLong atomicLong = new AtomicLong(1);
@@ -88,12 +91,58 @@ public class HeldLocksCollectionTest {
 
         assertThat(heldLocksCollection.heldLocksById.size()).isEqualTo(3);
 
-        heldLocksCollection.removeExpired();
+        // held locks are only examined once their lease deadline has passed
+        advance(LockLeaseContract.SERVER_LEASE_TIMEOUT.plus(Duration.ofNanos(1)));
+        assertThat(heldLocksCollection.removeExpired()).isEqualTo(2);
 
         assertThat(heldLocksCollection.heldLocksById.size()).isEqualTo(1);
         assertThat(heldLocksCollection.heldLocksById.keySet().iterator().next()).isEqualTo(nonExpiredRequest);
     }
 
+    @Test
+    public void doesNotExamineHeldLocksBeforeTheirLeaseDeadline() {
+        setTime(123);
+        HeldLocks heldLocks = mock(HeldLocks.class);
+        when(heldLocks.lastRefreshTime()).thenReturn(time.get());
+        AsyncResult<HeldLocks> result = new AsyncResult<>();
+        result.complete(heldLocks);
+        heldLocksCollection.getExistingOrAcquire(REQUEST_ID, () -> result);
+
+        advance(LockLeaseContract.CLIENT_LEASE_TIMEOUT);
+        heldLocksCollection.removeExpired();
+        verify(heldLocks, never()).unlockIfExpired();
+
+        advance(LockLeaseContract.SERVER_LEASE_TIMEOUT);
+        heldLocksCollection.removeExpired();
+        verify(heldLocks).unlockIfExpired();
+    }
+
+    @Test
+    public void refreshedLocksAreNotReapedAtTheirOriginalDeadline() {
+        setTime(123);
+        LockToken token = lockSync(REQUEST_ID);
+
+        advance(LockLeaseContract.CLIENT_LEASE_TIMEOUT);
+        heldLocksCollection.refresh(ImmutableSet.of(token));
+
+        advance(LockLeaseContract.SERVER_LEASE_TIMEOUT
+                .minus(LockLeaseContract.CLIENT_LEASE_TIMEOUT)
+                .plus(Duration.ofNanos(1)));
+        assertLocked(REQUEST_ID);
+
+        advance(LockLeaseContract.CLIENT_LEASE_TIMEOUT);
+        assertUnlocked(REQUEST_ID);
+    }
+
+    @Test
+    public void explicitlyUnlockedLocksAreNotExaminedByReaper() {
+        LockToken token = mockRefreshableRequest();
+        heldLocksCollection.unlock(ImmutableSet.of(token));
+
+        advance(LockLeaseContract.SERVER_LEASE_TIMEOUT.plus(Duration.ofNanos(1)));
+        assertThat(heldLocksCollection.removeExpired()).isZero();
+    }
+
     @Test
     public void removesTimedOutRequests() {
         mockTimedOutRequest();
@@ -247,6 +296,89 @@ public class HeldLocksCollectionTest {
         assertThat(refreshResult.lease().leaderTime().currentTime()).isLessThanOrEqualTo(time.get());
     }
 
+    @Test
+    public void refreshingLeaseGroupRefreshesAllOfItsMembers() {
+        setTime(123);
+        lockSync(REQUEST_ID, Optional.of(LEASE_GROUP));
+        lockSync(REQUEST_ID_2, Optional.of(LEASE_GROUP));
+
+        advance(LockLeaseContract.CLIENT_LEASE_TIMEOUT);
+        assertThat(heldLocksCollection.refreshLeaseGroups(ImmutableSet.of(LEASE_GROUP)).value())
+                .containsExactly(LEASE_GROUP);
+
+        advance(LockLeaseContract.SERVER_LEASE_TIMEOUT
+                .minus(LockLeaseContract.CLIENT_LEASE_TIMEOUT)
+                .plus(Duration.ofNanos(1)));
+        assertLocked(REQUEST_ID);
+        assertLocked(REQUEST_ID_2);
+
+        advance(LockLeaseContract.CLIENT_LEASE_TIMEOUT);
+        assertThat(heldLocksCollection.removeExpired()).isEqualTo(2);
+        assertThat(heldLocksCollection.heldLocksById).isEmpty();
+        assertThat(heldLocksCollection.leaseGroupsById).isEmpty();
+    }
+
+    @Test
+    public void expiredLeaseGroupsCannotBeRefreshed() {
+        lockSync(REQUEST_ID, Optional.of(LEASE_GROUP));
+
+        advance(LockLeaseContract.SERVER_LEASE_TIMEOUT.plus(Duration.ofNanos(1)));
+        assertUnlocked(REQUEST_ID);
+
+        assertThat(heldLocksCollection.refreshLeaseGroups(ImmutableSet.of(LEASE_GROUP)).value()).isEmpty();
+    }
+
+    @Test
+    public void requestCompletingAfterItsLeaseGroupExpiredDoesNotRecreateTheGroup() {
+        lockSync(REQUEST_ID, Optional.of(LEASE_GROUP));
+        AsyncResult<HeldLocks> pending = new AsyncResult<>();
+        AsyncResult<Leased<LockToken>> pendingResult =
+                heldLocksCollection.getExistingOrAcquire(REQUEST_ID_2, Optional.of(LEASE_GROUP), () -> pending);
+
+        advance(LockLeaseContract.SERVER_LEASE_TIMEOUT.plus(Duration.ofNanos(1)));
+        assertUnlocked(REQUEST_ID);
+
+        pending.complete(heldLocksForId(REQUEST_ID_2));
+        assertThat(heldLocksCollection.refreshLeaseGroups(ImmutableSet.of(LEASE_GROUP)).value()).isEmpty();
+        assertThat(heldLocksCollection.leaseGroupsById).isEmpty();
+
+        LockToken token = pendingResult.get().value();
+        assertThat(heldLocksCollection.refresh(ImmutableSet.of(token)).value()).containsExactly(token);
+        assertLocked(REQUEST_ID_2);
+    }
+
+    @Test
+    public void refreshingUnknownLeaseGroupRefreshesNothing() {
+        assertThat(heldLocksCollection.refreshLeaseGroups(ImmutableSet.of(LEASE_GROUP)).value()).isEmpty();
+    }
+
+    @Test
+    public void membersOfLeaseGroupCanBeUnlockedIndividually() {
+        LockToken token = lockSync(REQUEST_ID, Optional.of(LEASE_GROUP));
+        lockSync(REQUEST_ID_2, Optional.of(LEASE_GROUP));
+
+        assertThat(heldLocksCollection.unlock(ImmutableSet.of(token))).containsExactly(token);
+        assertThat(heldLocksCollection.heldLocksById.keySet()).containsExactly(REQUEST_ID_2);
+
+        advance(LockLeaseContract.SERVER_LEASE_TIMEOUT.plus(Duration.ofNanos(1)));
+        assertThat(heldLocksCollection.removeExpired()).isEqualTo(1);
+    }
+
+    @Test
+    public void refreshingMemberOfLeaseGroupRefreshesTheGroup() {
+        setTime(123);
+        LockToken token = lockSync(REQUEST_ID, Optional.of(LEASE_GROUP));
+        lockSync(REQUEST_ID_2, Optional.of(LEASE_GROUP));
+
+        advance(LockLeaseContract.CLIENT_LEASE_TIMEOUT);
+        heldLocksCollection.refresh(ImmutableSet.of(token));
+
+        advance(LockLeaseContract.SERVER_LEASE_TIMEOUT
+                .minus(LockLeaseContract.CLIENT_LEASE_TIMEOUT)
+                .plus(Duration.ofNanos(1)));
+        assertLocked(REQUEST_ID_2);
+    }
+
     @Test
     public void successfulUnlockRemovesHeldLocks() {
         LockToken token = mockRefreshableRequest();
@@ -257,9 +389,13 @@ public class HeldLocksCollectionTest {
     }
 
     private LockToken lockSync(UUID requestId) {
+        return lockSync(requestId, Optional.empty());
+    }
+
+    private LockToken lockSync(UUID requestId, Optional<UUID> leaseGroupId) {
         AsyncResult<HeldLocks> result = new AsyncResult<>();
         AsyncResult<Leased<LockToken>> acquireResult =
-                heldLocksCollection.getExistingOrAcquire(requestId, () -> result);
+                heldLocksCollection.getExistingOrAcquire(requestId, leaseGroupId, () -> result);
         result.complete(heldLocksForId(requestId));
         return acquireResult.get().value();
     }
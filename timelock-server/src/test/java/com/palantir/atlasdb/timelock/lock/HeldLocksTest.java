@@ -18,6 +18,7 @@ package com.palantir.atlasdb.timelock.lock;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -29,6 +30,7 @@ import org.junit.Test;
 
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.palantir.atlasdb.timelock.lock.watch.LockWatchingService;
 import com.palantir.lock.LockDescriptor;
 import com.palantir.lock.StringLockDescriptor;
@@ -38,6 +40,7 @@ public class HeldLocksTest {
     private static final UUID REQUEST_ID = UUID.randomUUID();
 
     private static final LockDescriptor LOCK_DESCRIPTOR = StringLockDescriptor.of("foo");
+    private static final LockDescriptor SHARED_LOCK_DESCRIPTOR = StringLockDescriptor.of("bar");
 
     private final ExclusiveLock lockA = spy(new ExclusiveLock(LOCK_DESCRIPTOR));
     private final ExclusiveLock lockB = spy(new ExclusiveLock(LOCK_DESCRIPTOR));
@@ -63,6 +66,26 @@ public class HeldLocksTest {
         verify(lockB).unlock(REQUEST_ID);
     }
 
+    @Test
+    public void registersUnlockOfSharedLockOnlyWhenLastHolderUnlocks() {
+        ExclusiveLock sharedLock = new ExclusiveLock(SHARED_LOCK_DESCRIPTOR);
+        UUID otherRequestId = UUID.randomUUID();
+        sharedLock.lockShared(REQUEST_ID);
+        sharedLock.lockShared(otherRequestId);
+        LockWatchingService lockWatchingService = mock(LockWatchingService.class);
+        HeldLocks first = new HeldLocks(new LockLog(new MetricRegistry(), () -> 2L),
+                ImmutableList.of(lockA, new SharedLock(sharedLock)), REQUEST_ID, timer, lockWatchingService);
+        HeldLocks second = new HeldLocks(new LockLog(new MetricRegistry(), () -> 2L),
+                ImmutableList.of(new SharedLock(sharedLock)), otherRequestId, timer, lockWatchingService);
+
+        first.unlockExplicitly();
+        verify(lockWatchingService).registerUnlock(ImmutableSet.of(LOCK_DESCRIPTOR));
+        verify(lockWatchingService, never()).registerUnlock(ImmutableSet.of(SHARED_LOCK_DESCRIPTOR));
+
+        second.unlockExplicitly();
+        verify(lockWatchingService).registerUnlock(ImmutableSet.of(SHARED_LOCK_DESCRIPTOR));
+    }
+
     @Test
     public void canRefreshBeforeUnlocking() {
         assertTrue(heldLocks.refresh());
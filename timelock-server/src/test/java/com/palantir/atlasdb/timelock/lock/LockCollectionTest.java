@@ -17,6 +17,7 @@ package com.palantir.atlasdb.timelock.lock;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
@@ -26,7 +27,9 @@ import java.util.stream.IntStream;
 
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.palantir.lock.ByteArrayLockDescriptor;
 import com.palantir.lock.LockDescriptor;
 import com.palantir.lock.StringLockDescriptor;
 
@@ -70,6 +73,63 @@ public class LockCollectionTest {
         assertThat(actualOrder).isEqualTo(expectedOrder);
     }
 
+    @Test
+    public void locksSharingTablePrefixAreDistinctAndRetainTheirDescriptors() {
+        List<LockDescriptor> orderedDescriptors = ImmutableList.of(
+                prefixed("other", "row"),
+                prefixed("table", "row1"),
+                prefixed("table", "row1\0col"),
+                prefixed("table", "row2"),
+                StringLockDescriptor.of("unprefixed"));
+
+        List<AsyncLock> locks = lockCollection.getAll(ImmutableSet.copyOf(orderedDescriptors)).get();
+
+        assertThat(ImmutableSet.copyOf(locks)).hasSize(orderedDescriptors.size());
+        assertThat(locks.stream().map(AsyncLock::getDescriptor).collect(Collectors.toList()))
+                .isEqualTo(orderedDescriptors);
+        assertThat(lockCollection.getAll(ImmutableSet.of(prefixed("table", "row2"))).get())
+                .containsExactly(locks.get(3));
+    }
+
+    @Test
+    public void sharedDescriptorsAreLockedInSharedModeUnlessAlsoExclusive() {
+        List<AsyncLock> locks = lockCollection.getAll(descriptors("a", "c"), descriptors("b", "c")).get();
+
+        assertThat(locks.stream().map(AsyncLock::getDescriptor).collect(Collectors.toList()))
+                .containsExactly(
+                        StringLockDescriptor.of("a"), StringLockDescriptor.of("b"), StringLockDescriptor.of("c"));
+        assertThat(locks.get(0)).isInstanceOf(ExclusiveLock.class);
+        assertThat(locks.get(1)).isInstanceOf(SharedLock.class);
+        assertThat(locks.get(2)).isInstanceOf(ExclusiveLock.class);
+    }
+
+    @Test
+    public void batchedLookupReturnsSameLocksAsIndividualLookups() {
+        List<List<Set<LockDescriptor>>> requests = ImmutableList.of(
+                ImmutableList.of(descriptors("a", "c"), descriptors("b", "c")),
+                ImmutableList.of(descriptors("c"), descriptors("a")),
+                ImmutableList.of(descriptors("d"), ImmutableSet.of()));
+
+        List<OrderedLocks> batched = lockCollection.getAll(
+                requests, request -> request.get(0), request -> request.get(1));
+
+        assertThat(batched).hasSize(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            List<AsyncLock> individual = lockCollection.getAll(requests.get(i).get(0), requests.get(i).get(1)).get();
+            List<AsyncLock> batchedLocks = batched.get(i).get();
+            assertThat(batchedLocks.stream().map(AsyncLock::getDescriptor).collect(Collectors.toList()))
+                    .isEqualTo(individual.stream().map(AsyncLock::getDescriptor).collect(Collectors.toList()));
+            for (int j = 0; j < individual.size(); j++) {
+                assertThat(batchedLocks.get(j)).isInstanceOf(individual.get(j).getClass());
+            }
+        }
+        assertThat(batched.get(0).get().get(2)).isSameAs(batched.get(1).get().get(1));
+    }
+
+    private static LockDescriptor prefixed(String table, String suffix) {
+        return ByteArrayLockDescriptor.of((table + "\0" + suffix).getBytes(StandardCharsets.UTF_8));
+    }
+
     private static Set<LockDescriptor> descriptors(String... names) {
         return Arrays.stream(names)
                 .map(StringLockDescriptor::of)
@@ -41,6 +41,8 @@ public interface TemplateVariables {
     Integer getLocalServerPort();
     TimestampPaxos getClientPaxos();
     PaxosLeaderMode getLeaderMode();
+    @Nullable
+    Integer getLeaderShards();
 
     @Value.Default
     default Integer getLocalProxyPort() {
@@ -36,6 +36,7 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.palantir.atlasdb.timelock.NamespacedClients.ProxyFactory;
 import com.palantir.atlasdb.timelock.api.management.TimeLockManagementService;
 import com.palantir.atlasdb.timelock.paxos.BatchPingableLeader;
+import com.palantir.atlasdb.timelock.paxos.LeadershipShards;
 import com.palantir.atlasdb.timelock.paxos.PaxosUseCase;
 import com.palantir.atlasdb.timelock.paxos.api.NamespaceLeadershipTakeoverService;
 import com.palantir.atlasdb.timelock.util.TestProxies;
@@ -123,6 +124,20 @@ public class TestableTimelockServer {
                             .map(Client::value)
                             .collect(Collectors.toSet());
                 };
+            case LEADER_PER_SHARD:
+                BatchPingableLeader shardPingableLeader =
+                        proxies.singleNode(serverHolder, BatchPingableLeader.class, false, ProxyMode.DIRECT);
+                LeadershipShards shards = new LeadershipShards(serverHolder.installConfig().paxos().leaderShards());
+                return namespaces -> {
+                    Map<String, Client> shardsByNamespace =
+                            Maps.toMap(namespaces, namespace -> shards.apply(Client.of(namespace)));
+                    Set<Client> ledShards = shardPingableLeader.ping(ImmutableSet.copyOf(shardsByNamespace.values()));
+
+                    return shardsByNamespace.entrySet().stream()
+                            .filter(entry -> ledShards.contains(entry.getValue()))
+                            .map(Map.Entry::getKey)
+                            .collect(Collectors.toSet());
+                };
             case AUTO_MIGRATION_MODE:
                 throw new UnsupportedOperationException("auto migration mode isn't supported just yet");
         }
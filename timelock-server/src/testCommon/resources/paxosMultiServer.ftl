@@ -5,6 +5,9 @@ install:
       data-directory: "${sqliteDataDirectory}"
     is-new-service: false
     leader-mode: ${leaderMode}
+<#if leaderShards??>
+    leader-shards: ${leaderShards?c}
+</#if>
   cluster:
     cluster:
       security:
@@ -83,7 +83,7 @@ public class PersistentTimestampServiceImpl implements PersistentTimestampServic
 
     private void tryInitialize() {
         long latestTimestamp = store.getUpperLimit();
-        PersistentUpperLimit upperLimit = new PersistentUpperLimit(store);
+        PersistentUpperLimit upperLimit = new PersistentUpperLimit(store, latestTimestamp);
         timestamp = new PersistentTimestamp(upperLimit, latestTimestamp);
     }
 
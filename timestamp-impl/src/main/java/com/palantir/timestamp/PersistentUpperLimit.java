@@ -30,8 +30,16 @@ public class PersistentUpperLimit {
     private final TimestampBoundStore store;
 
     public PersistentUpperLimit(TimestampBoundStore boundStore) {
+        this(boundStore, boundStore.getUpperLimit());
+    }
+
+    /**
+     * Creates an upper limit starting from a limit that was just read from the given store, avoiding reading it
+     * again.
+     */
+    public PersistentUpperLimit(TimestampBoundStore boundStore, long currentLimit) {
         this.store = boundStore;
-        this.currentLimit = boundStore.getUpperLimit();
+        this.currentLimit = currentLimit;
     }
 
     public long get() {
@@ -19,6 +19,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -72,6 +73,17 @@ public class PersistentTimestampServiceMockingTest {
         assertThat(timestampService.getFreshTimestamp(), is(TIMESTAMP));
     }
 
+    @Test
+    public void shouldReadTheUpperLimitOnlyOnceWhenCreated() {
+        TimestampBoundStore boundStore = mock(TimestampBoundStore.class);
+        when(boundStore.getUpperLimit()).thenReturn(INITIAL_TIMESTAMP);
+
+        PersistentTimestampService service = PersistentTimestampServiceImpl.create(boundStore, false);
+
+        assertThat(service.getUpperLimitTimestampToHandOutInclusive(), is(INITIAL_TIMESTAMP));
+        verify(boundStore, times(1)).getUpperLimit();
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void shouldRejectFastForwardToTheSentinelValue() {
         timestampService.fastForwardTimestamp(TimestampManagementService.SENTINEL_TIMESTAMP);